@@ -116,6 +116,19 @@ public interface PaxWebConfig {
 	 */
 	String PID_CFG_SERVER_THREAD_NAME_PREFIX = "org.ops4j.pax.web.server.threadNamePrefix";
 
+	/**
+	 * Whether requests should be processed using virtual threads (requires JDK 21+). When enabled and supported,
+	 * {@link #PID_CFG_SERVER_MAX_THREADS} and {@link #PID_CFG_SERVER_MIN_THREADS} no longer limit request concurrency.
+	 * Jetty: {@code org.eclipse.jetty.util.thread.QueuedThreadPool#setVirtualThreadsExecutor(java.util.concurrent.Executor)}
+	 */
+	String PID_CFG_SERVER_VIRTUAL_THREADS = "org.ops4j.pax.web.server.virtualThreads";
+
+	/**
+	 * Whether per-context and per-servlet request statistics (counts, latencies, status codes) should be recorded.
+	 * Defaults to {@code false}.
+	 */
+	String PID_CFG_REQUEST_METRICS = "org.ops4j.pax.web.server.requestMetrics";
+
 	/**
 	 * Jetty: adds {@code org.eclipse.jetty.server.ForwardedRequestCustomizer} to {@code HttpConfiguration}
 	 */
@@ -138,6 +151,30 @@ public interface PaxWebConfig {
 	 */
 	String PID_CFG_EVENT_DISPATCHER_THREAD_COUNT = "org.ops4j.pax.web.server.eventDispatcherThreadCount";
 
+	/**
+	 * Option to specify minimal interval (in milliseconds) between updates of {@code service.changecount} property
+	 * of {@link org.osgi.service.http.runtime.HttpServiceRuntime} registration. Defaults to {@code 0}, which means
+	 * single update after each batch of queued registration tasks.
+	 */
+	String PID_CFG_CHANGE_COUNT_INTERVAL = "org.ops4j.pax.web.server.changeCountInterval";
+
+	/**
+	 * Option to specify time window (in milliseconds) for <em>group commit</em> of asynchronous (e.g., Whiteboard)
+	 * registrations. Registrations queued within the window are processed together and each affected context is
+	 * restarted at most once. Group commit is disabled by default ({@code -1}) - each registration is processed
+	 * separately. {@code 0} enables grouping of already queued registrations and positive value additionally
+	 * waits given time for more registrations.
+	 */
+	String PID_CFG_GROUP_COMMIT_WINDOW = "org.ops4j.pax.web.server.groupCommitWindow";
+
+	/**
+	 * Option to specify how long (in milliseconds) requests arriving at a context being restarted (e.g., because
+	 * a {@link javax.servlet.ServletContextListener} or a {@link javax.servlet.ServletContainerInitializer} was
+	 * registered) are held until the restarted context is ready, instead of being rejected with {@code 404}.
+	 * Defaults to {@code 0}, which disables holding the requests.
+	 */
+	String PID_CFG_CONTEXT_RESTART_HOLD_TIMEOUT = "org.ops4j.pax.web.server.contextRestartHoldTimeout";
+
 	/**
 	 * {@link org.osgi.framework.BundleContext} property to configure thread count for WAR
 	 * extender. Before Pax Web 8 it was hardcoded to 3 (which is still the default value).
@@ -161,6 +198,20 @@ public interface PaxWebConfig {
 	 */
 	String BUNDLE_CONTEXT_PROPERTY_WAR_EXTENDER_JARS_TO_SCAN = "org.ops4j.pax.web.extender.war.jarsToScan";
 
+	/**
+	 * {@link org.osgi.framework.BundleContext} property to configure the parallelism of bytecode scanning of WABs
+	 * (one task per directory/JAR/bundle being scanned). Defaults to number of available processors. Values lower
+	 * than {@code 2} mean that classes are scanned in the thread deploying the WAB.
+	 */
+	String BUNDLE_CONTEXT_PROPERTY_WAR_EXTENDER_SCAN_THREADS = "org.ops4j.pax.web.extender.war.scanThreads";
+
+	/**
+	 * {@link org.osgi.framework.BundleContext} property to enable (default) or disable persistent index of scanned
+	 * classes, stored in the data area of pax-web-extender-war bundle. With the index, unchanged WABs don't have
+	 * to be scanned again after restart.
+	 */
+	String BUNDLE_CONTEXT_PROPERTY_WAR_EXTENDER_SCAN_INDEX = "org.ops4j.pax.web.extender.war.scanIndex";
+
 	/**
 	 * <p>Defines the type of TCCL that should be set for service methods (like {@link javax.servlet.Servlet#service}).
 	 * It can take two values:<ul>
@@ -305,15 +356,14 @@ public interface PaxWebConfig {
 	String PID_CFG_LOG_NCSA_LOGDIR = "org.ops4j.pax.web.log.ncsa.directory";
 
 	/**
-	 * Jetty: defaults to "yyyy_mm_dd.request.log", should contain {@code yyyy_mm_dd}.
-	 * Tomcat: it should NOT contain {@code yyyy_mm_dd}, so please specify your own name.
-	 * Undertow: will be appended with "log" or "yyyy-MM-dd.log"
+	 * Name of the request log file, defaults to "yyyy_mm_dd.request.log". If it contains {@code yyyy_mm_dd}, it's
+	 * replaced by current date (formatted using {@link #PID_CFG_LOG_NCSA_LOGFILE_DATE_FORMAT}) and new file is
+	 * created every day. Otherwise the file is renamed by appending {@code .<date>} when the day changes.
 	 */
 	String PID_CFG_LOG_NCSA_LOGFILE = "org.ops4j.pax.web.log.ncsa.file";
 
 	/**
-	 * Date format to use when current file is renamed during rollover
-	 * Jetty: org.eclipse.jetty.util.RolloverFileOutputStream._fileDateFormat = ROLLOVER_FILE_DATE_FORMAT
+	 * Date format to use in the names of request log files, defaults to {@code yyyy-MM-dd}.
 	 */
 	String PID_CFG_LOG_NCSA_LOGFILE_DATE_FORMAT = "org.ops4j.pax.web.log.ncsa.file.date.format";
 
@@ -324,22 +374,24 @@ public interface PaxWebConfig {
 
 	/**
 	 * Number of days to retain request files
-	 * Jetty: org.eclipse.jetty.server.RequestLogWriter._retainDays
 	 */
 	String PID_CFG_LOG_NCSA_RETAINDAYS = "org.ops4j.pax.web.log.ncsa.retaindays";
 
 	/**
-	 * Jetty whether to use CustomRequestLog#EXTENDED_NCSA_FORMAT or CustomRequestLog#NCSA_FORMAT
+	 * Whether to use extended (combined) NCSA format, which includes {@code Referer} and {@code User-Agent} headers
 	 */
 	String PID_CFG_LOG_NCSA_EXTENDED = "org.ops4j.pax.web.log.ncsa.extended";
 
 	/**
-	 * Timezone to use in logs
-	 * Jetty: org.eclipse.jetty.server.RequestLogWriter#_timeZone
+	 * Timezone to use in logs and in the names of log files, defaults to {@code GMT}
 	 */
 	String PID_CFG_LOG_NCSA_LOGTIMEZONE = "org.ops4j.pax.web.log.ncsa.logtimezone";
 
-	/** Whether NCSA log file access should be buffered. Defaults to {@code true}. */
+	/**
+	 * Whether NCSA log file access should be buffered. Defaults to {@code true}. Buffered log is written at least
+	 * every second, not buffered log is written as soon as the entries are formatted. In both cases the request
+	 * threads don't wait for the writes.
+	 */
 	String PID_CFG_LOG_NCSA_BUFFERED = "org.ops4j.pax.web.log.ncsa.buffered";
 
 	// --- default/resource servlet configuration - common properties for "default" servlets of all the containers
@@ -414,6 +466,28 @@ public interface PaxWebConfig {
 	 */
 	String PID_CFG_DEFAULT_SERVLET_CACHE_TTL = "org.ops4j.pax.web.resource.cache.ttl";
 
+	/**
+	 * <p>Boolean property to enable single static content cache shared by resource servlets of all the contexts
+	 * (defaults to {@code false}). When enabled, {@link #PID_CFG_DEFAULT_SERVLET_CACHE_MAX_ENTRIES},
+	 * {@link #PID_CFG_DEFAULT_SERVLET_CACHE_MAX_ENTRY_SIZE}, {@link #PID_CFG_DEFAULT_SERVLET_CACHE_MAX_TOTAL_SIZE}
+	 * and {@link #PID_CFG_DEFAULT_SERVLET_CACHE_TTL} are limits of this shared cache and resources are served
+	 * the same way in all runtimes - with strong ETags and compressed variants.</p>
+	 */
+	String PID_CFG_DEFAULT_SERVLET_CACHE_SHARED = "org.ops4j.pax.web.resource.cache.shared";
+
+	/**
+	 * Boolean property to specify whether the content in shared static content cache should be kept in direct
+	 * (off-heap) buffers (defaults to {@code false}).
+	 */
+	String PID_CFG_DEFAULT_SERVLET_CACHE_DIRECT = "org.ops4j.pax.web.resource.cache.direct";
+
+	/**
+	 * Boolean property to specify whether shared static content cache should produce gzip variants of
+	 * compressible resources for clients accepting them (defaults to {@code true}). Pre-compressed variants
+	 * ({@code .br} and {@code .gz} files next to the original resources) are always used.
+	 */
+	String PID_CFG_DEFAULT_SERVLET_COMPRESSION = "org.ops4j.pax.web.resource.compression";
+
 	/** Boolean property to configure the container to show or hide stack traces in <em>error handler</em>. */
 	String PID_CFG_SHOW_STACKS = "org.ops4j.pax.web.server.showStacks";
 
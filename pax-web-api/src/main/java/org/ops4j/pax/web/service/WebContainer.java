@@ -184,6 +184,30 @@ public interface WebContainer extends HttpService {
 	 */
 	MultiBundleWebContainerContext createDefaultSharedHttpContext(String contextId);
 
+	// --- bulk operations
+
+	/**
+	 * <p>
+	 * Performs many registrations (and/or unregistrations) as single group. Pax Web runs all the operations
+	 * one after another in its configuration thread and the affected contexts are (re)started at most once -
+	 * after all the operations are performed. This is much faster than calling registration methods one by one
+	 * when registering many web elements into already started context.
+	 * </p>
+	 *
+	 * <p>
+	 * The operations should use passed {@link WebContainer} and should not block waiting for other threads.
+	 * Exception thrown by any operation stops the processing of remaining operations, but the operations
+	 * already performed are not reverted.
+	 * </p>
+	 *
+	 * @param operations the operations to perform using passed {@link WebContainer}
+	 * @throws ServletException
+	 * @throws NamespaceException
+	 */
+	default void bulk(BulkOperations operations) throws ServletException, NamespaceException {
+		operations.perform(this);
+	}
+
 	// --- methods used to register a Servlet - with more options than in
 	// original HttpService.registerServlet()
 
@@ -944,4 +968,20 @@ public interface WebContainer extends HttpService {
 	 */
 	void unregisterConstraintMapping(HttpContext httpContext);
 
+	/**
+	 * Operations performed in {@link WebContainer#bulk(BulkOperations)}.
+	 */
+	@FunctionalInterface
+	interface BulkOperations {
+
+		/**
+		 * Performs the registrations/unregistrations using passed {@link WebContainer}.
+		 *
+		 * @param container
+		 * @throws ServletException
+		 * @throws NamespaceException
+		 */
+		void perform(WebContainer container) throws ServletException, NamespaceException;
+	}
+
 }
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.benchmarks;
+
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ServletRequestEvent;
+import javax.servlet.ServletRequestListener;
+import javax.servlet.http.HttpFilter;
+import javax.servlet.http.HttpServlet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ops4j.pax.web.service.PaxWebConfig;
+import org.ops4j.pax.web.service.internal.ConfigurationBuilder;
+import org.ops4j.pax.web.service.internal.HttpServiceEnabled;
+import org.ops4j.pax.web.service.internal.MetaTypePropertyResolver;
+import org.ops4j.pax.web.service.internal.StoppableHttpService;
+import org.ops4j.pax.web.service.jetty.internal.JettyServerControllerFactory;
+import org.ops4j.pax.web.service.spi.ServerController;
+import org.ops4j.pax.web.service.spi.config.Configuration;
+import org.ops4j.pax.web.service.spi.context.DefaultHttpContext;
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.ServerModel;
+import org.ops4j.pax.web.service.spi.model.elements.ElementModel;
+import org.ops4j.pax.web.service.spi.model.elements.ErrorPageModel;
+import org.ops4j.pax.web.service.spi.model.elements.EventListenerModel;
+import org.ops4j.pax.web.service.spi.model.elements.FilterModel;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+import org.ops4j.pax.web.service.spi.task.BatchTrace;
+import org.ops4j.pax.web.service.spi.util.Utils;
+import org.ops4j.pax.web.service.spi.whiteboard.WhiteboardWebContainerView;
+import org.ops4j.pax.web.service.tomcat.internal.TomcatServerControllerFactory;
+import org.ops4j.pax.web.service.undertow.internal.UndertowServerControllerFactory;
+import org.ops4j.util.property.DictionaryPropertyResolver;
+import org.osgi.framework.Bundle;
+import org.xnio.nio.NioXnioProvider;
+
+/**
+ * <p>Measures the wall time of registering N web elements of single type into each of M started contexts
+ * through {@link HttpServiceEnabled} (the path taken by Whiteboard and WAB registrations:
+ * {@link ServerModel} - {@code Batch} - {@code BatchVisitor} - server wrapper) with real Jetty, Tomcat or
+ * Undertow runtime.</p>
+ *
+ * <p>{@link BatchTrace} is enabled during the benchmark and printed at the end of each trial, showing time spent
+ * and context (re)starts per {@code Change} type, {@code OpCode} and visitor. Allocations can be measured using
+ * {@code -prof gc} JMH option.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HttpServiceRegistrationBenchmark {
+
+	@Param({ "jetty", "tomcat", "undertow" })
+	private String runtime;
+
+	@Param({ "servlet", "filter", "listener", "errorPage" })
+	private String element;
+
+	/** Number of contexts */
+	@Param({ "1", "10" })
+	private int contexts;
+
+	/** Number of elements registered in each context (at most 200 error pages - one per 4xx/5xx code) */
+	@Param({ "100" })
+	private int elements;
+
+	private ServerController controller;
+	private HttpServiceEnabled container;
+	private WhiteboardWebContainerView view;
+	private Bundle bundle;
+	private final List<OsgiContextModel> contextModels = new ArrayList<>();
+
+	private long serviceId;
+
+	@Setup(Level.Trial)
+	public void enableTrace() {
+		BatchTrace.reset();
+		BatchTrace.setEnabled(true);
+	}
+
+	@TearDown(Level.Trial)
+	public void printTrace() {
+		BatchTrace.setEnabled(false);
+		System.out.println();
+		System.out.println("Batch trace (visitor/change/operation: count, total, average, context starts):");
+		for (BatchTrace.Entry e : BatchTrace.getEntries()) {
+			System.out.printf("  %s/%s/%s: %d, %d ms, %d us, %d%n", e.getVisitor(), e.getChange(), e.getKind(),
+					e.getCount(), TimeUnit.NANOSECONDS.toMillis(e.getTotalNanos()),
+					TimeUnit.NANOSECONDS.toMicros(e.getAverageNanos()), e.getContextStarts());
+		}
+	}
+
+	/**
+	 * Starts the server with M contexts, each with single servlet, so the contexts are started before
+	 * the measurement.
+	 */
+	@Setup(Level.Iteration)
+	public void start() throws Exception {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+
+		Hashtable<Object, Object> properties = new Hashtable<>();
+		properties.put(PaxWebConfig.PID_CFG_HTTP_PORT, Integer.toString(port));
+		properties.put(PaxWebConfig.PID_CFG_TEMP_DIR, System.getProperty("java.io.tmpdir"));
+		DictionaryPropertyResolver resolver = new DictionaryPropertyResolver(properties, new MetaTypePropertyResolver());
+		Configuration config = ConfigurationBuilder.getConfiguration(resolver, Utils.toMap(properties));
+
+		ClassLoader classLoader = getClass().getClassLoader();
+		switch (runtime) {
+			case "jetty":
+				controller = new JettyServerControllerFactory(null, classLoader).createServerController(config);
+				break;
+			case "tomcat":
+				controller = new TomcatServerControllerFactory(null, classLoader).createServerController(config);
+				break;
+			case "undertow":
+				controller = new UndertowServerControllerFactory(null, classLoader, new NioXnioProvider())
+						.createServerController(config);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown runtime: " + runtime);
+		}
+		controller.configure();
+		controller.start();
+
+		bundle = Stubs.bundle(classLoader);
+		container = new HttpServiceEnabled(bundle, controller, new ServerModel(Runnable::run), null, config);
+		view = container.adapt(WhiteboardWebContainerView.class);
+
+		contextModels.clear();
+		for (int c = 0; c < contexts; c++) {
+			OsgiContextModel context = new OsgiContextModel(new DefaultHttpContext(bundle, "c" + c), bundle,
+					"/c" + c, true);
+			context.setName("c" + c);
+			contextModels.add(context);
+			view.addWhiteboardOsgiContextModel(context);
+			view.registerServlet(configure(new ServletModel.Builder()
+					.withServletName("initial")
+					.withUrlPatterns(new String[] { "/initial" })
+					.withServlet(new HttpServlet() { })
+					.build(), context));
+		}
+	}
+
+	@TearDown(Level.Iteration)
+	public void stop() throws Exception {
+		((StoppableHttpService) container).stop();
+		controller.stop();
+	}
+
+	@Benchmark
+	public void register() {
+		for (OsgiContextModel context : contextModels) {
+			for (int i = 0; i < elements; i++) {
+				switch (element) {
+					case "servlet":
+						view.registerServlet(configure(new ServletModel.Builder()
+								.withServletName("s" + i)
+								.withUrlPatterns(new String[] { "/s" + i + "/*" })
+								.withServlet(new HttpServlet() { })
+								.build(), context));
+						break;
+					case "filter":
+						view.registerFilter(configure(new FilterModel.Builder()
+								.withFilterName("f" + i)
+								.withUrlPatterns(new String[] { "/f" + i + "/*" })
+								.withFilter(new HttpFilter() { })
+								.build(), context));
+						break;
+					case "listener":
+						view.registerListener(configure(new EventListenerModel(new ServletRequestListener() {
+							@Override
+							public void requestInitialized(ServletRequestEvent sre) {
+							}
+						}), context));
+						break;
+					case "errorPage":
+						view.registerErrorPages(configure(new ErrorPageModel(
+								new String[] { Integer.toString(400 + i) }, "/error"), context));
+						break;
+					default:
+						throw new IllegalArgumentException("Unknown element: " + element);
+				}
+			}
+		}
+	}
+
+	private <T extends ElementModel<?, ?>> T configure(T model, OsgiContextModel context) {
+		model.addContextModel(context);
+		model.setRegisteringBundle(bundle);
+		model.setServiceId(++serviceId);
+		return model;
+	}
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.benchmarks;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal HTTP/1.1 client sending {@code GET} requests over single persistent connection, so the benchmarks
+ * measure request dispatch and not connection handling (or overhead of full-featured client). The session cookie
+ * returned by the server is remembered and sent with subsequent requests.
+ */
+public class KeepAliveClient implements AutoCloseable {
+
+	private final String host;
+	private final int port;
+
+	private Socket socket;
+	private InputStream in;
+	private OutputStream out;
+
+	private String cookie;
+
+	private final byte[] buffer = new byte[8192];
+	private final StringBuilder line = new StringBuilder();
+
+	public KeepAliveClient(String host, int port) {
+		this.host = host;
+		this.port = port;
+	}
+
+	/**
+	 * Sends {@code GET} request and reads entire response.
+	 *
+	 * @param path
+	 * @return number of bytes of the response body
+	 * @throws IOException if the response status is not {@code 200}
+	 */
+	public int get(String path) throws IOException {
+		if (socket == null) {
+			connect();
+		}
+		StringBuilder request = new StringBuilder(128);
+		request.append("GET ").append(path).append(" HTTP/1.1\r\nHost: ").append(host).append(':').append(port)
+				.append("\r\n");
+		if (cookie != null) {
+			request.append("Cookie: ").append(cookie).append("\r\n");
+		}
+		request.append("\r\n");
+		out.write(request.toString().getBytes(StandardCharsets.ISO_8859_1));
+		out.flush();
+
+		String status = readLine();
+		long contentLength = -1L;
+		boolean chunked = false;
+		boolean close = false;
+		String header;
+		while (!(header = readLine()).isEmpty()) {
+			int colon = header.indexOf(':');
+			if (colon < 0) {
+				continue;
+			}
+			String name = header.substring(0, colon).trim();
+			String value = header.substring(colon + 1).trim();
+			if ("Content-Length".equalsIgnoreCase(name)) {
+				contentLength = Long.parseLong(value);
+			} else if ("Transfer-Encoding".equalsIgnoreCase(name)) {
+				chunked = "chunked".equalsIgnoreCase(value);
+			} else if ("Connection".equalsIgnoreCase(name)) {
+				close = "close".equalsIgnoreCase(value);
+			} else if ("Set-Cookie".equalsIgnoreCase(name)) {
+				int semicolon = value.indexOf(';');
+				cookie = semicolon < 0 ? value : value.substring(0, semicolon);
+			}
+		}
+
+		int length = 0;
+		if (chunked) {
+			long chunk;
+			while ((chunk = Long.parseLong(readLine().trim(), 16)) > 0L) {
+				length += skip(chunk);
+				readLine();
+			}
+			// no trailers expected
+			readLine();
+		} else if (contentLength >= 0L) {
+			length = skip(contentLength);
+		}
+
+		if (close) {
+			close();
+		}
+		if (!status.startsWith("HTTP/1.1 200")) {
+			throw new IOException("Unexpected response for " + path + ": " + status);
+		}
+		return length;
+	}
+
+	/**
+	 * Forgets the session cookie.
+	 */
+	public void resetCookie() {
+		cookie = null;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (socket != null) {
+			socket.close();
+			socket = null;
+		}
+	}
+
+	private void connect() throws IOException {
+		socket = new Socket();
+		socket.setTcpNoDelay(true);
+		socket.connect(new InetSocketAddress(host, port));
+		in = new BufferedInputStream(socket.getInputStream(), buffer.length);
+		out = socket.getOutputStream();
+	}
+
+	private String readLine() throws IOException {
+		line.setLength(0);
+		int c;
+		while ((c = in.read()) != '\n') {
+			if (c < 0) {
+				throw new IOException("Connection closed");
+			}
+			if (c != '\r') {
+				line.append((char) c);
+			}
+		}
+		return line.toString();
+	}
+
+	private int skip(long count) throws IOException {
+		long remaining = count;
+		while (remaining > 0L) {
+			int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+			if (read < 0) {
+				throw new IOException("Connection closed");
+			}
+			remaining -= read;
+		}
+		return (int) count;
+	}
+
+}
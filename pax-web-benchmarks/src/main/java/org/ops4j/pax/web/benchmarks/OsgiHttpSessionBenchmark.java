@@ -0,0 +1,119 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpSession;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ops4j.pax.web.service.spi.servlet.OsgiHttpServletRequestWrapper;
+import org.ops4j.pax.web.service.spi.servlet.OsgiHttpSession;
+
+/**
+ * Compares {@link OsgiHttpServletRequestWrapper#getSession()} with the previous implementation, which created
+ * new {@link OsgiHttpSession} (within {@code synchronized} block) on every call. Frameworks like JSF or
+ * Spring Security call {@code getSession()} many times during single request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OsgiHttpSessionBenchmark {
+
+	/** Number of {@code getSession()} calls within single request */
+	@Param({ "1", "20" })
+	private int calls;
+
+	private ServletContext context;
+	private HttpServletRequest containerRequest;
+
+	@Setup
+	public void setup() {
+		context = Stubs.servletContext("/c1");
+		containerRequest = Stubs.request(Stubs.session("s1"), "/c1/s");
+	}
+
+	@Benchmark
+	public void cachedSessionWrapper(Blackhole bh) {
+		HttpServletRequest request = new OsgiHttpServletRequestWrapper(containerRequest, context, null);
+		for (int i = 0; i < calls; i++) {
+			bh.consume(request.getSession());
+		}
+	}
+
+	@Benchmark
+	public void sessionWrapperPerCall(Blackhole bh) {
+		HttpServletRequest request = new LegacyRequestWrapper(containerRequest, context);
+		for (int i = 0; i < calls; i++) {
+			bh.consume(request.getSession());
+		}
+	}
+
+	/**
+	 * Copy of {@code getSession()} implementation before the wrapper was cached.
+	 */
+	private static class LegacyRequestWrapper extends HttpServletRequestWrapper {
+
+		private final ServletContext context;
+		private volatile OsgiHttpSession session;
+
+		LegacyRequestWrapper(HttpServletRequest request, ServletContext context) {
+			super(request);
+			this.context = context;
+		}
+
+		@Override
+		public HttpSession getSession() {
+			return getSession(true);
+		}
+
+		@Override
+		public HttpSession getSession(boolean create) {
+			if (session != null) {
+				session = null;
+			}
+			if (session == null) {
+				synchronized (this) {
+					if (session == null) {
+						HttpSession original = super.getSession(create);
+						if (original == null) {
+							return null;
+						}
+						this.session = new OsgiHttpSession(original, null, context, null);
+					}
+				}
+			}
+			return session;
+		}
+	}
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.benchmarks;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ops4j.pax.web.service.spi.servlet.OsgiServletContextClassLoader;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.wiring.BundleWiring;
+
+/**
+ * Class and resource lookups through {@link OsgiServletContextClassLoader} backed by 10 bundles. The {@code hit}
+ * lookups find a class/resource in the last bundle and the {@code miss} lookups (typical EL/JSF/CDI probes) don't
+ * find anything. {@code uncached*} methods use a {@link ClassLoader} that searches all the bundles on each lookup,
+ * as {@link OsgiServletContextClassLoader} did without resolution cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OsgiServletContextClassLoaderBenchmark {
+
+	private static final int BUNDLES = 10;
+
+	@Param({ "hit", "miss" })
+	private String lookup;
+
+	private OsgiServletContextClassLoader loader;
+	private UncachedClassLoader uncachedLoader;
+
+	private String className;
+	private String resourceName;
+
+	@Setup
+	public void setup() throws MalformedURLException {
+		loader = new OsgiServletContextClassLoader();
+		for (int i = 0; i < BUNDLES; i++) {
+			loader.addBundle(Stubs.bundle(new StubBundleClassLoader("com.example.b" + i)));
+		}
+		loader.makeImmutable();
+		uncachedLoader = new UncachedClassLoader(loader.getBundles());
+
+		boolean hit = "hit".equals(lookup);
+		String pkg = "com.example.b" + (hit ? BUNDLES - 1 : BUNDLES);
+		className = pkg + ".Bean";
+		resourceName = pkg.replace('.', '/') + "/messages.properties";
+	}
+
+	@Benchmark
+	public Object cachedLoadClass() {
+		try {
+			return loader.loadClass(className);
+		} catch (ClassNotFoundException e) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public Object uncachedLoadClass() {
+		try {
+			return uncachedLoader.loadClass(className);
+		} catch (ClassNotFoundException e) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public Object cachedGetResource() {
+		return loader.getResource(resourceName);
+	}
+
+	@Benchmark
+	public Object uncachedGetResource() {
+		return uncachedLoader.getResource(resourceName);
+	}
+
+	/**
+	 * Class/resource lookup of {@link OsgiServletContextClassLoader} without resolution cache.
+	 */
+	private static final class UncachedClassLoader extends ClassLoader {
+
+		private final List<Bundle> bundles;
+
+		UncachedClassLoader(List<Bundle> bundles) {
+			super(null);
+			this.bundles = bundles;
+		}
+
+		@Override
+		public Class<?> loadClass(String name) throws ClassNotFoundException {
+			List<Exception> suppressed = new ArrayList<>(bundles.size());
+			for (Bundle b : bundles) {
+				BundleWiring bw = b.adapt(BundleWiring.class);
+				ClassLoader cl = bw == null ? null : bw.getClassLoader();
+				if (cl != null) {
+					try {
+						return cl.loadClass(name);
+					} catch (Exception e) {
+						suppressed.add(e);
+					}
+				}
+			}
+			ClassNotFoundException cnfe = new ClassNotFoundException(name);
+			suppressed.forEach(cnfe::addSuppressed);
+			throw cnfe;
+		}
+
+		@Override
+		protected URL findResource(String name) {
+			for (Bundle b : bundles) {
+				BundleWiring bw = b.adapt(BundleWiring.class);
+				ClassLoader cl = bw == null ? null : bw.getClassLoader();
+				if (cl != null) {
+					URL res = cl.getResource(name);
+					if (res != null) {
+						return res;
+					}
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * {@link ClassLoader} of a bundle, which contains only classes and resources from single package.
+	 */
+	private static final class StubBundleClassLoader extends ClassLoader {
+
+		private final String pkg;
+		private final String resourcePrefix;
+		private final URL url;
+
+		StubBundleClassLoader(String pkg) throws MalformedURLException {
+			super(null);
+			this.pkg = pkg + ".";
+			this.resourcePrefix = pkg.replace('.', '/') + "/";
+			this.url = new URL("file:/" + resourcePrefix);
+		}
+
+		@Override
+		public Class<?> loadClass(String name) throws ClassNotFoundException {
+			if (name.startsWith(pkg)) {
+				return StubBundleClassLoader.class;
+			}
+			throw new ClassNotFoundException(name);
+		}
+
+		@Override
+		public URL getResource(String name) {
+			return name.startsWith(resourcePrefix) ? url : null;
+		}
+	}
+
+}
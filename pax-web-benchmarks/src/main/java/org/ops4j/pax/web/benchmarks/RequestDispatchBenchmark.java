@@ -0,0 +1,318 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpFilter;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ops4j.pax.web.service.PaxWebConfig;
+import org.ops4j.pax.web.service.internal.ConfigurationBuilder;
+import org.ops4j.pax.web.service.internal.MetaTypePropertyResolver;
+import org.ops4j.pax.web.service.jetty.internal.JettyServerControllerFactory;
+import org.ops4j.pax.web.service.spi.ServerController;
+import org.ops4j.pax.web.service.spi.ServerControllerFactory;
+import org.ops4j.pax.web.service.spi.config.Configuration;
+import org.ops4j.pax.web.service.spi.context.DefaultHttpContext;
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.ServletContextModel;
+import org.ops4j.pax.web.service.spi.model.elements.FilterModel;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+import org.ops4j.pax.web.service.spi.task.Batch;
+import org.ops4j.pax.web.service.spi.util.Utils;
+import org.ops4j.pax.web.service.tomcat.internal.TomcatServerControllerFactory;
+import org.ops4j.pax.web.service.undertow.internal.UndertowServerControllerFactory;
+import org.ops4j.util.property.DictionaryPropertyResolver;
+import org.osgi.framework.Bundle;
+import org.osgi.service.http.whiteboard.Preprocessor;
+import org.xnio.nio.NioXnioProvider;
+
+/**
+ * <p>Measures the latency of complete HTTP requests dispatched by embedded Jetty, Tomcat and Undertow started
+ * through their {@link ServerControllerFactory factories} (without OSGi), so the hot paths like
+ * {@code OsgiFilterChain}, {@code OsgiHttpServletRequestWrapper}, {@code PaxWebServletHandler},
+ * {@code PaxWebStandardWrapperValve} or {@code PaxWebPreprocessorsHandler} can be compared across the runtimes
+ * and across commits.</p>
+ *
+ * <p>Each trial starts a server with the elements of single scenario registered using a {@link Batch} (like
+ * {@code HttpService} does) and each benchmark thread uses its own persistent connection.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestDispatchBenchmark {
+
+	private static final byte[] BODY = "Hello from Pax Web".getBytes(StandardCharsets.UTF_8);
+
+	@Param({ "jetty", "tomcat", "undertow" })
+	private String runtime;
+
+	/**
+	 * <ul>
+	 *     <li>{@code servlet} - single servlet, no filters</li>
+	 *     <li>{@code filters} - servlet behind a chain of 10 filters</li>
+	 *     <li>{@code security} - servlet in a context with {@code handleSecurity()} and a preprocessor</li>
+	 *     <li>{@code resource} - static resource served by Pax Web resource servlet</li>
+	 *     <li>{@code session} - servlet reading and writing several session attributes</li>
+	 * </ul>
+	 */
+	@Param({ "servlet", "filters", "security", "resource", "session" })
+	private String scenario;
+
+	private ServerController controller;
+	private File resourceDir;
+
+	private int port;
+	private String path;
+
+	@Setup(Level.Trial)
+	public void start() throws Exception {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+
+		controller = createServerController();
+		controller.configure();
+		controller.start();
+
+		Bundle bundle = Stubs.bundle(getClass().getClassLoader());
+		Batch batch = new Batch("Benchmark scenario " + scenario);
+		ServletContextModel scm = new ServletContextModel("/");
+		batch.addServletContextModel(scm);
+
+		DefaultHttpContext httpContext = "security".equals(scenario) ? new SecuredHttpContext(bundle)
+				: new DefaultHttpContext(bundle);
+		OsgiContextModel context = new OsgiContextModel(httpContext, bundle, "/", false);
+		batch.addOsgiContextModel(context, scm);
+
+		TreeMap<FilterModel, List<OsgiContextModel>> filters = new TreeMap<>();
+		switch (scenario) {
+			case "servlet":
+				path = "/servlet";
+				batch.addServletModel(servlet(context, "/servlet", new BodyServlet()));
+				break;
+			case "filters":
+				path = "/filters";
+				batch.addServletModel(servlet(context, "/filters", new BodyServlet()));
+				for (int i = 0; i < 10; i++) {
+					filters.put(new FilterModel.Builder()
+							.withFilterName("f" + i)
+							.withUrlPatterns(new String[] { "/filters" })
+							.withFilter(new PassThroughFilter())
+							.withServiceRankAndId(0, i + 1)
+							.withOsgiContextModel(context)
+							.withRegisteringBundle(bundle)
+							.build(), null);
+				}
+				break;
+			case "security":
+				path = "/secure";
+				batch.addServletModel(servlet(context, "/secure", new BodyServlet()));
+				filters.put(new FilterModel.Builder()
+						.withFilterName("preprocessor")
+						.withUrlPatterns(new String[] { "/*" })
+						.withFilterSupplier(PassThroughPreprocessor::new)
+						.withServiceRankAndId(0, 1)
+						.withOsgiContextModel(context)
+						.withRegisteringBundle(bundle)
+						.isPreprocessor(true)
+						.build(), null);
+				break;
+			case "resource":
+				path = "/static/file.txt";
+				resourceDir = Files.createTempDirectory("pax-web-benchmark").toFile();
+				byte[] content = new byte[4096];
+				Arrays.fill(content, (byte) 'x');
+				Files.write(new File(resourceDir, "file.txt").toPath(), content);
+				URL base = resourceDir.toURI().toURL();
+				ServletModel resources = new ServletModel.Builder()
+						.withServletName("resources")
+						.withUrlPatterns(new String[] { "/static/*" })
+						.withServletSupplier(() -> controller.createResourceServlet(base, null))
+						.withOsgiContextModel(context)
+						.withRegisteringBundle(bundle)
+						.resourceServlet(true)
+						.build();
+				resources.setBaseFileUrl(base);
+				batch.addServletModel(resources);
+				break;
+			case "session":
+				path = "/session";
+				batch.addServletModel(servlet(context, "/session", new SessionServlet()));
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown scenario: " + scenario);
+		}
+
+		if (!filters.isEmpty()) {
+			batch.updateFilters(Collections.singletonMap("/", filters), false);
+		}
+
+		controller.sendBatch(batch);
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() throws Exception {
+		controller.stop();
+		if (resourceDir != null) {
+			new File(resourceDir, "file.txt").delete();
+			resourceDir.delete();
+		}
+	}
+
+	@Benchmark
+	public int request(Client client) throws IOException {
+		return client.get(this);
+	}
+
+	/**
+	 * Per-thread persistent connection.
+	 */
+	@State(Scope.Thread)
+	public static class Client {
+
+		private KeepAliveClient client;
+
+		@Setup(Level.Trial)
+		public void connect(RequestDispatchBenchmark benchmark) {
+			client = new KeepAliveClient("127.0.0.1", benchmark.port);
+		}
+
+		@TearDown(Level.Trial)
+		public void close() throws IOException {
+			client.close();
+		}
+
+		int get(RequestDispatchBenchmark benchmark) throws IOException {
+			return client.get(benchmark.path);
+		}
+	}
+
+	private ServerController createServerController() {
+		Hashtable<Object, Object> properties = new Hashtable<>();
+		properties.put(PaxWebConfig.PID_CFG_HTTP_PORT, Integer.toString(port));
+		properties.put(PaxWebConfig.PID_CFG_TEMP_DIR, System.getProperty("java.io.tmpdir"));
+
+		DictionaryPropertyResolver resolver = new DictionaryPropertyResolver(properties, new MetaTypePropertyResolver());
+		Configuration config = ConfigurationBuilder.getConfiguration(resolver, Utils.toMap(properties));
+
+		ClassLoader classLoader = getClass().getClassLoader();
+		switch (runtime) {
+			case "jetty":
+				return new JettyServerControllerFactory(null, classLoader).createServerController(config);
+			case "tomcat":
+				return new TomcatServerControllerFactory(null, classLoader).createServerController(config);
+			case "undertow":
+				return new UndertowServerControllerFactory(null, classLoader, new NioXnioProvider())
+						.createServerController(config);
+			default:
+				throw new IllegalArgumentException("Unknown runtime: " + runtime);
+		}
+	}
+
+	private static ServletModel servlet(OsgiContextModel context, String pattern, HttpServlet servlet) {
+		return new ServletModel.Builder()
+				.withServletName(pattern.substring(1))
+				.withUrlPatterns(new String[] { pattern })
+				.withServlet(servlet)
+				.withOsgiContextModel(context)
+				.withRegisteringBundle(context.getOwnerBundle())
+				.build();
+	}
+
+	private static class BodyServlet extends HttpServlet {
+		@Override
+		protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+			resp.setContentType("text/plain");
+			resp.setContentLength(BODY.length);
+			resp.getOutputStream().write(BODY);
+		}
+	}
+
+	/**
+	 * Servlet accessing the session the way typical web frameworks do - many {@code getSession()} calls and
+	 * several attributes read and written.
+	 */
+	private static class SessionServlet extends BodyServlet {
+		@Override
+		protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+			for (int i = 0; i < 10; i++) {
+				HttpSession session = req.getSession();
+				Integer counter = (Integer) session.getAttribute("counter" + i);
+				session.setAttribute("counter" + i, counter == null ? 1 : counter + 1);
+			}
+			super.doGet(req, resp);
+		}
+	}
+
+	private static class PassThroughFilter extends HttpFilter {
+		@Override
+		protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+				throws IOException, ServletException {
+			chain.doFilter(request, response);
+		}
+	}
+
+	private static class PassThroughPreprocessor extends PassThroughFilter implements Preprocessor {
+	}
+
+	private static class SecuredHttpContext extends DefaultHttpContext {
+
+		SecuredHttpContext(Bundle bundle) {
+			super(bundle, "secured");
+		}
+
+		@Override
+		public boolean handleSecurity(HttpServletRequest request, HttpServletResponse response) {
+			request.setAttribute("org.osgi.service.http.authentication.type", HttpServletRequest.BASIC_AUTH);
+			request.setAttribute("org.osgi.service.http.authentication.remote.user", "benchmark");
+			return true;
+		}
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServlet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.ServerModel;
+import org.ops4j.pax.web.service.spi.model.ServletContextModel;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+import org.ops4j.pax.web.service.spi.task.Batch;
+
+/**
+ * Measures the cost of single servlet registration/unregistration in {@link ServerModel} already holding
+ * large number of servlets in single context. Every 10th servlet is shadowed by lower ranked (disabled) servlet
+ * registered for the same URL pattern.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServerModelRegistrationBenchmark {
+
+	/** Number of servlets registered before the measurement */
+	@Param({ "100", "1000", "10000" })
+	private int servlets;
+
+	private ServerModel serverModel;
+	private OsgiContextModel context;
+
+	private long serviceId = 0L;
+
+	@Setup
+	public void setup() throws Exception {
+		serverModel = new ServerModel(Runnable::run);
+
+		Batch batch = new Batch("context");
+		ServletContextModel scm = serverModel.getOrCreateServletContextModel("/", batch);
+		context = new OsgiContextModel(null, null, "/", false);
+		batch.addOsgiContextModel(context, scm);
+		batch.accept(serverModel);
+
+		for (int i = 0; i < servlets; i++) {
+			register(servlet("s" + i, "/s" + i + "/*", 10));
+			if (i % 10 == 0) {
+				register(servlet("shadowed" + i, "/s" + i + "/*", 0));
+			}
+		}
+	}
+
+	/**
+	 * Registration and unregistration of servlet that doesn't conflict with any other servlet.
+	 */
+	@Benchmark
+	public ServletModel registerAndUnregister() throws Exception {
+		ServletModel model = servlet("new", "/new/*", 0);
+		register(model);
+		unregister(model);
+		return model;
+	}
+
+	/**
+	 * Registration of higher ranked servlet, which disables existing servlet and its unregistration, which
+	 * enables the existing servlet again.
+	 */
+	@Benchmark
+	public ServletModel shadowAndRestore() throws Exception {
+		ServletModel model = servlet("winner", "/s0/*", 20);
+		register(model);
+		unregister(model);
+		return model;
+	}
+
+	private ServletModel servlet(String name, String pattern, int rank) {
+		return new ServletModel.Builder()
+				.withServletName(name)
+				.withUrlPatterns(new String[] { pattern })
+				.withServlet(new HttpServlet() { })
+				.withServiceRankAndId(rank, ++serviceId)
+				.withOsgiContextModel(context)
+				.build();
+	}
+
+	private void register(ServletModel model) throws Exception {
+		Batch batch = new Batch("register");
+		serverModel.addServletModel(model, batch);
+		batch.accept(serverModel);
+	}
+
+	private void unregister(ServletModel model) {
+		Batch batch = new Batch("unregister");
+		serverModel.removeServletModels(Collections.singletonList(model), batch);
+		batch.accept(serverModel);
+	}
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.benchmarks;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpSession;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Version;
+import org.osgi.framework.wiring.BundleWiring;
+
+/**
+ * Minimal, allocation-free stubs of Servlet API (and OSGi) objects used by the benchmarks.
+ */
+public final class Stubs {
+
+	private Stubs() {
+	}
+
+	/**
+	 * Returns {@link ServletContext} stub that only knows its context path.
+	 * @param contextPath
+	 * @return
+	 */
+	public static ServletContext servletContext(String contextPath) {
+		return (ServletContext) Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class<?>[] { ServletContext.class },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+						case "getContextPath":
+							return contextPath;
+						case "hashCode":
+							return System.identityHashCode(proxy);
+						case "equals":
+							return proxy == args[0];
+						default:
+							return null;
+					}
+				});
+	}
+
+	/**
+	 * Returns {@link HttpSession} stub with map-backed attributes.
+	 * @param id
+	 * @return
+	 */
+	public static HttpSession session(String id) {
+		Map<String, Object> attributes = new HashMap<>();
+		return (HttpSession) Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class<?>[] { HttpSession.class },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+						case "getId":
+							return id;
+						case "getAttribute":
+							return attributes.get((String) args[0]);
+						case "setAttribute":
+							attributes.put((String) args[0], args[1]);
+							return null;
+						case "hashCode":
+							return System.identityHashCode(proxy);
+						case "equals":
+							return proxy == args[0];
+						default:
+							return null;
+					}
+				});
+	}
+
+	/**
+	 * Returns {@link Bundle} stub which is wired with given {@link ClassLoader}.
+	 * @param classLoader
+	 * @return
+	 */
+	public static Bundle bundle(ClassLoader classLoader) {
+		BundleWiring wiring = (BundleWiring) Proxy.newProxyInstance(Stubs.class.getClassLoader(),
+				new Class<?>[] { BundleWiring.class },
+				(proxy, method, args) -> "getClassLoader".equals(method.getName()) ? classLoader : null);
+		return (Bundle) Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class<?>[] { Bundle.class },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+						case "adapt":
+							return args[0] == BundleWiring.class ? wiring : null;
+						case "getSymbolicName":
+							return "pax-web-benchmarks";
+						case "getVersion":
+							return Version.emptyVersion;
+						case "getState":
+							return Bundle.ACTIVE;
+						case "toString":
+							return "Bundle \"pax-web-benchmarks\"";
+						case "hashCode":
+							return System.identityHashCode(proxy);
+						case "equals":
+							return proxy == args[0];
+						default:
+							return defaultValue(method.getReturnType());
+					}
+				});
+	}
+
+	/**
+	 * {@link Proxy} handlers can't return {@code null} for primitive return types.
+	 * @param type
+	 * @return
+	 */
+	private static Object defaultValue(Class<?> type) {
+		if (!type.isPrimitive() || type == void.class) {
+			return null;
+		}
+		return Array.get(Array.newInstance(type, 1), 0);
+	}
+
+	/**
+	 * Returns {@link HttpServletRequest} stub that returns given session and request URI. Frequently used methods
+	 * are implemented directly (without {@link Proxy} overhead).
+	 * @param session
+	 * @param requestURI
+	 * @return
+	 */
+	public static HttpServletRequest request(HttpSession session, String requestURI) {
+		HttpServletRequest delegate = (HttpServletRequest) Proxy.newProxyInstance(Stubs.class.getClassLoader(),
+				new Class<?>[] { HttpServletRequest.class }, (proxy, method, args) -> null);
+		return new StubRequest(delegate, session, requestURI);
+	}
+
+	private static final class StubRequest extends HttpServletRequestWrapper {
+
+		private final HttpSession session;
+		private final String requestURI;
+		private final Map<String, Object> attributes = new HashMap<>();
+
+		StubRequest(HttpServletRequest request, HttpSession session, String requestURI) {
+			super(request);
+			this.session = session;
+			this.requestURI = requestURI;
+		}
+
+		@Override
+		public HttpSession getSession(boolean create) {
+			return session;
+		}
+
+		@Override
+		public HttpSession getSession() {
+			return session;
+		}
+
+		@Override
+		public String getRequestURI() {
+			return requestURI;
+		}
+
+		@Override
+		public String getServletPath() {
+			return requestURI;
+		}
+
+		@Override
+		public String getMethod() {
+			return "GET";
+		}
+
+		@Override
+		public Object getAttribute(String name) {
+			return attributes.get(name);
+		}
+
+		@Override
+		public void setAttribute(String name, Object o) {
+			attributes.put(name, o);
+		}
+
+		@Override
+		public void removeAttribute(String name) {
+			attributes.remove(name);
+		}
+	}
+
+}
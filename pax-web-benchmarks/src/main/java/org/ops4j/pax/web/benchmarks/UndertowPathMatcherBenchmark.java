@@ -0,0 +1,102 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ops4j.pax.web.service.undertow.internal.PathMatcher;
+
+/**
+ * Compares context path routing of Undertow's {@link io.undertow.util.PathMatcher} (used by
+ * {@link io.undertow.server.handlers.PathHandler}) with segment tree based {@link PathMatcher} used by
+ * {@code ContextAwarePathHandler}. Run with {@code -prof gc} to see allocation rate.
+ *
+ * <p>Each request path is a new {@link String} (as in real requests), so its hash code is not cached.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UndertowPathMatcherBenchmark {
+
+	@Param({ "200" })
+	private int contexts;
+
+	private io.undertow.util.PathMatcher<Object> undertowMatcher;
+	private PathMatcher<Object> treeMatcher;
+
+	private char[][] requests;
+
+	@Setup
+	public void setup() {
+		undertowMatcher = new io.undertow.util.PathMatcher<>(new Object());
+		treeMatcher = new PathMatcher<>(new Object());
+		for (int i = 0; i < contexts; i++) {
+			// different lengths and common prefixes, like "/app3/module-module-13"
+			String path = "/app" + (i % 10) + "/" + "module-".repeat(1 + i % 4) + i;
+			Object handler = new Object();
+			undertowMatcher.addPrefixPath(path, handler);
+			treeMatcher.addPrefixPath(path, handler);
+		}
+		String[] paths = new String[] {
+				// exact context path
+				"/app3/module-module-13",
+				// path within context
+				"/app7/module-module-module-module-127/servlet/resource.css",
+				// no context matching - default handler
+				"/unknown/path/index.html"
+		};
+		requests = new char[paths.length][];
+		for (int i = 0; i < paths.length; i++) {
+			requests[i] = paths[i].toCharArray();
+		}
+	}
+
+	@Benchmark
+	public void undertowPathMatcher(Blackhole bh) {
+		for (char[] request : requests) {
+			String path = String.valueOf(request);
+			io.undertow.util.PathMatcher.PathMatch<Object> match = undertowMatcher.match(path);
+			bh.consume(match.getValue());
+			bh.consume(match.getRemaining());
+		}
+	}
+
+	@Benchmark
+	public void segmentTreePathMatcher(Blackhole bh) {
+		for (char[] request : requests) {
+			String path = String.valueOf(request);
+			PathMatcher.Route<Object> route = treeMatcher.route(path);
+			bh.consume(route.getValue());
+			bh.consume(route.remaining(path));
+		}
+	}
+
+}
@@ -15,6 +15,7 @@
  */
 package org.ops4j.pax.web.extender.war.internal;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
@@ -31,6 +32,9 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -41,6 +45,9 @@ import org.apache.tomcat.util.descriptor.web.WebXml;
 import org.apache.tomcat.util.descriptor.web.WebXmlParser;
 import org.apache.tomcat.util.file.Matcher;
 import org.ops4j.pax.web.extender.war.internal.model.BundleWebApplication;
+import org.ops4j.pax.web.extender.war.internal.model.ClassScanIndex;
+import org.ops4j.pax.web.extender.war.internal.model.WabDeploymentScheduler;
+import org.ops4j.pax.web.extender.war.internal.model.WiringScanCache;
 import org.ops4j.pax.web.service.PaxWebConfig;
 import org.ops4j.pax.web.service.PaxWebConstants;
 import org.ops4j.pax.web.service.WebContainer;
@@ -124,6 +131,18 @@ public class WarExtenderContext implements WebContainerListener, ReportViewPlugi
 	private final List<String> jarsToSkip = new CopyOnWriteArrayList<>();
 	private final List<String> jarsToScan = new CopyOnWriteArrayList<>();
 
+	/** Pool used to parse the bytecode of WABs - one task per scanned directory, JAR or bundle */
+	private final ForkJoinPool scanPool;
+
+	/** Persistent index of scanned classes, so unchanged WABs are not parsed after restart */
+	private final ClassScanIndex classScanIndex;
+
+	/** Framework-wide cache of web fragment and SCI locations found in the bundles wired to WABs */
+	private final WiringScanCache wiringScanCache = new WiringScanCache();
+
+	/** Registers the batches of WABs ready at the same time in single registration group */
+	private final WabDeploymentScheduler deploymentScheduler;
+
 	static {
 		// this list is used by default or if "org.ops4j.pax.web.extender.war.jarsToSkip" PID property
 		// is equal to "default" (no quotes). "default" can be used in custom configuration as well
@@ -252,6 +271,36 @@ public class WarExtenderContext implements WebContainerListener, ReportViewPlugi
 			scannedJarsList = Collections.emptyList();
 		}
 
+		int scanThreads = Runtime.getRuntime().availableProcessors();
+		String scanThreadsValue = bundleContext.getProperty(PaxWebConfig.BUNDLE_CONTEXT_PROPERTY_WAR_EXTENDER_SCAN_THREADS);
+		if (scanThreadsValue != null && !"".equals(scanThreadsValue)) {
+			try {
+				scanThreads = Integer.parseInt(scanThreadsValue);
+			} catch (NumberFormatException ignored) {
+			}
+		}
+		if (scanThreads > 1) {
+			AtomicInteger count = new AtomicInteger(0);
+			scanPool = new ForkJoinPool(scanThreads, p -> {
+				ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+				t.setName("wab-scanner-" + count.incrementAndGet());
+				return t;
+			}, null, false);
+		} else {
+			scanPool = null;
+		}
+
+		File scanIndexDirectory = null;
+		if (!"false".equalsIgnoreCase(bundleContext.getProperty(PaxWebConfig.BUNDLE_CONTEXT_PROPERTY_WAR_EXTENDER_SCAN_INDEX))) {
+			scanIndexDirectory = bundleContext.getDataFile("scan-index");
+		}
+		classScanIndex = new ClassScanIndex(scanIndexDirectory);
+
+		bundleContext.addBundleListener(wiringScanCache);
+		bundleContext.addBundleListener(classScanIndex);
+
+		deploymentScheduler = new WabDeploymentScheduler(this::getPool, synchronous);
+
 		// dispatcher of events related to WAB lifecycle (128.5 Events)
 		webApplicationEventDispatcher = new WebApplicationEventDispatcher(bundleContext);
 
@@ -267,7 +316,7 @@ public class WarExtenderContext implements WebContainerListener, ReportViewPlugi
 		jarsToScan.addAll(scannedJarsList);
 
 		wabConflictListener = new WabConflictListener();
-		webApplicationEventDispatcher.getListeners().add(wabConflictListener);
+		webApplicationEventDispatcher.addListener(wabConflictListener);
 	}
 
 	/**
@@ -275,7 +324,7 @@ public class WarExtenderContext implements WebContainerListener, ReportViewPlugi
 	 */
 	public void shutdown() {
 		if (webApplicationEventDispatcher != null) {
-			webApplicationEventDispatcher.getListeners().remove(wabConflictListener);
+			webApplicationEventDispatcher.removeListener(wabConflictListener);
 			webApplicationEventDispatcher.destroy();
 //			webApplicationEventDispatcher = null;
 		}
@@ -291,6 +340,14 @@ public class WarExtenderContext implements WebContainerListener, ReportViewPlugi
 		}
 
 		webContainerManager.shutdown();
+
+		bundleContext.removeBundleListener(wiringScanCache);
+		bundleContext.removeBundleListener(classScanIndex);
+		wiringScanCache.clear();
+
+		if (scanPool != null) {
+			scanPool.shutdown();
+		}
 	}
 
 	public ExecutorService getPool() {
@@ -301,6 +358,26 @@ public class WarExtenderContext implements WebContainerListener, ReportViewPlugi
 		this.pool.set(pool);
 	}
 
+	/**
+	 * Returns a pool for bytecode scanning or {@code null} if the classes should be scanned in calling thread.
+	 * @return
+	 */
+	public ForkJoinPool getScanPool() {
+		return scanPool;
+	}
+
+	public ClassScanIndex getClassScanIndex() {
+		return classScanIndex;
+	}
+
+	public WiringScanCache getWiringScanCache() {
+		return wiringScanCache;
+	}
+
+	public WabDeploymentScheduler getDeploymentScheduler() {
+		return deploymentScheduler;
+	}
+
 	public List<String> getJarsToSkip() {
 		return jarsToSkip;
 	}
@@ -391,7 +468,9 @@ public class WarExtenderContext implements WebContainerListener, ReportViewPlugi
 		// ExecutorService
 		// Remember - the process (if we have more WABs to process) is not fully parallel, as it's synchronized
 		// using pax-web-config thread (from pax-web-runtime) anyway - to interact with single ServerModel in
-		// synchronized and consistent way. At least the parsing can be done in parallel
+		// synchronized and consistent way. At least the parsing can be done in parallel and the extender threads
+		// don't wait for the registration - it's done by WabDeploymentScheduler for all the WABs ready at
+		// the same time
 
 		return new WabExtension(bundle, cleanup);
 	}
@@ -815,6 +894,12 @@ public class WarExtenderContext implements WebContainerListener, ReportViewPlugi
 			// thread
 			getPool().submit(new DeployTask(event));
 		}
+
+		@Override
+		public boolean coalesceEvents() {
+			// only FAILED and UNDEPLOYED events are handled
+			return true;
+		}
 	}
 
 	private class DeployTask implements Runnable {
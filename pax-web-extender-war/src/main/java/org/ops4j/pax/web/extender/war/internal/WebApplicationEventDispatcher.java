@@ -17,17 +17,12 @@
  */
 package org.ops4j.pax.web.extender.war.internal;
 
-import java.util.Collections;
-import java.util.Set;
-import java.util.concurrent.Callable;
-import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
+import org.ops4j.pax.web.service.spi.model.events.EventBus;
+import org.ops4j.pax.web.service.spi.model.events.EventBusStatistics;
 import org.ops4j.pax.web.service.spi.model.events.WebApplicationEvent;
 import org.ops4j.pax.web.service.spi.model.events.WebApplicationEventListener;
 import org.ops4j.pax.web.service.spi.model.events.WebElementEventListener;
@@ -50,6 +45,9 @@ import org.slf4j.LoggerFactory;
  *
  * <p>It's activated using a method from {@link WebApplicationEventListener} that called to <em>send</em> the event
  * and the event is passed to other registered {@link WebApplicationEventListener}s.</p>
+ *
+ * <p>The events are delivered using {@link EventBus}, so each listener gets the events in order, without blocking
+ * the thread that sends the event.</p>
  */
 public class WebApplicationEventDispatcher implements WebApplicationEventListener,
 		ServiceTrackerCustomizer<WebApplicationEventListener, WebApplicationEventListener>, BundleListener {
@@ -62,12 +60,19 @@ public class WebApplicationEventDispatcher implements WebApplicationEventListene
 	/** {@link ServiceTracker} for {@link WebApplicationEventListener web app listeners} */
 	private final ServiceTracker<WebApplicationEventListener, WebApplicationEventListener> webApplicationListenerTracker;
 
-	/** All tracked {@link WebApplicationEventListener web app listeners} */
-	private final Set<WebApplicationEventListener> listeners = new CopyOnWriteArraySet<>();
+	/** Per-listener queues of events for all tracked {@link WebApplicationEventListener web app listeners} */
+	private final EventBus<WebApplicationEventListener, WebApplicationEvent> eventBus;
+
+	/** JMX view of {@link #eventBus} */
+	private final EventBusStatistics statistics;
 
 	public WebApplicationEventDispatcher(final BundleContext bundleContext) {
 		this.bundleContext = bundleContext;
 		this.executor = Executors.newFixedThreadPool(1, new NamedThreadFactory("wab-events"));
+		this.eventBus = new EventBus<>(executor, WebApplicationEventListener::webEvent,
+				(queued, event) -> event.supersedes(queued));
+		this.statistics = new EventBusStatistics(eventBus, "WebApplicationEvents");
+		this.statistics.register();
 
 		this.webApplicationListenerTracker = new ServiceTracker<>(bundleContext, WebApplicationEventListener.class.getName(), this);
 		this.webApplicationListenerTracker.open();
@@ -84,9 +89,7 @@ public class WebApplicationEventDispatcher implements WebApplicationEventListene
 		WebApplicationEventListener listener = bundleContext.getService(reference);
 		if (listener != null) {
 			LOG.debug("New WebApplicationEventListener added: {}", listener.getClass().getName());
-			synchronized (listeners) {
-				listeners.add(listener);
-			}
+			addListener(listener);
 		}
 		return listener;
 	}
@@ -97,7 +100,7 @@ public class WebApplicationEventDispatcher implements WebApplicationEventListene
 
 	@Override
 	public void removedService(ServiceReference<WebApplicationEventListener> reference, WebApplicationEventListener service) {
-		listeners.remove(service);
+		removeListener(service);
 		bundleContext.ungetService(reference);
 		LOG.debug("WebApplicationEventListener is removed: {}", service.getClass().getName());
 	}
@@ -107,13 +110,14 @@ public class WebApplicationEventDispatcher implements WebApplicationEventListene
 		if (LOG.isDebugEnabled()) {
 			LOG.debug("Sending web event " + event + " for bundle " + event.getBundleName());
 		}
-		synchronized (listeners) {
-			callListeners(event);
+		synchronized (eventBus) {
+			eventBus.publish(event);
 		}
 	}
 
 	void destroy() {
 		bundleContext.removeBundleListener(this);
+		statistics.unregister();
 		webApplicationListenerTracker.close();
 		executor.shutdown();
 		// wait for the queued tasks to execute
@@ -125,39 +129,16 @@ public class WebApplicationEventDispatcher implements WebApplicationEventListene
 
 	/**
 	 * Package-private method to register the main listener for WAB conflict management.
-	 * @return
+	 * @param listener
 	 */
-	Set<WebApplicationEventListener> getListeners() {
-		return listeners;
-	}
-
-	private void callListeners(WebApplicationEvent event) {
-		for (WebApplicationEventListener listener : listeners) {
-			try {
-				callListener(listener, event);
-			} catch (RejectedExecutionException ree) {
-				LOG.warn("Executor shut down", ree);
-				break;
-			}
+	void addListener(WebApplicationEventListener listener) {
+		synchronized (eventBus) {
+			eventBus.addListener(listener, listener.coalesceEvents());
 		}
 	}
 
-	private void callListener(final WebApplicationEventListener listener, final WebApplicationEvent event) {
-		try {
-			executor.invokeAny(Collections.<Callable<Void>>singleton(() -> {
-				listener.webEvent(event);
-				return null;
-			}), 60L, TimeUnit.SECONDS);
-		} catch (InterruptedException ie) {
-			LOG.warn("Thread interrupted", ie);
-			Thread.currentThread().interrupt();
-		} catch (TimeoutException te) {
-			LOG.warn("Listener timed out, will be ignored", te);
-			listeners.remove(listener);
-		} catch (ExecutionException ee) {
-			LOG.warn("Listener caused an exception, will be ignored", ee);
-			listeners.remove(listener);
-		}
+	void removeListener(WebApplicationEventListener listener) {
+		eventBus.removeListener(listener);
 	}
 
 }
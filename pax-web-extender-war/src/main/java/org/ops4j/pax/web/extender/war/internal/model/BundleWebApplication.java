@@ -165,6 +165,28 @@ public class BundleWebApplication {
 	/** Latch to be setup during context allocation, so when stop() is called before WAB is DEPLOYING, we can wait */
 	private CountDownLatch allocatingLatch = null;
 
+	/**
+	 * Guards the decision whether the {@link Batch} of {@link State#DEPLOYING} WAB is registered by
+	 * {@link WabDeploymentScheduler} or whether the registration is cancelled, because the WAB was stopped (or
+	 * {@link WebContainer} was removed) while it was waiting in the queue.
+	 */
+	private final Object registrationLock = new Object();
+
+	/** Whether the {@link Batch} of {@link State#DEPLOYING} WAB is being registered */
+	private boolean registering = false;
+
+	/**
+	 * State to set in {@link #registered} when the WAB was stopped (or {@link WebContainer} was removed) while
+	 * its batch was being registered and we didn't wait for the end of the registration.
+	 */
+	private State stateAfterRegistration = null;
+
+	/** View to undeploy the WAB with in {@link #registered}, when it was stopped during its registration */
+	private WebAppWebContainerView undeployAfterRegistration = null;
+
+	/** Reference to release in {@link #registered}, when the WAB was stopped during its registration */
+	private ServiceReference<WebContainer> releaseAfterRegistration = null;
+
 	/**
 	 * The {@link ServletContext#getContextPath() context path} of this web application - can't be taken from
 	 * {@code web.xml}, it should be configured <em>externally</em>.
@@ -206,7 +228,7 @@ public class BundleWebApplication {
 	private final Map<ServletContainerInitializer, Set<Class<?>>> sciToHt = new LinkedHashMap<>();
 
 	/** Final batch of the changes/configuration operations related to full web application being deployed */
-	private Batch batch = null;
+	private volatile Batch batch = null;
 
 	/**
 	 * Stored instance of {@link org.osgi.service.http.HttpContext} that wraps
@@ -226,6 +248,9 @@ public class BundleWebApplication {
 	 */
 	private ServletContextModel allocatedServletContextModel = null;
 
+	/** Durations (in milliseconds) of the deployment phases - in the order of the phases */
+	private final Map<String, Long> deploymentTimings = new LinkedHashMap<>();
+
 	public BundleWebApplication(Bundle bundle, WebContainerManager webContainerManager, WarExtenderContext extenderContext) {
 		this.bundle = bundle;
 		this.webContainerManager = webContainerManager;
@@ -318,13 +343,30 @@ public class BundleWebApplication {
 				}
 				break;
 			case DEPLOYING:
-				// it's not deployed yet, but it'd not be wise to interrup() - let's just wait for DEPLOYED. That's
+				// the batch may still wait in WabDeploymentScheduler's queue - then it's simply not registered
+				if (cancelRegistration(State.UNDEPLOYING)) {
+					LOG.info("Cancelled registration of {}", this);
+					if (view != null) {
+						releaseContext(view, false);
+					}
+					break;
+				}
+				// it's being registered, but it'd not be wise to interrup() - let's just wait for DEPLOYED. That's
 				// similar to pre Pax Web 8, where entire SimpleExtension#start() and SimpleExtension#destroy()
 				// were synchronized on an extension object itself.
 				try {
 					if (!deployingLatch.await(10, TimeUnit.SECONDS)) {
-						LOG.warn("Timeout waiting for end of deployment of {}."
-								+ " Can't undeploy the application which may be left in inconsistent state.", this);
+						if (deferAfterRegistration(State.UNDEPLOYED, view, ref)) {
+							LOG.warn("Timeout waiting for end of deployment of {}."
+									+ " The application will be undeployed after its registration.", this);
+							deploymentState.set(State.UNDEPLOYED);
+							// the container is released after the registration
+							return;
+						}
+						if (deploymentState.get() == State.DEPLOYED && view != null) {
+							LOG.info("Undeploying {} after its full deployment", this);
+							undeploy(view);
+						}
 					} else {
 						if (view != null) {
 							LOG.info("Undeploying {} after waiting for its full deployment", this);
@@ -335,9 +377,15 @@ public class BundleWebApplication {
 						}
 					}
 				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					if (deferAfterRegistration(State.UNDEPLOYED, view, ref)) {
+						LOG.warn("Thread interrupted while waiting for end of deployment of {}."
+								+ " The application will be undeployed after its registration.", this);
+						deploymentState.set(State.UNDEPLOYED);
+						return;
+					}
 					LOG.warn("Thread interrupted while waiting for end of deployment of {}."
 							+ " Can't undeploy the application which may be left in inconsistent state.", this);
-					Thread.currentThread().interrupt();
 				}
 				break;
 			case DEPLOYED:
@@ -498,11 +546,22 @@ public class BundleWebApplication {
 						deploymentState.set(State.UNCONFIGURED);
 						break;
 					case DEPLOYING:
+						if (cancelRegistration(State.UNCONFIGURED)) {
+							LOG.info("Cancelled registration of {} in previous WebContainer", this);
+							releaseContext(view, false);
+							break;
+						}
 						try {
 							if (!deployingLatch.await(10, TimeUnit.SECONDS)) {
-								LOG.warn("Timeout waiting for end of deployment of {}."
-										+ " Can't undeploy the application which may be left in inconsistent state"
-										+ " (in previous WebContainer).", this);
+								if (deferAfterRegistration(State.UNCONFIGURED, null, null)) {
+									LOG.warn("Timeout waiting for end of deployment of {} in previous WebContainer."
+											+ " The application won't be marked as deployed.", this);
+								} else if (deploymentState.get() == State.DEPLOYED) {
+									undeploy(view);
+									deploymentState.set(State.UNCONFIGURED);
+								} else {
+									deploymentState.set(State.UNCONFIGURED);
+								}
 							} else {
 								LOG.info("Undeploying {} from previous WebContainer after waiting for its full"
 										+ " deployment", this);
@@ -510,9 +569,11 @@ public class BundleWebApplication {
 								deploymentState.set(State.UNCONFIGURED);
 							}
 						} catch (InterruptedException e) {
-							LOG.warn("Thread interrupted while waiting for end of deployment of {}."
-									+ " Can't undeploy the application which may be left in inconsistent state.", this);
 							Thread.currentThread().interrupt();
+							if (!deferAfterRegistration(State.UNCONFIGURED, null, null)) {
+								LOG.warn("Thread interrupted while waiting for end of deployment of {}."
+										+ " Can't undeploy the application which may be left in inconsistent state.", this);
+							}
 						}
 						break;
 					case DEPLOYED:
@@ -583,6 +644,7 @@ public class BundleWebApplication {
 	 * service.</p>
 	 */
 	public synchronized void deploy() {
+		boolean registrationScheduled = false;
 		try {
 			// progress through states in a loop - when everything is available, we can simply transition to
 			// final state in single thread/task run. If we need to wait for anything, we'll break the loop
@@ -641,6 +703,9 @@ public class BundleWebApplication {
 			State state = deploymentState.get();
 			if (state == State.CONFIGURING) {
 				LOG.info("Configuring {}", this);
+				synchronized (deploymentTimings) {
+					deploymentTimings.clear();
+				}
 				// Post an org/osgi/service/web/DEPLOYING event
 				extenderContext.sendWebEvent(new WebApplicationEvent(WebApplicationEvent.State.DEPLOYING, bundle, contextPath, null));
 
@@ -685,7 +750,9 @@ public class BundleWebApplication {
 					return;
 				}
 
+				long phaseStart = System.nanoTime();
 				WebAppWebContainerView.AllocationStatus status = view.allocateContext(bundle, contextPath);
+				phaseStart = phase("allocation", phaseStart);
 				if (status != WebAppWebContainerView.AllocationStatus.ALLOCATED) {
 					if (status == WebAppWebContainerView.AllocationStatus.NOT_AVAILABLE) {
 						LOG.debug("Context path {} is already used. {} will wait for this context to be available.",
@@ -728,6 +795,7 @@ public class BundleWebApplication {
 				// we have complete web application, while in Whiteboard, we build it element by element.
 				// Here we can do it "transactionally" without bothering about conflicts etc.
 				buildModel(allocatedServletContextModel, allocatedOsgiContextModel);
+				phase("model", phaseStart);
 
 				// from now on, this.contextPath is "ours" and we can do anything with it
 				if (deploymentState.compareAndSet(state, State.DEPLOYING)) {
@@ -745,7 +813,7 @@ public class BundleWebApplication {
 
 			state = deploymentState.get();
 			if (state == State.DEPLOYING) {
-				LOG.debug("Registering {} in WebContainer", contextPath);
+				LOG.debug("Scheduling registration of {} in WebContainer", contextPath);
 
 				// we have to get the view again, as we may have been rescheduled after waiting for WebContainer
 				WebAppWebContainerView view = currentWebContainer(state);
@@ -753,12 +821,12 @@ public class BundleWebApplication {
 					return;
 				}
 
-				// this is were the full WAR/WAB information is passed as a model to WebContainer (through special view)
-				view.sendBatch(batch);
-
-				if (deploymentState.compareAndSet(state, State.DEPLOYED)) {
-					extenderContext.sendWebEvent(new WebApplicationEvent(WebApplicationEvent.State.DEPLOYED, bundle, contextPath, httpContext));
-				}
+				// this is were the full WAR/WAB information is passed as a model to WebContainer (through special
+				// view). The registration is serialized in pax-web-config thread anyway, so we don't wait for it
+				// and the batch is registered together with the batches of other WABs ready at the same time.
+				// registered() is called when it's done
+				extenderContext.getDeploymentScheduler().schedule(this, view, batch);
+				registrationScheduled = true;
 			}
 		} catch (Throwable t) {
 			deploymentState.set(State.FAILED);
@@ -775,12 +843,158 @@ public class BundleWebApplication {
 			if (allocatingLatch != null) {
 				allocatingLatch.countDown();
 			}
-			if (deployingLatch != null) {
+			if (deployingLatch != null && !registrationScheduled) {
 				deployingLatch.countDown();
 			}
 		}
 	}
 
+	/**
+	 * Called by {@link WabDeploymentScheduler} after the {@link Batch} of this WAB was registered in
+	 * {@link WebContainer} (possibly with the batches of other WABs). This method is not {@code synchronized},
+	 * because it's called for the WABs of entire group.
+	 *
+	 * @param failure registration problem or {@code null} if the WAB was registered
+	 * @param queued {@link System#nanoTime()} when the batch was queued
+	 * @param start {@link System#nanoTime()} when the registration of the group started
+	 * @param end {@link System#nanoTime()} when the registration of the group ended
+	 */
+	void registered(Throwable failure, long queued, long start, long end) {
+		State nextState;
+		WebAppWebContainerView view;
+		ServiceReference<WebContainer> ref;
+		boolean failed = false;
+		boolean deployed = false;
+		try {
+			synchronized (registrationLock) {
+				registering = false;
+				nextState = stateAfterRegistration;
+				view = undeployAfterRegistration;
+				ref = releaseAfterRegistration;
+				stateAfterRegistration = null;
+				undeployAfterRegistration = null;
+				releaseAfterRegistration = null;
+				if (nextState == null) {
+					if (failure != null) {
+						failed = deploymentState.compareAndSet(State.DEPLOYING, State.FAILED);
+					} else {
+						deployed = deploymentState.compareAndSet(State.DEPLOYING, State.DEPLOYED);
+					}
+				}
+			}
+
+			if (nextState != null) {
+				// the WAB was stopped or WebContainer was removed while we were registering it
+				finishStoppedRegistration(failure, nextState, view, ref);
+				return;
+			}
+			if (failed) {
+				LOG.error("Problem processing {}: {}", this, failure.getMessage(), failure);
+				extenderContext.sendWebEvent(new WebApplicationEvent(WebApplicationEvent.State.FAILED, bundle, contextPath, null, failure));
+			}
+			if (deployed) {
+				phase("queued", queued, start);
+				phase("registration", start, end);
+				synchronized (deploymentTimings) {
+					LOG.info("Deployed {}. Deployment phases (ms): {}", this, deploymentTimings);
+				}
+				extenderContext.sendWebEvent(new WebApplicationEvent(WebApplicationEvent.State.DEPLOYED, bundle, contextPath, httpContext));
+			}
+		} finally {
+			CountDownLatch latch = deployingLatch;
+			if (latch != null) {
+				latch.countDown();
+			}
+		}
+	}
+
+	/**
+	 * Called by {@link WabDeploymentScheduler} just before the {@link Batch} of this WAB is registered.
+	 *
+	 * @param batch the batch to be registered
+	 * @return {@code false} if the registration was cancelled (or the batch is not current) and the batch should
+	 *         not be registered
+	 */
+	boolean startRegistration(Batch batch) {
+		synchronized (registrationLock) {
+			if (deploymentState.get() != State.DEPLOYING || batch != this.batch) {
+				return false;
+			}
+			registering = true;
+			return true;
+		}
+	}
+
+	/**
+	 * Cancels the registration of {@link State#DEPLOYING} WAB whose batch wasn't passed to {@link WebContainer}
+	 * yet.
+	 *
+	 * @param newState
+	 * @return {@code true} if the registration was cancelled and the WAB switched to new state
+	 */
+	private boolean cancelRegistration(State newState) {
+		synchronized (registrationLock) {
+			if (deploymentState.get() != State.DEPLOYING || registering) {
+				return false;
+			}
+			deploymentState.set(newState);
+		}
+		CountDownLatch latch = deployingLatch;
+		if (latch != null) {
+			latch.countDown();
+		}
+		return true;
+	}
+
+	/**
+	 * When we can't wait for the end of registration of {@link State#DEPLOYING} WAB, {@link #registered} has to
+	 * finish the job instead of switching the WAB to {@link State#DEPLOYED} state.
+	 *
+	 * @param nextState state to set after the registration
+	 * @param view if not {@code null}, the WAB is undeployed after the registration
+	 * @param ref if not {@code null}, the reference is released after the registration
+	 * @return {@code false} if the registration has already finished
+	 */
+	private boolean deferAfterRegistration(State nextState, WebAppWebContainerView view,
+			ServiceReference<WebContainer> ref) {
+		synchronized (registrationLock) {
+			if (deploymentState.get() != State.DEPLOYING) {
+				return false;
+			}
+			stateAfterRegistration = nextState;
+			undeployAfterRegistration = view;
+			releaseAfterRegistration = ref;
+			return true;
+		}
+	}
+
+	private void finishStoppedRegistration(Throwable failure, State nextState, WebAppWebContainerView view,
+			ServiceReference<WebContainer> ref) {
+		if (view != null) {
+			if (failure == null) {
+				LOG.info("Undeploying {} stopped during its registration", this);
+				undeploy(view);
+			} else {
+				releaseContext(view, false);
+			}
+		}
+		deploymentState.set(nextState);
+		if (ref != null) {
+			webContainerManager.releaseContainer(bundle, ref);
+		}
+		if (nextState == State.UNCONFIGURED) {
+			// new WebContainer may have been added while we were registering the WAB in previous one
+			refLock.lock();
+			try {
+				if (webContainerServiceRef != null) {
+					scheduleIfPossible(State.UNCONFIGURED, State.CONFIGURING, false);
+				}
+			} finally {
+				refLock.unlock();
+			}
+		}
+	}
+
 	/**
 	 * <p>Not schedulable equivalent of {@link #deploy()}. It fully undeploys the {@link BundleWebApplication} using
 	 * passed {@link WebAppWebContainerView}.</p>
@@ -1070,7 +1284,9 @@ public class BundleWebApplication {
 			// actual WEB-INF/web.xml from a WAB
 
 			LOG.debug("Searching for web.xml descriptor in {}", bundle);
+			long phaseStart = System.nanoTime();
 			mainWebXml = extenderContext.findBundleWebXml(bundle);
+			phaseStart = phase("web.xml", phaseStart);
 
 			// at this stage, we don't have javax.servlet.ServletContext available yet. We don't even know
 			// where this WAB is going to be deployed (Tomcat? Jetty? Undertow?). We don't even know whether
@@ -1086,6 +1302,7 @@ public class BundleWebApplication {
 				// ordered fragments that will later be used to discover/load SCIs and annotated classes
 				LOG.debug("Searching for web fragments");
 				classSpace.initialize(mainWebXml, classLoader);
+				phaseStart = phase("fragments", phaseStart);
 				boolean ok = classSpace.isFragmentParsingOK();
 
 				if (!ok) {
@@ -1136,6 +1353,8 @@ public class BundleWebApplication {
 					}
 				}
 
+				phaseStart = phase("SCIs", phaseStart);
+
 				// now the deep scanning for annotated elements - performed when metadata-complete=false or if
 				// there are any SCIs with @HandlesTypes
 				// see org.apache.catalina.startup.ContextConfig.processClasses()
@@ -1143,6 +1362,7 @@ public class BundleWebApplication {
 					LOG.debug("Scanning for annotated classes and/or types declared in @HandlesTypes SCI annotations");
 					classSpace.scanClasses(htToSci, sciToHt, thereAreHTClasses, thereAreHTAnnotations);
 				}
+				phaseStart = phase("scanning", phaseStart);
 
 				// at this stage we have full mapping of SCIs to sets of classes to pass to their onStartup() method
 				// and also all the WebXml fragments are possibly altered using annotated servlets/filters/listeners
@@ -1268,6 +1488,8 @@ public class BundleWebApplication {
 					serverSpecificDescriptors.add(url);
 				}
 
+				phase("merging", phaseStart);
+
 				LOG.debug("Finished metadata and fragment processing for {} in {}ms", bundle, System.currentTimeMillis() - start);
 			} catch (IOException e) {
 				throw new RuntimeException(e.getMessage(), e);
@@ -1898,6 +2120,24 @@ public class BundleWebApplication {
 		this.batch = wabBatch;
 	}
 
+	/**
+	 * Records the duration of a deployment phase which started at given {@link System#nanoTime()}
+	 * @param name
+	 * @param start
+	 * @return current {@link System#nanoTime()} - the start of next phase
+	 */
+	private long phase(String name, long start) {
+		long now = System.nanoTime();
+		phase(name, start, now);
+		return now;
+	}
+
+	private void phase(String name, long start, long end) {
+		synchronized (deploymentTimings) {
+			deploymentTimings.merge(name, TimeUnit.NANOSECONDS.toMillis(end - start), Long::sum);
+		}
+	}
+
 	private void collectDeclaredRoles(Class<?> clazz, SecurityConfigurationModel securityConfiguration) {
 		DeclareRoles dr = clazz.getAnnotation(DeclareRoles.class);
 		if (dr != null && dr.value() != null) {
@@ -1941,6 +2181,9 @@ public class BundleWebApplication {
 				.map(sci -> sci.getClass().getName()).collect(Collectors.toList()));
 		model.getMetaInfResources().addAll(metainfResourceRoots.values());
 		model.getDescriptors().addAll(serverSpecificDescriptors);
+		synchronized (deploymentTimings) {
+			model.getDeploymentTimings().putAll(deploymentTimings);
+		}
 		// non-JAR entries of the Bundle-ClassPath
 		URL[] urls = ClassPathUtil.getClassPathNonJars(bundle);
 		for (URL url : urls) {
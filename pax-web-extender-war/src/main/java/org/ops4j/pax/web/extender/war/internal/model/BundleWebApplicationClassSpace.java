@@ -34,6 +34,10 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import javax.servlet.ServletContainerInitializer;
 import javax.servlet.ServletContext;
 import javax.servlet.annotation.MultipartConfig;
@@ -53,6 +57,7 @@ import org.apache.tomcat.util.descriptor.web.MultipartDef;
 import org.apache.tomcat.util.descriptor.web.ServletDef;
 import org.apache.tomcat.util.descriptor.web.WebXml;
 import org.ops4j.pax.web.extender.war.internal.WarExtenderContext;
+import org.ops4j.pax.web.extender.war.internal.model.ClassScanIndex.ScannedClass;
 import org.ops4j.pax.web.service.spi.servlet.OsgiServletContextClassLoader;
 import org.ops4j.pax.web.service.spi.util.Utils;
 import org.ops4j.pax.web.utils.ClassPathUtil;
@@ -536,7 +541,10 @@ public class BundleWebApplicationClassSpace {
 
 		List<URL> fragmentURLs = new LinkedList<>();
 		if (parseRequired) {
-			List<URL> urls = ClassPathUtil.findEntries(bundle, "META-INF", "web-fragment.xml", false, false);
+			// shared libraries are wired to many WABs, so the locations are cached
+			List<URL> urls = extenderContext.getWiringScanCache().get(bundle, "web-fragment.xml",
+					() -> Collections.unmodifiableList(new ArrayList<>(
+							ClassPathUtil.findEntries(bundle, "META-INF", "web-fragment.xml", false, false))));
 			// there may be more than one, because we access bundle fragments as well
 			fragmentURLs.addAll(urls);
 		}
@@ -704,7 +712,7 @@ public class BundleWebApplicationClassSpace {
 		for (String fragment : containerFragmentBundles.keySet()) {
 			Bundle reachableBundle = containerFragmentBundles.get(fragment);
 			LOG.trace("  Scanning container fragment {}", fragment);
-			List<URL> urls = ClassPathUtil.getResources(Collections.singletonList(reachableBundle), sciService);
+			List<URL> urls = findSCIServices(reachableBundle, sciService);
 			containerSCIURLs.put(reachableBundle, urls);
 			if (LOG.isTraceEnabled()) {
 				for (URL url : urls) {
@@ -727,7 +735,7 @@ public class BundleWebApplicationClassSpace {
 					// only if user doesn't have the same fragment embedded
 					if (processed.add(b)) {
 						LOG.trace("  Scanning application fragment {}", fragmentJarName);
-						List<URL> urls = ClassPathUtil.getResources(Collections.singletonList(b), sciService);
+						List<URL> urls = findSCIServices(b, sciService);
 						applicationSCIURLs.put(b, urls);
 						if (LOG.isTraceEnabled()) {
 							for (URL url : urls) {
@@ -816,8 +824,10 @@ public class BundleWebApplicationClassSpace {
 					processed.put(fragmentBundle, jarName);
 					LOG.trace("  Scanning application fragment {}", jarName);
 					// take it from reachable bundles containing META-INF/web-fragment.xml
-					List<URL> urls = ClassPathUtil.findEntries(fragmentBundle, new URL[] { orderedFragments.get(jarName).getURL() },
-							"META-INF/services", ServletContainerInitializer.class.getName(), false);
+					URL root = orderedFragments.get(jarName).getURL();
+					List<URL> urls = extenderContext.getWiringScanCache().get(fragmentBundle, "sci-entries:" + root,
+							() -> Collections.unmodifiableList(new ArrayList<>(ClassPathUtil.findEntries(fragmentBundle,
+									new URL[] { root }, "META-INF/services", ServletContainerInitializer.class.getName(), false))));
 					applicationSCIURLs.put(fragmentBundle, urls);
 					if (LOG.isTraceEnabled()) {
 						for (URL url : urls) {
@@ -855,8 +865,50 @@ public class BundleWebApplicationClassSpace {
 		return detectedSCIs;
 	}
 
+	/**
+	 * Finds {@code META-INF/services/javax.servlet.ServletContainerInitializer} services using bundle's class
+	 * loader. The result is cached for the bundle, as it's not WAB-specific.
+	 *
+	 * @param bundle
+	 * @param sciService
+	 * @return
+	 * @throws IOException
+	 */
+	private List<URL> findSCIServices(Bundle bundle, String sciService) throws IOException {
+		return extenderContext.getWiringScanCache().get(bundle, "sci-resources",
+				() -> Collections.unmodifiableList(new ArrayList<>(
+						ClassPathUtil.getResources(Collections.singletonList(bundle), sciService))));
+	}
+
 	private void loadSCI(URL url, Bundle bundle, List<ServletContainerInitializer> scis) {
 		LOG.trace("    Loading {}", url);
+		List<String> names;
+		try {
+			if (bundle == wabBundle) {
+				names = readSCIClassNames(url);
+			} else {
+				names = extenderContext.getWiringScanCache().get(bundle, "sci-classes:" + url,
+						() -> readSCIClassNames(url));
+			}
+		} catch (IOException e) {
+			LOG.error("    Problem reading SCI service class from {}: {}", url, e.getMessage(), e);
+			return;
+		}
+		for (String name : names) {
+			try {
+				Class<?> sciClass = bundle.loadClass(name);
+				ServletContainerInitializer sci = (ServletContainerInitializer) sciClass.getConstructor().newInstance();
+				LOG.trace("      Loaded SCI {}", sci.getClass());
+				scis.add(sci);
+			} catch (ClassNotFoundException | ClassCastException | InstantiationException |
+					 IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
+				LOG.error("      Problem loading SCI class from {}: {}", url, e.getMessage(), e);
+			}
+		}
+	}
+
+	private List<String> readSCIClassNames(URL url) throws IOException {
+		List<String> names = new ArrayList<>();
 		try (InputStream is = url.openStream();
 				BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
 			String line = null;
@@ -870,20 +922,11 @@ public class BundleWebApplicationClassSpace {
 					name = name.substring(0, idx).trim();
 				}
 				if (name.length() > 0) {
-					try {
-						Class<?> sciClass = bundle.loadClass(name);
-						ServletContainerInitializer sci = (ServletContainerInitializer) sciClass.getConstructor().newInstance();
-						LOG.trace("      Loaded SCI {}", sci.getClass());
-						scis.add(sci);
-					} catch (ClassNotFoundException | ClassCastException | InstantiationException |
-							 IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
-						LOG.error("      Problem loading SCI class from {}: {}", url, e.getMessage(), e);
-					}
+					names.add(name);
 				}
 			}
-		} catch (IOException e) {
-			LOG.error("    Problem reading SCI service class from {}: {}", url, e.getMessage(), e);
 		}
+		return Collections.unmodifiableList(names);
 	}
 
 	/**
@@ -915,6 +958,8 @@ public class BundleWebApplicationClassSpace {
 		root.interfaceNames = new String[0];
 		javaClassCache.put(root.superClassName, root);
 
+		List<ScanRoot> roots = new ArrayList<>();
+
 		// 1. scan classes in non-JAR entries from WAB's Bundle-ClassPath
 		//     - always for types from @HandlesTypes
 		//     - possibly for other annotated types if metadata-complete="false" on this.mainWebXml
@@ -927,6 +972,7 @@ public class BundleWebApplicationClassSpace {
 		for (URL url : urls) {
 			LOG.trace("  Scanning embedded directory: {}", url);
 			List<URL> classes = ClassPathUtil.findEntries(wabBundle, new URL[] { url }, "/", "*.class", true);
+			List<URL> rootClasses = new ArrayList<>(classes.size());
 			for (URL u : classes) {
 				processedRoots.add(u.toExternalForm());
 				if (!u.getPath().endsWith(".class")) {
@@ -934,10 +980,9 @@ public class BundleWebApplicationClassSpace {
 					// "jar:bundle://40.0:0/WEB-INF/lib/spring-core-5.3.6.jar!/org/springframework/core/type/classreading/"
 					continue;
 				}
-				LOG.trace("    Scanning {}", u);
-				processClass(u, mainWebXml, wabBundle, htOnly, htToSci, sciToHt, javaClassCache,
-						thereAreHTClasses, thereAreHTAnnotations);
+				rootClasses.add(u);
 			}
+			roots.add(new ScanRoot(url, mainWebXml, wabBundle, htOnly, rootClasses));
 		}
 
 		// 2. scan all ordered jars - not only those from javax.servlet.ServletContext.ORDERED_LIBS, but really
@@ -982,6 +1027,7 @@ public class BundleWebApplicationClassSpace {
 			List<URL> classes = ClassPathUtil.findEntries(fragmentBundle,
 					new URL[] { fragment.getURL() }, "/", "*.class", true);
 			boolean fragmentHtOnly = htOnly || fragment.isMetadataComplete() || !fragment.getWebappJar();
+			List<URL> rootClasses = new ArrayList<>(classes.size());
 			for (URL u : classes) {
 				if (fragmentBundle == wabBundle && bundleFragment) {
 					// when a bundle fragment is scanned through WABs bundle, *.class resources found using
@@ -1006,9 +1052,36 @@ public class BundleWebApplicationClassSpace {
 					// "jar:bundle://40.0:0/WEB-INF/lib/spring-core-5.3.6.jar!/org/springframework/core/type/classreading/"
 					continue;
 				}
-				LOG.trace("    Scanning {}", u);
-				processClass(u, fragment, fragmentBundle, fragmentHtOnly, htToSci, sciToHt, javaClassCache,
-						thereAreHTClasses, thereAreHTAnnotations);
+				rootClasses.add(u);
+			}
+			roots.add(new ScanRoot(fragment.getURL(), fragment, fragmentBundle, fragmentHtOnly, rootClasses));
+		}
+
+		// 3. parse the bytecode of all the roots in parallel (or take the information from the index). All
+		//    the parsed classes are available later when building class hierarchy using WAB's class loader
+		Map<String, ScannedClass> scannedClasses = new ConcurrentHashMap<>();
+		ForkJoinPool pool = extenderContext.getScanPool();
+		List<ForkJoinTask<List<ScannedClass>>> tasks = new ArrayList<>(roots.size());
+		for (ScanRoot sr : roots) {
+			Callable<List<ScannedClass>> task = () -> {
+				List<ScannedClass> result = extenderContext.getClassScanIndex().scan(sr.bundle, sr.url, sr.classes);
+				for (ScannedClass sc : result) {
+					scannedClasses.put(sc.url.toExternalForm(), sc);
+				}
+				return result;
+			};
+			tasks.add(pool == null ? ForkJoinTask.adapt(task) : pool.submit(task));
+		}
+
+		// 4. check the classes (sequentially, in fragment order) for annotations and types from @HandlesTypes
+		for (int i = 0; i < roots.size(); i++) {
+			ScanRoot sr = roots.get(i);
+			ForkJoinTask<List<ScannedClass>> task = tasks.get(i);
+			List<ScannedClass> classes = pool == null ? task.invoke() : task.join();
+			for (ScannedClass sc : classes) {
+				LOG.trace("    Scanning {}", sc.url);
+				processClass(sc, sr.fragment, sr.bundle, sr.htOnly, htToSci, sciToHt, javaClassCache,
+						scannedClasses, thereAreHTClasses, thereAreHTAnnotations);
 			}
 		}
 
@@ -1018,7 +1091,7 @@ public class BundleWebApplicationClassSpace {
 	/**
 	 * Check the class whether it's one of the types mentioned in {@link javax.servlet.annotation.HandlesTypes}
 	 * and also potentially check it for annotations like {@link javax.servlet.annotation.WebServlet}.
-	 * @param url an URI for {@code *.class} file
+	 * @param clazz information about the {@code *.class} file
 	 * @param fragment a {@link WebXml} representing a "web fragment" - whether or not it is associated with
 	 *        {@code web-fragment.xml}
 	 * @param bundle {@link Bundle} used to load the classes from
@@ -1026,40 +1099,35 @@ public class BundleWebApplicationClassSpace {
 	 * @param htToSci
 	 * @param sciToHt
 	 * @param javaClassCache
+	 * @param scannedClasses already scanned classes by the URL
 	 * @param thereAreHTClasses {@code true} if any of the SCIs has any non-annotation types among values of
 	 *        {@link javax.servlet.annotation.HandlesTypes}
 	 * @param thereAreHTAnnotations {@code true} if any of the SCIs has any annotation types among values of
 	 *        {@link javax.servlet.annotation.HandlesTypes}
 	 */
-	private void processClass(URL url, WebXml fragment, Bundle bundle, boolean fragmentHtOnly,
+	private void processClass(ScannedClass clazz, WebXml fragment, Bundle bundle, boolean fragmentHtOnly,
 			Map<Class<?>, Set<ServletContainerInitializer>> htToSci,
 			Map<ServletContainerInitializer, Set<Class<?>>> sciToHt, Map<String, ClassCacheEntry> javaClassCache,
-			boolean thereAreHTClasses, boolean thereAreHTAnnotations) {
-		try (InputStream is = url.openStream()) {
-			ClassParser parser = new ClassParser(is);
-			JavaClass clazz = parser.parse();
-			if (thereAreHTClasses || thereAreHTAnnotations) {
-				if ((clazz.getAccessFlags() & org.apache.tomcat.util.bcel.Const.ACC_ANNOTATION) == 0) {
-					// check only a non-annotation *.class, whether it:
-					// - is annotated with any annotation from @HandlesTypes
-					// - implements an interface from @HandlesTypes
-					// - extends a class from from @HandlesTypes
-					checkHandlesTypes(clazz, bundle, htToSci, sciToHt, javaClassCache,
-							thereAreHTClasses, thereAreHTAnnotations);
-				}
+			Map<String, ScannedClass> scannedClasses, boolean thereAreHTClasses, boolean thereAreHTAnnotations) {
+		if (thereAreHTClasses || thereAreHTAnnotations) {
+			if (!clazz.annotation) {
+				// check only a non-annotation *.class, whether it:
+				// - is annotated with any annotation from @HandlesTypes
+				// - implements an interface from @HandlesTypes
+				// - extends a class from from @HandlesTypes
+				checkHandlesTypes(clazz, bundle, htToSci, sciToHt, javaClassCache, scannedClasses,
+						thereAreHTClasses, thereAreHTAnnotations);
 			}
+		}
 
-			if (!fragmentHtOnly) {
-				// do not check if the class should be scanned for annotations like @WebServlet, @WebFilter, ...
-				checkClass(fragment, bundle, htToSci, clazz, javaClassCache);
-			}
-		} catch (IOException e) {
-			LOG.warn("Can't read {}: {}", url, e.getMessage(), e);
+		if (!fragmentHtOnly) {
+			// do not check if the class should be scanned for annotations like @WebServlet, @WebFilter, ...
+			checkClass(fragment, bundle, htToSci, clazz, javaClassCache, scannedClasses);
 		}
 	}
 
 	/**
-	 * <p>Checks whether the passed {@link JavaClass} is <em>indirectly</em> referred to from an "interest list" of any
+	 * <p>Checks whether the passed class is <em>indirectly</em> referred to from an "interest list" of any
 	 * SCI that has {@link javax.servlet.annotation.HandlesTypes} annoation.</p>
 	 *
 	 * <p>The goal is to turn the types mentioned in {@link javax.servlet.annotation.HandlesTypes} into actual types
@@ -1071,17 +1139,19 @@ public class BundleWebApplicationClassSpace {
 	 * @param sciToHt map under construction of SCIs to actual types passed later to
 	 *        {@link ServletContainerInitializer#onStartup(Set, ServletContext)}
 	 * @param javaClassCache
+	 * @param scannedClasses
 	 * @param thereAreHTClasses {@code true} if any of the SCIs has any non-annotation types among values of
 	 *        {@link javax.servlet.annotation.HandlesTypes}
 	 * @param thereAreHTAnnotations {@code true} if any of the SCIs has any annotation types among values of
 	 *        {@link javax.servlet.annotation.HandlesTypes}
 	 */
-	private void checkHandlesTypes(JavaClass clazz, Bundle bundle,
+	private void checkHandlesTypes(ScannedClass clazz, Bundle bundle,
 			Map<Class<?>, Set<ServletContainerInitializer>> htToSci,
 			Map<ServletContainerInitializer, Set<Class<?>>> sciToHt,
-			Map<String, ClassCacheEntry> javaClassCache, boolean thereAreHTClasses, boolean thereAreHTAnnotations) {
+			Map<String, ClassCacheEntry> javaClassCache, Map<String, ScannedClass> scannedClasses,
+			boolean thereAreHTClasses, boolean thereAreHTAnnotations) {
 
-		String className = clazz.getClassName();
+		String className = clazz.className;
 		Class<?> loadedClass = null;
 
 		if (thereAreHTClasses) {
@@ -1108,7 +1178,8 @@ public class BundleWebApplicationClassSpace {
 			// - SCI1 should get both Impl1 and Impl2
 			// - SCI2 should get Impl2 only
 
-			addSuperClassesAndInterfacesToTheCache(clazz, className, bundle, htToSci, javaClassCache);
+			addSuperClassesAndInterfacesToTheCache(clazz.superClassName, clazz.interfaceNames, className, bundle,
+					htToSci, javaClassCache, scannedClasses);
 			ClassCacheEntry cce = javaClassCache.get(className);
 			if (!cce.scis.isEmpty()) {
 				// we have to load the class
@@ -1134,12 +1205,12 @@ public class BundleWebApplicationClassSpace {
 		if (thereAreHTAnnotations) {
 			// check if this JavaClass:
 			//  - is annotated with a type mentioned in @HandlesTypes (see https://bz.apache.org/bugzilla/show_bug.cgi?id=65244)
-			if (clazz.getAnnotationEntries() == null) {
+			if (clazz.annotationTypes == null) {
 				return;
 			}
-			for (AnnotationEntry ae : clazz.getAnnotationEntries()) {
+			for (String annotationType : clazz.annotationTypes) {
 				// type is in "Ljavax/servlet/annotation/HandlesTypes;" form
-				String annotationClassName = className(ae.getAnnotationType());
+				String annotationClassName = className(annotationType);
 				if (annotationClassName != null) {
 					// does any SCI have @HT with this exact annotation?
 					for (Map.Entry<Class<?>, Set<ServletContainerInitializer>> entry : htToSci.entrySet()) {
@@ -1178,7 +1249,7 @@ public class BundleWebApplicationClassSpace {
 	}
 
 	/**
-	 * Quite easy checking whether the {@link JavaClass} is an annotated servlet, filter or listener. These are three
+	 * Quite easy checking whether the class is an annotated servlet, filter or listener. These are three
 	 * required types to check according to chapters 8.1.1-8.1.5 of the servlet specification.
 	 *
 	 * @param fragment
@@ -1186,25 +1257,36 @@ public class BundleWebApplicationClassSpace {
 	 * @param htToSci
 	 * @param clazz
 	 * @param javaClassCache
+	 * @param scannedClasses
 	 */
-	private void checkClass(WebXml fragment, Bundle bundle, Map<Class<?>, Set<ServletContainerInitializer>> htToSci, JavaClass clazz, Map<String, ClassCacheEntry> javaClassCache) {
-		AnnotationEntry[] ae = clazz.getAnnotationEntries();
-		if (ae == null) {
+	private void checkClass(WebXml fragment, Bundle bundle, Map<Class<?>, Set<ServletContainerInitializer>> htToSci,
+			ScannedClass clazz, Map<String, ClassCacheEntry> javaClassCache, Map<String, ScannedClass> scannedClasses) {
+		String[] annotationTypes = clazz.annotationTypes;
+		if (annotationTypes == null) {
 			return;
 		}
 
-		String webElementClassName = clazz.getClassName();
-		addSuperClassesAndInterfacesToTheCache(clazz, webElementClassName, bundle, htToSci, javaClassCache);
+		String webElementClassName = clazz.className;
+		addSuperClassesAndInterfacesToTheCache(clazz.superClassName, clazz.interfaceNames, webElementClassName,
+				bundle, htToSci, javaClassCache, scannedClasses);
 
-		for (AnnotationEntry ann : ae) {
-			switch (className(ann.getAnnotationType())) {
+		for (String annotationType : annotationTypes) {
+			switch (className(annotationType)) {
 				case "javax.servlet.annotation.WebServlet":
 					LOG.trace("      Processing annotated servlet {}", webElementClassName);
-					processAnnotatedServletClass(webElementClassName, fragment, bundle, ann, clazz, javaClassCache);
+					JavaClass servletClass = javaClass(clazz);
+					if (servletClass != null) {
+						processAnnotatedServletClass(webElementClassName, fragment, bundle,
+								annotation(servletClass, annotationType), servletClass, javaClassCache);
+					}
 					return;
 				case "javax.servlet.annotation.WebFilter":
 					LOG.trace("      Processing annotated filter {}", webElementClassName);
-					processAnnotatedFilterClass(webElementClassName, fragment, bundle, ann, clazz);
+					JavaClass filterClass = javaClass(clazz);
+					if (filterClass != null) {
+						processAnnotatedFilterClass(webElementClassName, fragment, bundle,
+								annotation(filterClass, annotationType), filterClass);
+					}
 					return;
 				case "javax.servlet.annotation.WebListener":
 					LOG.trace("      Processing annotated listener {}", webElementClassName);
@@ -1215,6 +1297,24 @@ public class BundleWebApplicationClassSpace {
 		}
 	}
 
+	private JavaClass javaClass(ScannedClass clazz) {
+		try {
+			return clazz.javaClass();
+		} catch (IOException e) {
+			LOG.warn("Can't read {}: {}", clazz.url, e.getMessage(), e);
+			return null;
+		}
+	}
+
+	private AnnotationEntry annotation(JavaClass clazz, String annotationType) {
+		for (AnnotationEntry ae : clazz.getAnnotationEntries()) {
+			if (annotationType.equals(ae.getAnnotationType())) {
+				return ae;
+			}
+		}
+		return null;
+	}
+
 	private void processAnnotatedServletClass(String className, WebXml fragment, Bundle bundle, AnnotationEntry ann, JavaClass clazz, Map<String, ClassCacheEntry> javaClassCache) {
 		// no idea whether to process annotations on superclasses/interfaces...
 		boolean extendsHttpServlet = false;
@@ -1592,22 +1692,22 @@ public class BundleWebApplicationClassSpace {
 		}
 	}
 
-	private ClassCacheEntry addSuperClassesAndInterfacesToTheCache(JavaClass clazz, String className,
-			Bundle bundle, Map<Class<?>, Set<ServletContainerInitializer>> htToSci,
-			Map<String, ClassCacheEntry> javaClassCache) {
+	private ClassCacheEntry addSuperClassesAndInterfacesToTheCache(String superClassName, String[] interfaceNames,
+			String className, Bundle bundle, Map<Class<?>, Set<ServletContainerInitializer>> htToSci,
+			Map<String, ClassCacheEntry> javaClassCache, Map<String, ScannedClass> scannedClasses) {
 
 		ClassCacheEntry cce = javaClassCache.get(className);
 		if (cce != null) {
 			return cce;
 		}
 		cce = new ClassCacheEntry();
-		cce.superClassName = clazz.getSuperclassName();
-		cce.interfaceNames = clazz.getInterfaceNames();
+		cce.superClassName = superClassName;
+		cce.interfaceNames = interfaceNames;
 		javaClassCache.put(className, cce);
 
-		addToCache(cce.superClassName, bundle, htToSci, javaClassCache);
+		addToCache(cce.superClassName, bundle, htToSci, javaClassCache, scannedClasses);
 		for (String name : cce.interfaceNames) {
-			addToCache(name, bundle, htToSci, javaClassCache);
+			addToCache(name, bundle, htToSci, javaClassCache, scannedClasses);
 		}
 
 		configureRelevantSCIs(cce, htToSci, javaClassCache);
@@ -1616,7 +1716,8 @@ public class BundleWebApplicationClassSpace {
 	}
 
 	private void addToCache(String className, Bundle bundle,
-			Map<Class<?>, Set<ServletContainerInitializer>> htToSci, Map<String, ClassCacheEntry> javaClassCache) {
+			Map<Class<?>, Set<ServletContainerInitializer>> htToSci, Map<String, ClassCacheEntry> javaClassCache,
+			Map<String, ScannedClass> scannedClasses) {
 
 		if (javaClassCache.containsKey(className)) {
 			return;
@@ -1630,10 +1731,18 @@ public class BundleWebApplicationClassSpace {
 		if (url == null) {
 			return;
 		}
+		// the class may have already been parsed when scanning the roots
+		ScannedClass scanned = scannedClasses.get(url.toExternalForm());
+		if (scanned != null) {
+			addSuperClassesAndInterfacesToTheCache(scanned.superClassName, scanned.interfaceNames, className,
+					bundle, htToSci, javaClassCache, scannedClasses);
+			return;
+		}
 		try (InputStream is = url.openStream()) {
 			ClassParser parser = new ClassParser(is);
 			JavaClass clazz = parser.parse();
-			addSuperClassesAndInterfacesToTheCache(clazz, className, bundle, htToSci, javaClassCache);
+			addSuperClassesAndInterfacesToTheCache(clazz.getSuperclassName(), clazz.getInterfaceNames(), className,
+					bundle, htToSci, javaClassCache, scannedClasses);
 		} catch (Exception e) {
 			LOG.warn("Can't get class resource {}: {}", url, e.getMessage(), e);
 		}
@@ -1690,6 +1799,25 @@ public class BundleWebApplicationClassSpace {
 		return null;
 	}
 
+	/**
+	 * Single root (directory or JAR) with classes to scan
+	 */
+	private static final class ScanRoot {
+		private final URL url;
+		private final WebXml fragment;
+		private final Bundle bundle;
+		private final boolean htOnly;
+		private final List<URL> classes;
+
+		ScanRoot(URL url, WebXml fragment, Bundle bundle, boolean htOnly, List<URL> classes) {
+			this.url = url;
+			this.fragment = fragment;
+			this.bundle = bundle;
+			this.htOnly = htOnly;
+			this.classes = classes;
+		}
+	}
+
 	/**
 	 * See {@code org.apache.catalina.startup.ContextConfig.JavaClassCacheEntry}
 	 */
@@ -0,0 +1,390 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.extender.war.internal.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.apache.tomcat.util.bcel.Const;
+import org.apache.tomcat.util.bcel.classfile.AnnotationEntry;
+import org.apache.tomcat.util.bcel.classfile.ClassParser;
+import org.apache.tomcat.util.bcel.classfile.JavaClass;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Persistent index of the information obtained from {@code *.class} files of single <em>scan root</em> (directory
+ * entry of WAB's {@code Bundle-ClassPath}, embedded JAR or a bundle) during annotation and
+ * {@link javax.servlet.annotation.HandlesTypes} scanning.</p>
+ *
+ * <p>The index of a root is valid as long as the bundle providing the root has the same id and last modification
+ * time and the digest of the root (list of the class entries and for embedded JARs - their sizes and CRCs from
+ * the central directory of the JAR) doesn't change. This means that restarting the runtime with unchanged WABs doesn't require parsing the bytecode
+ * again (except the classes which are annotated with {@link javax.servlet.annotation.WebServlet} or
+ * {@link javax.servlet.annotation.WebFilter} - their annotation values are not indexed).</p>
+ *
+ * <p>Index files of a bundle are removed when the bundle is uninstalled.</p>
+ *
+ * <p>This class is thread safe - roots can be scanned concurrently.</p>
+ */
+public class ClassScanIndex implements BundleListener {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ClassScanIndex.class);
+
+	private static final int VERSION = 1;
+
+	/** Directory with index files. If {@code null}, nothing is stored. */
+	private final File directory;
+
+	/**
+	 * Creates an index stored in given directory
+	 *
+	 * @param directory location of index files. If {@code null}, classes are always parsed.
+	 */
+	public ClassScanIndex(File directory) {
+		this.directory = directory;
+		if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+			LOG.warn("Can't create class scan index directory {}", directory);
+		}
+	}
+
+	/**
+	 * Returns information about all the passed {@code *.class} entries of a scan root - either from the index
+	 * or by parsing the classes.
+	 *
+	 * @param bundle a bundle providing the classes
+	 * @param root scanned root - a directory or JAR {@link URL}
+	 * @param classes {@code *.class} entries found in the root
+	 * @return scanned classes in the order of passed entries (entries that can't be read are skipped)
+	 */
+	List<ScannedClass> scan(Bundle bundle, URL root, List<URL> classes) {
+		File indexFile = null;
+		String digest = null;
+		if (directory != null && directory.isDirectory()) {
+			indexFile = new File(directory, bundle.getBundleId() + "-" + hex(sha256(stablePath(root))).substring(0, 16) + ".idx");
+			digest = digest(root, classes);
+		}
+
+		if (digest != null && indexFile.isFile()) {
+			List<ScannedClass> indexed = load(indexFile, bundle.getLastModified(), digest, classes);
+			if (indexed != null) {
+				LOG.trace("  Using class scan index {} for {}", indexFile, root);
+				return indexed;
+			}
+		}
+
+		List<ScannedClass> result = new ArrayList<>(classes.size());
+		boolean complete = true;
+		for (URL url : classes) {
+			try {
+				result.add(ScannedClass.parse(url));
+			} catch (IOException e) {
+				LOG.warn("Can't read {}: {}", url, e.getMessage(), e);
+				complete = false;
+			}
+		}
+
+		if (digest != null && complete) {
+			store(indexFile, bundle.getLastModified(), digest, result);
+		}
+
+		return result;
+	}
+
+	@Override
+	public void bundleChanged(BundleEvent event) {
+		if (event.getType() == BundleEvent.UNINSTALLED) {
+			remove(event.getBundle());
+		}
+	}
+
+	/**
+	 * Removes all the index files of given bundle.
+	 *
+	 * @param bundle
+	 */
+	void remove(Bundle bundle) {
+		if (directory == null) {
+			return;
+		}
+		String prefix = bundle.getBundleId() + "-";
+		File[] files = directory.listFiles((dir, name) -> name.startsWith(prefix) && name.endsWith(".idx"));
+		if (files == null) {
+			return;
+		}
+		for (File file : files) {
+			if (!file.delete()) {
+				LOG.debug("Can't delete class scan index {}", file);
+			} else {
+				LOG.trace("Deleted class scan index {} of uninstalled bundle {}", file, bundle);
+			}
+		}
+	}
+
+	private List<ScannedClass> load(File indexFile, long lastModified, String digest, List<URL> classes) {
+		try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+			if (dis.readInt() != VERSION || dis.readLong() != lastModified || !digest.equals(dis.readUTF())) {
+				return null;
+			}
+			int count = dis.readInt();
+			if (count != classes.size()) {
+				return null;
+			}
+			Map<String, ScannedClass> entries = new HashMap<>(count * 2);
+			for (int i = 0; i < count; i++) {
+				String entry = dis.readUTF();
+				ScannedClass sc = new ScannedClass();
+				sc.className = dis.readUTF();
+				sc.superClassName = dis.readBoolean() ? dis.readUTF() : null;
+				sc.interfaceNames = new String[dis.readInt()];
+				for (int j = 0; j < sc.interfaceNames.length; j++) {
+					sc.interfaceNames[j] = dis.readUTF();
+				}
+				sc.annotation = dis.readBoolean();
+				int annotations = dis.readInt();
+				if (annotations >= 0) {
+					sc.annotationTypes = new String[annotations];
+					for (int j = 0; j < annotations; j++) {
+						sc.annotationTypes[j] = dis.readUTF();
+					}
+				}
+				entries.put(entry, sc);
+			}
+			List<ScannedClass> result = new ArrayList<>(count);
+			for (URL url : classes) {
+				ScannedClass sc = entries.get(stablePath(url));
+				if (sc == null) {
+					return null;
+				}
+				sc.url = url;
+				result.add(sc);
+			}
+			return result;
+		} catch (IOException e) {
+			LOG.debug("Can't read class scan index {}: {}", indexFile, e.getMessage());
+			return null;
+		}
+	}
+
+	private void store(File indexFile, long lastModified, String digest, List<ScannedClass> classes) {
+		File tmp = new File(indexFile.getParentFile(), indexFile.getName() + ".tmp" + Thread.currentThread().getId());
+		try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+			dos.writeInt(VERSION);
+			dos.writeLong(lastModified);
+			dos.writeUTF(digest);
+			dos.writeInt(classes.size());
+			for (ScannedClass sc : classes) {
+				dos.writeUTF(stablePath(sc.url));
+				dos.writeUTF(sc.className);
+				dos.writeBoolean(sc.superClassName != null);
+				if (sc.superClassName != null) {
+					dos.writeUTF(sc.superClassName);
+				}
+				dos.writeInt(sc.interfaceNames.length);
+				for (String name : sc.interfaceNames) {
+					dos.writeUTF(name);
+				}
+				dos.writeBoolean(sc.annotation);
+				dos.writeInt(sc.annotationTypes == null ? -1 : sc.annotationTypes.length);
+				if (sc.annotationTypes != null) {
+					for (String type : sc.annotationTypes) {
+						dos.writeUTF(type);
+					}
+				}
+			}
+		} catch (IOException e) {
+			LOG.debug("Can't write class scan index {}: {}", indexFile, e.getMessage());
+			tmp.delete();
+			return;
+		}
+		try {
+			Files.move(tmp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			LOG.debug("Can't write class scan index {}: {}", indexFile, e.getMessage());
+			tmp.delete();
+		}
+	}
+
+	/**
+	 * Digest of the scan root - class entries and, for embedded JARs, sizes and CRCs of the entries taken from
+	 * the central directory of the JAR, so the content doesn't have to be read (bundle's last modification time
+	 * is checked separately).
+	 *
+	 * @param root
+	 * @param classes
+	 * @return
+	 */
+	private String digest(URL root, List<URL> classes) {
+		MessageDigest md = sha256();
+		String ef = root.toExternalForm();
+		if (!ef.startsWith("jar:") || !ef.contains("!/")) {
+			for (URL url : classes) {
+				md.update(stablePath(url).getBytes(StandardCharsets.UTF_8));
+				md.update((byte) 0);
+			}
+			return hex(md.digest());
+		}
+
+		JarFile jar = null;
+		boolean cached = false;
+		try {
+			URLConnection connection = root.openConnection();
+			if (!(connection instanceof JarURLConnection)) {
+				return null;
+			}
+			// when cached by the JDK, the JarFile is shared with the connections used to read the class entries
+			cached = connection.getUseCaches();
+			jar = ((JarURLConnection) connection).getJarFile();
+			for (URL url : classes) {
+				String path = stablePath(url);
+				int idx = path.indexOf("!/");
+				JarEntry entry = idx > 0 ? jar.getJarEntry(path.substring(idx + 2)) : null;
+				if (entry == null) {
+					return null;
+				}
+				md.update(path.getBytes(StandardCharsets.UTF_8));
+				md.update((byte) 0);
+				md.update((entry.getSize() + ":" + entry.getCrc()).getBytes(StandardCharsets.UTF_8));
+				md.update((byte) 0);
+			}
+			return hex(md.digest());
+		} catch (IOException e) {
+			LOG.debug("Can't calculate digest of {}: {}", root, e.getMessage());
+			return null;
+		} finally {
+			if (jar != null && !cached) {
+				try {
+					jar.close();
+				} catch (IOException e) {
+					LOG.debug("Can't close {}: {}", root, e.getMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * {@link URL} without the host part, which (for example in {@code bundle://42.0:0/}) may contain bundle
+	 * revision.
+	 *
+	 * @param url
+	 * @return
+	 */
+	private static String stablePath(URL url) {
+		return url.toExternalForm().replaceFirst("://[^/:]*", "://");
+	}
+
+	private static byte[] sha256(String value) {
+		return sha256().digest(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e.getMessage(), e);
+		}
+	}
+
+	private static String hex(byte[] bytes) {
+		StringBuilder sb = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			sb.append(String.format("%02x", b));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Information about single {@code *.class} file needed to check {@link javax.servlet.annotation.HandlesTypes}
+	 * and to detect annotated web elements.
+	 */
+	static final class ScannedClass {
+		URL url;
+		String className;
+		String superClassName;
+		String[] interfaceNames;
+		/** Whether the class is an annotation */
+		boolean annotation;
+		/** Annotation types in {@code Lpackage/Type;} form. May be {@code null} just as in {@link JavaClass} */
+		String[] annotationTypes;
+		/** Parsed class kept only for classes with annotations which need element values */
+		JavaClass javaClass;
+
+		static ScannedClass parse(URL url) throws IOException {
+			JavaClass clazz;
+			try (InputStream is = url.openStream()) {
+				clazz = new ClassParser(is).parse();
+			}
+			ScannedClass sc = new ScannedClass();
+			sc.url = url;
+			sc.className = clazz.getClassName();
+			sc.superClassName = clazz.getSuperclassName();
+			sc.interfaceNames = clazz.getInterfaceNames();
+			sc.annotation = (clazz.getAccessFlags() & Const.ACC_ANNOTATION) != 0;
+			AnnotationEntry[] entries = clazz.getAnnotationEntries();
+			if (entries != null) {
+				sc.annotationTypes = new String[entries.length];
+				for (int i = 0; i < entries.length; i++) {
+					sc.annotationTypes[i] = entries[i].getAnnotationType();
+					if ("Ljavax/servlet/annotation/WebServlet;".equals(sc.annotationTypes[i])
+							|| "Ljavax/servlet/annotation/WebFilter;".equals(sc.annotationTypes[i])) {
+						sc.javaClass = clazz;
+					}
+				}
+			}
+			return sc;
+		}
+
+		/**
+		 * Returns parsed {@link JavaClass} - parsing it again if the information was taken from the index.
+		 *
+		 * @return
+		 * @throws IOException
+		 */
+		JavaClass javaClass() throws IOException {
+			if (javaClass == null) {
+				try (InputStream is = url.openStream()) {
+					javaClass = new ClassParser(is).parse();
+				}
+			}
+			return javaClass;
+		}
+	}
+
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.extender.war.internal.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.ops4j.pax.web.service.spi.model.views.WebAppWebContainerView;
+import org.ops4j.pax.web.service.spi.task.Batch;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.wiring.BundleWire;
+import org.osgi.framework.wiring.BundleWiring;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Scheduler of the last stage of WAB deployment - the registration of {@link Batch batches} built by
+ * {@link BundleWebApplication}s.</p>
+ *
+ * <p>Parsing of the descriptors, ordering of web fragments, loading of SCIs and scanning of the classes is done
+ * in parallel by the threads of pax-web-extender-war pool. But the registration is serialized anyway by the single
+ * configuration thread of pax-web-runtime, so instead of holding an extender thread until its WAB is registered,
+ * the batches are queued here and all the WABs ready at given moment are registered in one configuration task and
+ * one registration group (the runtime starts their contexts once, at the end of the group). In the meantime, the
+ * extender threads process other WABs.</p>
+ *
+ * <p>Within a group, a WAB providing packages or capabilities to other WABs of the group is registered before
+ * them. Unrelated WABs are registered in the order of bundle IDs.</p>
+ */
+public class WabDeploymentScheduler {
+
+	private static final Logger LOG = LoggerFactory.getLogger(WabDeploymentScheduler.class);
+
+	private final Supplier<ExecutorService> pool;
+
+	/** Whether the group is registered in the thread scheduling the deployment (which is useful for testing) */
+	private final boolean synchronous;
+
+	private final Queue<Deployment> queue = new ConcurrentLinkedQueue<>();
+
+	/** Whether there's a pool task scheduled to register the queued deployments */
+	private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+	/** Only one group is registered at a time */
+	private final Lock registrationLock = new ReentrantLock();
+
+	/**
+	 * Creates a scheduler which registers the queued WABs using tasks submitted to a pool
+	 *
+	 * @param pool supplier of pax-web-extender-war pool (which may be replaced)
+	 * @param synchronous whether to register the WABs in the thread which schedules the deployment instead
+	 */
+	public WabDeploymentScheduler(Supplier<ExecutorService> pool, boolean synchronous) {
+		this.pool = pool;
+		this.synchronous = synchronous;
+	}
+
+	/**
+	 * Queues the {@link Batch} of a {@link BundleWebApplication} for registration. When it's done,
+	 * {@link BundleWebApplication#registered} is called.
+	 *
+	 * @param wab
+	 * @param view the view of {@link org.ops4j.pax.web.service.WebContainer} obtained for the WAB
+	 * @param batch
+	 */
+	void schedule(BundleWebApplication wab, WebAppWebContainerView view, Batch batch) {
+		Deployment deployment = new Deployment(wab, view, batch);
+		queue.add(deployment);
+
+		if (synchronous) {
+			register();
+			return;
+		}
+
+		if (scheduled.compareAndSet(false, true)) {
+			try {
+				pool.get().submit(this::register);
+			} catch (RejectedExecutionException e) {
+				queue.remove(deployment);
+				scheduled.set(false);
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Registers all the queued WABs in single group.
+	 */
+	private void register() {
+		registrationLock.lock();
+		try {
+			scheduled.set(false);
+
+			List<Deployment> deployments = new ArrayList<>();
+			Deployment deployment;
+			while ((deployment = queue.poll()) != null) {
+				deployments.add(deployment);
+			}
+			if (deployments.isEmpty()) {
+				return;
+			}
+
+			List<Deployment> ordered = order(deployments, d -> d.wab.getBundle());
+			if (ordered.size() > 1) {
+				LOG.info("Registering {} web applications: {}", ordered.size(), ordered);
+			}
+
+			long start = System.nanoTime();
+			Throwable groupFailure = null;
+			try {
+				// any view can be used to start the group - each batch is sent using WAB's own view
+				ordered.get(0).view.runInGroup(() -> {
+					for (Deployment d : ordered) {
+						if (!d.wab.startRegistration(d.batch)) {
+							// stopped or WebContainer is gone while the WAB was queued - registration is cancelled
+							d.cancelled = true;
+							continue;
+						}
+						try {
+							d.view.sendBatch(d.batch);
+						} catch (Throwable t) {
+							d.failure = t;
+						}
+						d.sent = true;
+					}
+				});
+			} catch (Throwable t) {
+				groupFailure = t;
+			}
+			long end = System.nanoTime();
+
+			for (Deployment d : ordered) {
+				if (d.cancelled) {
+					continue;
+				}
+				Throwable failure = d.failure != null ? d.failure : (d.sent ? null : groupFailure);
+				try {
+					d.wab.registered(failure, d.queued, start, end);
+				} catch (RuntimeException e) {
+					LOG.warn("Problem finishing deployment of {}: {}", d.wab, e.getMessage(), e);
+				}
+			}
+		} finally {
+			registrationLock.unlock();
+		}
+	}
+
+	/**
+	 * Orders the items (WABs), so the providers of packages or capabilities are before the bundles wired to them.
+	 * Unrelated items (and items in a dependency cycle) are ordered by bundle ID.
+	 *
+	 * @param items
+	 * @param bundles function returning a {@link Bundle} of an item
+	 * @param <T>
+	 * @return
+	 */
+	static <T> List<T> order(Collection<T> items, Function<T, Bundle> bundles) {
+		Comparator<T> byId = Comparator.comparingLong(item -> bundles.apply(item).getBundleId());
+
+		Map<Bundle, T> byBundle = new HashMap<>();
+		items.forEach(item -> byBundle.put(bundles.apply(item), item));
+
+		// number of not yet ordered providers of each item and the consumers of each item
+		Map<T, Integer> pending = new HashMap<>();
+		Map<T, List<T>> consumers = new HashMap<>();
+		for (T item : items) {
+			Set<T> providers = providers(bundles.apply(item), byBundle);
+			providers.remove(item);
+			pending.put(item, providers.size());
+			providers.forEach(p -> consumers.computeIfAbsent(p, k -> new ArrayList<>()).add(item));
+		}
+
+		PriorityQueue<T> ready = new PriorityQueue<>(byId);
+		pending.forEach((item, count) -> {
+			if (count == 0) {
+				ready.add(item);
+			}
+		});
+
+		List<T> ordered = new ArrayList<>(items.size());
+		while (!pending.isEmpty()) {
+			if (ready.isEmpty()) {
+				// dependency cycle - continue with the item with lowest bundle ID
+				T first = Collections.min(pending.keySet(), byId);
+				pending.put(first, 0);
+				ready.add(first);
+			}
+			T next = ready.poll();
+			pending.remove(next);
+			ordered.add(next);
+			for (T consumer : consumers.getOrDefault(next, Collections.emptyList())) {
+				Integer count = pending.get(consumer);
+				if (count != null && count > 0) {
+					pending.put(consumer, count - 1);
+					if (count == 1) {
+						ready.add(consumer);
+					}
+				}
+			}
+		}
+
+		return ordered;
+	}
+
+	private static <T> Set<T> providers(Bundle bundle, Map<Bundle, T> byBundle) {
+		Set<T> providers = new LinkedHashSet<>();
+		BundleWiring wiring = bundle.adapt(BundleWiring.class);
+		List<BundleWire> wires = wiring == null ? null : wiring.getRequiredWires(null);
+		if (wires == null) {
+			return providers;
+		}
+		for (BundleWire wire : wires) {
+			if (wire.getCapability() == null || wire.getCapability().getRevision() == null) {
+				continue;
+			}
+			T provider = byBundle.get(wire.getCapability().getRevision().getBundle());
+			if (provider != null) {
+				providers.add(provider);
+			}
+		}
+		return providers;
+	}
+
+	private static class Deployment {
+		private final BundleWebApplication wab;
+		private final WebAppWebContainerView view;
+		private final Batch batch;
+		private final long queued = System.nanoTime();
+		private boolean sent;
+		private boolean cancelled;
+		private Throwable failure;
+
+		Deployment(BundleWebApplication wab, WebAppWebContainerView view, Batch batch) {
+			this.wab = wab;
+			this.view = view;
+			this.batch = batch;
+		}
+
+		@Override
+		public String toString() {
+			return "\"" + wab.getContextPath() + "\" [" + wab.getBundle().getBundleId() + "]";
+		}
+	}
+
+}
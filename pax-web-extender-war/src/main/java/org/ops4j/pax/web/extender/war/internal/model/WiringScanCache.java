@@ -0,0 +1,143 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.extender.war.internal.model;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleListener;
+import org.osgi.framework.wiring.BundleRevision;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Framework-wide cache of the information found in bundles reachable from WABs - locations of
+ * {@code META-INF/web-fragment.xml} descriptors, {@code META-INF/services/javax.servlet.ServletContainerInitializer}
+ * services and class names declared in these services.</p>
+ *
+ * <p>Most of the bundles wired to WABs are shared libraries, so without this cache, each deployed WAB would search
+ * the same bundles again. The information is kept per bundle id and is valid for single
+ * {@link BundleRevision}/last modification time of the bundle. It's dropped when the bundle is updated, unresolved
+ * (refreshed) or uninstalled.</p>
+ *
+ * <p>Only the information which doesn't depend on the WAB is cached - for example web fragments are still
+ * parsed into new {@link org.apache.tomcat.util.descriptor.web.WebXml} for each WAB, because these are altered
+ * during WAB deployment.</p>
+ */
+public class WiringScanCache implements BundleListener {
+
+	private static final Logger LOG = LoggerFactory.getLogger(WiringScanCache.class);
+
+	private final Map<Long, BundleScan> cache = new ConcurrentHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Returns cached value for given bundle and key or calls the {@link Loader} and caches the result. {@code null}
+	 * values are not cached.
+	 *
+	 * @param bundle
+	 * @param key
+	 * @param loader
+	 * @param <T>
+	 * @return
+	 * @throws IOException
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(Bundle bundle, String key, Loader<T> loader) throws IOException {
+		BundleRevision revision = bundle.adapt(BundleRevision.class);
+		long lastModified = bundle.getLastModified();
+		BundleScan scan = cache.compute(bundle.getBundleId(), (id, existing) -> {
+			if (existing != null && existing.revision == revision && existing.lastModified == lastModified) {
+				return existing;
+			}
+			return new BundleScan(revision, lastModified);
+		});
+
+		Object value = scan.values.get(key);
+		if (value != null) {
+			hits.increment();
+			LOG.trace("    Using cached {} for {}", key, bundle);
+			return (T) value;
+		}
+		misses.increment();
+		T loaded = loader.load();
+		if (loaded != null) {
+			scan.values.put(key, loaded);
+		}
+		return loaded;
+	}
+
+	/**
+	 * Drops all the information about given bundle
+	 * @param bundle
+	 */
+	public void invalidate(Bundle bundle) {
+		if (cache.remove(bundle.getBundleId()) != null) {
+			LOG.debug("Dropped cached scan information of {}", bundle);
+		}
+	}
+
+	@Override
+	public void bundleChanged(BundleEvent event) {
+		switch (event.getType()) {
+			case BundleEvent.UPDATED:
+			case BundleEvent.UNRESOLVED:
+			case BundleEvent.UNINSTALLED:
+				invalidate(event.getBundle());
+				break;
+			default:
+		}
+	}
+
+	public void clear() {
+		cache.clear();
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * A way to obtain the information when it's not yet cached.
+	 * @param <T>
+	 */
+	@FunctionalInterface
+	public interface Loader<T> {
+		T load() throws IOException;
+	}
+
+	private static final class BundleScan {
+		private final BundleRevision revision;
+		private final long lastModified;
+		private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+		BundleScan(BundleRevision revision, long lastModified) {
+			this.revision = revision;
+			this.lastModified = lastModified;
+		}
+	}
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.extender.war.internal.model;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ops4j.pax.web.extender.war.internal.model.ClassScanIndex.ScannedClass;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleEvent;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ClassScanIndexTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void indexIsUsedForUnchangedBundle() throws IOException {
+		File dir = tmp.newFolder("scan-index");
+		URL root = new File("target/test-classes").toURI().toURL();
+		List<URL> classes = Arrays.asList(resource(ClassScanIndexTest.class), resource(AnnotatedServlet.class));
+		Bundle bundle = mock(Bundle.class);
+		when(bundle.getBundleId()).thenReturn(42L);
+		when(bundle.getLastModified()).thenReturn(1L);
+
+		List<ScannedClass> parsed = new ClassScanIndex(dir).scan(bundle, root, classes);
+		assertEquals(2, parsed.size());
+		assertNotNull(parsed.get(1).javaClass);
+		assertEquals(1, dir.listFiles().length);
+
+		// new index instance, as after restart
+		List<ScannedClass> indexed = new ClassScanIndex(dir).scan(bundle, root, classes);
+		assertEquals(2, indexed.size());
+		for (int i = 0; i < 2; i++) {
+			assertEquals(parsed.get(i).className, indexed.get(i).className);
+			assertEquals(parsed.get(i).superClassName, indexed.get(i).superClassName);
+			assertArrayEquals(parsed.get(i).interfaceNames, indexed.get(i).interfaceNames);
+			assertArrayEquals(parsed.get(i).annotationTypes, indexed.get(i).annotationTypes);
+			assertEquals(classes.get(i), indexed.get(i).url);
+		}
+		assertEquals(HttpServlet.class.getName(), indexed.get(1).superClassName);
+		assertTrue(Arrays.asList(indexed.get(1).annotationTypes).contains("Ljavax/servlet/annotation/WebServlet;"));
+		// not parsed when taken from the index, but available on demand
+		assertNull(indexed.get(1).javaClass);
+		assertEquals(AnnotatedServlet.class.getName(), indexed.get(1).javaClass().getClassName());
+
+		// updated bundle
+		when(bundle.getLastModified()).thenReturn(2L);
+		assertNotNull(new ClassScanIndex(dir).scan(bundle, root, classes).get(1).javaClass);
+		assertEquals(1, dir.listFiles().length);
+	}
+
+	@Test
+	public void corruptedIndexIsIgnored() throws IOException {
+		File dir = tmp.newFolder("scan-index");
+		URL root = new File("target/test-classes").toURI().toURL();
+		List<URL> classes = Arrays.asList(resource(AnnotatedServlet.class));
+		Bundle bundle = mock(Bundle.class);
+		when(bundle.getBundleId()).thenReturn(42L);
+
+		new ClassScanIndex(dir).scan(bundle, root, classes);
+		File[] files = dir.listFiles();
+		assertEquals(1, files.length);
+		Files.write(files[0].toPath(), new byte[] { 0, 0, 0, 1, 42 });
+
+		List<ScannedClass> result = new ClassScanIndex(dir).scan(bundle, root, classes);
+		assertEquals(AnnotatedServlet.class.getName(), result.get(0).className);
+		assertNotNull(result.get(0).javaClass);
+	}
+
+	@Test
+	public void jarRootIsKeyedOnEntrySizesAndCrcs() throws IOException {
+		File dir = tmp.newFolder("scan-index");
+		File jar = new File(tmp.getRoot(), "lib.jar");
+		writeJar(jar, AnnotatedServlet.class);
+		URL root = new URL("jar:" + jar.toURI() + "!/");
+		List<URL> classes = Arrays.asList(new URL(root, "s.class"));
+		Bundle bundle = mock(Bundle.class);
+		when(bundle.getBundleId()).thenReturn(42L);
+
+		boolean useCaches = URLConnection.getDefaultUseCaches("jar");
+		// the JAR is rewritten, so the JarFile can't be cached
+		URLConnection.setDefaultUseCaches("jar", false);
+		try {
+			assertNotNull(new ClassScanIndex(dir).scan(bundle, root, classes).get(0).javaClass);
+			List<ScannedClass> indexed = new ClassScanIndex(dir).scan(bundle, root, classes);
+			assertNull(indexed.get(0).javaClass);
+			assertEquals(AnnotatedServlet.class.getName(), indexed.get(0).className);
+
+			// same entry name, different content
+			writeJar(jar, ClassScanIndexTest.class);
+			List<ScannedClass> parsed = new ClassScanIndex(dir).scan(bundle, root, classes);
+			assertEquals(ClassScanIndexTest.class.getName(), parsed.get(0).className);
+			assertEquals(1, dir.listFiles().length);
+		} finally {
+			URLConnection.setDefaultUseCaches("jar", useCaches);
+		}
+	}
+
+	@Test
+	public void indexIsRemovedForUninstalledBundle() throws IOException {
+		File dir = tmp.newFolder("scan-index");
+		URL root = new File("target/test-classes").toURI().toURL();
+		List<URL> classes = Arrays.asList(resource(AnnotatedServlet.class));
+		Bundle bundle42 = mock(Bundle.class);
+		when(bundle42.getBundleId()).thenReturn(42L);
+		Bundle bundle4 = mock(Bundle.class);
+		when(bundle4.getBundleId()).thenReturn(4L);
+
+		ClassScanIndex index = new ClassScanIndex(dir);
+		index.scan(bundle42, root, classes);
+		index.scan(bundle4, root, classes);
+		assertEquals(2, dir.listFiles().length);
+
+		index.bundleChanged(new BundleEvent(BundleEvent.STOPPED, bundle42));
+		assertEquals(2, dir.listFiles().length);
+		index.bundleChanged(new BundleEvent(BundleEvent.UNINSTALLED, bundle42));
+		File[] files = dir.listFiles();
+		assertEquals(1, files.length);
+		assertTrue(files[0].getName().startsWith("4-"));
+	}
+
+	private void writeJar(File jar, Class<?> clazz) throws IOException {
+		try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(jar));
+				InputStream is = resource(clazz).openStream()) {
+			jos.putNextEntry(new ZipEntry("s.class"));
+			is.transferTo(jos);
+			jos.closeEntry();
+		}
+	}
+
+	private URL resource(Class<?> clazz) {
+		return clazz.getResource("/" + clazz.getName().replace('.', '/') + ".class");
+	}
+
+	@WebServlet("/s")
+	public static class AnnotatedServlet extends HttpServlet {
+	}
+
+}
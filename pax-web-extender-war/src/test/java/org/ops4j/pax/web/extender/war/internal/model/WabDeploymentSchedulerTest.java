@@ -0,0 +1,134 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.extender.war.internal.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.ops4j.pax.web.service.spi.model.views.WebAppWebContainerView;
+import org.ops4j.pax.web.service.spi.task.Batch;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.wiring.BundleCapability;
+import org.osgi.framework.wiring.BundleRevision;
+import org.osgi.framework.wiring.BundleWire;
+import org.osgi.framework.wiring.BundleWiring;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WabDeploymentSchedulerTest {
+
+	@Test
+	public void unrelatedWabsAreOrderedByBundleId() {
+		Bundle b1 = bundle(12L);
+		Bundle b2 = bundle(10L);
+		Bundle b3 = bundle(11L);
+
+		assertEquals(Arrays.asList(b2, b3, b1),
+				WabDeploymentScheduler.order(Arrays.asList(b1, b2, b3), Function.identity()));
+	}
+
+	@Test
+	public void providersAreOrderedBeforeConsumers() {
+		Bundle b1 = bundle(10L);
+		Bundle b2 = bundle(11L);
+		Bundle b3 = bundle(12L);
+		Bundle other = bundle(5L);
+		// 10 -> 12 -> 11 and 10 -> other bundle, which is not deployed together with the WABs
+		wire(b1, b3);
+		wire(b3, b2);
+		wire(b1, other);
+
+		assertEquals(Arrays.asList(b2, b3, b1),
+				WabDeploymentScheduler.order(Arrays.asList(b1, b2, b3), Function.identity()));
+	}
+
+	@Test
+	public void cycleIsBrokenUsingLowestBundleId() {
+		Bundle b1 = bundle(10L);
+		Bundle b2 = bundle(11L);
+		Bundle b3 = bundle(12L);
+		wire(b1, b2);
+		wire(b2, b1);
+		wire(b3, b1);
+
+		assertEquals(Arrays.asList(b1, b2, b3),
+				WabDeploymentScheduler.order(Arrays.asList(b3, b2, b1), Function.identity()));
+	}
+
+	@Test
+	public void cancelledWabIsNotRegistered() {
+		WebAppWebContainerView view = mock(WebAppWebContainerView.class);
+		doAnswer(invocation -> {
+			((Runnable) invocation.getArgument(0)).run();
+			return null;
+		}).when(view).runInGroup(any(Runnable.class));
+		WabDeploymentScheduler scheduler = new WabDeploymentScheduler(() -> null, true);
+
+		// stopped while it was queued
+		BundleWebApplication stopped = mock(BundleWebApplication.class);
+		Bundle b1 = bundle(10L);
+		when(stopped.getBundle()).thenReturn(b1);
+		Batch batch1 = new Batch("b1");
+		when(stopped.startRegistration(batch1)).thenReturn(false);
+		scheduler.schedule(stopped, view, batch1);
+
+		verify(view, never()).sendBatch(batch1);
+		verify(stopped, never()).registered(any(), anyLong(), anyLong(), anyLong());
+
+		BundleWebApplication deployed = mock(BundleWebApplication.class);
+		Bundle b2 = bundle(11L);
+		when(deployed.getBundle()).thenReturn(b2);
+		Batch batch2 = new Batch("b2");
+		when(deployed.startRegistration(batch2)).thenReturn(true);
+		scheduler.schedule(deployed, view, batch2);
+
+		verify(view).sendBatch(batch2);
+		verify(deployed).registered(any(), anyLong(), anyLong(), anyLong());
+	}
+
+	private Bundle bundle(long id) {
+		Bundle bundle = mock(Bundle.class);
+		when(bundle.getBundleId()).thenReturn(id);
+		BundleRevision revision = mock(BundleRevision.class);
+		when(revision.getBundle()).thenReturn(bundle);
+		when(bundle.adapt(BundleRevision.class)).thenReturn(revision);
+		BundleWiring wiring = mock(BundleWiring.class);
+		when(wiring.getRequiredWires(null)).thenReturn(new ArrayList<>());
+		when(bundle.adapt(BundleWiring.class)).thenReturn(wiring);
+		return bundle;
+	}
+
+	private void wire(Bundle consumer, Bundle provider) {
+		List<BundleWire> wires = consumer.adapt(BundleWiring.class).getRequiredWires(null);
+		BundleWire wire = mock(BundleWire.class);
+		BundleCapability capability = mock(BundleCapability.class);
+		BundleRevision revision = provider.adapt(BundleRevision.class);
+		when(capability.getRevision()).thenReturn(revision);
+		when(wire.getCapability()).thenReturn(capability);
+		wires.add(wire);
+	}
+
+}
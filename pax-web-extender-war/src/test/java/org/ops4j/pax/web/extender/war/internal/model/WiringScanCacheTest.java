@@ -0,0 +1,70 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.extender.war.internal.model;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.wiring.BundleRevision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WiringScanCacheTest {
+
+	@Test
+	public void cachedPerRevision() throws IOException {
+		WiringScanCache cache = new WiringScanCache();
+		AtomicInteger loads = new AtomicInteger();
+		Bundle bundle = mock(Bundle.class);
+		when(bundle.getBundleId()).thenReturn(42L);
+		when(bundle.adapt(BundleRevision.class)).thenReturn(mock(BundleRevision.class));
+
+		assertEquals("v1", cache.get(bundle, "key", () -> "v" + loads.incrementAndGet()));
+		assertEquals("v1", cache.get(bundle, "key", () -> "v" + loads.incrementAndGet()));
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+
+		// bundle updated - new revision
+		when(bundle.adapt(BundleRevision.class)).thenReturn(mock(BundleRevision.class));
+		assertEquals("v2", cache.get(bundle, "key", () -> "v" + loads.incrementAndGet()));
+
+		// bundle refreshed
+		cache.bundleChanged(new BundleEvent(BundleEvent.UNRESOLVED, bundle));
+		assertEquals("v3", cache.get(bundle, "key", () -> "v" + loads.incrementAndGet()));
+
+		// other events don't matter
+		cache.bundleChanged(new BundleEvent(BundleEvent.STARTED, bundle));
+		assertEquals("v3", cache.get(bundle, "key", () -> "v" + loads.incrementAndGet()));
+	}
+
+	@Test
+	public void nullValuesAreNotCached() throws IOException {
+		WiringScanCache cache = new WiringScanCache();
+		Bundle bundle = mock(Bundle.class);
+		when(bundle.getBundleId()).thenReturn(42L);
+
+		assertNull(cache.get(bundle, "key", () -> null));
+		assertEquals("value", cache.get(bundle, "key", () -> "value"));
+		assertEquals(2, cache.getMisses());
+	}
+
+}
@@ -28,6 +28,7 @@ import java.util.Map;
 import org.ops4j.pax.web.service.WebContainer;
 import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
 import org.ops4j.pax.web.service.spi.model.elements.ElementModel;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
 import org.ops4j.pax.web.service.spi.util.WebContainerManager;
 import org.ops4j.pax.web.service.spi.whiteboard.WhiteboardWebContainerView;
 import org.osgi.framework.Bundle;
@@ -239,6 +240,44 @@ public class BundleWhiteboardApplication {
 		}
 	}
 
+	/**
+	 * Checks whether given {@link ElementModel} is associated with given {@link Bundle}.
+	 * @param webElement
+	 */
+	public boolean hasWebElement(ElementModel<?, ?> webElement) {
+		return webElements.containsKey(webElement);
+	}
+
+	/**
+	 * Changes the rank of tracked {@link ElementModel}. Registered servlet is re-ranked in place if the rank
+	 * doesn't affect resolution of conflicting servlets. Otherwise the element has to be unregistered
+	 * and registered again, because {@link org.ops4j.pax.web.service.spi.model.ServerModel} keeps the elements
+	 * sorted by rank (e.g., to order the filters or to resolve conflicting servlets).
+	 *
+	 * @param webElement
+	 * @param rank
+	 */
+	public void changeWebElementRank(final ElementModel<?, ?> webElement, int rank) {
+		WhiteboardWebContainerView view = webContainerManager.whiteboardView(bundle, webContainerServiceRef);
+		if (view == null || webElement.getContextModels().size() == 0) {
+			webElement.setServiceRank(rank);
+			return;
+		}
+		if (webElement instanceof ServletModel && view.changeServletRank((ServletModel) webElement, rank)) {
+			return;
+		}
+
+		boolean isAsync = webElement.isAsynchronusRegistration();
+		try {
+			webElement.setAsynchronusRegistration(false);
+			webElement.unregister(view);
+			webElement.setServiceRank(rank);
+			webElement.register(view);
+		} finally {
+			webElement.setAsynchronusRegistration(isAsync);
+		}
+	}
+
 	/**
 	 * Removes an {@link ElementModel} from the list of elements registered by given bundle.
 	 * @param webElement
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.extender.whiteboard.internal;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.elements.ElementModel;
+import org.osgi.framework.Filter;
+import org.osgi.service.http.whiteboard.HttpWhiteboardConstants;
+
+/**
+ * <p>Index of Whiteboard web elements by their context selectors
+ * ({@link HttpWhiteboardConstants#HTTP_WHITEBOARD_CONTEXT_SELECT}), used to find the elements that may be affected
+ * by added/changed/removed {@link OsgiContextModel}.</p>
+ *
+ * <p>An element can be affected by a context only if its selector matches the context's registration properties
+ * (before the change for removed context and after the change for added context). Most selectors have the form of
+ * {@code (osgi.http.whiteboard.context.name=<name>)} (and missing selector selects the {@code default} context),
+ * so these are indexed by the context name and don't need any LDAP matching. Other selectors are matched once per
+ * selector (not once per element).</p>
+ *
+ * <p>This class is not thread safe - it's always accessed within {@link WhiteboardExtenderContext} lock.</p>
+ */
+class ContextSelectorIndex {
+
+	private static final String NAME_SELECTOR_PREFIX = "(" + HttpWhiteboardConstants.HTTP_WHITEBOARD_CONTEXT_NAME + "=";
+
+	/** Selectors of {@code (osgi.http.whiteboard.context.name=<name>)} form by the name */
+	private final Map<String, Selector> nameSelectors = new HashMap<>();
+
+	/** All other selectors by their string representation */
+	private final Map<String, Selector> otherSelectors = new HashMap<>();
+
+	/** Selectors of all indexed elements */
+	private final Map<ElementModel<?, ?>, Selector> elements = new HashMap<>();
+
+	/**
+	 * Adds an element registered within given {@link BundleWhiteboardApplication} to the index.
+	 * @param app
+	 * @param element
+	 */
+	public void add(BundleWhiteboardApplication app, ElementModel<?, ?> element) {
+		remove(element);
+		Filter filter = element.getContextFilter();
+		String name = contextName(filter);
+		Selector selector = name != null
+				? nameSelectors.computeIfAbsent(name, n -> new Selector(filter))
+				: otherSelectors.computeIfAbsent(filter.toString(), f -> new Selector(filter));
+		selector.elements.put(element, app);
+		elements.put(element, selector);
+	}
+
+	public void remove(ElementModel<?, ?> element) {
+		Selector selector = elements.remove(element);
+		if (selector != null) {
+			selector.elements.remove(element);
+			if (selector.elements.isEmpty()) {
+				nameSelectors.values().remove(selector);
+				otherSelectors.values().remove(selector);
+			}
+		}
+	}
+
+	/**
+	 * Removes all the elements of given {@link BundleWhiteboardApplication}.
+	 * @param app
+	 */
+	public void removeAll(BundleWhiteboardApplication app) {
+		elements.entrySet().removeIf(e -> {
+			Selector selector = e.getValue();
+			if (selector.elements.get(e.getKey()) == app) {
+				selector.elements.remove(e.getKey());
+				return true;
+			}
+			return false;
+		});
+		nameSelectors.values().removeIf(s -> s.elements.isEmpty());
+		otherSelectors.values().removeIf(s -> s.elements.isEmpty());
+	}
+
+	public int size() {
+		return elements.size();
+	}
+
+	/**
+	 * Returns elements (with their {@link BundleWhiteboardApplication applications}) which selectors match
+	 * current registration properties of given context.
+	 *
+	 * @param context
+	 * @return
+	 */
+	public Map<ElementModel<?, ?>, BundleWhiteboardApplication> affectedBy(OsgiContextModel context) {
+		Map<ElementModel<?, ?>, BundleWhiteboardApplication> result = new LinkedHashMap<>();
+		Map<String, Object> properties = context.getContextRegistrationProperties();
+
+		Object name = properties.get(HttpWhiteboardConstants.HTTP_WHITEBOARD_CONTEXT_NAME);
+		if (name instanceof String) {
+			addElements(result, nameSelectors.get(name));
+		} else if (name instanceof String[]) {
+			for (String n : (String[]) name) {
+				addElements(result, nameSelectors.get(n));
+			}
+		} else if (name instanceof Collection) {
+			for (Object n : (Collection<?>) name) {
+				addElements(result, nameSelectors.get(String.valueOf(n)));
+			}
+		}
+
+		for (Selector selector : otherSelectors.values()) {
+			if (selector.filter.matchCase(context.getContextRegistrationProperties())) {
+				addElements(result, selector);
+			}
+		}
+
+		return result;
+	}
+
+	private void addElements(Map<ElementModel<?, ?>, BundleWhiteboardApplication> result, Selector selector) {
+		if (selector != null) {
+			result.putAll(selector.elements);
+		}
+	}
+
+	/**
+	 * Returns context name if the filter selects the context only by name. {@code null} filter selects
+	 * {@code default} context.
+	 *
+	 * @param filter
+	 * @return
+	 */
+	static String contextName(Filter filter) {
+		if (filter == null) {
+			return HttpWhiteboardConstants.HTTP_WHITEBOARD_DEFAULT_CONTEXT_NAME;
+		}
+		String f = filter.toString();
+		if (!f.startsWith(NAME_SELECTOR_PREFIX) || !f.endsWith(")")) {
+			return null;
+		}
+		String name = f.substring(NAME_SELECTOR_PREFIX.length(), f.length() - 1);
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (c == '*' || c == '(' || c == ')' || c == '\\' || c == '=' || c == '~' || c == '<' || c == '>') {
+				// wildcards, escapes or something more complex
+				return null;
+			}
+		}
+		return name.isEmpty() ? null : name;
+	}
+
+	private static final class Selector {
+		private final Filter filter;
+		private final Map<ElementModel<?, ?>, BundleWhiteboardApplication> elements = new LinkedHashMap<>();
+
+		Selector(Filter filter) {
+			this.filter = filter;
+		}
+	}
+
+}
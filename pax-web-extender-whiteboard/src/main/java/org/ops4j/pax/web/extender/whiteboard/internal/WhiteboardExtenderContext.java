@@ -130,6 +130,19 @@ public class WhiteboardExtenderContext implements WebContainerListener, WebConte
 	/** Flag marking actual registration of {@link OsgiContextModel#DEFAULT_CONTEXT_MODEL}. */
 	private AtomicBoolean defaultContextRegistered = new AtomicBoolean(false);
 
+	/**
+	 * Index of web elements by their context selectors, so when a context is added/removed, only the elements
+	 * which may be affected are re-registered. Accessed within {@link #lock}.
+	 */
+	private final ContextSelectorIndex selectorIndex = new ContextSelectorIndex();
+
+	/**
+	 * Cache of selector (string representation of {@link Filter}) to the matching contexts from
+	 * {@link #osgiContextsList}. Cleared when any context is added, removed or its registration state changes.
+	 * Accessed within {@link #lock}.
+	 */
+	private final Map<String, List<OsgiContextModel>> selectorMatches = new HashMap<>();
+
 	public WhiteboardExtenderContext(BundleContext bundleContext) {
 		this(bundleContext, false);
 	}
@@ -175,6 +188,10 @@ public class WhiteboardExtenderContext implements WebContainerListener, WebConte
 		lock.lock();
 		try {
 			application = bundleApplications.remove(bundle);
+			if (application != null) {
+				selectorIndex.removeAll(application);
+				contextsChanged();
+			}
 		} finally {
 			lock.unlock();
 		}
@@ -191,7 +208,8 @@ public class WhiteboardExtenderContext implements WebContainerListener, WebConte
 		}
 		lock.lock();
 		try {
-			reRegisterWebElements();
+			contextsChanged();
+			reRegisterWebElements(model);
 		} finally {
 			lock.unlock();
 		}
@@ -204,7 +222,8 @@ public class WhiteboardExtenderContext implements WebContainerListener, WebConte
 		}
 		lock.lock();
 		try {
-			reRegisterWebElements();
+			contextsChanged();
+			reRegisterWebElements(model);
 		} finally {
 			lock.unlock();
 		}
@@ -260,37 +279,10 @@ public class WhiteboardExtenderContext implements WebContainerListener, WebConte
 			//
 			// so we can even target two different "default" ServletContextHelpers and actual physical ServletContextModel
 			// will be determined at registration time
-			List<OsgiContextModel> targetContexts = new ArrayList<>();
-
-			// check _contexts_ managed at pax-web-extender-whiteboard level
-			for (OsgiContextModel model : osgiContextsList) {
-				// one line "140.3 Common Whiteboard Properties" implementation of LDAP filter matching
-				BundleWhiteboardApplication app = getBundleApplication(model.getOwnerBundle());
-				if (OsgiContextModel.DEFAULT_CONTEXT_MODEL.equals(model) && !defaultContextRegistered.get()) {
-					// it may happen if the HttpService ref is handed to pax-web-extender-whiteboard later
-					continue;
-				}
-				if (!OsgiContextModel.DEFAULT_CONTEXT_MODEL.equals(model)
-						&& (app == null || !app.isRegistered(model))) {
-					// if the HttpService is added after pax-web-extender-whiteboard did the tracking, we may
-					// end with this situation:
-					//  - bundle A registers a "default" context (like OCM-2)
-					//  - bundle B registers a servlet targetting "default" context - it's already found in
-					//    this.osgiContextsList
-					//  - HttpService is registered
-					//  - pax-web-extender-whiteboard gets the service and passes it to each "whiteboard app"
-					//    from the hashmap
-					//  - "whiteboard app" for bundle B gets the reference and registers the servlet - but the runtime
-					//    (Jetty, Tomcat, Undertow) doesn't know anything about the context yet
-					//  - "whiteboard app" for bundle A gets the reference and only then registers its context
-					//
-					// that's why we have to skip the OsgiContextModels that are not really registered yet
-					continue;
-				}
-				if (selector.matchCase(model.getContextRegistrationProperties())) {
-					targetContexts.add(model);
-				}
-			}
+			// check _contexts_ managed at pax-web-extender-whiteboard level - these don't depend on the bundle
+			// of the element, so the matches are cached by selector
+			List<OsgiContextModel> targetContexts
+					= new ArrayList<>(selectorMatches.computeIfAbsent(selector.toString(), s -> matchContexts(selector)));
 
 			// get all the bundle-scoped contexts from HttpService. These will never
 			// have "osgi.http.whiteboard.context.name" property specified, only
@@ -330,6 +322,51 @@ public class WhiteboardExtenderContext implements WebContainerListener, WebConte
 		}
 	}
 
+	/**
+	 * Returns the contexts from {@link #osgiContextsList} matching given selector.
+	 * @param selector
+	 * @return
+	 */
+	private List<OsgiContextModel> matchContexts(Filter selector) {
+		List<OsgiContextModel> targetContexts = new ArrayList<>();
+		for (OsgiContextModel model : osgiContextsList) {
+			// one line "140.3 Common Whiteboard Properties" implementation of LDAP filter matching
+			BundleWhiteboardApplication app = getBundleApplication(model.getOwnerBundle());
+			if (OsgiContextModel.DEFAULT_CONTEXT_MODEL.equals(model) && !defaultContextRegistered.get()) {
+				// it may happen if the HttpService ref is handed to pax-web-extender-whiteboard later
+				continue;
+			}
+			if (!OsgiContextModel.DEFAULT_CONTEXT_MODEL.equals(model)
+					&& (app == null || !app.isRegistered(model))) {
+				// if the HttpService is added after pax-web-extender-whiteboard did the tracking, we may
+				// end with this situation:
+				//  - bundle A registers a "default" context (like OCM-2)
+				//  - bundle B registers a servlet targetting "default" context - it's already found in
+				//    this.osgiContextsList
+				//  - HttpService is registered
+				//  - pax-web-extender-whiteboard gets the service and passes it to each "whiteboard app"
+				//    from the hashmap
+				//  - "whiteboard app" for bundle B gets the reference and registers the servlet - but the runtime
+				//    (Jetty, Tomcat, Undertow) doesn't know anything about the context yet
+				//  - "whiteboard app" for bundle A gets the reference and only then registers its context
+				//
+				// that's why we have to skip the OsgiContextModels that are not really registered yet
+				continue;
+			}
+			if (selector.matchCase(model.getContextRegistrationProperties())) {
+				targetContexts.add(model);
+			}
+		}
+		return targetContexts;
+	}
+
+	/**
+	 * Called within {@link #lock} when {@link OsgiContextModel contexts} or their registration state change.
+	 */
+	private void contextsChanged() {
+		selectorMatches.clear();
+	}
+
 	// --- Handling registration/unregistration of target WebContainer, where we want to register Whiteboard services
 
 	public void webContainerAdded(ServiceReference<WebContainer> ref) {
@@ -337,7 +374,13 @@ public class WhiteboardExtenderContext implements WebContainerListener, WebConte
 		if (view != null) {
 			// install global, default OSGi Context Model using bundle context of pax-web-extender-whiteboard bundle
 			view.addWhiteboardOsgiContextModel(OsgiContextModel.DEFAULT_CONTEXT_MODEL);
-			defaultContextRegistered.set(true);
+			lock.lock();
+			try {
+				defaultContextRegistered.set(true);
+				contextsChanged();
+			} finally {
+				lock.unlock();
+			}
 			// register a listener, so when WABs are installed/uninstalled, their OsgiContextModels are used as
 			// the context with highest priority - hiding both the context managed by pax-web-runtime and the contexts
 			// registered by pax-web-extender-whiteboard
@@ -367,7 +410,13 @@ public class WhiteboardExtenderContext implements WebContainerListener, WebConte
 		WhiteboardWebContainerView view = webContainerManager.whiteboardView(bundle, ref);
 		if (view != null) {
 			// uninstall global, default OSGi Context Model
-			defaultContextRegistered.set(false);
+			lock.lock();
+			try {
+				defaultContextRegistered.set(false);
+				contextsChanged();
+			} finally {
+				lock.unlock();
+			}
 			view.removeWhiteboardOsgiContextModel(OsgiContextModel.DEFAULT_CONTEXT_MODEL);
 		}
 		// finally now we can actually release the service
@@ -388,6 +437,7 @@ public class WhiteboardExtenderContext implements WebContainerListener, WebConte
 			// whether the web element/context is already registered - that's much easier than in case
 			// of pax-web-extender-war
 			bundleApplications.values().forEach(ba -> ba.webContainerAdded(ref));
+			contextsChanged();
 		} finally {
 			lock.unlock();
 		}
@@ -402,6 +452,7 @@ public class WhiteboardExtenderContext implements WebContainerListener, WebConte
 		lock.lock();
 		try {
 			bundleApplications.values().forEach(ba -> ba.webContainerRemoved(ref));
+			contextsChanged();
 		} finally {
 			lock.unlock();
 		}
@@ -420,8 +471,10 @@ public class WhiteboardExtenderContext implements WebContainerListener, WebConte
 			osgiContextsList.add(model);
 
 			getBundleApplication(bundle).addWebContext(model);
+			contextsChanged();
 
-			reRegisterWebElements();
+			// only the elements which selectors match new context may need re-registration
+			reRegisterWebElements(model);
 		} finally {
 			lock.unlock();
 		}
@@ -432,10 +485,14 @@ public class WhiteboardExtenderContext implements WebContainerListener, WebConte
 		try {
 			osgiContexts.get(model.getName()).remove(model);
 			osgiContextsList.remove(model);
+			contextsChanged();
 
-			reRegisterWebElements();
+			// the model still has the properties it was registered with, so we can find the elements, which
+			// selectors matched this context
+			reRegisterWebElements(model);
 
 			getBundleApplication(bundle).removeWebContext(model);
+			contextsChanged();
 
 			WhiteboardWebContainerView view = webContainerManager.whiteboardView(bundle, currentWebContainerReference);
 			if (view != null) {
@@ -466,79 +523,99 @@ public class WhiteboardExtenderContext implements WebContainerListener, WebConte
 		for (BundleWhiteboardApplication app : apps) {
 			WhiteboardWebContainerView view = app.getWhiteboardContainer();
 			for (ElementModel<?, ?> webElement : app.getWebElements()) {
-				boolean isAsync = webElement.isAsynchronusRegistration();
-				try {
-					// re-registration has to be synchronous, because otherwise we'd change the osgi context models
-					// of the element when it's being unregistered for example
-					webElement.setAsynchronusRegistration(false);
-					Filter filter = webElement.getContextFilter();
-					List<OsgiContextModel> newMatching = resolveContexts(webElement.getRegisteringBundle(), filter);
-					List<OsgiContextModel> oldMatching = webElement.getContextModels();
-
-					// 0.
-					if (newMatching.size() == oldMatching.size() && newMatching.containsAll(oldMatching)) {
-						continue;
-					}
-
-					// 1. unregistration because of no matching contexts
-					if (newMatching.size() == 0) {
-						LOG.debug("Unregistering {} because its context selection filter doesn't match any context", webElement);
-						if (view != null) {
-							// first unregister
-							webElement.unregister(view);
-						}
-						// then change
-						webElement.changeContextModels(newMatching);
-						webElement.setDtoFailureCode(DTOConstants.FAILURE_REASON_NO_SERVLET_CONTEXT_MATCHING);
-						continue;
-					}
-
-					// 2. easy registration after some models matched
-					if (oldMatching.size() == 0) {
-						// first change
-						webElement.changeContextModels(newMatching);
-						LOG.debug("Registering {} because its context selection filter started matching existing contexts", webElement);
-						if (view != null) {
-							// then register
-							webElement.setDtoFailureCode(-1);
-							webElement.register(view);
-						}
-						continue;
-					}
-
-					// 3. generic case - unregistration from removed models, registration to new models
-
-					// now the tricky part - initially I wanted to optimize - remove the model only from "removed"
-					// contexts and add it only to "added" ones. First difficulty (actually easy to workaround) occurred
-					// when I saw ServletModel disappearing from the ServerModel, but the more important problem which
-					// turned out to be solution was: when additional context is added that matches a selector of
-					// existing ServletModel, then in simple scenario indeed - existing servlet should be registered
-					// in new context. But if there's different ServletModel, with conflicting name or URL patterns
-					// which is now disabled/waiting because its selector only matches the new context, the first servlet
-					// should eventually be disabled in ALL contexts, because it'll be disabled in the new context!
-					//
-					// so it's really easier - FULLY unregister the element from all current contexts and then
-					// register to all the new contexts
-					if (view != null) {
-						LOG.debug("Unregistering {} because its context selection filter matched new set of contexts", webElement);
-						webElement.unregister(view);
-					}
-					webElement.changeContextModels(newMatching);
-					if (view != null) {
-						LOG.debug("Registering {} again after its context selection filter matched new set of contexts", webElement);
-						webElement.register(view);
-					}
-				} finally {
-					webElement.setAsynchronusRegistration(isAsync);
+				reRegisterWebElement(view, webElement);
+			}
+		}
+	}
+
+	/**
+	 * Re-registers only the {@link ElementModel elements} which context selectors match given (added, changed or
+	 * removed) {@link OsgiContextModel}. Other elements can't be affected by such context - neither by its name nor
+	 * by its ranking.
+	 *
+	 * @param changed
+	 */
+	private void reRegisterWebElements(OsgiContextModel changed) {
+		// remember - we're operating within ExtenderContext.lock
+
+		selectorIndex.affectedBy(changed)
+				.forEach((webElement, app) -> reRegisterWebElement(app.getWhiteboardContainer(), webElement));
+	}
+
+	private void reRegisterWebElement(WhiteboardWebContainerView view, ElementModel<?, ?> webElement) {
+		boolean isAsync = webElement.isAsynchronusRegistration();
+		try {
+			// re-registration has to be synchronous, because otherwise we'd change the osgi context models
+			// of the element when it's being unregistered for example
+			webElement.setAsynchronusRegistration(false);
+			Filter filter = webElement.getContextFilter();
+			List<OsgiContextModel> newMatching = resolveContexts(webElement.getRegisteringBundle(), filter);
+			List<OsgiContextModel> oldMatching = webElement.getContextModels();
+
+			// 0.
+			if (newMatching.size() == oldMatching.size() && newMatching.containsAll(oldMatching)) {
+				return;
+			}
+
+			// 1. unregistration because of no matching contexts
+			if (newMatching.size() == 0) {
+				LOG.debug("Unregistering {} because its context selection filter doesn't match any context", webElement);
+				if (view != null) {
+					// first unregister
+					webElement.unregister(view);
+				}
+				// then change
+				webElement.changeContextModels(newMatching);
+				webElement.setDtoFailureCode(DTOConstants.FAILURE_REASON_NO_SERVLET_CONTEXT_MATCHING);
+				return;
+			}
+
+			// 2. easy registration after some models matched
+			if (oldMatching.size() == 0) {
+				// first change
+				webElement.changeContextModels(newMatching);
+				LOG.debug("Registering {} because its context selection filter started matching existing contexts", webElement);
+				if (view != null) {
+					// then register
+					webElement.setDtoFailureCode(-1);
+					webElement.register(view);
 				}
+				return;
 			}
+
+			// 3. generic case - unregistration from removed models, registration to new models
+
+			// now the tricky part - initially I wanted to optimize - remove the model only from "removed"
+			// contexts and add it only to "added" ones. First difficulty (actually easy to workaround) occurred
+			// when I saw ServletModel disappearing from the ServerModel, but the more important problem which
+			// turned out to be solution was: when additional context is added that matches a selector of
+			// existing ServletModel, then in simple scenario indeed - existing servlet should be registered
+			// in new context. But if there's different ServletModel, with conflicting name or URL patterns
+			// which is now disabled/waiting because its selector only matches the new context, the first servlet
+			// should eventually be disabled in ALL contexts, because it'll be disabled in the new context!
+			//
+			// so it's really easier - FULLY unregister the element from all current contexts and then
+			// register to all the new contexts
+			if (view != null) {
+				LOG.debug("Unregistering {} because its context selection filter matched new set of contexts", webElement);
+				webElement.unregister(view);
+			}
+			webElement.changeContextModels(newMatching);
+			if (view != null) {
+				LOG.debug("Registering {} again after its context selection filter matched new set of contexts", webElement);
+				webElement.register(view);
+			}
+		} finally {
+			webElement.setAsynchronusRegistration(isAsync);
 		}
 	}
 
 	public <R, D extends WebElementEventData, T extends ElementModel<R, D>> void addWebElement(Bundle bundle, T webElement) {
 		lock.lock();
 		try {
-			getBundleApplication(bundle).addWebElement(webElement);
+			BundleWhiteboardApplication app = getBundleApplication(bundle);
+			app.addWebElement(webElement);
+			selectorIndex.add(app, webElement);
 		} finally {
 			lock.unlock();
 		}
@@ -551,6 +628,7 @@ public class WhiteboardExtenderContext implements WebContainerListener, WebConte
 				// whiteboard context is stopping, mass unregistration - we want it synchronized
 				webElement.setAsynchronusRegistration(false);
 			}
+			selectorIndex.remove(webElement);
 			getBundleApplication(bundle).removeWebElement(webElement);
 
 			WhiteboardWebContainerView view = webContainerManager.whiteboardView(bundle, currentWebContainerReference);
@@ -562,6 +640,56 @@ public class WhiteboardExtenderContext implements WebContainerListener, WebConte
 		}
 	}
 
+	/**
+	 * <p>Handles a change of service registration properties of already tracked web element by performing
+	 * the cheapest action needed:<ul>
+	 *     <li>nothing, if neither the rank nor the context selector has changed (e.g., only some custom property
+	 *         has changed),</li>
+	 *     <li>re-ranking of the element within the contexts it's already registered to, if only the rank has
+	 *         changed,</li>
+	 *     <li>re-resolution of the contexts if only the selector has changed - the element is re-registered only
+	 *         if the selector matches different contexts.</li>
+	 * </ul></p>
+	 *
+	 * @param bundle
+	 * @param webElement
+	 * @param rank new rank of the element
+	 * @param selector new context selector of the element
+	 * @return {@code false} if the change can't be handled without full unregistration/registration of the element
+	 */
+	public boolean updateWebElement(Bundle bundle, ElementModel<?, ?> webElement, int rank, Filter selector) {
+		lock.lock();
+		try {
+			BundleWhiteboardApplication app = bundleApplications.get(bundle);
+			if (app == null || !app.hasWebElement(webElement)) {
+				return false;
+			}
+			Filter currentSelector = webElement.getContextFilter();
+			boolean sameSelector = currentSelector != null && currentSelector.toString().equals(selector.toString());
+			boolean sameRank = webElement.getServiceRank() == rank;
+
+			if (sameSelector && sameRank) {
+				LOG.debug("No registration change for {}", webElement);
+				return true;
+			}
+			if (sameSelector) {
+				// same selector matches the same contexts
+				LOG.debug("Changing rank of {} to {}", webElement, rank);
+				app.changeWebElementRank(webElement, rank);
+				return true;
+			}
+			if (sameRank) {
+				webElement.setContextSelectFilter(selector);
+				selectorIndex.add(app, webElement);
+				reRegisterWebElement(app.getWhiteboardContainer(), webElement);
+				return true;
+			}
+			return false;
+		} finally {
+			lock.unlock();
+		}
+	}
+
 	/**
 	 * Return (create if needed) a new bundle-scoped {@link BundleWhiteboardApplication}.
 	 *
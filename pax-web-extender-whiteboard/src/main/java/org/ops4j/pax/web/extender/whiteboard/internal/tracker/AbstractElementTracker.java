@@ -190,13 +190,59 @@ public abstract class AbstractElementTracker<S, R, D extends WebElementEventData
 	 * @param serviceReference
 	 * @param webElement
 	 */
-	@SuppressWarnings("deprecation")
 	private T addingService(ServiceReference<S> serviceReference, T webElement) {
 		if (webElement == null) {
 			log.debug("No element model was created from reference {}", serviceReference);
 			return null;
 		}
 
+		Filter contextFilter = contextFilter(serviceReference, webElement);
+		if (contextFilter == null) {
+			return null;
+		}
+
+		// remember the selector for given ElementModel - so we can re-register the element if
+		// the filter matches new/changed set of contexts
+		webElement.setContextSelectFilter(contextFilter);
+
+		// 2. get the actual contexts - only after creating actual element. Because failure to resolve target
+		//    contexts should result in specific FailureDTO (e.g., org.osgi.service.http.runtime.dto.FailedServletDTO)
+		List<OsgiContextModel> contexts = whiteboardExtenderContext.resolveContexts(serviceReference.getBundle(), contextFilter);
+
+		// now set the target context models
+		// 2020-10-02: this list may be empty, but we won't prevent "remembering" such web element, because at
+		// any point we may get (Whiteboard-registered) a context that satisfies this web element's selector
+		for (OsgiContextModel contextModel : contexts) {
+			webElement.addContextModel(contextModel);
+		}
+
+		// Web element is created, but validation has to be run separately/explicitly to handle "Failure DTO"
+		// org.ops4j.pax.web.service.spi.model.elements.ElementModel.performValidation() sets proper "last failure",
+		// which may then be set to different value (for example when dereferencing ServiceReference)
+		if (webElement.isValid()) {
+			// the succesful DTO information will be propagated to HttpServiceRuntime (which is the ServerModel)
+			// during registration of the web element
+			whiteboardExtenderContext.addWebElement(serviceReference.getBundle(), webElement);
+			return webElement;
+		} else {
+			// the failed DTO information have to be passed directly, because we're not registering the web element
+			// model. Such failure DTO is never updated, instead its removed and added again, when for example
+			// the service registration properties change
+			whiteboardExtenderContext.configureFailedDTOs(webElement);
+			return null;
+		}
+	}
+
+	/**
+	 * Determines and creates context selection {@link Filter} for given web element using the properties of the
+	 * tracked {@link ServiceReference}.
+	 *
+	 * @param serviceReference
+	 * @param webElement
+	 * @return {@code null} if the context selector is not valid
+	 */
+	@SuppressWarnings("deprecation")
+	private Filter contextFilter(ServiceReference<S> serviceReference, T webElement) {
 		// Get a filter for target _context(s)_ with which given _element_ is associated
 		Object legacyIdProperty = serviceReference.getProperty(PaxWebConstants.SERVICE_PROPERTY_HTTP_CONTEXT_ID);
 		String legacyId = legacyIdProperty instanceof String ? ((String)legacyIdProperty) : null;
@@ -240,37 +286,7 @@ public abstract class AbstractElementTracker<S, R, D extends WebElementEventData
 					+ " Bad context selector: {}", serviceReference, selector, e);
 			return null;
 		}
-
-		// remember the selector for given ElementModel - so we can re-register the element if
-		// the filter matches new/changed set of contexts
-		webElement.setContextSelectFilter(contextFilter);
-
-		// 2. get the actual contexts - only after creating actual element. Because failure to resolve target
-		//    contexts should result in specific FailureDTO (e.g., org.osgi.service.http.runtime.dto.FailedServletDTO)
-		List<OsgiContextModel> contexts = whiteboardExtenderContext.resolveContexts(serviceReference.getBundle(), contextFilter);
-
-		// now set the target context models
-		// 2020-10-02: this list may be empty, but we won't prevent "remembering" such web element, because at
-		// any point we may get (Whiteboard-registered) a context that satisfies this web element's selector
-		for (OsgiContextModel contextModel : contexts) {
-			webElement.addContextModel(contextModel);
-		}
-
-		// Web element is created, but validation has to be run separately/explicitly to handle "Failure DTO"
-		// org.ops4j.pax.web.service.spi.model.elements.ElementModel.performValidation() sets proper "last failure",
-		// which may then be set to different value (for example when dereferencing ServiceReference)
-		if (webElement.isValid()) {
-			// the succesful DTO information will be propagated to HttpServiceRuntime (which is the ServerModel)
-			// during registration of the web element
-			whiteboardExtenderContext.addWebElement(serviceReference.getBundle(), webElement);
-			return webElement;
-		} else {
-			// the failed DTO information have to be passed directly, because we're not registering the web element
-			// model. Such failure DTO is never updated, instead its removed and added again, when for example
-			// the service registration properties change
-			whiteboardExtenderContext.configureFailedDTOs(webElement);
-			return null;
-		}
+		return contextFilter;
 	}
 
 	@Override
@@ -287,15 +303,24 @@ public abstract class AbstractElementTracker<S, R, D extends WebElementEventData
 		// point to different ServletContextHelper with different "osgi.http.whiteboard.context.path" property - the
 		// servlet simply has to be unregistered from e.g.m /context1 context and registered into e.g., /context2
 
-		removedService(reference, service);
-
-		// we have to be sure that we'll use the same instance!
-
 		// the ranking may have changed
 		Integer rank = (Integer) reference.getProperty(Constants.SERVICE_RANKING);
 		if (rank == null) {
 			rank = 0;
 		}
+
+		// however very often the changed properties are not related to the web at all (e.g., properties managed
+		// by Configuration Admin) or only the ranking has changed. Then we can avoid the unregistration, which
+		// may lead to restart of the target context and temporary 404 responses
+		Filter contextFilter = contextFilter(reference, service);
+		if (contextFilter != null
+				&& whiteboardExtenderContext.updateWebElement(reference.getBundle(), service, rank, contextFilter)) {
+			return;
+		}
+
+		removedService(reference, service);
+
+		// we have to be sure that we'll use the same instance!
 		service.setServiceRank(rank);
 
 		// we have to clear the contexts
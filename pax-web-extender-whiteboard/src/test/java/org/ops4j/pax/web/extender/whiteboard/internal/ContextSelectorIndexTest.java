@@ -0,0 +1,93 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.extender.whiteboard.internal;
+
+import java.util.Map;
+
+import org.junit.Test;
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.elements.ElementModel;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.service.http.whiteboard.HttpWhiteboardConstants;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ContextSelectorIndexTest {
+
+	@Test
+	public void contextNames() throws Exception {
+		assertEquals("default", ContextSelectorIndex.contextName(null));
+		assertEquals("c1", ContextSelectorIndex.contextName(FrameworkUtil.createFilter("(osgi.http.whiteboard.context.name=c1)")));
+		assertNull(ContextSelectorIndex.contextName(FrameworkUtil.createFilter("(osgi.http.whiteboard.context.name=c*)")));
+		assertNull(ContextSelectorIndex.contextName(FrameworkUtil.createFilter("(osgi.http.whiteboard.context.path=/c1)")));
+		assertNull(ContextSelectorIndex.contextName(FrameworkUtil.createFilter("(&(osgi.http.whiteboard.context.name=c1)(a=b))")));
+	}
+
+	@Test
+	public void affectedElements() throws Exception {
+		BundleWhiteboardApplication app1 = new BundleWhiteboardApplication(mock(Bundle.class), null);
+		BundleWhiteboardApplication app2 = new BundleWhiteboardApplication(mock(Bundle.class), null);
+
+		ServletModel byDefault = servlet(null);
+		ServletModel byName = servlet("(osgi.http.whiteboard.context.name=c1)");
+		ServletModel byPath = servlet("(osgi.http.whiteboard.context.path=/p*)");
+		ServletModel byOther = servlet("(osgi.http.whiteboard.context.name=c2)");
+
+		ContextSelectorIndex index = new ContextSelectorIndex();
+		index.add(app1, byDefault);
+		index.add(app1, byName);
+		index.add(app2, byPath);
+		index.add(app2, byOther);
+		assertEquals(4, index.size());
+
+		Map<ElementModel<?, ?>, BundleWhiteboardApplication> affected = index.affectedBy(context("c1", "/path"));
+		assertEquals(2, affected.size());
+		assertSame(app1, affected.get(byName));
+		assertSame(app2, affected.get(byPath));
+
+		affected = index.affectedBy(context("default", "/"));
+		assertEquals(1, affected.size());
+		assertTrue(affected.containsKey(byDefault));
+
+		index.remove(byName);
+		assertEquals(1, index.affectedBy(context("c1", "/path")).size());
+
+		index.removeAll(app2);
+		assertEquals(1, index.size());
+		assertTrue(index.affectedBy(context("c1", "/path")).isEmpty());
+		assertTrue(index.affectedBy(context("c2", "/")).isEmpty());
+	}
+
+	private ServletModel servlet(String selector) throws Exception {
+		ServletModel model = new ServletModel.Builder().withServletName("s").withUrlPatterns(new String[] { "/s" }).build();
+		model.setContextSelectFilter(selector == null ? null : FrameworkUtil.createFilter(selector));
+		return model;
+	}
+
+	private OsgiContextModel context(String name, String path) {
+		OsgiContextModel model = new OsgiContextModel(mock(Bundle.class), 0, 1L, true);
+		model.getContextRegistrationProperties().put(HttpWhiteboardConstants.HTTP_WHITEBOARD_CONTEXT_NAME, name);
+		model.getContextRegistrationProperties().put(HttpWhiteboardConstants.HTTP_WHITEBOARD_CONTEXT_PATH, path);
+		return model;
+	}
+
+}
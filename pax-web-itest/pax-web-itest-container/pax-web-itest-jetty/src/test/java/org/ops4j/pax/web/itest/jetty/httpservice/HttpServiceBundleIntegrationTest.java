@@ -47,6 +47,7 @@ public class HttpServiceBundleIntegrationTest extends AbstractHttpServiceBundleI
 		return combine(
 				serverOptions,
 				systemProperty(PaxWebConfig.PID_CFG_LOG_NCSA_ENABLED).value("true"),
+				// not the default "yyyy-MM-dd" - the log file name uses the configured date format
 				systemProperty(PaxWebConfig.PID_CFG_LOG_NCSA_LOGFILE_DATE_FORMAT).value("yyyy_MM_dd"),
 				systemProperty(PaxWebConfig.PID_CFG_LOG_NCSA_LOGDIR).value("target/logs")
 		);
@@ -46,7 +46,8 @@ public class HttpServiceBundleIntegrationTest extends AbstractHttpServiceBundleI
 		return combine(
 				serverOptions,
 				systemProperty(PaxWebConfig.PID_CFG_LOG_NCSA_ENABLED).value("true"),
-				systemProperty(PaxWebConfig.PID_CFG_LOG_NCSA_LOGFILE).value("access-log"),
+				systemProperty(PaxWebConfig.PID_CFG_LOG_NCSA_LOGFILE).value("access-log.yyyy_mm_dd.log"),
+				// not the default "yyyy-MM-dd" - the log file name uses the configured date format
 				systemProperty(PaxWebConfig.PID_CFG_LOG_NCSA_LOGFILE_DATE_FORMAT).value("yyyy_MM_dd"),
 				systemProperty(PaxWebConfig.PID_CFG_LOG_NCSA_LOGDIR).value("target/logs"),
 				systemProperty(PaxWebConfig.PID_CFG_LOG_NCSA_BUFFERED).value("false")
@@ -44,7 +44,7 @@ public class HttpServiceBundleIntegrationTest extends AbstractHttpServiceBundleI
 		return combine(
 				serverOptions,
 				systemProperty(PaxWebConfig.PID_CFG_LOG_NCSA_ENABLED).value("true"),
-				systemProperty(PaxWebConfig.PID_CFG_LOG_NCSA_LOGFILE).value("access-attempts."),
+				systemProperty(PaxWebConfig.PID_CFG_LOG_NCSA_LOGFILE).value("access-attempts.log"),
 				systemProperty(PaxWebConfig.PID_CFG_LOG_NCSA_LOGDIR).value("target/logs")
 		);
 	}
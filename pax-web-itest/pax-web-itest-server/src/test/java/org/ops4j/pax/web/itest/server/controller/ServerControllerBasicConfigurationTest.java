@@ -17,6 +17,7 @@ package org.ops4j.pax.web.itest.server.controller;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.ServerSocket;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.List;
@@ -31,6 +32,9 @@ import org.ops4j.pax.web.itest.server.support.Utils;
 import org.ops4j.pax.web.service.PaxWebConfig;
 import org.ops4j.pax.web.service.WebContainerContext;
 import org.ops4j.pax.web.service.spi.ServerController;
+import org.ops4j.pax.web.service.spi.accesslog.AccessLogWriter;
+import org.ops4j.pax.web.service.spi.config.Configuration;
+import org.ops4j.pax.web.service.spi.config.ConfigurationDiff;
 import org.ops4j.pax.web.service.spi.context.DefaultHttpContext;
 import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
 import org.ops4j.pax.web.service.spi.model.ServletContextModel;
@@ -46,8 +50,12 @@ import javax.servlet.http.HttpServletResponse;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.ops4j.pax.web.itest.server.support.Utils.httpGET;
 import static org.ops4j.pax.web.itest.server.support.Utils.httpsGET;
 
@@ -82,6 +90,73 @@ public class ServerControllerBasicConfigurationTest extends MultiContainerTestSu
 
 		assertThat(httpGET(port, "/"), containsString("HTTP/1.1 404"));
 
+		// statistics of the access log are available through the controller
+		AccessLogWriter accessLog = controller.getAccessLogWriter();
+		assertNotNull(accessLog);
+		long deadline = System.currentTimeMillis() + 5000L;
+		while (accessLog.getWritten() == 0L && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50L);
+		}
+		assertThat(accessLog.getWritten(), equalTo(1L));
+		assertThat(accessLog.getDropped(), equalTo(0L));
+
+		controller.stop();
+	}
+
+	@Test
+	public void reconfigureStartedServer() throws Exception {
+		ServerController controller = Utils.createServerController(properties -> {
+			properties.put(PaxWebConfig.PID_CFG_SERVER_MAX_THREADS, "50");
+		}, port, runtime, getClass().getClassLoader());
+
+		controller.configure();
+		controller.start();
+
+		assertThat(httpGET(port, "/"), containsString("HTTP/1.1 404"));
+
+		ServerSocket serverSocket = new ServerSocket(0);
+		int port2 = serverSocket.getLocalPort();
+		serverSocket.close();
+
+		// thread pool and connectors are changed without restarting the server
+		Configuration changed = Utils.createConfiguration(properties -> {
+			properties.put(PaxWebConfig.PID_CFG_SERVER_MAX_THREADS, "60");
+		}, port2);
+		ConfigurationDiff diff = ConfigurationDiff.between(controller.getConfiguration(), changed);
+		assertFalse(diff.requiresRestart());
+		assertTrue(diff.contains(ConfigurationDiff.Kind.THREAD_POOL));
+		assertTrue(diff.contains(ConfigurationDiff.Kind.CONNECTORS));
+
+		assertTrue(controller.reconfigure(changed, diff));
+		assertThat(controller.getConfiguration(), sameInstance(changed));
+		assertThat(httpGET(port2, "/"), containsString("HTTP/1.1 404"));
+		try {
+			httpGET(port, "/");
+			fail("Connector listening on previous port should be removed");
+		} catch (IOException expected) {
+		}
+
+		// other properties require restart, so nothing is changed
+		Configuration restart = Utils.createConfiguration(properties -> {
+			properties.put(PaxWebConfig.PID_CFG_SERVER_MAX_THREADS, "60");
+			properties.put(PaxWebConfig.PID_CFG_SHOW_STACKS, "false");
+		}, port2);
+		diff = ConfigurationDiff.between(controller.getConfiguration(), restart);
+		assertTrue(diff.requiresRestart());
+		assertFalse(controller.reconfigure(restart, diff));
+		assertThat(controller.getConfiguration(), sameInstance(changed));
+
+		// without shared static content cache, resource servlets keep the limits read during initialization
+		Configuration cache = Utils.createConfiguration(properties -> {
+			properties.put(PaxWebConfig.PID_CFG_SERVER_MAX_THREADS, "60");
+			properties.put(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_CACHE_MAX_ENTRIES, "42");
+		}, port2);
+		diff = ConfigurationDiff.between(controller.getConfiguration(), cache);
+		assertFalse(diff.requiresRestart());
+		assertTrue(diff.contains(ConfigurationDiff.Kind.RESOURCE_CACHE));
+		assertFalse(controller.reconfigure(cache, diff));
+		assertThat(controller.getConfiguration(), sameInstance(changed));
+
 		controller.stop();
 	}
 
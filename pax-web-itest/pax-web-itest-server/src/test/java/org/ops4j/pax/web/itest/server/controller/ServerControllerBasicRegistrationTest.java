@@ -31,11 +31,14 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.Servlet;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletContext;
+import javax.servlet.ServletContextListener;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequestAttributeEvent;
 import javax.servlet.ServletRequestAttributeListener;
@@ -65,6 +68,8 @@ import org.ops4j.pax.web.service.spi.model.ServletContextModel;
 import org.ops4j.pax.web.service.spi.model.elements.EventListenerModel;
 import org.ops4j.pax.web.service.spi.model.elements.FilterModel;
 import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+import org.ops4j.pax.web.service.spi.model.info.RequestStatisticsInfo;
+import org.ops4j.pax.web.service.spi.model.views.ReportWebContainerView;
 import org.ops4j.pax.web.service.spi.servlet.OsgiScopedServletContext;
 import org.ops4j.pax.web.service.spi.task.Batch;
 import org.osgi.framework.Bundle;
@@ -72,10 +77,12 @@ import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceReference;
 import org.osgi.service.http.HttpContext;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -442,6 +449,146 @@ public class ServerControllerBasicRegistrationTest extends MultiContainerTestSup
 		assertTrue(serviceModelInternals.isEmpty());
 	}
 
+	@Test
+	public void requestsAreProcessedByConfiguredThreadPool() throws Exception {
+		ServerController controller = Utils.createServerController(properties -> {
+			properties.put(PaxWebConfig.PID_CFG_SERVER_THREAD_NAME_PREFIX, "pool-requestsAreProcessedByConfiguredThreadPool");
+		}, port, runtime, getClass().getClassLoader());
+		controller.configure();
+		controller.start();
+
+		Bundle bundle = mockBundle("sample", false);
+
+		ServerModel server = new ServerModel(new Utils.SameThreadExecutor());
+		WebContainer wc = new HttpServiceEnabled(bundle, controller, server, null, controller.getConfiguration());
+
+		Servlet servlet = new HttpServlet() {
+			@Override
+			protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+				resp.getWriter().print(Thread.currentThread().getName());
+			}
+		};
+		wc.registerServlet("/s", servlet, null, null);
+
+		// Tomcat connectors use the configured executor instead of their internal one. In Jetty, the thread
+		// pool is reconfigured by jetty.xml found on test classpath
+		String prefix = runtime == Runtime.JETTY ? "different-prefix" : "pool-requestsAreProcessedByConfiguredThreadPool";
+		assertThat(httpGET(port, "/s"), containsString(prefix));
+
+		((StoppableHttpService) wc).stop();
+		controller.stop();
+	}
+
+	@Test
+	public void requestMetricsAreCollected() throws Exception {
+		ServerController controller = Utils.createServerController(properties -> {
+			properties.put(PaxWebConfig.PID_CFG_REQUEST_METRICS, "true");
+		}, port, runtime, getClass().getClassLoader());
+		controller.configure();
+		controller.start();
+
+		Bundle bundle = mockBundle("sample", false);
+
+		ServerModel server = new ServerModel(new Utils.SameThreadExecutor());
+		WebContainer wc = new HttpServiceEnabled(bundle, controller, server, null, controller.getConfiguration());
+
+		Servlet servlet = new HttpServlet() {
+			@Override
+			protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+				if (req.getParameter("fail") != null) {
+					resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+				} else {
+					resp.getWriter().print("OK");
+				}
+			}
+		};
+		wc.registerServlet("/s", servlet, null, null);
+
+		assertThat(httpGET(port, "/s"), endsWith("OK"));
+		assertThat(httpGET(port, "/s"), endsWith("OK"));
+		assertThat(httpGET(port, "/s?fail=true"), startsWith("HTTP/1.1 503"));
+
+		ReportWebContainerView view = wc.adapt(ReportWebContainerView.class);
+		// requests may be recorded after the response is sent
+		RequestStatisticsInfo servletStatistics = null;
+		for (int i = 0; i < 50; i++) {
+			servletStatistics = view.listRequestStatistics().stream()
+					.filter(s -> s.getServletName() != null).findFirst().orElse(null);
+			if (servletStatistics != null && servletStatistics.getRequests() == 3L) {
+				break;
+			}
+			Thread.sleep(100L);
+		}
+		assertNotNull(servletStatistics);
+		assertThat(servletStatistics.getRequests(), equalTo(3L));
+		assertThat(servletStatistics.getInFlight(), equalTo(0L));
+		assertThat(servletStatistics.getResponses2xx(), equalTo(2L));
+		assertThat(servletStatistics.getResponses5xx(), equalTo(1L));
+		assertTrue(servletStatistics.getP99Micros() <= servletStatistics.getMaxMicros());
+
+		view.resetRequestStatistics();
+		assertTrue(view.listRequestStatistics().stream().allMatch(s -> s.getRequests() == 0L));
+
+		((StoppableHttpService) wc).stop();
+		controller.stop();
+	}
+
+	@Test
+	public void requestsAreHeldWhileContextIsRestarted() throws Exception {
+		ServerController controller = Utils.createServerController(properties -> {
+			properties.put(PaxWebConfig.PID_CFG_CONTEXT_RESTART_HOLD_TIMEOUT, "10000");
+		}, port, runtime, getClass().getClassLoader());
+		controller.configure();
+		controller.start();
+
+		Bundle bundle = mockBundle("sample", false);
+
+		ServerModel server = new ServerModel(new Utils.SameThreadExecutor());
+		WebContainer wc = new HttpServiceEnabled(bundle, controller, server, null, controller.getConfiguration());
+
+		wc.registerServlet("/s", new HttpServlet() {
+			@Override
+			protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+				resp.getWriter().print("OK");
+			}
+		}, null, null);
+		assertThat(httpGET(port, "/s"), endsWith("OK"));
+
+		AtomicBoolean done = new AtomicBoolean(false);
+		AtomicInteger requests = new AtomicInteger();
+		List<String> failures = Collections.synchronizedList(new LinkedList<>());
+		Thread client = new Thread(() -> {
+			while (!done.get()) {
+				try {
+					String response = httpGET(port, "/s");
+					if (!response.endsWith("OK")) {
+						failures.add(response.split("\r\n")[0]);
+					}
+					requests.incrementAndGet();
+				} catch (IOException e) {
+					failures.add(e.getMessage());
+				}
+			}
+		});
+		client.start();
+
+		// each ServletContextListener registration restarts the context
+		for (int i = 0; i < 3; i++) {
+			wc.registerEventListener(new ServletContextListener() {
+			}, null);
+			Thread.sleep(100L);
+		}
+
+		done.set(true);
+		client.join(20000L);
+
+		assertTrue(requests.get() > 0);
+		assertTrue(failures.toString(), failures.isEmpty());
+
+		((StoppableHttpService) wc).stop();
+		controller.stop();
+	}
+
 	@Test
 	public void registerFilterAndServletsUsingExcplicitBatch() throws Exception {
 		ServerController controller = Utils.createServerController(null, port, runtime, getClass().getClassLoader());
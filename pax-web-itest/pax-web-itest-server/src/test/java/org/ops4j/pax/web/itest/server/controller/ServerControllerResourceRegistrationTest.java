@@ -31,14 +31,17 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.ops4j.pax.web.itest.server.MultiContainerTestSupport;
 import org.ops4j.pax.web.itest.server.support.Utils;
+import org.ops4j.pax.web.service.PaxWebConfig;
 import org.ops4j.pax.web.service.WebContainer;
 import org.ops4j.pax.web.service.internal.HttpServiceEnabled;
 import org.ops4j.pax.web.service.internal.StoppableHttpService;
 import org.ops4j.pax.web.service.spi.ServerController;
 import org.ops4j.pax.web.service.spi.model.ServerModel;
+import org.ops4j.pax.web.service.spi.servlet.StaticContentCache;
 import org.osgi.framework.Bundle;
 import org.osgi.service.http.HttpContext;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
@@ -382,4 +385,120 @@ public class ServerControllerResourceRegistrationTest extends MultiContainerTest
 		assertTrue(serviceModelInternals.isEmpty());
 	}
 
+	@Test
+	public void registerResourcesWithSharedCache() throws Exception {
+		ServerController controller = Utils.createServerController(properties -> {
+			properties.put(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_CACHE_SHARED, "true");
+			// revalidate on each request
+			properties.put(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_CACHE_TTL, "0");
+		}, port, runtime, getClass().getClassLoader());
+		controller.configure();
+		controller.start();
+
+		Bundle bundle = mockBundle("App Bundle", false);
+
+		ServerModel server = new ServerModel(new Utils.SameThreadExecutor());
+
+		WebContainer wc = new HttpServiceEnabled(bundle, controller, server, null, controller.getConfiguration());
+
+		File base = new File("target/www-shared");
+		FileUtils.deleteDirectory(base);
+		base.mkdirs();
+		new File(base, "s2").mkdirs();
+		try (FileWriter fw = new FileWriter(new File(base, "file.txt"))) {
+			IOUtils.write("hello1", fw);
+		}
+		try (FileWriter fw = new FileWriter(new File(base, "big.txt"))) {
+			IOUtils.write("hello ".repeat(1000), fw);
+		}
+		try (FileWriter fw = new FileWriter(new File(base, "style.css"))) {
+			IOUtils.write("body { color: red; }", fw);
+		}
+		try (FileWriter fw = new FileWriter(new File(base, "style.css.br"))) {
+			IOUtils.write("pre-compressed", fw);
+		}
+
+		HttpContext context = new HttpContext() {
+			@Override
+			public URL getResource(String name) {
+				try {
+					return new File("target", name).toURI().toURL();
+				} catch (MalformedURLException ignored) {
+					return null;
+				}
+			}
+
+			@Override
+			public boolean handleSecurity(HttpServletRequest request, HttpServletResponse response) throws IOException {
+				return true;
+			}
+
+			@Override
+			public String getMimeType(String name) {
+				return name.endsWith(".css") ? "text/css" : name.endsWith(".txt") ? "text/plain" : null;
+			}
+		};
+
+		wc.registerResources("/r", "www-shared", context);
+
+		// strong ETag, the same in all runtimes
+		String response = httpGET(port, "/r/file.txt");
+		assertTrue(response.endsWith("hello1"));
+		Map<String, String> headers = extractHeaders(response);
+		assertTrue(headers.get("ETag").startsWith("\""));
+		response = httpGET(port, "/r/file.txt", "If-None-Match: " + headers.get("ETag"));
+		assertTrue(response.contains("HTTP/1.1 304"));
+		assertFalse(response.endsWith("hello1"));
+
+		// gzip variant produced on the fly
+		response = httpGET(port, "/r/big.txt", "Accept-Encoding: gzip");
+		assertTrue(response.contains("HTTP/1.1 200"));
+		assertTrue(response.contains("Content-Encoding: gzip"));
+		assertTrue(response.contains("Vary: Accept-Encoding"));
+		response = httpGET(port, "/r/big.txt", "Accept-Encoding: gzip;q=0");
+		assertFalse(response.contains("Content-Encoding"));
+		assertTrue(response.endsWith("hello "));
+
+		// pre-compressed variant
+		response = httpGET(port, "/r/style.css", "Accept-Encoding: br, gzip");
+		assertTrue(response.contains("Content-Encoding: br"));
+		assertTrue(response.endsWith("pre-compressed"));
+		response = httpGET(port, "/r/style.css");
+		assertTrue(response.endsWith("body { color: red; }"));
+
+		// changed content is detected
+		try (FileWriter fw = new FileWriter(new File(base, "file.txt"))) {
+			IOUtils.write("hello-changed", fw);
+		}
+		response = httpGET(port, "/r/file.txt", "If-None-Match: " + headers.get("ETag"));
+		assertTrue(response.contains("HTTP/1.1 200"));
+		assertTrue(response.endsWith("hello-changed"));
+
+		// not found resources and directories are handled by the runtime
+		response = httpGET(port, "/r/s3/file.txt");
+		assertTrue(response.contains("HTTP/1.1 404"));
+		response = httpGET(port, "/r/s2/");
+		assertTrue(response.contains("HTTP/1.1 403"));
+		response = httpGET(port, "/r/s2");
+		assertTrue(response.contains("HTTP/1.1 302"));
+
+		// entries of unregistered resources are removed from the cache
+		StaticContentCache cache = controller.getStaticContentCache();
+		assertTrue(cache.getEntryCount() > 0);
+		wc.unregister("/r");
+		assertEquals(0, cache.getEntryCount());
+		assertEquals(0L, cache.getSize());
+		response = httpGET(port, "/r/file.txt");
+		assertTrue(response.contains("HTTP/1.1 404"));
+
+		((StoppableHttpService) wc).stop();
+		controller.stop();
+
+		ServerModelInternals serverModelInternals = serverModelInternals(server);
+		ServiceModelInternals serviceModelInternals = serviceModelInternals(wc);
+
+		assertTrue(serverModelInternals.isClean(bundle));
+		assertTrue(serviceModelInternals.isEmpty());
+	}
+
 }
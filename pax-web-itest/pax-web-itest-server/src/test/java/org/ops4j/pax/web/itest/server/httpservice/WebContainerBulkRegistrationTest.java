@@ -0,0 +1,89 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.itest.server.httpservice;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.ops4j.pax.web.itest.server.MultiContainerTestSupport;
+import org.ops4j.pax.web.itest.server.support.Utils;
+import org.ops4j.pax.web.service.WebContainer;
+import org.osgi.framework.Bundle;
+
+import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.ops4j.pax.web.itest.server.support.Utils.httpGET;
+
+@RunWith(Parameterized.class)
+public class WebContainerBulkRegistrationTest extends MultiContainerTestSupport {
+
+	@Test
+	public void bulkRegistrationRestartsContextOnce() throws Exception {
+		// only the notification of the controller - there's no asynchronous grouping with same-thread executor
+		serverModel.configureGroupCommit(controller, -1L);
+
+		Bundle sample1 = mockBundle("sample1");
+		WebContainer wc = container(sample1);
+
+		final AtomicInteger initialized = new AtomicInteger(0);
+		wc.registerEventListener(new CountingListener(initialized), null);
+		wc.registerServlet(new Utils.MyIdServlet("0"), "s0", new String[] { "/s0" }, null, null);
+
+		assertThat(httpGET(port, "/s0"), endsWith("S(0)"));
+		assertThat(initialized.get(), equalTo(1));
+
+		// each ServletContextListener registered to started context requires a restart, but within
+		// a group, the context should be restarted only once
+		wc.bulk(c -> {
+			c.registerEventListener(new CountingListener(new AtomicInteger()), null);
+			for (int i = 1; i <= 3; i++) {
+				c.registerServlet(new Utils.MyIdServlet(Integer.toString(i)), "s" + i, new String[] { "/s" + i }, null, null);
+			}
+			c.registerEventListener(new CountingListener(new AtomicInteger()), null);
+		});
+
+		assertThat(initialized.get(), equalTo(2));
+		for (int i = 0; i <= 3; i++) {
+			assertThat(httpGET(port, "/s" + i), endsWith("S(" + i + ")"));
+		}
+
+		stopContainer(sample1);
+
+		ServerModelInternals serverModelInternals = serverModelInternals(serverModel);
+		assertTrue(serverModelInternals.isClean(sample1));
+	}
+
+	private static class CountingListener implements ServletContextListener {
+
+		private final AtomicInteger counter;
+
+		CountingListener(AtomicInteger counter) {
+			this.counter = counter;
+		}
+
+		@Override
+		public void contextInitialized(ServletContextEvent sce) {
+			counter.incrementAndGet();
+		}
+	}
+
+}
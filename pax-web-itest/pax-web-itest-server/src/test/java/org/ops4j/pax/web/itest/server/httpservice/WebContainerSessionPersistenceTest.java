@@ -16,11 +16,11 @@
 package org.ops4j.pax.web.itest.server.httpservice;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -42,6 +42,9 @@ import org.ops4j.pax.web.itest.server.support.Utils;
 import org.ops4j.pax.web.service.WebContainer;
 import org.ops4j.pax.web.service.internal.HttpServiceEnabled;
 import org.ops4j.pax.web.service.internal.StoppableHttpService;
+import org.ops4j.pax.web.service.spi.session.LogSessionStore;
+import org.ops4j.pax.web.service.spi.session.SessionStoreSegment;
+import org.ops4j.pax.web.service.spi.session.StoredSession;
 import org.osgi.framework.Bundle;
 
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -54,12 +57,17 @@ import static org.ops4j.pax.web.itest.server.support.Utils.httpGET;
 @RunWith(Parameterized.class)
 public class WebContainerSessionPersistenceTest extends MultiContainerTestSupport {
 
+	/** Whether the sessions should be kept when the server is restarted */
+	private boolean keepSessions;
+
 	@Override
 	protected String sessionPersistenceLocation() {
 		File location = new File("target/sessions");
 		location.mkdirs();
 		try {
-			FileUtils.cleanDirectory(location);
+			if (!keepSessions) {
+				FileUtils.cleanDirectory(location);
+			}
 			return location.toURI().getPath();
 		} catch (IOException e) {
 			throw new RuntimeException(e.getMessage(), e);
@@ -105,26 +113,47 @@ public class WebContainerSessionPersistenceTest extends MultiContainerTestSuppor
 		assertTrue(serverModelInternals.isClean(sample1));
 		assertTrue(serviceModelInternals.isEmpty());
 
-		if (runtime == Runtime.UNDERTOW) {
-			controller.stop();
-			controller = null;
-			ObjectInputStream ois = new ObjectInputStream(new FileInputStream("target/sessions/ROOT"));
-			Object sessions = ois.readObject();
-			assertNotNull(sessions);
-			assertTrue(sessions instanceof LinkedHashMap);
-			assertThat(((Map<?, ?>) sessions).size(), equalTo(3));
-			ois.close();
-		} else if (runtime == Runtime.TOMCAT) {
+		// all the runtimes use the same session store, where the sessions survive server restart
+		controller.stop();
+		controller = null;
+		try (LogSessionStore sessionStore = new LogSessionStore(new File("target/sessions"),
+				runtime == Runtime.JETTY ? LogSessionStore.PARTITION_BY_ID_SUFFIX : LogSessionStore.PARTITION_BY_ID_PREFIX)) {
+			SessionStoreSegment segment = sessionStore.getSegment("ROOT");
+			List<Object> counters = new ArrayList<>();
+			for (String id : segment.getSessionIds()) {
+				StoredSession session = segment.load(id, getClass().getClassLoader());
+				assertNotNull(session);
+				counters.add(session.getAttributes().get("counter"));
+			}
+			counters.sort(Comparator.comparing(Integer.class::cast));
+			assertThat(counters, equalTo(Arrays.asList(1, 1, 2)));
+		}
+	}
+
+	@Test
+	public void sessionsAreRestoredAfterRestart() throws Exception {
+		Bundle sample1 = mockBundle("sample1");
+		WebContainer wc = new HttpServiceEnabled(sample1, controller, serverModel, null, config);
+		wc.registerServlet("/visit", new TestServlet("1"), null, null);
+
+		BasicCookieStore store = new BasicCookieStore();
+		try (CloseableHttpClient client = HttpClients.custom().setDefaultCookieStore(store).build()) {
+			HttpGet get = new HttpGet("http://127.0.0.1:" + port + "/visit");
+			assertThat(EntityUtils.toString(client.execute(get).getEntity()), equalTo("counter: 1"));
+			assertThat(EntityUtils.toString(client.execute(get).getEntity()), equalTo("counter: 2"));
+
+			((StoppableHttpService) wc).stop();
 			controller.stop();
-			ObjectInputStream ois = new ObjectInputStream(new FileInputStream("target/sessions/SESSIONS.ser"));
-			Object count = ois.readObject();
-			assertNotNull(count);
-			assertThat((Integer) count, equalTo(3));
-			ois.close();
-		} else if (runtime == Runtime.JETTY) {
-			String[] names = new File("target/sessions").list();
-			assertNotNull(names);
-			assertThat(names.length, equalTo(3));
+
+			// new server with the same session store
+			keepSessions = true;
+			initAll();
+			wc = new HttpServiceEnabled(mockBundle("sample1"), controller, serverModel, null, config);
+			wc.registerServlet("/visit", new TestServlet("1"), null, null);
+
+			get = new HttpGet("http://127.0.0.1:" + port + "/visit");
+			assertThat(EntityUtils.toString(client.execute(get).getEntity()), equalTo("counter: 3"));
+			((StoppableHttpService) wc).stop();
 		}
 	}
 
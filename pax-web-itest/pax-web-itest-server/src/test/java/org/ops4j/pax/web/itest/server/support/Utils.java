@@ -76,19 +76,7 @@ public class Utils {
 
 	public static ServerController createServerController(Consumer<Hashtable<Object, Object>> callback, int port,
 			Runtime runtime, ClassLoader classLoader) {
-		Hashtable<Object, Object> properties = new Hashtable<>(System.getProperties());
-		properties.put(PaxWebConfig.PID_CFG_TEMP_DIR, "target/tmp");
-		properties.put(PaxWebConfig.PID_CFG_HTTP_PORT, Integer.toString(port));
-		properties.put(PaxWebConfig.PID_CFG_SHOW_STACKS, "true");
-
-		if (callback != null) {
-			callback.accept(properties);
-		}
-
-		// it wouldn't work in OSGi because MetaTypePropertyResolver's package is not exported
-		MetaTypePropertyResolver metatypeResolver = new MetaTypePropertyResolver();
-		DictionaryPropertyResolver resolver = new DictionaryPropertyResolver(properties, metatypeResolver);
-		Configuration config = ConfigurationBuilder.getConfiguration(resolver, org.ops4j.pax.web.service.spi.util.Utils.toMap(properties));
+		Configuration config = createConfiguration(callback, port);
 
 		switch (runtime) {
 			case JETTY: {
@@ -107,6 +95,22 @@ public class Utils {
 		}
 	}
 
+	public static Configuration createConfiguration(Consumer<Hashtable<Object, Object>> callback, int port) {
+		Hashtable<Object, Object> properties = new Hashtable<>(System.getProperties());
+		properties.put(PaxWebConfig.PID_CFG_TEMP_DIR, "target/tmp");
+		properties.put(PaxWebConfig.PID_CFG_HTTP_PORT, Integer.toString(port));
+		properties.put(PaxWebConfig.PID_CFG_SHOW_STACKS, "true");
+
+		if (callback != null) {
+			callback.accept(properties);
+		}
+
+		// it wouldn't work in OSGi because MetaTypePropertyResolver's package is not exported
+		MetaTypePropertyResolver metatypeResolver = new MetaTypePropertyResolver();
+		DictionaryPropertyResolver resolver = new DictionaryPropertyResolver(properties, metatypeResolver);
+		return ConfigurationBuilder.getConfiguration(resolver, org.ops4j.pax.web.service.spi.util.Utils.toMap(properties));
+	}
+
 	public static String httpGET(int port, String request, String... headers) throws IOException {
 		Socket s = new Socket();
 		s.connect(new InetSocketAddress("127.0.0.1", port));
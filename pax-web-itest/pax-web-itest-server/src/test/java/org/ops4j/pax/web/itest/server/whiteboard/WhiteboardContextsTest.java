@@ -47,9 +47,16 @@ import org.osgi.framework.dto.ServiceReferenceDTO;
 import org.osgi.service.http.HttpContext;
 import org.osgi.service.http.context.ServletContextHelper;
 import org.osgi.service.http.runtime.HttpServiceRuntime;
+import org.osgi.service.http.runtime.dto.RequestInfoDTO;
+import org.osgi.service.http.runtime.dto.RuntimeDTO;
 import org.osgi.service.http.whiteboard.HttpWhiteboardConstants;
 
 import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.mock;
@@ -260,9 +267,28 @@ public class WhiteboardContextsTest extends MultiContainerTestSupport {
 		assertThat(httpGET(port, "/c3/s?token=3&get_a=true"), endsWith("}c3{"));
 		assertThat(httpGET(port, "/c4/s?token=4&get_a=true"), endsWith("}c4{"));
 
-		serverModel.getRuntimeDTO();
+		// DTOs of unchanged model are taken from the same snapshot, but each caller gets own copy
+		RuntimeDTO runtimeDTO = serverModel.getRuntimeDTO();
+		RuntimeDTO runtimeDTO2 = serverModel.getRuntimeDTO();
+		assertThat(runtimeDTO2.servletContextDTOs, not(sameInstance(runtimeDTO.servletContextDTOs)));
+		assertThat(runtimeDTO2.servletContextDTOs.length, equalTo(runtimeDTO.servletContextDTOs.length));
+		String name = runtimeDTO.servletContextDTOs[0].name;
+		runtimeDTO.servletContextDTOs[0].name = "changed";
+		runtimeDTO.servletContextDTOs[0].servletDTOs = null;
+		runtimeDTO.servletContextDTOs[1] = null;
+		RuntimeDTO runtimeDTO3 = serverModel.getRuntimeDTO();
+		assertThat(runtimeDTO3.servletContextDTOs[0].name, equalTo(name));
+		assertThat(runtimeDTO3.servletContextDTOs[0].servletDTOs, notNullValue());
+		assertThat(runtimeDTO3.servletContextDTOs[1], notNullValue());
+		RequestInfoDTO requestInfoDTO = serverModel.calculateRequestInfoDTO("/c2/s");
+		assertThat(requestInfoDTO.servletDTO.name, equalTo("servlet1"));
+		requestInfoDTO.servletDTO.name = "changed";
+		assertThat(serverModel.calculateRequestInfoDTO("/c2/s").servletDTO.name, equalTo("servlet1"));
 
 		getServletCustomizer().removedService(servletRef, model);
+
+		// and new snapshot is created after the model changes
+		assertThat(serverModel.calculateRequestInfoDTO("/c2/s").servletDTO, nullValue());
 	}
 
 	@Test
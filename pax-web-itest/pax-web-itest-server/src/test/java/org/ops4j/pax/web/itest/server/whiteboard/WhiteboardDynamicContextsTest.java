@@ -16,6 +16,7 @@
 package org.ops4j.pax.web.itest.server.whiteboard;
 
 import java.util.Hashtable;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.servlet.Servlet;
 
 import org.junit.Test;
@@ -26,14 +27,17 @@ import org.ops4j.pax.web.itest.server.support.Utils;
 import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
 import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
 import org.osgi.framework.Bundle;
+import org.osgi.framework.Constants;
 import org.osgi.framework.ServiceReference;
 import org.osgi.service.http.context.ServletContextHelper;
 import org.osgi.service.http.whiteboard.HttpWhiteboardConstants;
 
 import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
 import static org.ops4j.pax.web.itest.server.support.Utils.httpGET;
 
 /**
@@ -154,6 +158,56 @@ public class WhiteboardDynamicContextsTest extends MultiContainerTestSupport {
 		assertThat(httpGET(port, "/c2/s"), endsWith("S(1)"));
 	}
 
+	@Test
+	public void modifyServletProperties() throws Exception {
+		Bundle b = mockBundle("sample1");
+
+		for (String name : new String[] { "c1", "c2" }) {
+			ServletContextHelper ctx = new ServletContextHelper() {
+			};
+			Hashtable<String, Object> properties = new Hashtable<>();
+			properties.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_CONTEXT_NAME, name);
+			properties.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_CONTEXT_PATH, "/" + name);
+			getServletContextHelperCustomizer()
+					.addingService(mockReference(b, ServletContextHelper.class, properties, () -> ctx, 0L, 0));
+		}
+
+		AtomicInteger destroyed = new AtomicInteger();
+		ServiceReference<Servlet> servletRef = mockServletReference(b, "s1", () -> new Utils.MyIdServlet("1") {
+			@Override
+			public void destroy() {
+				destroyed.incrementAndGet();
+				super.destroy();
+			}
+		}, 0L, 0, "/s");
+		mockContextSelectProperty(servletRef, "c1");
+		ServletModel model = getServletCustomizer().addingService(servletRef);
+		assertThat(httpGET(port, "/c1/s"), endsWith("S(1)"));
+		assertThat(destroyed.get(), equalTo(0));
+
+		// property not related to the registration - nothing should be re-registered
+		mockProperty(servletRef, "custom.property", "value");
+		getServletCustomizer().modifiedService(servletRef, model);
+		assertThat(httpGET(port, "/c1/s"), endsWith("S(1)"));
+		assertThat(destroyed.get(), equalTo(0));
+
+		// changed ranking - the servlet is re-ranked without re-registration
+		when(servletRef.getProperty(Constants.SERVICE_RANKING)).thenReturn(42);
+		getServletCustomizer().modifiedService(servletRef, model);
+		assertThat(model.getServiceRank(), equalTo(42));
+		assertThat(httpGET(port, "/c1/s"), endsWith("S(1)"));
+		assertThat(destroyed.get(), equalTo(0));
+
+		// changed selector - the servlet is moved to different context
+		mockContextSelectProperty(servletRef, "c2");
+		getServletCustomizer().modifiedService(servletRef, model);
+		assertThat(httpGET(port, "/c1/s"), startsWith("HTTP/1.1 404"));
+		assertThat(httpGET(port, "/c2/s"), endsWith("S(1)"));
+
+		getServletCustomizer().removedService(servletRef, model);
+		assertThat(httpGET(port, "/c2/s"), startsWith("HTTP/1.1 404"));
+	}
+
 	@Test
 	public void modifyOneOfServletContextHelpers() throws Exception {
 		Bundle b = mockBundle("sample1");
@@ -36,6 +36,8 @@ import org.ops4j.pax.web.itest.server.MultiContainerTestSupport;
 import org.ops4j.pax.web.itest.server.support.Utils;
 import org.ops4j.pax.web.service.spi.model.elements.FilterModel;
 import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+import org.ops4j.pax.web.service.spi.servlet.OsgiFilterChain;
+import org.ops4j.pax.web.service.spi.servlet.OsgiFilterChainTemplate;
 import org.ops4j.pax.web.service.whiteboard.FilterMapping;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.ServiceReference;
@@ -47,6 +49,8 @@ import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 import static org.ops4j.pax.web.itest.server.support.Utils.httpGET;
@@ -176,4 +180,94 @@ public class WhiteboardFiltersTest extends MultiContainerTestSupport {
 		assertThat(events.get(14), equalTo("DESTROY "));
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void filterChainTemplatesAreReusedUntilFiltersOrPreprocessorsChange() throws Exception {
+		Bundle sample1 = mockBundle("sample1");
+
+		ServiceReference<Servlet> servletRef1 = mockServletReference(sample1, "servlet1",
+				() -> new Utils.MyIdServlet("1"), 0L, 0, "/s");
+		ServletModel model1 = getServletCustomizer().addingService(servletRef1);
+		ServiceReference<Servlet> servletRef2 = mockServletReference(sample1, "servlet2",
+				() -> new Utils.MyIdServlet("2"), 0L, 0, "/t");
+		ServletModel model2 = getServletCustomizer().addingService(servletRef2);
+
+		// remembers the template of each chain passing through the preprocessor
+		final List<OsgiFilterChainTemplate<?>> templates = new LinkedList<>();
+		Preprocessor preprocessor = new Preprocessor() {
+			@Override
+			public void init(FilterConfig filterConfig) {
+			}
+
+			@Override
+			public void destroy() {
+			}
+
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+				templates.add(((OsgiFilterChain) chain).getTemplate());
+				chain.doFilter(request, response);
+			}
+		};
+		ServiceReference<?> ppRef1 = mockPreprocessorReference(sample1, "p1",
+				() -> preprocessor, 1L, 0);
+		FilterModel ppModel1 = getFilterCustomizer().addingService((ServiceReference<Filter>) ppRef1);
+
+		// a chain built once is reused for the same target
+		assertThat(httpGET(port, "/s"), endsWith("S(1)"));
+		assertThat(httpGET(port, "/s"), endsWith("S(1)"));
+		assertSame(templates.get(0), templates.get(1));
+		assertThat(httpGET(port, "/t"), endsWith("S(2)"));
+		assertThat(httpGET(port, "/t"), endsWith("S(2)"));
+		assertSame(templates.get(2), templates.get(3));
+
+		// registration of a filter invalidates the template
+		ServiceReference<Filter> filterRef = mockFilterReference(sample1, "filter1",
+				() -> new Utils.MyIdFilter("1"), 0L, 0, "/s");
+		FilterModel filterModel = getFilterCustomizer().addingService(filterRef);
+		assertThat(httpGET(port, "/s"), endsWith(">F(1)S(1)<F(1)"));
+		assertThat(httpGET(port, "/s"), endsWith(">F(1)S(1)<F(1)"));
+		assertNotSame(templates.get(1), templates.get(4));
+		assertSame(templates.get(4), templates.get(5));
+
+		// and so does its unregistration
+		getFilterCustomizer().removedService(filterRef, filterModel);
+		assertThat(httpGET(port, "/s"), endsWith("S(1)"));
+		assertNotSame(templates.get(5), templates.get(6));
+
+		// registration of another preprocessor invalidates the template
+		Preprocessor preprocessor2 = new Preprocessor() {
+			@Override
+			public void init(FilterConfig filterConfig) {
+			}
+
+			@Override
+			public void destroy() {
+			}
+
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+				chain.doFilter(request, response);
+			}
+		};
+		ServiceReference<?> ppRef2 = mockPreprocessorReference(sample1, "p2",
+				() -> preprocessor2, 2L, 0);
+		// preprocessors are registered as filters, so they need different names
+		mockProperty(ppRef2, HttpWhiteboardConstants.HTTP_WHITEBOARD_FILTER_NAME, "p2");
+		FilterModel ppModel2 = getFilterCustomizer().addingService((ServiceReference<Filter>) ppRef2);
+		assertThat(httpGET(port, "/s"), endsWith("S(1)"));
+		assertThat(httpGET(port, "/t"), endsWith("S(2)"));
+		assertNotSame(templates.get(6), templates.get(7));
+		assertNotSame(templates.get(3), templates.get(8));
+
+		// and so does its unregistration
+		getFilterCustomizer().removedService((ServiceReference<Filter>) ppRef2, ppModel2);
+		assertThat(httpGET(port, "/s"), endsWith("S(1)"));
+		assertNotSame(templates.get(7), templates.get(9));
+
+		getFilterCustomizer().removedService((ServiceReference<Filter>) ppRef1, ppModel1);
+		getServletCustomizer().removedService(servletRef1, model1);
+		getServletCustomizer().removedService(servletRef2, model2);
+	}
+
 }
@@ -39,6 +39,7 @@ import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
 import org.eclipse.jetty.server.SslConnectionFactory;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.eclipse.jetty.util.VirtualThreads;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.ops4j.pax.web.service.spi.config.Configuration;
 import org.ops4j.pax.web.service.spi.config.SecurityConfiguration;
@@ -105,25 +106,23 @@ class JettyFactory {
 		ServerConfiguration sc = configuration.server();
 
 		// org.eclipse.jetty.util.thread.ThreadPool required by org.eclipse.jetty.server.Server
-		// defaults taken from org.eclipse.jetty.util.thread.QueuedThreadPool
-		Integer maxThreads = sc.getServerMaxThreads();
-		if (maxThreads == null) {
-			maxThreads = 200;
-		}
-		Integer minThreads = sc.getServerMinThreads();
-		if (minThreads == null) {
-			minThreads = Math.min(8, maxThreads);
-		}
-		Integer idleTimeout = sc.getServerIdleTimeout();
-		if (idleTimeout == null) {
-			idleTimeout = 60000;
-		}
+		int maxThreads = maxThreads(sc);
 		String prefix = sc.getServerThreadNamePrefix();
 
-		QueuedThreadPool qtp = new QueuedThreadPool(maxThreads, minThreads, idleTimeout);
+		QueuedThreadPool qtp = new QueuedThreadPool(maxThreads, minThreads(sc), idleTimeout(sc));
 		if (prefix != null) {
 			qtp.setName(prefix);
 		}
+		if (sc.isServerVirtualThreads() != null && sc.isServerVirtualThreads()) {
+			if (VirtualThreads.areSupported()) {
+				// the pool is still used for selectors/acceptors, but requests are dispatched to virtual threads
+				qtp.setVirtualThreadsExecutor(VirtualThreads.getDefaultVirtualThreadsExecutor());
+				LOG.info("Using virtual threads to process Jetty requests");
+			} else {
+				LOG.warn("Virtual threads are not supported in JDK {}. Using thread pool with maxThreads={}.",
+						Runtime.version().feature(), maxThreads);
+			}
+		}
 
 		// PAXWEB-1127: load org.eclipse.jetty.util.FutureCallback class, so it's there when we shutdown connectors
 		// to avoid NPE in org.apache.felix.framework.BundleWiringImpl.searchImports()
@@ -144,6 +143,54 @@ class JettyFactory {
 		return qtp;
 	}
 
+	/**
+	 * Sets the sizes and idle timeout of (possibly running) {@link QueuedThreadPool} using the configuration.
+	 *
+	 * @param qtp
+	 * @param configuration
+	 */
+	public void resizeThreadPool(QueuedThreadPool qtp, Configuration configuration) {
+		ServerConfiguration sc = configuration.server();
+		int maxThreads = maxThreads(sc);
+		int minThreads = minThreads(sc);
+
+		// QueuedThreadPool doesn't accept min > max at any moment
+		if (maxThreads < qtp.getMinThreads()) {
+			qtp.setMinThreads(minThreads);
+			qtp.setMaxThreads(maxThreads);
+		} else {
+			qtp.setMaxThreads(maxThreads);
+			qtp.setMinThreads(minThreads);
+		}
+		int idleTimeout = idleTimeout(sc);
+		if (qtp.getIdleTimeout() != idleTimeout) {
+			try {
+				qtp.setIdleTimeout(idleTimeout);
+			} catch (IllegalStateException e) {
+				// the timeout of the pool is changed, but running ReservedThreadExecutor bean doesn't allow
+				// the change, so reserved threads keep previous timeout
+				LOG.debug("Idle timeout of reserved threads of {} is not changed", qtp);
+			}
+		}
+	}
+
+	// defaults taken from org.eclipse.jetty.util.thread.QueuedThreadPool
+
+	private static int maxThreads(ServerConfiguration sc) {
+		Integer maxThreads = sc.getServerMaxThreads();
+		return maxThreads == null ? 200 : maxThreads;
+	}
+
+	private static int minThreads(ServerConfiguration sc) {
+		Integer minThreads = sc.getServerMinThreads();
+		return minThreads == null ? Math.min(8, maxThreads(sc)) : minThreads;
+	}
+
+	private static int idleTimeout(ServerConfiguration sc) {
+		Integer idleTimeout = sc.getServerIdleTimeout();
+		return idleTimeout == null ? 60000 : idleTimeout;
+	}
+
 	/*
 	 * org.eclipse.jetty.server.ConnectionFactory hierarchy in Jetty 9.4.x:
 	 *
@@ -29,9 +29,12 @@ import org.eclipse.jetty.util.resource.PathResource;
 import org.ops4j.pax.web.service.jetty.internal.web.JettyResourceServlet;
 import org.ops4j.pax.web.service.spi.ServerController;
 import org.ops4j.pax.web.service.spi.ServerState;
+import org.ops4j.pax.web.service.spi.accesslog.AccessLogWriter;
 import org.ops4j.pax.web.service.spi.config.Configuration;
+import org.ops4j.pax.web.service.spi.config.ConfigurationDiff;
 import org.ops4j.pax.web.service.spi.model.events.ServerEvent;
 import org.ops4j.pax.web.service.spi.model.events.ServerListener;
+import org.ops4j.pax.web.service.spi.servlet.StaticContentCache;
 import org.ops4j.pax.web.service.spi.task.Batch;
 import org.osgi.framework.Bundle;
 import org.slf4j.Logger;
@@ -50,7 +53,8 @@ class JettyServerController implements ServerController {
 	private final Bundle paxWebJettyBundle;
 	private final ClassLoader classLoader;
 
-	private final Configuration configuration;
+	/** Current configuration - may be changed by {@link #reconfigure(Configuration, ConfigurationDiff)} */
+	private volatile Configuration configuration;
 	private ServerState state;
 
 	private final Set<ServerListener> listeners;
@@ -63,6 +67,9 @@ class JettyServerController implements ServerController {
 	 */
 	private JettyServerWrapper jettyServerWrapper;
 
+	/** Static content cache shared by all resource servlets (if enabled) */
+	private final StaticContentCache staticContentCache;
+
 	JettyServerController(Bundle paxWebJettyBundle, ClassLoader classLoader,
 			JettyFactory jettyFactory, Configuration configuration) {
 		this.paxWebJettyBundle = paxWebJettyBundle;
@@ -73,7 +80,10 @@ class JettyServerController implements ServerController {
 
 		this.listeners = Collections.synchronizedSet(new LinkedHashSet<>());
 
-		jettyServerWrapper = new JettyServerWrapper(configuration, jettyFactory, paxWebJettyBundle, classLoader);
+		this.staticContentCache = configuration.resources().sharedCache()
+				? new StaticContentCache(configuration.resources()) : null;
+		jettyServerWrapper = new JettyServerWrapper(configuration, jettyFactory, paxWebJettyBundle, classLoader,
+				staticContentCache);
 	}
 
 	// --- lifecycle methods
@@ -121,6 +131,9 @@ class JettyServerController implements ServerController {
 		}
 
 		jettyServerWrapper.stop();
+		if (staticContentCache != null) {
+			staticContentCache.clear();
+		}
 
 		state = ServerState.STOPPED;
 		notifyListeners(new ServerEvent(ServerEvent.State.STOPPED, null));
@@ -131,6 +144,36 @@ class JettyServerController implements ServerController {
 		return configuration;
 	}
 
+	@Override
+	public boolean reconfigure(Configuration configuration, ConfigurationDiff diff) {
+		if (state != ServerState.STARTED || diff.requiresRestart()) {
+			return false;
+		}
+		if (staticContentCache == null && diff.contains(ConfigurationDiff.Kind.RESOURCE_CACHE)) {
+			// without shared cache, resource servlets read the limits only when they're initialized
+			return false;
+		}
+
+		LOG.info("Reconfiguring {}: {}", this, diff);
+
+		try {
+			jettyServerWrapper.reconfigure(configuration, diff);
+		} catch (Exception e) {
+			LOG.warn("Problem reconfiguring Jetty server: {}", e.getMessage(), e);
+			return false;
+		}
+		this.configuration = configuration;
+
+		if (diff.contains(ConfigurationDiff.Kind.RESOURCE_CACHE)) {
+			staticContentCache.setLimits(configuration.resources());
+		}
+		if (diff.contains(ConfigurationDiff.Kind.CONNECTORS)) {
+			notifyListeners(new ServerEvent(ServerEvent.State.STARTED, jettyServerWrapper.getAddresses(true)));
+		}
+
+		return true;
+	}
+
 	// --- listener related methods
 
 	@Override
@@ -168,6 +211,26 @@ class JettyServerController implements ServerController {
 		batch.accept(jettyServerWrapper);
 	}
 
+	@Override
+	public void beginGroup() {
+		jettyServerWrapper.beginGroup();
+	}
+
+	@Override
+	public void endGroup() {
+		jettyServerWrapper.endGroup();
+	}
+
+	@Override
+	public AccessLogWriter getAccessLogWriter() {
+		return jettyServerWrapper.getAccessLogWriter();
+	}
+
+	@Override
+	public StaticContentCache getStaticContentCache() {
+		return staticContentCache;
+	}
+
 	@Override
 	public Servlet createResourceServlet(final URL urlBase, final String base) {
 		final PathResource baseUrlResource;
@@ -178,7 +241,10 @@ class JettyServerController implements ServerController {
 		}
 		String chroot = baseUrlResource == null ? base : null;
 
-		return new JettyResourceServlet(baseUrlResource, chroot);
+		JettyResourceServlet jettyResourceServlet = new JettyResourceServlet(baseUrlResource, chroot);
+		jettyResourceServlet.setStaticContentCache(staticContentCache);
+
+		return jettyResourceServlet;
 	}
 
 	@Override
@@ -94,7 +94,8 @@ public class JettyServerControllerFactory implements ServerControllerFactory {
 	@Override
 	public void releaseServerController(ServerController controller, Configuration configuration) {
 		if (controller instanceof JettyServerController) {
-			serverControllers.remove(configuration.id(), controller);
+			// not by configuration ID, because the configuration may have been changed by reconfigure()
+			serverControllers.values().remove(controller);
 		}
 	}
 
@@ -62,11 +62,9 @@ import org.eclipse.jetty.security.authentication.DigestAuthenticator;
 import org.eclipse.jetty.security.authentication.FormAuthenticator;
 import org.eclipse.jetty.server.ConnectionFactory;
 import org.eclipse.jetty.server.Connector;
-import org.eclipse.jetty.server.CustomRequestLog;
 import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.HttpConfiguration;
 import org.eclipse.jetty.server.HttpConnectionFactory;
-import org.eclipse.jetty.server.RequestLogWriter;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
 import org.eclipse.jetty.server.SessionIdManager;
@@ -74,7 +72,6 @@ import org.eclipse.jetty.server.SslConnectionFactory;
 import org.eclipse.jetty.server.handler.ContextHandlerCollection;
 import org.eclipse.jetty.server.handler.ErrorHandler;
 import org.eclipse.jetty.server.session.DefaultSessionIdManager;
-import org.eclipse.jetty.server.session.FileSessionDataStoreFactory;
 import org.eclipse.jetty.server.session.SessionHandler;
 import org.eclipse.jetty.servlet.DefaultServlet;
 import org.eclipse.jetty.servlet.ErrorPageErrorHandler;
@@ -91,8 +88,11 @@ import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.eclipse.jetty.xml.XmlConfiguration;
 import org.ops4j.pax.web.service.AuthenticatorService;
 import org.ops4j.pax.web.service.jetty.internal.web.JettyResourceServlet;
+import org.ops4j.pax.web.service.spi.accesslog.AccessLogWriter;
 import org.ops4j.pax.web.service.spi.config.Configuration;
+import org.ops4j.pax.web.service.spi.config.ConfigurationDiff;
 import org.ops4j.pax.web.service.spi.config.LogConfiguration;
+import org.ops4j.pax.web.service.spi.config.ServerConfiguration;
 import org.ops4j.pax.web.service.spi.config.SessionConfiguration;
 import org.ops4j.pax.web.service.spi.model.ContextMetadataModel;
 import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
@@ -120,6 +120,10 @@ import org.ops4j.pax.web.service.spi.servlet.OsgiSessionAttributeListener;
 import org.ops4j.pax.web.service.spi.servlet.PreprocessorFilterConfig;
 import org.ops4j.pax.web.service.spi.servlet.RegisteringContainerInitializer;
 import org.ops4j.pax.web.service.spi.servlet.SCIWrapper;
+import org.ops4j.pax.web.service.spi.servlet.StaticContentCache;
+import org.ops4j.pax.web.service.spi.session.LogSessionStore;
+import org.ops4j.pax.web.service.spi.session.SessionStore;
+import org.ops4j.pax.web.service.spi.task.BatchTrace;
 import org.ops4j.pax.web.service.spi.task.BatchVisitor;
 import org.ops4j.pax.web.service.spi.task.ClearDynamicRegistrationsChange;
 import org.ops4j.pax.web.service.spi.task.ContainerInitializerModelChange;
@@ -165,6 +169,9 @@ class JettyServerWrapper implements BatchVisitor {
 	/** Outside of OSGi, let's use passed ClassLoader */
 	private final ClassLoader classLoader;
 
+	/** Shared cache of static content (if enabled) - entries of removed contexts are invalidated */
+	private final StaticContentCache staticContentCache;
+
 	/** Actual instance of {@link org.eclipse.jetty.server.Server} */
 	private Server server;
 
@@ -180,6 +187,15 @@ class JettyServerWrapper implements BatchVisitor {
 	/** If {@code jetty*.xml} files create instances of {@link HttpConfiguration}, these are collected here. */
 	private final Map<String, HttpConfiguration> httpConfigs = new LinkedHashMap<>();
 
+	/**
+	 * Connectors created from PID configuration (not from {@code jetty*.xml}), which are removed when they no
+	 * longer match changed configuration.
+	 */
+	private final Set<ServerConnector> defaultConnectors = new LinkedHashSet<>();
+
+	/** NCSA request log created from PID configuration */
+	private volatile PaxWebRequestLog ncsaRequestLog;
+
 	private final JettyFactory jettyFactory;
 
 	/**
@@ -188,6 +204,14 @@ class JettyServerWrapper implements BatchVisitor {
 	 */
 	private final Set<String> transactions = new HashSet<>();
 
+	/**
+	 * Whether a group of batches is being processed - starting of contexts is deferred until the end of the group.
+	 */
+	private boolean groupInProgress = false;
+
+	/** Context paths of the contexts which should be started at the end of the group */
+	private final Set<String> deferredStarts = new LinkedHashSet<>();
+
 	/**
 	 * When delaying removal of servlets and listeners (not filters, error pages, ...), we have to ensure that
 	 * they are really removed. It is automatic for WABs, where entire context is destroyed, but not necessarily
@@ -228,15 +252,19 @@ class JettyServerWrapper implements BatchVisitor {
 
 	/**
 	 * Global {@link Configuration} passed from pax-web-runtime through
-	 * {@link org.ops4j.pax.web.service.spi.ServerController}
+	 * {@link org.ops4j.pax.web.service.spi.ServerController}. Replaced when the changed configuration is applied
+	 * to running server.
 	 */
-	private final Configuration configuration;
+	private Configuration configuration;
 
 	/** Servlet to use when no servlet is mapped - to ensure that preprocessors and filters are run correctly. */
 	private final Default404Servlet default404Servlet = new Default404Servlet();
 
 	private SessionCookieConfig defaultSessionCookieConfig;
 
+	/** Store of persistent sessions of all the contexts, if configured */
+	private SessionStore sessionStore;
+
 	/**
 	 * All {@link EventListenerModel} instances for {@link HttpSessionAttributeListener} listeners. They'll be
 	 * reviewed in order to propagate session attribute events per {@link OsgiContextModel}.
@@ -248,13 +276,16 @@ class JettyServerWrapper implements BatchVisitor {
 	private final Map<String, TreeMap<OsgiContextModel, SecurityConfigurationModel>> contextSecurityConstraints = new HashMap<>();
 
 	JettyServerWrapper(Configuration config, JettyFactory jettyFactory,
-			Bundle paxWebJettyBundle, ClassLoader classLoader) {
+			Bundle paxWebJettyBundle, ClassLoader classLoader, StaticContentCache staticContentCache) {
 		this.configuration = config;
 		this.jettyFactory = jettyFactory;
 		this.paxWebJettyBundle = paxWebJettyBundle;
 		this.classLoader = classLoader;
+		this.staticContentCache = staticContentCache;
 
 		this.mainHandler = new PrioritizedHandlerCollection();
+		Long holdTimeout = config.server().getContextRestartHoldTimeout();
+		this.mainHandler.setHoldRequestsDuringRestart(holdTimeout != null && holdTimeout > 0L);
 	}
 
 	// --- lifecycle and configuration methods
@@ -300,10 +331,9 @@ class JettyServerWrapper implements BatchVisitor {
 
 		// global session persistence configuration
 		if (configuration.session().getSessionStoreDirectory() != null) {
-			FileSessionDataStoreFactory dsFactory = new FileSessionDataStoreFactory();
-			dsFactory.setDeleteUnrestorableFiles(true);
-			dsFactory.setStoreDir(configuration.session().getSessionStoreDirectory());
-			server.addBean(dsFactory);
+			sessionStore = new LogSessionStore(configuration.session().getSessionStoreDirectory(),
+					LogSessionStore.PARTITION_BY_ID_SUFFIX);
+			server.addBean(new PaxWebSessionDataStoreFactory(sessionStore));
 		}
 
 		configureServerCustomizers();
@@ -533,6 +563,7 @@ class JettyServerWrapper implements BatchVisitor {
 						LOG.warn("Connector defined in external configuration will be removed, "
 								+ "because it's not enabled: {}", connector);
 						server.removeConnector(connector);
+						defaultConnectors.remove(connector);
 					}
 				}
 			}
@@ -541,6 +572,9 @@ class JettyServerWrapper implements BatchVisitor {
 			// we have to create a connector
 			Connector connector = connectorProvider.get();
 			server.addConnector(connector);
+			if (connector instanceof ServerConnector) {
+				defaultConnectors.add((ServerConnector) connector);
+			}
 		}
 	}
 
@@ -588,34 +622,112 @@ class JettyServerWrapper implements BatchVisitor {
 			throw new IllegalArgumentException(logDir + " is not a valid directory to store request logs");
 		}
 
-		RequestLogWriter writer = new RequestLogWriter();
-
-		// org.eclipse.jetty.util.RolloverFileOutputStream._append
-		writer.setAppend(lc.isLogNCSAAppend());
-		// org.eclipse.jetty.util.RolloverFileOutputStream._filename, should contain "yyyy_mm_dd"
-		if (lc.getLogNCSAFile() != null) {
-			writer.setFilename(new File(lc.getLogNCSADirectory(), lc.getLogNCSAFile()).getAbsolutePath());
-		} else {
-			writer.setFilename(new File(lc.getLogNCSADirectory(), "yyyy_mm_dd.request.log").getAbsolutePath());
-		}
-		// org.eclipse.jetty.util.RolloverFileOutputStream._fileDateFormat, defaults to "yyyy_mm_dd"
-		writer.setFilenameDateFormat(lc.getLogNCSAFilenameDateFormat());
-		// org.eclipse.jetty.util.RolloverFileOutputStream._retainDays
-		writer.setRetainDays(lc.getLogNCSARetainDays());
-		// org.eclipse.jetty.server.RequestLogWriter._timeZone, defaults to "GMT"
-		writer.setTimeZone(lc.getLogNCSATimeZone());
-
-		CustomRequestLog requestLog = new CustomRequestLog(writer,
-				lc.isLogNCSAExtended() ? CustomRequestLog.EXTENDED_NCSA_FORMAT : CustomRequestLog.NCSA_FORMAT);
+		// common access log (org.ops4j.pax.web.service.spi.accesslog.AccessLogWriter) is created when
+		// the request log is started as a bean of the server
+		PaxWebRequestLog requestLog = new PaxWebRequestLog(lc);
 
 		// original approach from PAXWEB-269 - http://wiki.eclipse.org/Jetty/Howto/Configure_Request_Logs:
 //		server.getRootHandlerCollection().addHandler(requestLogHandler);
 		// since https://bugs.eclipse.org/bugs/show_bug.cgi?id=446564 we can do better:
 		server.setRequestLog(requestLog);
+		ncsaRequestLog = requestLog;
 
 		LOG.info("NCSARequestlogging is using directory {}", lc.getLogNCSADirectory());
 	}
 
+	/**
+	 * Applies changed configuration to started Jetty server. Only the changes which
+	 * {@link ConfigurationDiff#getHotChanges() can be applied live} are handled here.
+	 *
+	 * @param configuration
+	 * @param diff
+	 * @throws Exception
+	 */
+	public void reconfigure(Configuration configuration, ConfigurationDiff diff) throws Exception {
+		this.configuration = configuration;
+
+		if (diff.contains(ConfigurationDiff.Kind.THREAD_POOL)) {
+			LOG.info("Resizing Jetty thread pool {}", qtp);
+			jettyFactory.resizeThreadPool(qtp, configuration);
+		}
+
+		if (diff.contains(ConfigurationDiff.Kind.CONNECTORS)) {
+			// remove the connectors created by us, which no longer match the configuration
+			for (Iterator<ServerConnector> it = defaultConnectors.iterator(); it.hasNext(); ) {
+				ServerConnector connector = it.next();
+				if (!matchesConfiguration(connector)) {
+					LOG.info("Removing connector {}", connector);
+					it.remove();
+					server.removeConnector(connector);
+					connector.stop();
+				}
+			}
+			// and create the missing ones
+			verifyConnectorConfiguration();
+			for (ServerConnector connector : defaultConnectors) {
+				if (!connector.isStarted()) {
+					// a bean added to started server is not managed (so not stopped together with the server)
+					server.manage(connector);
+					connector.start();
+				}
+			}
+		}
+
+		if (diff.contains(ConfigurationDiff.Kind.CONNECTOR_IDLE_TIMEOUT)) {
+			Integer idleTimeout = configuration.server().getConnectorIdleTimeout();
+			// 30s is the default of org.eclipse.jetty.server.AbstractConnector
+			defaultConnectors.forEach(c -> c.setIdleTimeout(idleTimeout == null ? 30000L : idleTimeout));
+		}
+
+		if (diff.contains(ConfigurationDiff.Kind.REQUEST_LOG)) {
+			if (server.getRequestLog() != null && server.getRequestLog() != ncsaRequestLog) {
+				LOG.info("Request log from external configuration is not changed");
+			} else {
+				if (ncsaRequestLog != null) {
+					server.setRequestLog(null);
+					ncsaRequestLog.stop();
+					ncsaRequestLog = null;
+				}
+				if (configuration.logging().isLogNCSAFormatEnabled()) {
+					configureRequestLog();
+					server.manage(ncsaRequestLog);
+					ncsaRequestLog.start();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks whether a connector created from PID configuration is still declared in current configuration.
+	 *
+	 * @param connector
+	 * @return
+	 */
+	private boolean matchesConfiguration(ServerConnector connector) {
+		boolean secure = connector.getConnectionFactory(SslConnectionFactory.class) != null;
+		ServerConfiguration sc = configuration.server();
+		boolean enabled = secure ? sc.isHttpSecureEnabled() : sc.isHttpEnabled();
+		if (!enabled) {
+			return false;
+		}
+		Integer port = secure ? sc.getHttpSecurePort() : sc.getHttpPort();
+		for (String address : sc.getListeningAddresses()) {
+			if (match(address, port, connector)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the {@link AccessLogWriter} of NCSA access log if it's enabled
+	 * @return
+	 */
+	public AccessLogWriter getAccessLogWriter() {
+		PaxWebRequestLog log = ncsaRequestLog;
+		return log == null ? null : log.getWriter();
+	}
+
 	/**
 	 * Simply start Jetty server
 	 * @throws Exception
@@ -643,8 +755,15 @@ class JettyServerWrapper implements BatchVisitor {
 			mbeanContainer = null;
 		}
 
+		contextHandlers.values().forEach(sch -> sch.getRestartGate().dispose());
 		server.stop();
 
+		if (sessionStore != null) {
+			// after the contexts passivated their sessions
+			sessionStore.close();
+			sessionStore = null;
+		}
+
 		// PAXWEB-1127 - stop qtp after stopping server, as we've started it manually
 		LOG.info("Stopping Jetty thread pool {}", qtp);
 		qtp.stop();
@@ -697,6 +816,33 @@ class JettyServerWrapper implements BatchVisitor {
 		return result.toArray(new ServerEvent.Address[0]);
 	}
 
+	// --- group commit of batches
+
+	/**
+	 * Begins a group of batches - contexts won't be started until {@link #endGroup()}.
+	 */
+	public void beginGroup() {
+		groupInProgress = true;
+	}
+
+	/**
+	 * Ends a group of batches and starts all the contexts which were stopped or not started during the group.
+	 */
+	public void endGroup() {
+		groupInProgress = false;
+		if (deferredStarts.isEmpty()) {
+			return;
+		}
+		List<String> toStart = new ArrayList<>(deferredStarts);
+		deferredStarts.clear();
+		for (String contextPath : toStart) {
+			PaxWebServletContextHandler sch = contextHandlers.get(contextPath);
+			if (sch != null && sch.getServer() != null && sch.getServer().isStarted()) {
+				ensureServletContextStarted(sch);
+			}
+		}
+	}
+
 	// --- visitor methods for model changes
 
 	@Override
@@ -763,7 +909,9 @@ class JettyServerWrapper implements BatchVisitor {
 
 			PaxWebServletContextHandler sch = new PaxWebServletContextHandler(null, contextPath, configuration);
 			// special, OSGi-aware org.eclipse.jetty.servlet.ServletHandler
-			sch.setServletHandler(new PaxWebServletHandler(default404Servlet, new OsgiSessionAttributeListener(sessionListenerModels)));
+			PaxWebServletHandler servletHandler = new PaxWebServletHandler(default404Servlet, new OsgiSessionAttributeListener(sessionListenerModels));
+			servletHandler.setRequestMetricsEnabled(configuration.server().isRequestMetricsEnabled());
+			sch.setServletHandler(servletHandler);
 			// setting "false" here will trigger 302 redirect when browsing to context without trailing "/"
 			sch.setAllowNullPathInfo(false);
 			// welcome files will be handled at default/resource servlet level and OsgiServletContext
@@ -866,6 +1014,8 @@ class JettyServerWrapper implements BatchVisitor {
 			// No need to clean anything, as the PaxWebServletContextHandler is not reused
 
 			if (sch != null) {
+				// the context is not going to be started again, so don't hold the requests
+				sch.getRestartGate().dispose();
 				if (sch.isStarted()) {
 					LOG.info("Stopping Jetty context \"{}\"", contextPath);
 					try {
@@ -890,6 +1040,11 @@ class JettyServerWrapper implements BatchVisitor {
 		ServletContextModel servletContextModel = change.getServletContextModel();
 
 		String contextPath = osgiModel.getContextPath();
+
+		if (change.getKind() == OpCode.DELETE && staticContentCache != null) {
+			// resources of removed context can't be served anymore
+			staticContentCache.invalidate(osgiModel);
+		}
 		PaxWebServletContextHandler sch = contextHandlers.get(contextPath);
 
 		if (sch == null) {
@@ -1278,6 +1433,11 @@ class JettyServerWrapper implements BatchVisitor {
 	}
 
 	private void removeServletModel(String contextPath, ServletModel model) {
+		if (model.isResourceServlet() && staticContentCache != null) {
+			model.getContextModels().stream().filter(ocm -> contextPath.equals(ocm.getContextPath()))
+					.forEach(staticContentCache::invalidate);
+		}
+
 		ServletContextHandler sch = contextHandlers.get(contextPath);
 
 		if (sch == null) {
@@ -1435,6 +1595,8 @@ class JettyServerWrapper implements BatchVisitor {
 					iterator.remove();
 				}
 			}
+			// pre-built OSGi filter chains contain the preprocessors
+			((PaxWebServletHandler) sch.getServletHandler()).invalidateOsgiFilterChains();
 
 			if (sch.isStarted()) {
 				for (PreprocessorFilterConfig fc : toInit) {
@@ -2089,6 +2251,7 @@ class JettyServerWrapper implements BatchVisitor {
 	public void visitContextStopChange(ContextStopChange change) {
 		String contextPath = change.getContextPath();
 		PaxWebServletContextHandler sch = contextHandlers.get(contextPath);
+		deferredStarts.remove(contextPath);
 		if (sch != null && sch.isStarted()) {
 			LOG.info("Stopping Jetty context \"{}\"", contextPath);
 			try {
@@ -2180,12 +2343,18 @@ class JettyServerWrapper implements BatchVisitor {
 		if (sch.isStarted() || pendingTransaction(contextPath)) {
 			return;
 		}
+		if (groupInProgress) {
+			LOG.debug("Deferring start of Jetty context \"{}\" until the end of registration group", contextPath);
+			deferredStarts.add(contextPath);
+			return;
+		}
 		try {
 			OsgiContextModel highestRanked = ((PaxWebServletHandler) sch.getServletHandler()).getDefaultOsgiContextModel();
 			OsgiServletContext highestRankedContext = ((PaxWebServletHandler) sch.getServletHandler()).getDefaultServletContext();
 			highestRankedContext.allowServletContextListeners();
 
 			LOG.info("Starting Jetty context \"{}\" with default Osgi Context {}", contextPath, highestRanked);
+			BatchTrace.contextStarted();
 
 			// first thing - only NOW we can set ServletContext's class loader! It affects many things, including
 			// the TCCL used for example by javax.el.ExpressionFactory.newInstance()
@@ -2447,6 +2616,9 @@ class JettyServerWrapper implements BatchVisitor {
 			highestRankedContext.register();
 		} catch (Exception e) {
 			LOG.error(e.getMessage(), e);
+		} finally {
+			// requests held during the restart can be handled by the started context
+			sch.getRestartGate().open();
 		}
 	}
 
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.jetty.internal;
+
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.MetaData;
+import org.eclipse.jetty.server.Authentication;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.RequestLog;
+import org.eclipse.jetty.server.Response;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.ops4j.pax.web.service.spi.accesslog.AccessLogWriter;
+import org.ops4j.pax.web.service.spi.config.LogConfiguration;
+
+/**
+ * {@link RequestLog} passing the requests to common {@link AccessLogWriter}, which is created when this
+ * request log is started.
+ */
+public class PaxWebRequestLog extends AbstractLifeCycle implements RequestLog {
+
+	private final LogConfiguration configuration;
+	private volatile AccessLogWriter writer;
+
+	public PaxWebRequestLog(LogConfiguration configuration) {
+		this.configuration = configuration;
+	}
+
+	@Override
+	protected void doStart() throws Exception {
+		writer = new AccessLogWriter(configuration);
+		super.doStart();
+	}
+
+	@Override
+	protected void doStop() throws Exception {
+		super.doStop();
+		AccessLogWriter w = writer;
+		writer = null;
+		if (w != null) {
+			w.close();
+		}
+	}
+
+	@Override
+	public void log(Request request, Response response) {
+		AccessLogWriter w = writer;
+		if (w == null) {
+			return;
+		}
+		String user = null;
+		Authentication authentication = request.getAuthentication();
+		if (authentication instanceof Authentication.User) {
+			user = ((Authentication.User) authentication).getUserIdentity().getUserPrincipal().getName();
+		}
+		MetaData.Response committed = response.getCommittedMetaData();
+		int status = committed == null ? response.getStatus() : committed.getStatus();
+
+		w.log(request.getRemoteAddr(), user, request.getTimeStamp(), request.getMethod(), request.getOriginalURI(),
+				null, request.getProtocol(), status, response.getHttpChannel().getBytesWritten(),
+				request.getHeader(HttpHeader.REFERER.asString()), request.getHeader(HttpHeader.USER_AGENT.asString()));
+	}
+
+	public AccessLogWriter getWriter() {
+		return writer;
+	}
+
+}
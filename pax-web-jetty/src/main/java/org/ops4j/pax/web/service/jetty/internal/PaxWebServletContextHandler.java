@@ -47,6 +47,7 @@ import org.ops4j.pax.web.service.spi.config.Configuration;
 import org.ops4j.pax.web.service.spi.model.ServletContextModel;
 import org.ops4j.pax.web.service.spi.model.elements.EventListenerKey;
 import org.ops4j.pax.web.service.spi.model.elements.EventListenerModel;
+import org.ops4j.pax.web.service.spi.servlet.ContextRestartGate;
 import org.ops4j.pax.web.service.spi.servlet.SCIWrapper;
 import org.ops4j.pax.web.service.spi.util.Path;
 import org.slf4j.Logger;
@@ -92,6 +93,12 @@ public class PaxWebServletContextHandler extends ServletContextHandler {
 	 */
 	private final Set<String> attributesToClearBeforeRestart = new HashSet<>();
 
+	/**
+	 * Gate closed when this context is stopped, so {@link PrioritizedHandlerCollection} can hold the requests until
+	 * the context is started again
+	 */
+	private final ContextRestartGate restartGate;
+
 	/**
 	 * Create a slightly extended version of Jetty's {@link ServletContextHandler}. It is still not as complex as
 	 * {@code org.eclipse.jetty.webapp.WebAppContext} which does all the sort of XML/annotation configuration, but
@@ -115,6 +122,9 @@ public class PaxWebServletContextHandler extends ServletContextHandler {
 		// "128.3.5 Static Content" is the only place where protected directories are mentioned. We'll handle them
 		// at request processing stage and configure here
 		setProtectedTargets(new String[] { "/WEB-INF", "/META-INF", "/OSGI-INF", "/OSGI-OPT" });
+
+		Long holdTimeout = configuration.server().getContextRestartHoldTimeout();
+		restartGate = new ContextRestartGate(holdTimeout == null ? 0L : holdTimeout);
 	}
 
 	/**
@@ -311,8 +321,17 @@ public class PaxWebServletContextHandler extends ServletContextHandler {
 		super.doStart();
 	}
 
+	public ContextRestartGate getRestartGate() {
+		return restartGate;
+	}
+
 	@Override
 	protected void doStop() throws Exception {
+		// usually the context is stopped to be started again with new configuration. JettyServerWrapper opens
+		// the gate after starting the context (and disposes it when the context is removed)
+		restartGate.close();
+		restartGate.drain();
+
 		// setEventListeners() method is called during doStop(), existing, durable listeners are added again, but
 		// then durable listeners are cleared, so the "preserved" listener will be lost next time
 		// TODO: file a Github issue for eclipse/jetty-project
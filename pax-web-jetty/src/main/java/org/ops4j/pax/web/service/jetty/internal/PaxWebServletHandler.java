@@ -23,8 +23,10 @@ import java.util.Collections;
 import java.util.EnumSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.function.Consumer;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import javax.security.auth.Subject;
 import javax.servlet.DispatcherType;
 import javax.servlet.FilterChain;
@@ -53,8 +55,9 @@ import org.eclipse.jetty.util.ArrayUtil;
 import org.eclipse.jetty.util.MultiException;
 import org.ops4j.pax.web.service.WebContainerContext;
 import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.RequestMetrics;
 import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
-import org.ops4j.pax.web.service.spi.servlet.OsgiFilterChain;
+import org.ops4j.pax.web.service.spi.servlet.OsgiFilterChainTemplate;
 import org.ops4j.pax.web.service.spi.servlet.OsgiServletContext;
 import org.ops4j.pax.web.service.spi.servlet.OsgiSessionAttributeListener;
 import org.ops4j.pax.web.service.spi.servlet.PreprocessorFilterConfig;
@@ -76,6 +79,26 @@ public class PaxWebServletHandler extends ServletHandler {
 
 	private static final Logger LOG = LoggerFactory.getLogger(PaxWebServletHandler.class);
 
+	/**
+	 * Listener called when {@link org.osgi.service.http.HttpContext#handleSecurity} returns true. It translates
+	 * OSGi authentication attributes into Jetty specific authentication.
+	 */
+	private static final BiConsumer<HttpServletRequest, Request> AUTH_LISTENER = (req, baseRequest) -> {
+		final Object user = req.getAttribute(ServletContextHelper.REMOTE_USER);
+		final Object authType = req.getAttribute(ServletContextHelper.AUTHENTICATION_TYPE);
+
+		if (user != null || authType != null) {
+			// translate it into Jetty specific authentication
+			if (baseRequest.getAuthentication() == null || baseRequest.getAuthentication() == Authentication.UNAUTHENTICATED) {
+				String userName = user != null ? user.toString() : null;
+				String authMethod = authType != null ? authType.toString() : null;
+				Principal p = new UserPrincipal(userName, null);
+				Subject s = new Subject(true, Collections.singleton(p), Collections.emptySet(), Collections.emptySet());
+				baseRequest.setAuthentication(new UserAuthentication(authMethod, new DefaultUserIdentity(s, p, new String[0])));
+			}
+		}
+	};
+
 	/**
 	 * {@link Preprocessor} instances are always registered to all contexts and are always mapped to all servlet
 	 * chains, so handling them is easy. We keep only the configs, because we have to manage the lifecycle
@@ -100,6 +123,15 @@ public class PaxWebServletHandler extends ServletHandler {
 
 	private final ThreadLocal<PaxWebServletHolder> currentServletHolder = new ThreadLocal<>();
 
+	/**
+	 * Pre-built {@link OsgiFilterChainTemplate templates} for target servlets, so per-request {@link FilterChain}
+	 * is only a cursor over immutable template.
+	 */
+	private final Map<PaxWebServletHolder, OsgiChainEntry> osgiChainEntries = new ConcurrentHashMap<>();
+
+	/** Whether {@link RequestMetrics} of target context and servlet should be updated */
+	private boolean requestMetricsEnabled;
+
 	/**
 	 * Create new {@link ServletHandler} for given {@link org.eclipse.jetty.servlet.ServletContextHandler}
 	 * @param default404Servlet this servlet will be used when there's no mapped servlet
@@ -128,6 +160,11 @@ public class PaxWebServletHandler extends ServletHandler {
 
 	public void setDefaultServletContext(OsgiServletContext defaultServletContext) {
 		this.defaultServletContext = defaultServletContext;
+		invalidateOsgiFilterChains();
+	}
+
+	public void setRequestMetricsEnabled(boolean requestMetricsEnabled) {
+		this.requestMetricsEnabled = requestMetricsEnabled;
 	}
 
 	public OsgiServletContext getDefaultServletContext() {
@@ -137,6 +174,7 @@ public class PaxWebServletHandler extends ServletHandler {
 	public void setDefaultOsgiContextModel(OsgiContextModel defaultOsgiContextModel, WebContainerContext resolvedWebContainerContext) {
 		this.defaultOsgiContextModel = defaultOsgiContextModel;
 		this.defaultWebContainerContext = resolvedWebContainerContext;
+		invalidateOsgiFilterChains();
 	}
 
 	public OsgiContextModel getDefaultOsgiContextModel() {
@@ -232,6 +270,7 @@ public class PaxWebServletHandler extends ServletHandler {
 			}
 		}
 		super.setServlets(holders);
+		invalidateOsgiFilterChains();
 	}
 
 	/**
@@ -341,6 +380,19 @@ public class PaxWebServletHandler extends ServletHandler {
 		// this should never be null because of ServletHandler.setEnsureDefaultServlet(true)
 		PaxWebServletHolder servletHolder = (PaxWebServletHolder)baseRequest.getUserIdentityScope();
 
+		// forwards, includes and async dispatches are part of already recorded request
+		RequestMetrics contextMetrics = null;
+		RequestMetrics servletMetrics = null;
+		long start = 0L;
+		boolean completed = false;
+		if (requestMetricsEnabled && servletHolder != null && baseRequest.getDispatcherType() == DispatcherType.REQUEST) {
+			OsgiContextModel ocm = servletHolder.getOsgiContextModel() != null
+					? servletHolder.getOsgiContextModel() : defaultOsgiContextModel;
+			contextMetrics = ocm == null ? null : ocm.getRequestMetrics();
+			servletMetrics = servletHolder.getServletModel() == null ? null : servletHolder.getServletModel().getRequestMetrics();
+			start = RequestMetrics.requestStarted(contextMetrics, servletMetrics);
+		}
+
 		try {
 			// we always create the chain, because we have to call handleSecurity()/finishSecurity()
 			FilterChain chain = getOsgiFilterChain(baseRequest, target, servletHolder);
@@ -364,10 +416,14 @@ public class PaxWebServletHandler extends ServletHandler {
 			} else {
 				servletHolder.handle(baseRequest, req, res);
 			}
+			completed = true;
 		} finally {
 			if (servletHolder != null) {
 				baseRequest.setHandled(true);
 			}
+			if (contextMetrics != null || servletMetrics != null) {
+				RequestMetrics.requestCompleted(request, response, start, !completed, contextMetrics, servletMetrics);
+			}
 		}
 	}
 
@@ -402,37 +458,62 @@ public class PaxWebServletHandler extends ServletHandler {
 		// 1. all org.osgi.service.http.whiteboard.Preprocessors
 		// 2. handleSecurity() (on HttpContext or ServletContextHelper)
 		// 3. original chain
+		// everything except the original chain and the request itself is taken from pre-built template
+		OsgiChainEntry entry = getOsgiChainEntry(holder);
 		if (chain == null) {
 			// 3a. even if there's only a ServletHolder there == null chain
 			// 3b. if the holder is for known 404 servlet, we still need a chain that calls 404 servlet
-			chain = (request, response) -> holder.handle(baseRequest, request, response);
+			chain = entry.servletChain;
 		}
 
-		// listener called when org.osgi.service.http.HttpContext.handleSecurity() returns true
-		Consumer<HttpServletRequest> authListener = (req) -> {
-			final Object user = req.getAttribute(ServletContextHelper.REMOTE_USER);
-			final Object authType = req.getAttribute(ServletContextHelper.AUTHENTICATION_TYPE);
-
-			if (user != null || authType != null) {
-				// translate it into Jetty specific authentication
-				if (baseRequest.getAuthentication() == null || baseRequest.getAuthentication() == Authentication.UNAUTHENTICATED) {
-					String userName = user != null ? user.toString() : null;
-					String authMethod = authType != null ? authType.toString() : null;
-					Principal p = new UserPrincipal(userName, null);
-					Subject s = new Subject(true, Collections.singleton(p), Collections.emptySet(), Collections.emptySet());
-					baseRequest.setAuthentication(new UserAuthentication(authMethod, new DefaultUserIdentity(s, p, new String[0])));
-				}
-			}
-		};
+		return entry.template.newChain(chain, baseRequest);
+	}
+
+	/**
+	 * Returns cached (or creates new) {@link OsgiFilterChainTemplate} and servlet-invoking {@link FilterChain}
+	 * for given {@link PaxWebServletHolder}.
+	 *
+	 * @param holder
+	 * @return
+	 */
+	private OsgiChainEntry getOsgiChainEntry(PaxWebServletHolder holder) {
+		OsgiChainEntry entry = osgiChainEntries.get(holder);
+		if (entry != null) {
+			return entry;
+		}
 
-		List<Preprocessor> preprocessorInstances = preprocessors.stream().map(PreprocessorFilterConfig::getInstance).collect(Collectors.toList());
+		OsgiFilterChainTemplate<Request> template;
 		if (!holder.is404()) {
-			return new OsgiFilterChain(new ArrayList<>(preprocessorInstances), holder.getOsgiServletContext(),
-					holder.getWebContainerContext(), chain, osgiSessionsBridge, authListener);
+			template = new OsgiFilterChainTemplate<>(preprocessors, holder.getOsgiServletContext(),
+					holder.getWebContainerContext(), osgiSessionsBridge, AUTH_LISTENER);
 		} else {
-			return new OsgiFilterChain(new ArrayList<>(preprocessorInstances), defaultServletContext,
-					defaultWebContainerContext, chain, osgiSessionsBridge, authListener);
+			template = new OsgiFilterChainTemplate<>(preprocessors, defaultServletContext,
+					defaultWebContainerContext, osgiSessionsBridge, AUTH_LISTENER);
 		}
+		// same as org.eclipse.jetty.servlet.ServletHandler.ChainEnd
+		FilterChain servletChain = (request, response) -> {
+			Request baseRequest = Objects.requireNonNull(Request.getBaseRequest(request));
+			holder.handle(baseRequest, request, response);
+		};
+		entry = new OsgiChainEntry(template, servletChain);
+
+		// don't care about races - both entries are equivalent
+		osgiChainEntries.put(holder, entry);
+		return entry;
+	}
+
+	/**
+	 * Drops all cached {@link OsgiFilterChainTemplate templates}. Should be called whenever preprocessors,
+	 * filters, servlets or default contexts of this handler change.
+	 */
+	public void invalidateOsgiFilterChains() {
+		osgiChainEntries.clear();
+	}
+
+	@Override
+	protected void invalidateChainsCache() {
+		super.invalidateChainsCache();
+		invalidateOsgiFilterChains();
 	}
 
 	/**
@@ -512,4 +593,18 @@ public class PaxWebServletHandler extends ServletHandler {
 		return preprocessors;
 	}
 
+	/**
+	 * Cached pair of {@link OsgiFilterChainTemplate} and a {@link FilterChain} that invokes target servlet
+	 * directly (used when there are no filters mapped).
+	 */
+	private static final class OsgiChainEntry {
+		private final OsgiFilterChainTemplate<Request> template;
+		private final FilterChain servletChain;
+
+		OsgiChainEntry(OsgiFilterChainTemplate<Request> template, FilterChain servletChain) {
+			this.template = template;
+			this.servletChain = servletChain;
+		}
+	}
+
 }
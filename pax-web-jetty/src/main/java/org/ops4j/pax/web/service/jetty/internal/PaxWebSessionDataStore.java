@@ -0,0 +1,122 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.jetty.internal;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.jetty.server.session.AbstractSessionDataStore;
+import org.eclipse.jetty.server.session.SessionContext;
+import org.eclipse.jetty.server.session.SessionData;
+import org.ops4j.pax.web.service.spi.session.SessionStore;
+import org.ops4j.pax.web.service.spi.session.SessionStoreSegment;
+import org.ops4j.pax.web.service.spi.session.StoredSession;
+
+/**
+ * Jetty {@link org.eclipse.jetty.server.session.SessionDataStore} backed by a segment of Pax Web
+ * {@link SessionStore}. Sessions with unchanged attributes are stored only with their times.
+ */
+public class PaxWebSessionDataStore extends AbstractSessionDataStore {
+
+	private final SessionStore sessionStore;
+	private SessionStoreSegment segment;
+
+	public PaxWebSessionDataStore(SessionStore sessionStore) {
+		this.sessionStore = sessionStore;
+	}
+
+	@Override
+	public void initialize(SessionContext context) throws Exception {
+		super.initialize(context);
+		segment = sessionStore.getSegment(SessionStore.segmentName(context.getContext().getContextPath()));
+	}
+
+	@Override
+	public boolean isPassivating() {
+		return true;
+	}
+
+	@Override
+	public boolean doExists(String id) {
+		long expiration = segment.getExpirationTime(id);
+		return expiration == 0L || expiration > System.currentTimeMillis();
+	}
+
+	@Override
+	public void doStore(String id, SessionData data, long lastSaveTime) {
+		if (data.isDirty() || lastSaveTime <= 0L || !segment.contains(id)) {
+			segment.save(new StoredSession(id, data.getCreated(), data.getAccessed(), data.getMaxInactiveMs(),
+					data.getExpiry(), new HashMap<>(data.getAllAttributes())));
+		} else {
+			segment.touch(new StoredSession(id, data.getCreated(), data.getAccessed(), data.getMaxInactiveMs(),
+					data.getExpiry(), null));
+		}
+	}
+
+	@Override
+	public SessionData doLoad(String id) {
+		StoredSession session = segment.load(id, Thread.currentThread().getContextClassLoader());
+		if (session == null) {
+			return null;
+		}
+		SessionData data = newSessionData(id, session.getCreationTime(), session.getLastAccessedTime(),
+				session.getLastAccessedTime(), session.getMaxInactiveInterval());
+		data.setExpiry(session.getExpirationTime());
+		data.setLastNode(_context.getWorkerName());
+		data.setLastSaved(session.getLastAccessedTime());
+		data.putAllAttributes(session.getAttributes());
+		data.setDirty(false);
+		return data;
+	}
+
+	@Override
+	public boolean delete(String id) {
+		segment.remove(id);
+		return true;
+	}
+
+	@Override
+	public Set<String> doCheckExpired(Set<String> candidates, long time) {
+		Set<String> expired = new HashSet<>();
+		for (String id : candidates) {
+			long expiration = segment.getExpirationTime(id);
+			// sessions unknown to the store are expired according to the session cache
+			if (expiration < 0L || (expiration > 0L && expiration <= time)) {
+				expired.add(id);
+			}
+		}
+		return expired;
+	}
+
+	@Override
+	public Set<String> doGetExpired(long time) {
+		Set<String> expired = new HashSet<>();
+		for (String id : segment.getSessionIds()) {
+			long expiration = segment.getExpirationTime(id);
+			if (expiration > 0L && expiration <= time) {
+				expired.add(id);
+			}
+		}
+		return expired;
+	}
+
+	@Override
+	public void doCleanOrphans(long time) {
+		// expired sessions of all the contexts are purged by the session store itself
+	}
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.jetty.internal;
+
+import org.eclipse.jetty.server.session.AbstractSessionDataStoreFactory;
+import org.eclipse.jetty.server.session.SessionDataStore;
+import org.eclipse.jetty.server.session.SessionHandler;
+import org.ops4j.pax.web.service.spi.session.SessionStore;
+
+/**
+ * Factory of {@link PaxWebSessionDataStore} - one for each {@link SessionHandler} (context), all backed by the same
+ * {@link SessionStore}.
+ */
+public class PaxWebSessionDataStoreFactory extends AbstractSessionDataStoreFactory {
+
+	private final SessionStore sessionStore;
+
+	public PaxWebSessionDataStoreFactory(SessionStore sessionStore) {
+		this.sessionStore = sessionStore;
+	}
+
+	@Override
+	public SessionDataStore getSessionDataStore(SessionHandler handler) {
+		PaxWebSessionDataStore store = new PaxWebSessionDataStore(sessionStore);
+		store.setGracePeriodSec(getGracePeriodSec());
+		store.setSavePeriodSec(getSavePeriodSec());
+		return store;
+	}
+
+}
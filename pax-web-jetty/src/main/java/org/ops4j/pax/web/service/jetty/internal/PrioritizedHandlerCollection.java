@@ -24,8 +24,10 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.ContextHandler;
 import org.eclipse.jetty.server.handler.ContextHandlerCollection;
 import org.eclipse.jetty.server.handler.HandlerCollection;
+import org.ops4j.pax.web.service.spi.servlet.ContextRestartGate;
 
 /**
  * <p>This {@link ContextHandlerCollection} keeps three sets of {@link org.eclipse.jetty.server.Handler handlers}:<ul>
@@ -34,6 +36,9 @@ import org.eclipse.jetty.server.handler.HandlerCollection;
  * instances</li>
  * <li>OSGi-registered {@link org.eclipse.jetty.server.Handler handlers} with priority lower or equal 0</li>
  * </ul></p>
+ * <p>When configured to do so, requests targeted at a {@link PaxWebServletContextHandler} which is being
+ * restarted are held until the context is started again. Requests being handled by a context are counted, so
+ * the context can wait for them before stopping.</p>
  */
 public class PrioritizedHandlerCollection extends ContextHandlerCollection {
 
@@ -43,6 +48,13 @@ public class PrioritizedHandlerCollection extends ContextHandlerCollection {
 	private final Set<PriorityValue<Handler>> handlersBefore = new TreeSet<>(JettyServerControllerFactory.priorityComparator);
 	private final Set<PriorityValue<Handler>> handlersAfter = new TreeSet<>(JettyServerControllerFactory.priorityComparator);
 
+	/** Whether to check the {@link PaxWebServletContextHandler#getRestartGate() restart gates} of the contexts */
+	private boolean holdRequestsDuringRestart;
+
+	public void setHoldRequestsDuringRestart(boolean holdRequestsDuringRestart) {
+		this.holdRequestsDuringRestart = holdRequestsDuringRestart;
+	}
+
 	/**
 	 * Dedicated method to add a handler retrieved from OSGi registry. If the priority is higher than 0, this
 	 * {@link Handler} should be called before calling actual context handlers. if the priority is lower or equal
@@ -93,7 +105,19 @@ public class PrioritizedHandlerCollection extends ContextHandlerCollection {
 					}
 					// User should know what (s)he's doing - if a handler marks the request as handled, there's
 					// no need to call real context handlers.
-					super.handle(target, baseRequest, request, response);
+					ContextRestartGate gate = holdRequestsDuringRestart ? restartGate(target) : null;
+					if (gate == null) {
+						super.handle(target, baseRequest, request, response);
+					} else {
+						while (!gate.tryEnter()) {
+							gate.await();
+						}
+						try {
+							super.handle(target, baseRequest, request, response);
+						} finally {
+							gate.exit();
+						}
+					}
 				}
 				// however, let's allow the "after" handlers to run - whatever they are
 				handlerCollectionAfter.handle(target, baseRequest, request, response);
@@ -105,4 +129,29 @@ public class PrioritizedHandlerCollection extends ContextHandlerCollection {
 		}
 	}
 
+	/**
+	 * Finds the {@link ContextRestartGate} of the context which should handle given target.
+	 *
+	 * @param target
+	 * @return
+	 */
+	private ContextRestartGate restartGate(String target) {
+		Handler[] handlers = getHandlers();
+		if (handlers == null) {
+			return null;
+		}
+		ContextHandler best = null;
+		for (Handler handler : handlers) {
+			if (handler instanceof ContextHandler) {
+				ContextHandler context = (ContextHandler) handler;
+				if (context.checkContextPath(target)
+						&& (best == null || context.getContextPath().length() > best.getContextPath().length())) {
+					best = context;
+				}
+			}
+		}
+		return best instanceof PaxWebServletContextHandler
+				? ((PaxWebServletContextHandler) best).getRestartGate() : null;
+	}
+
 }
@@ -18,13 +18,18 @@ package org.ops4j.pax.web.service.jetty.internal.web;
 import java.io.IOException;
 import java.net.URL;
 import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
 import javax.servlet.UnavailableException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
+import org.eclipse.jetty.server.HttpOutput;
 import org.eclipse.jetty.server.handler.ContextHandler;
 import org.eclipse.jetty.util.resource.PathResource;
 import org.eclipse.jetty.util.resource.Resource;
 import org.ops4j.pax.web.service.jetty.internal.PaxWebServletContextHandler;
 import org.ops4j.pax.web.service.spi.servlet.OsgiScopedServletContext;
+import org.ops4j.pax.web.service.spi.servlet.StaticContentCache;
 import org.ops4j.pax.web.service.spi.util.Path;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,6 +54,9 @@ public class JettyResourceServlet extends DefaultServlet {
 	// super._welcomes can be cleared after super.init()...
 	private String[] welcomeFiles;
 
+	private StaticContentCache staticContentCache;
+	private StaticContentCache.Source staticContent;
+
 	public JettyResourceServlet(PathResource baseUrlResource, String chroot) {
 		this.baseUrlResource = baseUrlResource;
 		this.chroot = chroot;
@@ -77,6 +85,35 @@ public class JettyResourceServlet extends DefaultServlet {
 				Integer.parseInt(maxCacheSize) / 1024,
 				Integer.parseInt(maxCachedFileSize) / 1024,
 				maxCachedFiles);
+
+		if (staticContentCache != null) {
+			staticContent = staticContentCache.source(getServletContext(),
+					baseUrlResource != null ? baseUrlResource.getPath().toFile() : null, chroot,
+					_resourceService.isPathInfoOnly(), (out, buffer) -> {
+						if (out instanceof HttpOutput) {
+							((HttpOutput) out).write(buffer);
+							return true;
+						}
+						return false;
+					});
+		}
+	}
+
+	/**
+	 * Sets the cache shared by all resource servlets, which is checked before Jetty's own
+	 * {@link org.eclipse.jetty.server.ResourceService}.
+	 * @param staticContentCache
+	 */
+	public void setStaticContentCache(StaticContentCache staticContentCache) {
+		this.staticContentCache = staticContentCache;
+	}
+
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+		if (staticContent != null && staticContent.serve(request, response)) {
+			return;
+		}
+		super.doGet(request, response);
 	}
 
 	/**
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.karaf.commands;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.karaf.shell.api.action.Command;
+import org.apache.karaf.shell.api.action.Option;
+import org.apache.karaf.shell.api.action.lifecycle.Service;
+import org.apache.karaf.shell.support.table.Col;
+import org.apache.karaf.shell.support.table.ShellTable;
+import org.ops4j.pax.web.service.WebContainer;
+import org.ops4j.pax.web.service.spi.task.BatchTrace;
+
+@Command(scope = "web", name = "batch-trace", description = "Shows time spent processing registration changes by the model and the runtime.")
+@Service
+public class BatchTraceCommand extends WebCommand {
+
+	@Option(name = "-e", aliases = { "--enable" }, description = "Enable the trace")
+	private boolean enable = false;
+
+	@Option(name = "-d", aliases = { "--disable" }, description = "Disable the trace")
+	private boolean disable = false;
+
+	@Option(name = "-r", aliases = { "--reset" }, description = "Reset the trace after showing it")
+	private boolean reset = false;
+
+	@Override
+	public void doExecute(WebContainer container) {
+		if (enable || disable) {
+			BatchTrace.setEnabled(enable);
+			System.out.println("Batch trace " + (enable ? "enabled." : "disabled."));
+			return;
+		}
+
+		List<BatchTrace.Entry> entries = BatchTrace.getEntries();
+
+		final ShellTable table = new ShellTable();
+		table.column(new Col("Visitor"));
+		table.column(new Col("Change"));
+		table.column(new Col("Operation"));
+		table.column(new Col("Count").alignRight());
+		table.column(new Col("Total [ms]").alignRight());
+		table.column(new Col("Avg [us]").alignRight());
+		table.column(new Col("Max [us]").alignRight());
+		table.column(new Col("Context starts").alignRight());
+
+		for (BatchTrace.Entry e : entries) {
+			table.addRow().addContent(e.getVisitor(), e.getChange(), e.getKind(), e.getCount(),
+					TimeUnit.NANOSECONDS.toMillis(e.getTotalNanos()),
+					TimeUnit.NANOSECONDS.toMicros(e.getAverageNanos()),
+					TimeUnit.NANOSECONDS.toMicros(e.getMaxNanos()), e.getContextStarts());
+		}
+
+		table.print(System.out, true);
+
+		if (entries.isEmpty() && !BatchTrace.isEnabled()) {
+			System.out.println("Batch trace is disabled. Enable it using \"web:batch-trace --enable\".");
+		}
+
+		if (reset) {
+			BatchTrace.reset();
+		}
+	}
+
+}
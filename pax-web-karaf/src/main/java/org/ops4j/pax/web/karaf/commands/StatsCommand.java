@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.karaf.commands;
+
+import java.util.List;
+
+import org.apache.karaf.shell.api.action.Command;
+import org.apache.karaf.shell.api.action.Option;
+import org.apache.karaf.shell.api.action.lifecycle.Service;
+import org.apache.karaf.shell.support.table.Col;
+import org.apache.karaf.shell.support.table.ShellTable;
+import org.ops4j.pax.web.service.PaxWebConfig;
+import org.ops4j.pax.web.service.WebContainer;
+import org.ops4j.pax.web.service.spi.model.info.RequestStatisticsInfo;
+import org.ops4j.pax.web.service.spi.model.views.ReportWebContainerView;
+
+@Command(scope = "web", name = "stats", description = "Shows request statistics of contexts and servlets.")
+@Service
+public class StatsCommand extends WebCommand {
+
+	@Option(name = "-s", aliases = { "--servlets" }, description = "Show statistics of servlets in addition to contexts")
+	private boolean servlets = false;
+
+	@Option(name = "-r", aliases = { "--reset" }, description = "Reset the statistics after showing them")
+	private boolean reset = false;
+
+	@Override
+	public void doExecute(WebContainer container) {
+		ReportWebContainerView view = container.adapt(ReportWebContainerView.class);
+		if (view == null) {
+			System.err.println("Can't obtain a reference to WebContainer/HttpService.");
+			return;
+		}
+
+		List<RequestStatisticsInfo> statistics = view.listRequestStatistics();
+
+		final ShellTable table = new ShellTable();
+		table.column(new Col("Bundle ID"));
+		table.column(new Col("Context"));
+		table.column(new Col("Context Path"));
+		if (servlets) {
+			table.column(new Col("Servlet"));
+		}
+		table.column(new Col("Requests").alignRight());
+		table.column(new Col("In-flight").alignRight());
+		table.column(new Col("2xx").alignRight());
+		table.column(new Col("3xx").alignRight());
+		table.column(new Col("4xx").alignRight());
+		table.column(new Col("5xx").alignRight());
+		table.column(new Col("Avg [us]").alignRight());
+		table.column(new Col("p50 [us]").alignRight());
+		table.column(new Col("p90 [us]").alignRight());
+		table.column(new Col("p99 [us]").alignRight());
+		table.column(new Col("Max [us]").alignRight());
+
+		long total = 0L;
+		for (RequestStatisticsInfo s : statistics) {
+			total += s.getRequests() + s.getInFlight();
+			if (!servlets && s.getServletName() != null) {
+				continue;
+			}
+			if (servlets) {
+				table.addRow().addContent(s.getBundleId(), s.getContextName(), s.getContextPath(),
+						s.getServletName() == null ? "*" : s.getServletName(),
+						s.getRequests(), s.getInFlight(), s.getResponses2xx(), s.getResponses3xx(),
+						s.getResponses4xx(), s.getResponses5xx(), s.getAverageMicros(),
+						s.getP50Micros(), s.getP90Micros(), s.getP99Micros(), s.getMaxMicros());
+			} else {
+				table.addRow().addContent(s.getBundleId(), s.getContextName(), s.getContextPath(),
+						s.getRequests(), s.getInFlight(), s.getResponses2xx(), s.getResponses3xx(),
+						s.getResponses4xx(), s.getResponses5xx(), s.getAverageMicros(),
+						s.getP50Micros(), s.getP90Micros(), s.getP99Micros(), s.getMaxMicros());
+			}
+		}
+
+		table.print(System.out, true);
+
+		if (total == 0L) {
+			System.out.println("No requests recorded. Make sure \"" + PaxWebConfig.PID_CFG_REQUEST_METRICS
+					+ "\" property is set to \"true\".");
+		}
+
+		if (reset) {
+			view.resetRequestStatistics();
+		}
+	}
+
+}
@@ -17,6 +17,7 @@ package org.ops4j.pax.web.karaf.commands;
 
 import java.net.URL;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.karaf.shell.api.action.Argument;
@@ -116,6 +117,13 @@ public class WabInfoCommand extends WebCommand {
 				System.out.println(" - (" + b.getBundleId() + ") " + b.getSymbolicName() + "/" + b.getVersion());
 			});
 		}
+		Map<String, Long> timings = app.getDeploymentTimings();
+		if (!timings.isEmpty()) {
+			System.out.println("Deployment timings:");
+			timings.forEach((phase, millis) -> {
+				System.out.println(" - " + phase + ": " + millis + "ms");
+			});
+		}
 	}
 
 }
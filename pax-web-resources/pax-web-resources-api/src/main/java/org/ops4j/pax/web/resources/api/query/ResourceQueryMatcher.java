@@ -16,6 +16,8 @@
  */
 package org.ops4j.pax.web.resources.api.query;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Optional;
 
 import org.ops4j.pax.web.resources.api.OsgiResourceLocator;
@@ -38,4 +40,16 @@ public interface ResourceQueryMatcher {
 	 */
 	<R extends ResourceQueryResult> Optional<R> matches(String resourcePath);
 
+	/**
+	 * Optional hint for {@link OsgiResourceLocator}-implementations which index the resources by path segments.
+	 * If not empty, {@link #matches(String)} may be called only for resource paths that contain all the returned
+	 * segments (full names between {@code /} characters).
+	 *
+	 * @return path segments required in every matching resource path. Empty collection (the default) means that
+	 * every resource has to be checked.
+	 */
+	default Collection<String> getRequiredPathSegments() {
+		return Collections.emptyList();
+	}
+
 }
@@ -20,16 +20,18 @@ import java.net.URL;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.ops4j.pax.web.resources.api.OsgiResourceLocator;
@@ -50,6 +52,9 @@ import org.slf4j.LoggerFactory;
  * <p>Furthermore it provides the capability to overwrite resources: if a key in the map is already used, the old
  * value will be moved to a separated collection, until the overriding bundle is stopped.</p>
  *
+ * <p>Resources are additionally indexed by path segments, so {@link #findResources(ResourceQueryMatcher)} doesn't
+ * have to check all the resources if the query declares required path segments.</p>
+ *
  * @author Marc Schlegel
  */
 public class IndexedOsgiResourceLocator implements OsgiResourceLocator {
@@ -61,8 +66,6 @@ public class IndexedOsgiResourceLocator implements OsgiResourceLocator {
 	private final ResourceBundleIndex index;
 	private final transient Logger logger;
 
-	private final List<ResourceBundleIndexEntry> shadowedMap = new CopyOnWriteArrayList<>();
-
 	public IndexedOsgiResourceLocator(BundleContext context) {
 		this.logger = LoggerFactory.getLogger(getClass());
 		this.context = context;
@@ -133,28 +136,58 @@ public class IndexedOsgiResourceLocator implements OsgiResourceLocator {
 		return workPath;
 	}
 
+	/**
+	 * <p>Index of resources. Besides the main lookup-path map, it maintains:<ul>
+	 *     <li>inverted index from path segment to lookup-paths, so {@link ResourceQueryMatcher queries} which
+	 *     declare {@link ResourceQueryMatcher#getRequiredPathSegments() required segments} are checked only
+	 *     against candidate paths,</li>
+	 *     <li>reverse index from bundle id to lookup-paths provided by the bundle,</li>
+	 *     <li>shadowed (overridden) entries per lookup-path.</li>
+	 * </ul></p>
+	 *
+	 * <p>Reads are lock-free, changes (bundle registration/unregistration) are synchronized.</p>
+	 */
 	private class ResourceBundleIndex {
 
 		private final Map<String, ResourceBundleIndexEntry> indexMap = new ConcurrentHashMap<>(100);
 
-		private void addResourceToIndex(String lookupPath, ResourceInfo resourceInfo, Bundle bundleWithResource) {
+		/** Path segment (below {@link #RESOURCE_ROOT}) -&gt; lookup-paths containing this segment */
+		private final Map<String, Set<String>> segmentIndex = new ConcurrentHashMap<>();
+
+		/** Bundle id -&gt; lookup-paths of active entries provided by the bundle */
+		private final Map<Long, Set<String>> activePathsByBundle = new HashMap<>();
+
+		/** Bundle id -&gt; lookup-paths of shadowed entries provided by the bundle */
+		private final Map<Long, Set<String>> shadowedPathsByBundle = new HashMap<>();
+
+		/** Lookup-path -&gt; shadowed entries (the most recently shadowed entry is the last one) */
+		private final Map<String, Deque<ResourceBundleIndexEntry>> shadowedEntries = new HashMap<>();
+
+		private synchronized void addResourceToIndex(String lookupPath, ResourceInfo resourceInfo, Bundle bundleWithResource) {
 			if (StringUtils.isBlank(lookupPath) || resourceInfo == null || bundleWithResource == null) {
 				return;
 			}
-			if (indexMap.containsKey(lookupPath)) {
-				ResourceBundleIndexEntry entry = indexMap.get(lookupPath);
-				Bundle currentlyProvidingBundle = context.getBundle(entry.getResourceInfo().getBundleId());
+			ResourceBundleIndexEntry entry = indexMap.get(lookupPath);
+			if (entry != null) {
+				long currentBundleId = entry.getResourceInfo().getBundleId();
+				Bundle currentlyProvidingBundle = context.getBundle(currentBundleId);
 				if (currentlyProvidingBundle != null) {
 					logger.warn(
 							"Resource with path '{}' is already provided by bundle '{}'! Will be overridden by bundle '{}'",
 									lookupPath,
 									currentlyProvidingBundle.getSymbolicName(),
 									bundleWithResource.getSymbolicName());
-					shadowedMap.add(indexMap.get(lookupPath));
+					shadowedEntries.computeIfAbsent(lookupPath, p -> new ArrayDeque<>()).addLast(entry);
+					shadowedPathsByBundle.computeIfAbsent(currentBundleId, id -> new HashSet<>()).add(lookupPath);
+				}
+				removeFromSet(activePathsByBundle, currentBundleId, lookupPath);
+			} else {
+				for (String segment : segments(lookupPath)) {
+					segmentIndex.computeIfAbsent(segment, s -> ConcurrentHashMap.newKeySet()).add(lookupPath);
 				}
 			}
-			indexMap.put(lookupPath,
-					new ResourceBundleIndexEntry(lookupPath, resourceInfo));
+			indexMap.put(lookupPath, new ResourceBundleIndexEntry(lookupPath, resourceInfo));
+			activePathsByBundle.computeIfAbsent(resourceInfo.getBundleId(), id -> new HashSet<>()).add(lookupPath);
 		}
 
 		private ResourceInfo getResourceInfo(String lookupPath) {
@@ -164,40 +197,106 @@ public class IndexedOsgiResourceLocator implements OsgiResourceLocator {
 
 		private <R extends ResourceQueryResult, Q extends ResourceQueryMatcher> Collection<R> findResources(Q query) {
 			List<R> resultList = new ArrayList<>();
-			for (Entry<String, ResourceBundleIndexEntry> entry : indexMap.entrySet()) {
-				Optional<R> isQueryResult = query.matches(entry.getKey());
+			for (String lookupPath : candidates(query)) {
+				ResourceBundleIndexEntry entry = indexMap.get(lookupPath);
+				if (entry == null) {
+					continue;
+				}
+				Optional<R> isQueryResult = query.matches(lookupPath);
 				if (isQueryResult.isPresent()) {
 					R queryResult = isQueryResult.get();
-					queryResult.addMatchedResourceInfo(entry.getValue().getResourceInfo());
+					queryResult.addMatchedResourceInfo(entry.getResourceInfo());
 					resultList.add(queryResult);
 				}
 			}
 			return Collections.unmodifiableCollection(resultList);
 		}
 
-		private void cleanBundleFromIndex(final Bundle bundle) {
+		/**
+		 * Returns the smallest set of lookup-paths containing one of the segments required by the query - or all
+		 * the paths if the query doesn't declare any required segments.
+		 *
+		 * @param query
+		 * @return
+		 */
+		private Collection<String> candidates(ResourceQueryMatcher query) {
+			Collection<String> required = query.getRequiredPathSegments();
+			if (required == null || required.isEmpty()) {
+				return indexMap.keySet();
+			}
+			Collection<String> candidates = null;
+			for (String segment : required) {
+				Set<String> paths = segmentIndex.get(segment);
+				if (paths == null) {
+					return Collections.emptySet();
+				}
+				if (candidates == null || paths.size() < candidates.size()) {
+					candidates = paths;
+				}
+			}
+			return candidates;
+		}
+
+		private synchronized void cleanBundleFromIndex(final Bundle bundle) {
 			final long removedBundleId = bundle.getBundleId();
-			// We first have to collect all necessary entries from the
-			// indexMap as well as the shadowedMap into a separated list in
-			// order to avoid concurrent-modifications.
-			// This is especially important when using streams, because the
-			// underlying backing-collection must not be modified while the
-			// stream is open (same applies to iterators)
-			List<ResourceBundleIndexEntry> entriesToBeRemoved = indexMap.values().stream()
-					.filter(indexEntry -> indexEntry.getResourceInfo().getBundleId() == removedBundleId).collect(Collectors.toList());
-			List<ResourceBundleIndexEntry> entriesToBeRevoked = shadowedMap.stream()
-					.filter(shadowedEntry -> indexMap.containsKey(shadowedEntry.getLookupPath()))
-					.collect(Collectors.toList());
-			// remove the entries from the bundle which got stopped
-			entriesToBeRemoved.forEach(entry -> indexMap.remove(entry.getLookupPath()));
+
+			// shadowed entries of the removed bundle can't be revoked anymore
+			Set<String> shadowedPaths = shadowedPathsByBundle.remove(removedBundleId);
+			if (shadowedPaths != null) {
+				for (String lookupPath : shadowedPaths) {
+					Deque<ResourceBundleIndexEntry> entries = shadowedEntries.get(lookupPath);
+					if (entries != null) {
+						entries.removeIf(e -> e.getResourceInfo().getBundleId() == removedBundleId);
+						if (entries.isEmpty()) {
+							shadowedEntries.remove(lookupPath);
+						}
+					}
+				}
+			}
+
+			// remove the entries from the bundle which got stopped and revoke the matching shadowed-entries
+			Set<String> activePaths = activePathsByBundle.remove(removedBundleId);
+			if (activePaths != null) {
+				for (String lookupPath : activePaths) {
+					Deque<ResourceBundleIndexEntry> entries = shadowedEntries.get(lookupPath);
+					ResourceBundleIndexEntry revoked = entries == null ? null : entries.pollLast();
+					if (entries != null && entries.isEmpty()) {
+						shadowedEntries.remove(lookupPath);
+					}
+					if (revoked != null) {
+						long revokedBundleId = revoked.getResourceInfo().getBundleId();
+						if (entries == null || entries.stream().noneMatch(e -> e.getResourceInfo().getBundleId() == revokedBundleId)) {
+							removeFromSet(shadowedPathsByBundle, revokedBundleId, lookupPath);
+						}
+						indexMap.put(lookupPath, revoked);
+						activePathsByBundle.computeIfAbsent(revokedBundleId, id -> new HashSet<>()).add(lookupPath);
+						Bundle revokedBundle = context.getBundle(revokedBundleId);
+						logger.info("Revoking shadowed resource '{}' from bundle '{}'", lookupPath,
+								revokedBundle == null ? revokedBundleId : revokedBundle.getSymbolicName());
+					} else {
+						indexMap.remove(lookupPath);
+						for (String segment : segments(lookupPath)) {
+							removeFromSet(segmentIndex, segment, lookupPath);
+						}
+					}
+				}
+			}
 			logger.info("Removed all resources from bundle '{}'", bundle.getSymbolicName());
-			// revoke the matching shadowed-entries back to the indexMap
-			entriesToBeRevoked.forEach(entry -> {
-				indexMap.put(entry.getLookupPath(), entry);
-				logger.info("Revoking shadowed resource '{}' from bundle '{}'", entry.getLookupPath(),
-						context.getBundle(entry.getResourceInfo().getBundleId()).getSymbolicName());
-				shadowedMap.remove(entry);
-			});
+		}
+
+		private <K> void removeFromSet(Map<K, Set<String>> map, K key, String value) {
+			Set<String> values = map.get(key);
+			if (values != null) {
+				values.remove(value);
+				if (values.isEmpty()) {
+					map.remove(key);
+				}
+			}
+		}
+
+		private String[] segments(String lookupPath) {
+			String path = lookupPath.startsWith(RESOURCE_ROOT) ? lookupPath.substring(RESOURCE_ROOT.length()) : lookupPath;
+			return StringUtils.split(path, '/');
 		}
 	}
 
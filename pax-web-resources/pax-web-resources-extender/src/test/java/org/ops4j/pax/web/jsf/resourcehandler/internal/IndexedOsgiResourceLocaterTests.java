@@ -21,16 +21,24 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import java.util.Random;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.ops4j.pax.web.resources.api.ResourceInfo;
+import org.ops4j.pax.web.resources.api.query.ResourceQueryMatcher;
+import org.ops4j.pax.web.resources.api.query.ResourceQueryResult;
 import org.ops4j.pax.web.resources.extender.internal.IndexedOsgiResourceLocator;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.ops4j.pax.web.jsf.resourcehandler.internal.OsgiResourceMatcher.isBundleResource;
@@ -99,6 +107,70 @@ public class IndexedOsgiResourceLocaterTests {
 		assertThat("Resource doesn't match!", sut.locateResource("template.html"), isBundleResource(resourceBundleOne, "template.html"));
 	}
 
+	@Test
+	public void resourceOverrideNotRevokedByUnrelatedBundle() {
+		Bundle overridingBundle = new BundleBuilder().withSymbolicName("resourcebundle-override")
+				.buildWithResources("template.html");
+		Bundle unrelatedBundle = new BundleBuilder().withSymbolicName("resourcebundle-unrelated")
+				.buildWithResources("unrelated.html");
+		when(context.getBundle(resourceBundleOne.getBundleId())).thenReturn(resourceBundleOne);
+
+		sut.register(overridingBundle);
+		sut.register(unrelatedBundle);
+		sut.unregister(unrelatedBundle);
+
+		assertThat("Resource doesn't match!", sut.locateResource("template.html"), isBundleResource(overridingBundle, "template.html"));
+		assertEquals(null, sut.locateResource("unrelated.html"));
+	}
+
+	@Test
+	public void findResourcesBySegments() {
+		assertEquals(Collections.singletonList("/META-INF/resources/folder/subfolder/a.js"),
+				find("subfolder/a.js", "a.js"));
+		assertEquals(Collections.singletonList("/META-INF/resources/en/libraryname/test.css/2_4.css"),
+				find("test.css", "test.css"));
+		assertTrue(find("missing.js", "missing.js").isEmpty());
+
+		// no hints - all resources are checked
+		assertEquals(2, find("a.js").size());
+
+		Bundle overridingBundle = new BundleBuilder().withSymbolicName("resourcebundle-override")
+				.buildWithResources("folder/bla/a.js");
+		sut.register(overridingBundle);
+		sut.unregister(overridingBundle);
+		sut.unregister(resourceBundleTwo);
+		assertTrue(find("a.js", "a.js").isEmpty());
+	}
+
+	private List<String> find(String path, String... segments) {
+		Collection<PathResult> results = sut.findResources(new ResourceQueryMatcher() {
+			@SuppressWarnings("unchecked")
+			@Override
+			public <R extends ResourceQueryResult> Optional<R> matches(String resourcePath) {
+				return (resourcePath + "/").contains("/" + path + "/") ? Optional.of((R) new PathResult(resourcePath)) : Optional.empty();
+			}
+
+			@Override
+			public Collection<String> getRequiredPathSegments() {
+				return List.of(segments);
+			}
+		});
+		return results.stream().map(r -> r.path).sorted().collect(Collectors.toList());
+	}
+
+	private static class PathResult implements ResourceQueryResult {
+
+		private final String path;
+
+		private PathResult(String path) {
+			this.path = path;
+		}
+
+		@Override
+		public void addMatchedResourceInfo(ResourceInfo resourceInfo) {
+		}
+	}
+
 	private static class BundleBuilder {
 
 		private Long bundleId = generateBundleId();
@@ -16,6 +16,8 @@
  */
 package org.ops4j.pax.web.resources.jsf;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.regex.Matcher;
@@ -184,6 +186,22 @@ public class JsfResourceQuery implements ResourceQueryMatcher {
 		return (Optional<R>) result.createFinalResult();
 	}
 
+	/**
+	 * The last segment of the resource name is either the last segment of matching path or (for versioned
+	 * resources, like {@code resource.png/2_1.png}) the segment before it.
+	 *
+	 * @return
+	 */
+	@Override
+	public Collection<String> getRequiredPathSegments() {
+		String name = resourceName;
+		while (name.endsWith(String.valueOf(PATH_SEPARATOR))) {
+			name = name.substring(0, name.length() - 1);
+		}
+		String lastSegment = name.substring(name.lastIndexOf(PATH_SEPARATOR) + 1);
+		return lastSegment.isEmpty() ? Collections.emptyList() : Collections.singletonList(lastSegment);
+	}
+
 	private static final class MatchingResult {
 		private boolean matchedLocalePrefix;
 		private boolean matchedLibraryName;
@@ -25,6 +25,7 @@ import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -41,6 +42,7 @@ import org.ops4j.pax.web.service.internal.security.SecurePropertyResolver;
 import org.ops4j.pax.web.service.spi.ServerController;
 import org.ops4j.pax.web.service.spi.ServerControllerFactory;
 import org.ops4j.pax.web.service.spi.config.Configuration;
+import org.ops4j.pax.web.service.spi.config.ConfigurationDiff;
 import org.ops4j.pax.web.service.spi.config.JspConfiguration;
 import org.ops4j.pax.web.service.spi.config.LogConfiguration;
 import org.ops4j.pax.web.service.spi.config.ResourceConfiguration;
@@ -52,6 +54,7 @@ import org.ops4j.pax.web.service.spi.model.events.ServerEvent;
 import org.ops4j.pax.web.service.spi.model.events.ServerListener;
 import org.ops4j.pax.web.service.spi.model.events.WebApplicationEventListener;
 import org.ops4j.pax.web.service.spi.model.events.WebElementEventListener;
+import org.ops4j.pax.web.service.spi.servlet.OsgiServletContextClassLoader;
 import org.ops4j.pax.web.service.spi.util.NamedThreadFactory;
 import org.ops4j.pax.web.service.spi.util.Utils;
 import org.ops4j.util.property.DictionaryPropertyResolver;
@@ -59,11 +62,14 @@ import org.ops4j.util.property.PropertyResolver;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleActivator;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
 import org.osgi.framework.Constants;
 import org.osgi.framework.Filter;
+import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceFactory;
 import org.osgi.framework.ServiceReference;
 import org.osgi.framework.ServiceRegistration;
+import org.osgi.framework.SynchronousBundleListener;
 import org.osgi.framework.dto.ServiceReferenceDTO;
 import org.osgi.service.http.HttpService;
 import org.osgi.service.http.runtime.HttpServiceRuntime;
@@ -142,6 +148,9 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 	 */
 	private ServiceRegistration<?> managedServiceFactoryReg;
 
+	/** JMX MXBean with request statistics, registered if enabled by configuration */
+	private RequestStatistics requestStatistics;
+
 	/** Tracker for {@link ServerControllerFactory} that may come from one of server bundles (e.g., pax-web-jetty) */
 	private ServiceTracker<ServerControllerFactory, ServerControllerFactory> serverControllerFactoryTracker;
 
@@ -172,6 +181,23 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 	private ScheduledExecutorService runtimeExecutor;
 	private long registrationThreadId;
 
+	/**
+	 * Listener that invalidates cached class/resource resolution of all {@link OsgiServletContextClassLoader}
+	 * instances when bundle wirings change. Synchronous, so the caches are invalid before refreshed bundles are
+	 * started again.
+	 */
+	private final SynchronousBundleListener wiringListener = event -> {
+		switch (event.getType()) {
+			case BundleEvent.RESOLVED:
+			case BundleEvent.UNRESOLVED:
+			case BundleEvent.UPDATED:
+			case BundleEvent.UNINSTALLED:
+				OsgiServletContextClassLoader.wiringChanged();
+				break;
+			default:
+		}
+	};
+
 	@Override
 	public void start(final BundleContext context) throws Exception {
 		LOG.debug("Starting Pax Web Runtime");
@@ -180,6 +206,7 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 		registrationThreadId = ServerModel.getThreadIdFromSingleThreadPool(runtimeExecutor);
 
 		bundleContext = context;
+		bundleContext.addBundleListener(wiringListener);
 
 		serverListenerTracker = new ServiceTracker<>(bundleContext, ServerListener.class, new ServerListenerCustomizer());
 		serverListenerTracker.open();
@@ -247,6 +274,7 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 			webElementEventDispatcher.destroy();
 			webElementEventDispatcher = null;
 		}
+		context.removeBundleListener(wiringListener);
 
 		// Wait up to 20 seconds, otherwise...
 		try {
@@ -405,6 +433,12 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 			return;
 		}
 
+		if (serverController != null && Utils.same(controllerFactory, this.serverControllerFactory)
+				&& reconfigureController(dictionary)) {
+			// changes were applied to running server, no need to restart everything
+			return;
+		}
+
 		if (serverModel != null) {
 			serverModel.setStopping();
 			serverModel = null;
@@ -446,94 +480,59 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 	}
 
 	/**
-	 * Actual configuration method called only when {@link ServerControllerFactory} is added.
+	 * Tries to apply changed {@code org.ops4j.pax.web} PID configuration to running {@link ServerController}
+	 * without stopping it and without unregistering HTTP Service.
+	 *
+	 * @param dictionary
+	 * @return {@code true} if the configuration was applied, {@code false} if full restart is needed
 	 */
 	@PaxWebConfiguration
-	private void performConfiguration() {
+	private boolean reconfigureController(Dictionary<String, ?> dictionary) {
+		Configuration newConfiguration;
 		try {
-			// Configure chained PropertyResolver to get properties from Config Admin, Bundle Context, Meta Type
-			// information (in such order).
-			// Properties as map will also be available in proper order
-
-			Map<String, String> allProperties = new HashMap<>(System.getenv());
-			allProperties.putAll(Utils.toMap(System.getProperties()));
-
-			MetaTypePropertyResolver defaultResolver = new MetaTypePropertyResolver();
-			allProperties.putAll(Utils.toMap(defaultResolver.getProperties()));
-
-			// can't get all bundle context properties as map...
-			PropertyResolver tmpResolver = new BundleContextPropertyResolver(bundleContext, defaultResolver);
-
-			PropertyResolver resolver = this.configuration != null ? new DictionaryPropertyResolver(this.configuration, tmpResolver) : tmpResolver;
-			allProperties.putAll(Utils.toMap(this.configuration));
+			newConfiguration = createConfiguration(dictionary);
+		} catch (Exception e) {
+			LOG.warn("Problem creating new configuration: {}", e.getMessage(), e);
+			return false;
+		}
+		if (newConfiguration == null) {
+			return false;
+		}
 
-			// before creating a configuration, we have to check if the encryption is enabled - and there are two
-			// ways to implement the decryption
-			String enabled = allProperties.get(PaxWebConfig.PID_CFG_ENC_ENABLED);
-			if ("true".equalsIgnoreCase(enabled)) {
-				if (!Utils.isJasyptAvailable(this.getClass())) {
-					LOG.warn("Encryption is enabled, but Jasypt bundle is not available. Decryption of configuration values won't be performed.");
-				} else {
-					String decryptor = allProperties.get(PaxWebConfig.PID_CFG_ENC_OSGI_DECRYPTOR);
-					if (decryptor != null && !"".equals(decryptor)) {
-						// 1. We can obtain an OSGi service of org.jasypt.encryption.StringEncryptor
-						LOG.info("Encryption is enabled and Jasypt encryptor with ID \"{}\" will be looked up in OSGi registry",
-								decryptor);
-						String filter = String.format("(&(%s=%s)(decryptor=%s))",
-								Constants.OBJECTCLASS, "org.jasypt.encryption.StringEncryptor", decryptor);
-
-						synchronized (JasyptCustomizer.class) {
-							if (jasyptTracker != null) {
-								jasyptTracker.close();
-								jasyptTracker = null;
-							}
-							jasyptTracking.set(true);
-							try {
-								jasyptTracker = new ServiceTracker<>(bundleContext, bundleContext.createFilter(filter), new JasyptCustomizer());
-								jasyptTracker.open();
-								Object encryptor = jasyptTracker.getService();
-								if (encryptor != null) {
-									resolver = SecurePropertyResolver.wrap(resolver, encryptor);
-								} else {
-									LOG.info("Jasypt encryptor with ID \"{}\" is not found in OSGi registry." +
-											" Pax Web configuration will be performed after it becomes available.", decryptor);
-									return;
-								}
-							} finally {
-								jasyptTracking.set(false);
-							}
-						}
-					} else {
-						// 2. We can configure our own org.jasypt.encryption.StringEncryptor
-						LOG.info("Encryption is enabled and pax-web-runtime will configure Jasypt encryptor");
-						boolean foundPassword = false;
-						String env = allProperties.get(PaxWebConfig.PID_CFG_ENC_MASTERPASSWORD_ENV);
-						if (env != null && !"".equals(env)) {
-							LOG.debug("Environment variable \"{}\" will be used to obtain the master password", env);
-							foundPassword = true;
-						}
-						String sys = allProperties.get(PaxWebConfig.PID_CFG_ENC_MASTERPASSWORD_SYS);
-						if (sys != null && !"".equals(sys)) {
-							LOG.debug("System property \"{}\" will be used to obtain the master password", sys);
-							foundPassword = true;
-						}
-						String password = allProperties.get(PaxWebConfig.PID_CFG_ENC_MASTERPASSWORD);
-						if (password != null && !"".equals(password)) {
-//							LOG.debug("Master password was specified in the configuration");
-							foundPassword = true;
-						}
+		ConfigurationDiff diff = ConfigurationDiff.between(serverController.getConfiguration(), newConfiguration);
+		if (diff.isEmpty()) {
+			LOG.info("No effective change in configuration of Pax Web Runtime.");
+			this.configuration = dictionary;
+			return true;
+		}
+		if (diff.requiresRestart()) {
+			LOG.info("Changed properties {} require restart of {}", diff.getRestartRequiredProperties(),
+					serverController);
+			return false;
+		}
+		if (!serverController.reconfigure(newConfiguration, diff)) {
+			LOG.info("{} can't apply changes without restart: {}", serverController, diff);
+			return false;
+		}
 
-						if (!foundPassword) {
-							LOG.warn("No master password was provided. Decryption of configuration values won't be performed.");
-						} else {
-							resolver = SecurePropertyResolver.wrap(resolver);
-						}
-					}
-				}
-			}
+		this.configuration = dictionary;
+		if (httpServiceFactoryReg != null) {
+			httpServiceFactoryReg.setProperties(determineServiceProperties(newConfiguration));
+		}
+		return true;
+	}
 
+	/**
+	 * Actual configuration method called only when {@link ServerControllerFactory} is added.
+	 */
+	@PaxWebConfiguration
+	private void performConfiguration() {
+		try {
 			// full configuration with all required properties. That's all that is needed down the stream
-			final Configuration configuration = ConfigurationBuilder.getConfiguration(resolver, allProperties);
+			final Configuration configuration = createConfiguration(this.configuration);
+			if (configuration == null) {
+				return;
+			}
 
 			webElementEventDispatcher = new WebElementEventDispatcher(bundleContext, configuration);
 
@@ -541,11 +540,13 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 			//  - in all bundle-scoped instances of HttpServiceEnabled
 			//  - also to reflect Whiteboard registrations (through pax-web-extender-whiteboard)
 			serverModel = new ServerModel(runtimeExecutor, registrationThreadId);
+			serverModel.setChangeCountInterval(configuration.server().getChangeCountInterval());
 
 			// create a controller object to operate on any supported web server
 			serverController = serverControllerFactory.createServerController(configuration);
 			// immediately add current ServerListeners.
 			serverListeners.forEach(listener -> serverController.addListener(listener));
+			serverModel.configureGroupCommit(serverController, configuration.server().getGroupCommitWindow());
 
 			// first step is to configure the server without actually starting it
 			LOG.info("Configuring server controller {}", serverController.getClass().getName());
@@ -597,7 +598,8 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 			ServiceReferenceDTO httpServiceRuntimeDTO = new ServiceReferenceDTO();
 			httpServiceRuntimeDTO.id = (long) httpServiceRuntimeReg.getReference().getProperty(Constants.SERVICE_ID);
 			httpServiceRuntimeDTO.bundle = bundleContext.getBundle().getBundleId();
-			httpServiceRuntimeDTO.properties = new HashMap<>();
+			// concurrent map, because RuntimeDTO is created (and the properties are copied) by any thread
+			httpServiceRuntimeDTO.properties = new ConcurrentHashMap<>();
 			httpServiceRuntimeDTO.properties.put(HttpServiceRuntimeConstants.HTTP_SERVICE_ENDPOINT, "/");
 			httpServiceRuntimeDTO.properties.put(HttpServiceRuntimeConstants.HTTP_SERVICE_ID, Collections.singletonList(httpServiceId));
 			httpServiceRuntimeDTO.properties.put("service.changecount", 0L);
@@ -606,6 +608,13 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 			// we'll set the template into ServerModel, so it's available from there, when creating full RuntimeDTO
 			serverModel.setHttpServiceRuntimeInformation(httpServiceRuntimeReg, httpServiceRuntimeDTO);
 
+			if (configuration.server().isRequestMetricsEnabled()
+					|| Boolean.TRUE.equals(configuration.logging().isLogNCSAFormatEnabled())) {
+				LOG.info("Registering {} MBean", RequestStatistics.OBJECT_NAME);
+				requestStatistics = new RequestStatistics(serverModel, serverController);
+				requestStatistics.register();
+			}
+
 			// added listener is immediately called with the current state
 			serverController.addListener(new AddressConfiguration());
 
@@ -626,7 +635,102 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 		}
 	}
 
+	/**
+	 * Creates full {@link Configuration} from given PID configuration, bundle context and meta type properties.
+	 *
+	 * @param dictionary {@code org.ops4j.pax.web} PID configuration (may be {@code null})
+	 * @return {@code null} if the configuration can't be created yet (required Jasypt encryptor is not available)
+	 */
+	private Configuration createConfiguration(Dictionary<String, ?> dictionary) throws InvalidSyntaxException {
+		// Configure chained PropertyResolver to get properties from Config Admin, Bundle Context, Meta Type
+		// information (in such order).
+		// Properties as map will also be available in proper order
+
+		Map<String, String> allProperties = new HashMap<>(System.getenv());
+		allProperties.putAll(Utils.toMap(System.getProperties()));
+
+		MetaTypePropertyResolver defaultResolver = new MetaTypePropertyResolver();
+		allProperties.putAll(Utils.toMap(defaultResolver.getProperties()));
+
+		// can't get all bundle context properties as map...
+		PropertyResolver tmpResolver = new BundleContextPropertyResolver(bundleContext, defaultResolver);
+
+		PropertyResolver resolver = dictionary != null ? new DictionaryPropertyResolver(dictionary, tmpResolver) : tmpResolver;
+		allProperties.putAll(Utils.toMap(dictionary));
+
+		// before creating a configuration, we have to check if the encryption is enabled - and there are two
+		// ways to implement the decryption
+		String enabled = allProperties.get(PaxWebConfig.PID_CFG_ENC_ENABLED);
+		if ("true".equalsIgnoreCase(enabled)) {
+			if (!Utils.isJasyptAvailable(this.getClass())) {
+				LOG.warn("Encryption is enabled, but Jasypt bundle is not available. Decryption of configuration values won't be performed.");
+			} else {
+				String decryptor = allProperties.get(PaxWebConfig.PID_CFG_ENC_OSGI_DECRYPTOR);
+				if (decryptor != null && !"".equals(decryptor)) {
+					// 1. We can obtain an OSGi service of org.jasypt.encryption.StringEncryptor
+					LOG.info("Encryption is enabled and Jasypt encryptor with ID \"{}\" will be looked up in OSGi registry",
+							decryptor);
+					String filter = String.format("(&(%s=%s)(decryptor=%s))",
+							Constants.OBJECTCLASS, "org.jasypt.encryption.StringEncryptor", decryptor);
+
+					synchronized (JasyptCustomizer.class) {
+						if (jasyptTracker != null) {
+							jasyptTracker.close();
+							jasyptTracker = null;
+						}
+						jasyptTracking.set(true);
+						try {
+							jasyptTracker = new ServiceTracker<>(bundleContext, bundleContext.createFilter(filter), new JasyptCustomizer());
+							jasyptTracker.open();
+							Object encryptor = jasyptTracker.getService();
+							if (encryptor != null) {
+								resolver = SecurePropertyResolver.wrap(resolver, encryptor);
+							} else {
+								LOG.info("Jasypt encryptor with ID \"{}\" is not found in OSGi registry." +
+										" Pax Web configuration will be performed after it becomes available.", decryptor);
+								return null;
+							}
+						} finally {
+							jasyptTracking.set(false);
+						}
+					}
+				} else {
+					// 2. We can configure our own org.jasypt.encryption.StringEncryptor
+					LOG.info("Encryption is enabled and pax-web-runtime will configure Jasypt encryptor");
+					boolean foundPassword = false;
+					String env = allProperties.get(PaxWebConfig.PID_CFG_ENC_MASTERPASSWORD_ENV);
+					if (env != null && !"".equals(env)) {
+						LOG.debug("Environment variable \"{}\" will be used to obtain the master password", env);
+						foundPassword = true;
+					}
+					String sys = allProperties.get(PaxWebConfig.PID_CFG_ENC_MASTERPASSWORD_SYS);
+					if (sys != null && !"".equals(sys)) {
+						LOG.debug("System property \"{}\" will be used to obtain the master password", sys);
+						foundPassword = true;
+					}
+					String password = allProperties.get(PaxWebConfig.PID_CFG_ENC_MASTERPASSWORD);
+					if (password != null && !"".equals(password)) {
+//							LOG.debug("Master password was specified in the configuration");
+						foundPassword = true;
+					}
+
+					if (!foundPassword) {
+						LOG.warn("No master password was provided. Decryption of configuration values won't be performed.");
+					} else {
+						resolver = SecurePropertyResolver.wrap(resolver);
+					}
+				}
+			}
+		}
+
+		return ConfigurationBuilder.getConfiguration(resolver, allProperties);
+	}
+
 	private void cleanUpHttpServiceRegistrations() {
+		if (requestStatistics != null) {
+			requestStatistics.unregister();
+			requestStatistics = null;
+		}
 		if (httpServiceRuntimeReg != null) {
 			LOG.info("Unregistering current HttpServiceRuntime");
 			httpServiceRuntimeReg.unregister();
@@ -676,8 +780,13 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 		setProperty(properties, PaxWebConfig.PID_CFG_SERVER_MAX_THREADS, sc.getServerMaxThreads());
 		setProperty(properties, PaxWebConfig.PID_CFG_SERVER_MIN_THREADS, sc.getServerMinThreads());
 		setProperty(properties, PaxWebConfig.PID_CFG_SERVER_THREAD_NAME_PREFIX, sc.getServerThreadNamePrefix());
+		setProperty(properties, PaxWebConfig.PID_CFG_SERVER_VIRTUAL_THREADS, sc.isServerVirtualThreads());
+		setProperty(properties, PaxWebConfig.PID_CFG_REQUEST_METRICS, sc.isRequestMetricsEnabled());
 		setProperty(properties, PaxWebConfig.PID_CFG_SHOW_STACKS, sc.isShowStacks());
 		setProperty(properties, PaxWebConfig.PID_CFG_EVENT_DISPATCHER_THREAD_COUNT, sc.getEventDispatcherThreadCount());
+		setProperty(properties, PaxWebConfig.PID_CFG_CHANGE_COUNT_INTERVAL, sc.getChangeCountInterval());
+		setProperty(properties, PaxWebConfig.PID_CFG_GROUP_COMMIT_WINDOW, sc.getGroupCommitWindow());
+		setProperty(properties, PaxWebConfig.PID_CFG_CONTEXT_RESTART_HOLD_TIMEOUT, sc.getContextRestartHoldTimeout());
 		setProperty(properties, PaxWebConfig.PID_CFG_HTTP_CHECK_FORWARDED_HEADERS, sc.checkForwardedHeaders());
 		setProperty(properties, PaxWebConfig.PID_CFG_TEMP_DIR, sc.getTemporaryDirectory());
 		setProperty(properties, PaxWebConfig.PID_CFG_HTTP_CHECK_FORWARDED_HEADERS, sc.checkForwardedHeaders());
@@ -241,6 +241,9 @@ public class ConfigurationImpl extends PropertyStore implements Configuration {
 		private final File externalContextConfiguration;
 
 		private final int eventDispatcherThreadCount;
+		private final long changeCountInterval;
+		private final long groupCommitWindow;
+		private final long contextRestartHoldTimeout;
 
 		private final boolean showStacks;
 
@@ -317,6 +320,13 @@ public class ConfigurationImpl extends PropertyStore implements Configuration {
 			}
 			Integer eventDispatcherThreadCount = resolveIntegerProperty(PaxWebConfig.PID_CFG_EVENT_DISPATCHER_THREAD_COUNT);
 			this.eventDispatcherThreadCount = eventDispatcherThreadCount == null ? 1 : eventDispatcherThreadCount;
+			Long changeCountInterval = resolveLongProperty(PaxWebConfig.PID_CFG_CHANGE_COUNT_INTERVAL);
+			this.changeCountInterval = changeCountInterval == null || changeCountInterval < 0L ? 0L : changeCountInterval;
+			Long groupCommitWindow = resolveLongProperty(PaxWebConfig.PID_CFG_GROUP_COMMIT_WINDOW);
+			this.groupCommitWindow = groupCommitWindow == null ? -1L : groupCommitWindow;
+			Long contextRestartHoldTimeout = resolveLongProperty(PaxWebConfig.PID_CFG_CONTEXT_RESTART_HOLD_TIMEOUT);
+			this.contextRestartHoldTimeout = contextRestartHoldTimeout == null || contextRestartHoldTimeout < 0L
+					? 0L : contextRestartHoldTimeout;
 
 			Boolean stacks = resolveBooleanProperty(PaxWebConfig.PID_CFG_SHOW_STACKS);
 			showStacks = stacks != null && stacks;
@@ -420,6 +430,18 @@ public class ConfigurationImpl extends PropertyStore implements Configuration {
 			return resolveStringProperty(PaxWebConfig.PID_CFG_SERVER_THREAD_NAME_PREFIX);
 		}
 
+		@Override
+		public Boolean isServerVirtualThreads() {
+			Boolean virtualThreads = resolveBooleanProperty(PaxWebConfig.PID_CFG_SERVER_VIRTUAL_THREADS);
+			return virtualThreads != null && virtualThreads;
+		}
+
+		@Override
+		public Boolean isRequestMetricsEnabled() {
+			Boolean requestMetrics = resolveBooleanProperty(PaxWebConfig.PID_CFG_REQUEST_METRICS);
+			return requestMetrics != null && requestMetrics;
+		}
+
 		@Override
 		public Boolean checkForwardedHeaders() {
 			return resolveBooleanProperty(PaxWebConfig.PID_CFG_HTTP_CHECK_FORWARDED_HEADERS);
@@ -430,6 +452,21 @@ public class ConfigurationImpl extends PropertyStore implements Configuration {
 			return this.eventDispatcherThreadCount;
 		}
 
+		@Override
+		public Long getChangeCountInterval() {
+			return this.changeCountInterval;
+		}
+
+		@Override
+		public Long getGroupCommitWindow() {
+			return this.groupCommitWindow;
+		}
+
+		@Override
+		public Long getContextRestartHoldTimeout() {
+			return this.contextRestartHoldTimeout;
+		}
+
 		@Override
 		public Boolean isShowStacks() {
 			return showStacks;
@@ -751,6 +788,22 @@ public class ConfigurationImpl extends PropertyStore implements Configuration {
 		public Integer maxCacheTTL() {
 			return resolveIntegerProperty(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_CACHE_TTL);
 		}
+
+		@Override
+		public boolean sharedCache() {
+			return Boolean.TRUE.equals(resolveBooleanProperty(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_CACHE_SHARED));
+		}
+
+		@Override
+		public boolean directCacheBuffers() {
+			return Boolean.TRUE.equals(resolveBooleanProperty(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_CACHE_DIRECT));
+		}
+
+		@Override
+		public boolean compression() {
+			Boolean compression = resolveBooleanProperty(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_COMPRESSION);
+			return compression == null || compression;
+		}
 	}
 
 	private class SessionConfigurationImpl implements SessionConfiguration {
@@ -15,8 +15,8 @@
  */
 package org.ops4j.pax.web.service.internal;
 
-import java.util.Dictionary;
-import java.util.Hashtable;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.ops4j.pax.web.service.spi.model.events.WebApplicationEvent;
@@ -36,6 +36,9 @@ import org.slf4j.LoggerFactory;
  * <p>This handler is part of pax-web-runtime, but processes events related to WABs. No events related
  * to Whiteboard/HttpService element registration are passed to Event Admin (for now?) because
  * Whiteboard Specification (and HttpService Specification) doesn't mention anything about Event Admin.</p>
+ *
+ * <p>The events are received from an {@link org.ops4j.pax.web.service.spi.model.events.EventBus}, which
+ * delivers them in batches (one task per many events) and in order.</p>
  */
 public class EventAdminHandler implements WebApplicationEventListener, ServiceTrackerCustomizer<EventAdmin, EventAdmin> {
 
@@ -53,7 +56,8 @@ public class EventAdminHandler implements WebApplicationEventListener, ServiceTr
 		EventAdmin eventAdmin = eventAdminReference.get();
 		if (eventAdmin != null) {
 			final String topic = event.getType().getTopic();
-			Dictionary<String, Object> properties = new Hashtable<>();
+			// the map is copied by the Event anyway, so no need to use synchronized Hashtable
+			Map<String, Object> properties = new HashMap<>(32);
 
 			// 128.5 Events
 			properties.put("bundle", event.getBundle());
@@ -65,6 +65,7 @@ import org.ops4j.pax.web.service.spi.model.ServletContextModel;
 import org.ops4j.pax.web.service.spi.model.elements.LoginConfigModel;
 import org.ops4j.pax.web.service.spi.model.elements.SecurityConfigurationModel;
 import org.ops4j.pax.web.service.spi.model.elements.SecurityConstraintModel;
+import org.ops4j.pax.web.service.spi.model.info.RequestStatisticsInfo;
 import org.ops4j.pax.web.service.spi.model.info.ServletInfo;
 import org.ops4j.pax.web.service.spi.model.info.WebApplicationInfo;
 import org.ops4j.pax.web.service.spi.model.elements.ContainerInitializerModel;
@@ -342,6 +343,18 @@ public class HttpServiceEnabled implements WebContainer, StoppableHttpService {
 		return new UniqueMultiBundleWebContainerContextWrapper(serviceModel.getOrCreateDefaultSharedHttpContext(contextId));
 	}
 
+	// --- bulk operations
+
+	@Override
+	public void bulk(BulkOperations operations) throws ServletException, NamespaceException {
+		// all the operations are performed in single configuration task, so nested (synchronous) registrations
+		// are run immediately and contexts are (re)started once at the end of the group
+		serverModel.run(() -> serverModel.runInGroup(() -> {
+			operations.perform(this);
+			return null;
+		}), false);
+	}
+
 	// --- methods used to register a Servlet - with more options than in original HttpService.registerServlet()
 
 	@Override
@@ -2395,6 +2408,11 @@ public class HttpServiceEnabled implements WebContainer, StoppableHttpService {
 			doUnregisterServlet(servletModel);
 		}
 
+		@Override
+		public boolean changeServletRank(ServletModel model, int rank) {
+			return Boolean.TRUE.equals(serverModel.runSilently(() -> serverModel.changeServletModelRank(model, rank), false));
+		}
+
 		@Override
 		public void registerResources(ServletModel model) {
 			String[] mapping = model.getAlias() != null ? new String[] { model.getAlias() }
@@ -2742,6 +2760,16 @@ public class HttpServiceEnabled implements WebContainer, StoppableHttpService {
 			}, false);
 		}
 
+		@Override
+		public void runInGroup(Runnable operations) {
+			// sendBatch() calls performed by the operations are run immediately, because we're already in
+			// configuration thread
+			serverModel.runSilentlyInGroup(() -> {
+				operations.run();
+				return null;
+			});
+		}
+
 		@Override
 		public AllocationStatus allocateContext(Bundle wab, String contextPath) {
 			return serverModel.runSilently(() -> {
@@ -2828,6 +2856,16 @@ public class HttpServiceEnabled implements WebContainer, StoppableHttpService {
 
 			return servlets;
 		}
+
+		@Override
+		public List<RequestStatisticsInfo> listRequestStatistics() {
+			return serverModel.collectRequestStatistics();
+		}
+
+		@Override
+		public void resetRequestStatistics() {
+			serverModel.resetRequestStatistics();
+		}
 	}
 
 	private static class ResourceServlet {
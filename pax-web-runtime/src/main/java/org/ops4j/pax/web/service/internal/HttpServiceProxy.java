@@ -117,6 +117,13 @@ class HttpServiceProxy implements WebContainer, StoppableHttpService {
 		return delegate.createDefaultSharedHttpContext(contextId);
 	}
 
+	// --- bulk operations
+
+	@Override
+	public void bulk(BulkOperations operations) throws ServletException, NamespaceException {
+		delegate.bulk(operations);
+	}
+
 	// --- methods used to register a Servlet - with more options than in original HttpService.registerServlet()
 
 	@Override
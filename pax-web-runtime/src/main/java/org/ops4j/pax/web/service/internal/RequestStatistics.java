@@ -0,0 +1,85 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.internal;
+
+import java.util.List;
+import javax.management.MBeanServer;
+
+import org.ops4j.pax.web.service.spi.ServerController;
+import org.ops4j.pax.web.service.spi.accesslog.AccessLogWriter;
+import org.ops4j.pax.web.service.spi.model.ServerModel;
+import org.ops4j.pax.web.service.spi.model.info.RequestStatisticsInfo;
+import org.ops4j.pax.web.service.spi.util.MXBeanRegistration;
+
+/**
+ * {@link RequestStatisticsMXBean} registered in platform {@link MBeanServer} for the lifetime of single
+ * {@link ServerModel}. Access log statistics are taken from the {@link AccessLogWriter} currently used by
+ * the {@link ServerController}.
+ */
+class RequestStatistics implements RequestStatisticsMXBean {
+
+	static final String OBJECT_NAME = "org.ops4j.pax.web:type=RequestStatistics";
+
+	private final ServerModel serverModel;
+	private final ServerController serverController;
+
+	private MXBeanRegistration registration;
+
+	RequestStatistics(ServerModel serverModel, ServerController serverController) {
+		this.serverModel = serverModel;
+		this.serverController = serverController;
+	}
+
+	@Override
+	public List<RequestStatisticsInfo> getStatistics() {
+		return serverModel.collectRequestStatistics();
+	}
+
+	@Override
+	public void resetStatistics() {
+		serverModel.resetRequestStatistics();
+	}
+
+	@Override
+	public long getAccessLogWritten() {
+		AccessLogWriter writer = serverController.getAccessLogWriter();
+		return writer == null ? 0L : writer.getWritten();
+	}
+
+	@Override
+	public long getAccessLogDropped() {
+		AccessLogWriter writer = serverController.getAccessLogWriter();
+		return writer == null ? 0L : writer.getDropped();
+	}
+
+	@Override
+	public long getAccessLogBacklog() {
+		AccessLogWriter writer = serverController.getAccessLogWriter();
+		return writer == null ? 0L : writer.getBacklog();
+	}
+
+	void register() {
+		registration = MXBeanRegistration.register(this, OBJECT_NAME);
+	}
+
+	void unregister() {
+		if (registration != null) {
+			registration.unregister();
+			registration = null;
+		}
+	}
+
+}
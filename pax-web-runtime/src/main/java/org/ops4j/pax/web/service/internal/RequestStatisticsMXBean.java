@@ -0,0 +1,64 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.internal;
+
+import java.util.List;
+
+import org.ops4j.pax.web.service.spi.model.info.RequestStatisticsInfo;
+
+/**
+ * JMX view of request statistics collected by {@link org.ops4j.pax.web.service.spi.model.ServerModel} when
+ * {@link org.ops4j.pax.web.service.PaxWebConfig#PID_CFG_REQUEST_METRICS} is enabled and of NCSA access log
+ * when {@link org.ops4j.pax.web.service.PaxWebConfig#PID_CFG_LOG_NCSA_ENABLED} is enabled. Registered as
+ * {@code org.ops4j.pax.web:type=RequestStatistics} MXBean.
+ */
+public interface RequestStatisticsMXBean {
+
+	/**
+	 * Statistics of all contexts and servlets.
+	 *
+	 * @return
+	 */
+	List<RequestStatisticsInfo> getStatistics();
+
+	/**
+	 * Clears all the statistics.
+	 */
+	void resetStatistics();
+
+	/**
+	 * Number of entries written to NCSA access log.
+	 *
+	 * @return
+	 */
+	long getAccessLogWritten();
+
+	/**
+	 * Number of NCSA access log entries dropped, because the log couldn't keep up or the entries couldn't
+	 * be written.
+	 *
+	 * @return
+	 */
+	long getAccessLogDropped();
+
+	/**
+	 * Number of NCSA access log entries waiting to be written.
+	 *
+	 * @return
+	 */
+	long getAccessLogBacklog();
+
+}
@@ -15,18 +15,13 @@
  */
 package org.ops4j.pax.web.service.internal;
 
-import java.util.Collections;
-import java.util.Set;
-import java.util.concurrent.Callable;
-import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 import org.ops4j.pax.web.service.spi.config.Configuration;
+import org.ops4j.pax.web.service.spi.model.events.EventBus;
+import org.ops4j.pax.web.service.spi.model.events.EventBusStatistics;
 import org.ops4j.pax.web.service.spi.model.events.WebElementEvent;
 import org.ops4j.pax.web.service.spi.model.events.WebElementEventListener;
 import org.ops4j.pax.web.service.spi.util.NamedThreadFactory;
@@ -47,6 +42,9 @@ import org.slf4j.LoggerFactory;
  * <p>It's activated using a method from {@link WebElementEventListener} that called to <em>send</em> the event and the
  * event is passed to other registered {@link WebElementEventListener}s.</p>
  *
+ * <p>The events are delivered using {@link EventBus}, so each listener gets the events in order, without blocking
+ * the thread that sends the event.</p>
+ *
  * @author Achim Nierbeck
  */
 public class WebElementEventDispatcher implements WebElementEventListener,
@@ -60,13 +58,19 @@ public class WebElementEventDispatcher implements WebElementEventListener,
 	/** {@link ServiceTracker} for {@link WebElementEventListener web element listeners} */
 	private final ServiceTracker<WebElementEventListener, WebElementEventListener> webElementListenerTracker;
 
-	/** All tracked {@link WebElementEventListener web element listeners} */
-	private final Set<WebElementEventListener> listeners = new CopyOnWriteArraySet<>();
+	/** Per-listener queues of events for all tracked {@link WebElementEventListener web element listeners} */
+	private final EventBus<WebElementEventListener, WebElementEvent> eventBus;
+
+	/** JMX view of {@link #eventBus} */
+	private final EventBusStatistics statistics;
 
 	public WebElementEventDispatcher(final BundleContext bundleContext, Configuration configuration) {
 		this.bundleContext = bundleContext;
 		this.executor = Executors.newFixedThreadPool(configuration.server().getEventDispatcherThreadCount(),
 				new NamedThreadFactory("events"));
+		this.eventBus = new EventBus<>(executor, WebElementEventListener::registrationEvent, null);
+		this.statistics = new EventBusStatistics(eventBus, "WebElementEvents");
+		this.statistics.register();
 
 		this.webElementListenerTracker = new ServiceTracker<>(bundleContext, WebElementEventListener.class.getName(), this);
 		this.webElementListenerTracker.open();
@@ -83,8 +87,8 @@ public class WebElementEventDispatcher implements WebElementEventListener,
 		WebElementEventListener listener = bundleContext.getService(reference);
 		if (listener != null) {
 			LOG.debug("New WebElementEventListener added: {}", listener.getClass().getName());
-			synchronized (listeners) {
-				listeners.add(listener);
+			synchronized (eventBus) {
+				eventBus.addListener(listener, false);
 			}
 		}
 		return listener;
@@ -96,7 +100,7 @@ public class WebElementEventDispatcher implements WebElementEventListener,
 
 	@Override
 	public void removedService(ServiceReference<WebElementEventListener> reference, WebElementEventListener service) {
-		listeners.remove(service);
+		eventBus.removeListener(service);
 		bundleContext.ungetService(reference);
 		LOG.debug("WebElementEventListener is removed: {}", service.getClass().getName());
 	}
@@ -106,13 +110,14 @@ public class WebElementEventDispatcher implements WebElementEventListener,
 		if (LOG.isDebugEnabled()) {
 			LOG.debug("Sending web element event " + event + " for bundle " + event.getBundleName());
 		}
-		synchronized (listeners) {
-			callListeners(event);
+		synchronized (eventBus) {
+			eventBus.publish(event);
 		}
 	}
 
 	void destroy() {
 		bundleContext.removeBundleListener(this);
+		statistics.unregister();
 		webElementListenerTracker.close();
 		executor.shutdown();
 		// wait for the queued tasks to execute
@@ -122,33 +127,4 @@ public class WebElementEventDispatcher implements WebElementEventListener,
 		}
 	}
 
-	private void callListeners(WebElementEvent event) {
-		for (WebElementEventListener listener : listeners) {
-			try {
-				callListener(listener, event);
-			} catch (RejectedExecutionException ree) {
-				LOG.warn("Executor shut down", ree);
-				break;
-			}
-		}
-	}
-
-	private void callListener(final WebElementEventListener listener, final WebElementEvent event) {
-		try {
-			executor.invokeAny(Collections.<Callable<Void>>singleton(() -> {
-				listener.registrationEvent(event);
-				return null;
-			}), 60L, TimeUnit.SECONDS);
-		} catch (InterruptedException ie) {
-			LOG.warn("Thread interrupted", ie);
-			Thread.currentThread().interrupt();
-		} catch (TimeoutException te) {
-			LOG.warn("Listener timed out, will be ignored", te);
-			listeners.remove(listener);
-		} catch (ExecutionException ee) {
-			LOG.warn("Listener caused an exception, will be ignored", ee);
-			listeners.remove(listener);
-		}
-	}
-
 }
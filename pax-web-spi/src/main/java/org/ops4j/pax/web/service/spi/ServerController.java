@@ -19,8 +19,11 @@ package org.ops4j.pax.web.service.spi;
 import java.net.URL;
 import javax.servlet.Servlet;
 
+import org.ops4j.pax.web.service.spi.accesslog.AccessLogWriter;
 import org.ops4j.pax.web.service.spi.config.Configuration;
+import org.ops4j.pax.web.service.spi.config.ConfigurationDiff;
 import org.ops4j.pax.web.service.spi.model.events.ServerListener;
+import org.ops4j.pax.web.service.spi.servlet.StaticContentCache;
 import org.ops4j.pax.web.service.spi.task.Batch;
 
 /**
@@ -75,6 +78,24 @@ public interface ServerController {
 	 */
 	Configuration getConfiguration();
 
+	/**
+	 * <p>Applies changed configuration to started server without stopping it. Only the changes classified by
+	 * {@link ConfigurationDiff} as {@link ConfigurationDiff#getHotChanges() hot} are applied - if the diff
+	 * {@link ConfigurationDiff#requiresRestart() requires restart} or some of the hot changes are not supported
+	 * by the runtime, nothing is changed and {@code false} is returned, so the caller has to create new
+	 * {@link ServerController}.</p>
+	 *
+	 * <p>After successful reconfiguration, {@link #getConfiguration()} returns the passed configuration. This
+	 * method is always called in Pax Web configuration thread.</p>
+	 *
+	 * @param configuration new configuration
+	 * @param diff difference between {@link #getConfiguration() current} and new configuration
+	 * @return {@code true} if the changes were applied
+	 */
+	default boolean reconfigure(Configuration configuration, ConfigurationDiff diff) {
+		return false;
+	}
+
 	// --- listener related methods
 
 	/**
@@ -96,6 +117,23 @@ public interface ServerController {
 	 */
 	void sendBatch(Batch batch);
 
+	/**
+	 * <p>Marks the beginning of a <em>group</em> of {@link Batch batches} sent one after another from
+	 * the configuration thread. Until {@link #endGroup()} is called, the server controller MAY defer (re)starting
+	 * of the affected contexts, so each context is stopped/started at most once per group.</p>
+	 *
+	 * <p>This method (and {@link #endGroup()}) is always called in Pax Web configuration thread.</p>
+	 */
+	default void beginGroup() {
+	}
+
+	/**
+	 * Marks the end of a group of {@link Batch batches} started with {@link #beginGroup()}. All the contexts for
+	 * which the start was deferred should be started now.
+	 */
+	default void endGroup() {
+	}
+
 	/**
 	 * Each native Servlet container has own version of <em>default/resource servlet</em> usually implementing such
 	 * aspects as resource caching. Such servlet can be created using two (distinct) parameters:<ul>
@@ -118,4 +156,24 @@ public interface ServerController {
 	 */
 	Servlet createResourceServlet(URL urlBase, String base);
 
+	/**
+	 * Returns the {@link AccessLogWriter} used by the runtime if NCSA access log is enabled, so its statistics
+	 * can be presented.
+	 *
+	 * @return current access log or {@code null} if NCSA logging is disabled or the server is not started
+	 */
+	default AccessLogWriter getAccessLogWriter() {
+		return null;
+	}
+
+	/**
+	 * Returns the {@link StaticContentCache} shared by all the resource servlets of this controller, if it's
+	 * {@link org.ops4j.pax.web.service.PaxWebConfig#PID_CFG_DEFAULT_SERVLET_CACHE_SHARED enabled}.
+	 *
+	 * @return
+	 */
+	default StaticContentCache getStaticContentCache() {
+		return null;
+	}
+
 }
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.accesslog;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Current file of an access log with daily rollover. It's used only by the writer thread of
+ * {@link AccessLogWriter}.</p>
+ *
+ * <p>If the configured file name contains {@code yyyy_mm_dd}, it's replaced by current date and there's new file
+ * for each day. Otherwise the entries are written to the file with configured name, which is renamed by appending
+ * {@code .<date>} when the day changes.</p>
+ */
+class AccessLogFile {
+
+	private static final Logger LOG = LoggerFactory.getLogger(AccessLogFile.class);
+
+	private static final String DATE_PLACEHOLDER = "yyyy_mm_dd";
+
+	private final File directory;
+	private final String prefix;
+	private final String suffix;
+	private final boolean dated;
+	private final DateTimeFormatter dateFormat;
+	private final ZoneId zone;
+	private final int retainDays;
+
+	private boolean append;
+	private File file;
+	private FileChannel channel;
+	private LocalDate day;
+	private long nextRollover;
+
+	AccessLogFile(File directory, String fileName, String dateFormat, boolean append, int retainDays, ZoneId zone) {
+		this.directory = directory;
+		int idx = fileName.toLowerCase(Locale.ROOT).indexOf(DATE_PLACEHOLDER);
+		this.dated = idx >= 0;
+		this.prefix = dated ? fileName.substring(0, idx) : fileName;
+		this.suffix = dated ? fileName.substring(idx + DATE_PLACEHOLDER.length()) : "";
+		this.dateFormat = DateTimeFormatter.ofPattern(dateFormat, Locale.ROOT);
+		this.zone = zone;
+		this.retainDays = retainDays;
+		this.append = append;
+	}
+
+	/**
+	 * Opens a file for the day of given time. The previous file (if any) should be closed.
+	 *
+	 * @param time
+	 * @throws IOException
+	 */
+	void open(long time) throws IOException {
+		day = LocalDate.ofInstant(Instant.ofEpochMilli(time), zone);
+		nextRollover = day.plusDays(1L).atStartOfDay(zone).toInstant().toEpochMilli();
+		if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+			throw new IOException("Can't create access log directory " + directory);
+		}
+		file = new File(directory, dated ? prefix + dateFormat.format(day) + suffix : prefix);
+		if (!dated && file.isFile() && file.length() > 0L) {
+			// the file may be left by previous run on another day
+			LocalDate modified = LocalDate.ofInstant(Instant.ofEpochMilli(file.lastModified()), zone);
+			if (modified.isBefore(day)) {
+				rename(modified);
+			}
+		}
+		channel = append
+				? FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+				: FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		// only the file opened at start may be truncated
+		append = true;
+		removeOldFiles(time);
+	}
+
+	/**
+	 * Checks whether the day has changed, so {@link #roll(long)} should be called before writing entries
+	 * logged at given time.
+	 *
+	 * @param time
+	 * @return
+	 */
+	boolean needsRollover(long time) {
+		return time >= nextRollover;
+	}
+
+	/**
+	 * Closes the file of previous day and opens new one.
+	 *
+	 * @param time
+	 * @throws IOException
+	 */
+	void roll(long time) throws IOException {
+		LocalDate previous = day;
+		close();
+		if (!dated && file.isFile()) {
+			rename(previous);
+		}
+		open(time);
+	}
+
+	/**
+	 * Writes the data from given buffers using single gathering write, if possible.
+	 *
+	 * @param buffers
+	 * @param count number of buffers to write
+	 * @throws IOException
+	 */
+	void write(ByteBuffer[] buffers, int count) throws IOException {
+		if (channel == null) {
+			throw new IOException("Access log " + file + " is not open");
+		}
+		int first = 0;
+		while (first < count) {
+			channel.write(buffers, first, count - first);
+			while (first < count && !buffers[first].hasRemaining()) {
+				first++;
+			}
+		}
+	}
+
+	void force() throws IOException {
+		if (channel != null) {
+			channel.force(false);
+		}
+	}
+
+	void close() throws IOException {
+		if (channel != null) {
+			try {
+				channel.close();
+			} finally {
+				channel = null;
+			}
+		}
+	}
+
+	boolean isOpen() {
+		return channel != null;
+	}
+
+	File getFile() {
+		return file;
+	}
+
+	private void rename(LocalDate date) {
+		File target = new File(directory, prefix + "." + dateFormat.format(date));
+		if (target.exists() || !file.renameTo(target)) {
+			LOG.warn("Can't rename access log {} to {}", file, target);
+		}
+	}
+
+	/**
+	 * Removes the files of this log which were not modified for {@code retaindays} days.
+	 *
+	 * @param time
+	 */
+	private void removeOldFiles(long time) {
+		if (retainDays <= 0) {
+			return;
+		}
+		long threshold = time - TimeUnit.DAYS.toMillis(retainDays);
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+		String rolledPrefix = prefix + ".";
+		for (File f : files) {
+			String name = f.getName();
+			boolean matches = dated
+					? name.startsWith(prefix) && name.endsWith(suffix) && name.length() > prefix.length() + suffix.length()
+					: name.startsWith(rolledPrefix);
+			if (matches && !f.equals(file) && f.isFile() && f.lastModified() < threshold) {
+				LOG.debug("Removing old access log {}", f);
+				if (!f.delete()) {
+					LOG.warn("Can't remove old access log {}", f);
+				}
+			}
+		}
+	}
+
+}
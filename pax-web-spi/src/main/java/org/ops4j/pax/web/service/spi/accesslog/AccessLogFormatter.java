@@ -0,0 +1,264 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.accesslog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * <p>Formats {@link AccessLogWriter.Entry entries} in NCSA common or combined (<em>extended</em>) format into
+ * reusable direct buffers, which are written to {@link AccessLogFile} using gathering write when all of them are
+ * full or when the writer thread {@link #flush() decides so}. Used only by the writer thread.</p>
+ *
+ * <p>Nothing is allocated per entry - strings are encoded directly into the buffers and the timestamp is
+ * formatted once per second.</p>
+ */
+class AccessLogFormatter {
+
+	static final int BUFFER_SIZE = 4096;
+	static final int BUFFER_COUNT = 16;
+
+	private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+	private final AccessLogFile file;
+	private final boolean extended;
+	private final DateTimeFormatter timestampFormat;
+
+	private final ByteBuffer[] buffers = new ByteBuffer[BUFFER_COUNT];
+	private int current = 0;
+
+	/** Number of entries formatted since last write */
+	private int pending = 0;
+
+	/** Counters updated only by the writer thread, but read by any thread */
+	private volatile long written = 0L;
+	private volatile long failed = 0L;
+
+	private long cachedSecond = Long.MIN_VALUE;
+	private byte[] cachedTimestamp;
+
+	AccessLogFormatter(AccessLogFile file, boolean extended, ZoneId zone) {
+		this.file = file;
+		this.extended = extended;
+		this.timestampFormat = DateTimeFormatter.ofPattern("'['dd/MMM/yyyy:HH:mm:ss Z']'", Locale.US).withZone(zone);
+		for (int i = 0; i < BUFFER_COUNT; i++) {
+			buffers[i] = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		}
+	}
+
+	/**
+	 * Formats single entry - as {@code host - user [time] "request" status bytes} optionally followed by
+	 * {@code "referer" "user-agent"}.
+	 *
+	 * @param entry
+	 * @throws IOException if the buffers had to be written and the write failed
+	 */
+	void format(AccessLogWriter.Entry entry) throws IOException {
+		putToken(entry.remoteAddress);
+		putAscii(" - ");
+		putToken(entry.user);
+		put((byte) ' ');
+		putTimestamp(entry.timestamp);
+		putAscii(" \"");
+		putEscaped(entry.method);
+		put((byte) ' ');
+		putEscaped(entry.uri);
+		if (entry.query != null && !entry.query.isEmpty()) {
+			put((byte) '?');
+			putEscaped(entry.query);
+		}
+		put((byte) ' ');
+		putEscaped(entry.protocol);
+		putAscii("\" ");
+		putLong(entry.status);
+		put((byte) ' ');
+		if (entry.bytes > 0L) {
+			putLong(entry.bytes);
+		} else {
+			put((byte) '-');
+		}
+		if (extended) {
+			putAscii(" \"");
+			putToken(entry.referer);
+			putAscii("\" \"");
+			putToken(entry.userAgent);
+			put((byte) '"');
+		}
+		put((byte) '\n');
+		pending++;
+	}
+
+	/**
+	 * Number of entries waiting in the buffers.
+	 *
+	 * @return
+	 */
+	int getPending() {
+		return pending;
+	}
+
+	/**
+	 * Number of entries written to the file.
+	 *
+	 * @return
+	 */
+	long getWritten() {
+		return written;
+	}
+
+	/**
+	 * Number of entries discarded, because they couldn't be written.
+	 *
+	 * @return
+	 */
+	long getFailed() {
+		return failed;
+	}
+
+	/**
+	 * Writes all the formatted data. In case of failure the data is discarded.
+	 *
+	 * @throws IOException
+	 */
+	void flush() throws IOException {
+		int count = buffers[current].position() == 0 ? current : current + 1;
+		int entries = pending;
+		pending = 0;
+		try {
+			for (int i = 0; i < count; i++) {
+				buffers[i].flip();
+			}
+			if (count > 0) {
+				file.write(buffers, count);
+			}
+			written += entries;
+		} catch (IOException e) {
+			failed += entries;
+			throw e;
+		} finally {
+			for (int i = 0; i <= current; i++) {
+				buffers[i].clear();
+			}
+			current = 0;
+		}
+	}
+
+	private void put(byte b) throws IOException {
+		ByteBuffer buffer = buffers[current];
+		if (!buffer.hasRemaining()) {
+			if (current == BUFFER_COUNT - 1) {
+				// entry may be split between two writes, but it's still continuous in the file. The entry
+				// being formatted is counted when it's complete
+				flush();
+			} else {
+				current++;
+			}
+			buffer = buffers[current];
+		}
+		buffer.put(b);
+	}
+
+	private void putAscii(String s) throws IOException {
+		for (int i = 0; i < s.length(); i++) {
+			put((byte) s.charAt(i));
+		}
+	}
+
+	private void putToken(String s) throws IOException {
+		if (s == null || s.isEmpty()) {
+			put((byte) '-');
+		} else {
+			putEscaped(s);
+		}
+	}
+
+	/**
+	 * Puts UTF-8 encoded string, where quotes, backslashes and control characters are escaped, so each entry is
+	 * single line that can be parsed.
+	 *
+	 * @param s
+	 * @throws IOException
+	 */
+	private void putEscaped(String s) throws IOException {
+		if (s == null) {
+			put((byte) '-');
+			return;
+		}
+		int length = s.length();
+		int i = 0;
+		while (i < length) {
+			char c = s.charAt(i++);
+			if (c < 0x20 || c == 0x7f) {
+				put((byte) '\\');
+				put((byte) 'x');
+				put(HEX[(c >> 4) & 0x0f]);
+				put(HEX[c & 0x0f]);
+			} else if (c == '"' || c == '\\') {
+				put((byte) '\\');
+				put((byte) c);
+			} else if (c < 0x80) {
+				put((byte) c);
+			} else if (c < 0x800) {
+				put((byte) (0xc0 | (c >> 6)));
+				put((byte) (0x80 | (c & 0x3f)));
+			} else if (Character.isHighSurrogate(c) && i < length && Character.isLowSurrogate(s.charAt(i))) {
+				int cp = Character.toCodePoint(c, s.charAt(i++));
+				put((byte) (0xf0 | (cp >> 18)));
+				put((byte) (0x80 | ((cp >> 12) & 0x3f)));
+				put((byte) (0x80 | ((cp >> 6) & 0x3f)));
+				put((byte) (0x80 | (cp & 0x3f)));
+			} else if (Character.isSurrogate(c)) {
+				put((byte) '?');
+			} else {
+				put((byte) (0xe0 | (c >> 12)));
+				put((byte) (0x80 | ((c >> 6) & 0x3f)));
+				put((byte) (0x80 | (c & 0x3f)));
+			}
+		}
+	}
+
+	private void putTimestamp(long time) throws IOException {
+		long second = Math.floorDiv(time, 1000L);
+		if (second != cachedSecond) {
+			cachedSecond = second;
+			cachedTimestamp = timestampFormat.format(Instant.ofEpochSecond(second)).getBytes(StandardCharsets.US_ASCII);
+		}
+		for (byte b : cachedTimestamp) {
+			put(b);
+		}
+	}
+
+	private void putLong(long value) throws IOException {
+		if (value < 0L) {
+			put((byte) '-');
+			value = -value;
+		}
+		long divisor = 1L;
+		while (value / divisor >= 10L) {
+			divisor *= 10L;
+		}
+		while (divisor > 0L) {
+			put((byte) ('0' + (value / divisor) % 10L));
+			divisor /= 10L;
+		}
+	}
+
+}
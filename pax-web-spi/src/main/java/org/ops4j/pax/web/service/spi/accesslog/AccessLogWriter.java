@@ -0,0 +1,331 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.accesslog;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.ops4j.pax.web.service.spi.config.LogConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>NCSA access log shared by all the runtimes. Request threads only copy the values of an entry into a slot of
+ * bounded, lock-free ring buffer and single writer thread formats the entries and writes them to a file with daily
+ * rollover (see {@link AccessLogFile}). When the ring buffer is full (e.g., because the disk is stalled), new
+ * entries are dropped and {@link #getDropped() counted} - request threads never wait for the writer.</p>
+ *
+ * <p>{@link LogConfiguration#getLogNCSABuffered() Buffered} log is written when the formatting buffers are full
+ * or at least every second. Not buffered log is written as soon as the writer thread processes all the entries
+ * available.</p>
+ */
+public class AccessLogWriter implements Closeable {
+
+	public static final int DEFAULT_CAPACITY = 8192;
+
+	private static final Logger LOG = LoggerFactory.getLogger(AccessLogWriter.class);
+
+	/** Maximal time the entries stay in memory when the log is buffered */
+	private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1L);
+
+	private static final long CLOSE_TIMEOUT_MILLIS = 10_000L;
+
+	/** Value of {@link #claimed} after the writer thread has finished - no more sequences can be claimed */
+	private static final long SEALED = -1L;
+
+	private final int capacity;
+	private final int mask;
+	private final Entry[] slots;
+
+	/** For each slot - the sequence of the entry published in the slot */
+	private final AtomicLongArray published;
+
+	/** Next sequence to be claimed by request threads or {@link #SEALED} after the writer thread finished */
+	private final AtomicLong claimed = new AtomicLong();
+
+	/** Number of entries processed by the writer thread - the slots before this sequence are free */
+	private volatile long consumed = 0L;
+
+	private final LongAdder dropped = new LongAdder();
+
+	private final boolean buffered;
+	private final Clock clock;
+	private final AccessLogFile file;
+	private final AccessLogFormatter formatter;
+	private final Thread writer;
+
+	private volatile boolean writerWaiting;
+	private volatile boolean closed;
+
+	/**
+	 * Creates an access log using NCSA properties of given {@link LogConfiguration} and starts its writer thread.
+	 *
+	 * @param configuration
+	 * @throws IOException if the log file can't be opened
+	 */
+	public AccessLogWriter(LogConfiguration configuration) throws IOException {
+		this(configuration, DEFAULT_CAPACITY, Clock.systemUTC());
+	}
+
+	AccessLogWriter(LogConfiguration configuration, int capacity, Clock clock) throws IOException {
+		if (configuration.getLogNCSADirectory() == null) {
+			throw new IllegalArgumentException("Log directory for NCSA logging is not specified. Please set"
+					+ " org.ops4j.pax.web.log.ncsa.directory property.");
+		}
+		File directory = new File(configuration.getLogNCSADirectory()).getAbsoluteFile();
+		if (directory.isFile()) {
+			throw new IllegalArgumentException(directory + " is not a valid directory to store request logs");
+		}
+
+		this.capacity = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+		this.mask = this.capacity - 1;
+		this.slots = new Entry[this.capacity];
+		this.published = new AtomicLongArray(this.capacity);
+		for (int i = 0; i < this.capacity; i++) {
+			slots[i] = new Entry();
+			published.set(i, -1L);
+		}
+
+		String fileName = configuration.getLogNCSAFile() == null ? "yyyy_mm_dd.request.log" : configuration.getLogNCSAFile();
+		String dateFormat = configuration.getLogNCSAFilenameDateFormat() == null ? "yyyy-MM-dd"
+				: configuration.getLogNCSAFilenameDateFormat();
+		Integer retainDays = configuration.getLogNCSARetainDays();
+		ZoneId zone = ZoneId.of(configuration.getLogNCSATimeZone() == null ? "GMT" : configuration.getLogNCSATimeZone());
+
+		this.buffered = !Boolean.FALSE.equals(configuration.getLogNCSABuffered());
+		this.clock = clock;
+		this.file = new AccessLogFile(directory, fileName, dateFormat,
+				!Boolean.FALSE.equals(configuration.isLogNCSAAppend()), retainDays == null ? 90 : retainDays, zone);
+		this.formatter = new AccessLogFormatter(file, !Boolean.FALSE.equals(configuration.isLogNCSAExtended()), zone);
+
+		file.open(clock.millis());
+
+		writer = new Thread(this::run, "paxweb-access-log");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Logs single request. Never blocks - if there's no free slot in the ring buffer, the entry is dropped.
+	 *
+	 * @param remoteAddress
+	 * @param user authenticated user or {@code null}
+	 * @param timestamp time when the request was received
+	 * @param method
+	 * @param uri request URI, may include the query string
+	 * @param query the query string (without {@code ?}) if it's not part of the URI
+	 * @param protocol
+	 * @param status
+	 * @param bytes number of bytes of the response body
+	 * @param referer
+	 * @param userAgent
+	 * @return {@code false} if the entry was dropped
+	 */
+	public boolean log(String remoteAddress, String user, long timestamp, String method, String uri, String query,
+			String protocol, int status, long bytes, String referer, String userAgent) {
+		if (closed) {
+			dropped.increment();
+			return false;
+		}
+		long sequence;
+		do {
+			sequence = claimed.get();
+			if (sequence == SEALED || sequence - consumed >= capacity) {
+				dropped.increment();
+				return false;
+			}
+		} while (!claimed.compareAndSet(sequence, sequence + 1L));
+
+		Entry entry = slots[(int) sequence & mask];
+		entry.remoteAddress = remoteAddress;
+		entry.user = user;
+		entry.timestamp = timestamp;
+		entry.method = method;
+		entry.uri = uri;
+		entry.query = query;
+		entry.protocol = protocol;
+		entry.status = status;
+		entry.bytes = bytes;
+		entry.referer = referer;
+		entry.userAgent = userAgent;
+		published.set((int) sequence & mask, sequence);
+
+		if (writerWaiting && (!buffered || sequence - consumed >= capacity >> 1)) {
+			writerWaiting = false;
+			LockSupport.unpark(writer);
+		}
+		return true;
+	}
+
+	/**
+	 * Number of entries dropped, because the ring buffer was full or they couldn't be written.
+	 *
+	 * @return
+	 */
+	public long getDropped() {
+		return dropped.sum() + formatter.getFailed();
+	}
+
+	/**
+	 * Number of entries logged, but not yet processed by the writer thread.
+	 *
+	 * @return
+	 */
+	public long getBacklog() {
+		long sequence = claimed.get();
+		return sequence == SEALED ? 0L : Math.max(0L, sequence - consumed);
+	}
+
+	/**
+	 * Number of entries written to the log file.
+	 *
+	 * @return
+	 */
+	public long getWritten() {
+		return formatter.getWritten();
+	}
+
+	/**
+	 * Writes all the logged entries and stops the writer thread. Entries claimed by request threads after the
+	 * writer thread has processed the last entry are counted as {@link #getDropped() dropped}.
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		LockSupport.unpark(writer);
+		try {
+			writer.join(CLOSE_TIMEOUT_MILLIS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (writer.isAlive()) {
+			LOG.warn("Access log writer didn't finish within {}ms", CLOSE_TIMEOUT_MILLIS);
+			return;
+		}
+		// a request thread may have passed the "closed" check and claimed a sequence after the writer
+		// thread has seen "claimed == next" for the last time. Sealing the sequence prevents further claims
+		// and the entries claimed so far, but not written, are counted as dropped
+		long end = claimed.getAndSet(SEALED);
+		if (end > consumed) {
+			dropped.add(end - consumed);
+		}
+	}
+
+	private void run() {
+		long next = 0L;
+		long lastWrite = System.nanoTime();
+		boolean failing = false;
+		try {
+			while (true) {
+				int processed = 0;
+				try {
+					long now = clock.millis();
+					if (!file.isOpen()) {
+						// previous attempt to open the file failed
+						file.open(now);
+					} else if (file.needsRollover(now)) {
+						if (formatter.getPending() > 0) {
+							formatter.flush();
+						}
+						file.roll(now);
+					}
+					while (processed < capacity && published.get((int) next & mask) == next) {
+						Entry entry = slots[(int) next & mask];
+						try {
+							formatter.format(entry);
+						} finally {
+							entry.clear();
+							consumed = ++next;
+							processed++;
+						}
+					}
+					if (processed == 0 && formatter.getPending() > 0
+							&& (!buffered || closed || System.nanoTime() - lastWrite >= FLUSH_INTERVAL_NANOS)) {
+						formatter.flush();
+						lastWrite = System.nanoTime();
+					}
+					failing = false;
+				} catch (IOException e) {
+					if (!failing) {
+						LOG.warn("Can't write access log {}: {}", file.getFile(), e.getMessage(), e);
+					}
+					failing = true;
+				}
+
+				if (processed > 0) {
+					continue;
+				}
+				if (closed && claimed.get() == next) {
+					break;
+				}
+				writerWaiting = true;
+				if (published.get((int) next & mask) != next) {
+					LockSupport.parkNanos(this, failing ? FLUSH_INTERVAL_NANOS
+							: buffered && formatter.getPending() > 0
+							? Math.max(1L, FLUSH_INTERVAL_NANOS - (System.nanoTime() - lastWrite))
+							: FLUSH_INTERVAL_NANOS);
+				}
+				writerWaiting = false;
+			}
+		} finally {
+			try {
+				file.close();
+			} catch (IOException e) {
+				LOG.warn("Can't close access log {}: {}", file.getFile(), e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Reusable slot of the ring buffer.
+	 */
+	static final class Entry {
+		String remoteAddress;
+		String user;
+		long timestamp;
+		String method;
+		String uri;
+		String query;
+		String protocol;
+		int status;
+		long bytes;
+		String referer;
+		String userAgent;
+
+		private void clear() {
+			remoteAddress = null;
+			user = null;
+			method = null;
+			uri = null;
+			query = null;
+			protocol = null;
+			referer = null;
+			userAgent = null;
+		}
+	}
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.config;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.ops4j.pax.web.service.PaxWebConfig;
+
+/**
+ * <p>Difference between two {@link Configuration configurations} of the same server. Changed properties are
+ * classified into {@link Kind kinds of changes} which can be applied to running server (see
+ * {@link org.ops4j.pax.web.service.spi.ServerController#reconfigure(Configuration, ConfigurationDiff)}) and
+ * properties which require full restart of the server together with all the registered web applications.</p>
+ */
+public final class ConfigurationDiff {
+
+	/**
+	 * Kinds of changes that can be applied to running server.
+	 */
+	public enum Kind {
+		/** Sizing and idle timeout of server thread pool */
+		THREAD_POOL(PaxWebConfig.PID_CFG_SERVER_MAX_THREADS, PaxWebConfig.PID_CFG_SERVER_MIN_THREADS,
+				PaxWebConfig.PID_CFG_SERVER_IDLE_TIMEOUT),
+		/** Adding or removing default connectors (by enabling/disabling them or changing the port/address) */
+		CONNECTORS(PaxWebConfig.PID_CFG_HTTP_ENABLED, PaxWebConfig.PID_CFG_HTTP_PORT,
+				PaxWebConfig.PID_CFG_HTTP_SECURE_ENABLED, PaxWebConfig.PID_CFG_HTTP_PORT_SECURE,
+				PaxWebConfig.PID_CFG_LISTENING_ADDRESSES),
+		/** Idle timeout of the connectors */
+		CONNECTOR_IDLE_TIMEOUT(PaxWebConfig.PID_CFG_CONNECTOR_IDLE_TIMEOUT),
+		/** NCSA request log settings */
+		REQUEST_LOG(PaxWebConfig.PID_CFG_LOG_NCSA_ENABLED, PaxWebConfig.PID_CFG_LOG_NCSA_LOGDIR,
+				PaxWebConfig.PID_CFG_LOG_NCSA_LOGFILE, PaxWebConfig.PID_CFG_LOG_NCSA_LOGFILE_DATE_FORMAT,
+				PaxWebConfig.PID_CFG_LOG_NCSA_APPEND, PaxWebConfig.PID_CFG_LOG_NCSA_RETAINDAYS,
+				PaxWebConfig.PID_CFG_LOG_NCSA_EXTENDED, PaxWebConfig.PID_CFG_LOG_NCSA_LOGTIMEZONE,
+				PaxWebConfig.PID_CFG_LOG_NCSA_BUFFERED),
+		/** Limits of the static content cache */
+		RESOURCE_CACHE(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_CACHE_MAX_ENTRIES,
+				PaxWebConfig.PID_CFG_DEFAULT_SERVLET_CACHE_MAX_ENTRY_SIZE,
+				PaxWebConfig.PID_CFG_DEFAULT_SERVLET_CACHE_MAX_TOTAL_SIZE,
+				PaxWebConfig.PID_CFG_DEFAULT_SERVLET_CACHE_TTL);
+
+		private final Set<String> properties;
+
+		Kind(String... properties) {
+			Set<String> set = new HashSet<>();
+			Collections.addAll(set, properties);
+			this.properties = Collections.unmodifiableSet(set);
+		}
+
+		public Set<String> getProperties() {
+			return properties;
+		}
+
+		/**
+		 * Returns the kind of change of given property or {@code null} if the change requires restart.
+		 *
+		 * @param property
+		 * @return
+		 */
+		public static Kind of(String property) {
+			for (Kind kind : values()) {
+				if (kind.properties.contains(property)) {
+					return kind;
+				}
+			}
+			return null;
+		}
+	}
+
+	/** Properties managed by Configuration Admin or File Install, which don't affect the server */
+	private static final Set<String> IGNORED = Set.of("service.pid", "service.factoryPid",
+			"service.bundleLocation", "felix.fileinstall.filename");
+
+	private final Set<String> changedProperties;
+	private final Set<Kind> hotChanges;
+	private final Set<String> restartRequiredProperties;
+
+	private ConfigurationDiff(Set<String> changedProperties, Set<Kind> hotChanges,
+			Set<String> restartRequiredProperties) {
+		this.changedProperties = Collections.unmodifiableSet(changedProperties);
+		this.hotChanges = Collections.unmodifiableSet(hotChanges);
+		this.restartRequiredProperties = Collections.unmodifiableSet(restartRequiredProperties);
+	}
+
+	/**
+	 * Compares all the source properties of two configurations.
+	 *
+	 * @param previous
+	 * @param next
+	 * @return
+	 */
+	public static ConfigurationDiff between(Configuration previous, Configuration next) {
+		return between(previous.all(), next.all());
+	}
+
+	/**
+	 * Compares two maps of configuration properties.
+	 *
+	 * @param previous
+	 * @param next
+	 * @return
+	 */
+	public static ConfigurationDiff between(Map<String, String> previous, Map<String, String> next) {
+		Set<String> keys = new HashSet<>(previous.keySet());
+		keys.addAll(next.keySet());
+
+		Set<String> changed = new TreeSet<>();
+		Set<Kind> hot = EnumSet.noneOf(Kind.class);
+		Set<String> restart = new TreeSet<>();
+		for (String key : keys) {
+			if (IGNORED.contains(key) || Objects.equals(previous.get(key), next.get(key))) {
+				continue;
+			}
+			changed.add(key);
+			Kind kind = Kind.of(key);
+			if (kind != null) {
+				hot.add(kind);
+			} else {
+				restart.add(key);
+			}
+		}
+
+		return new ConfigurationDiff(changed, hot, restart);
+	}
+
+	/**
+	 * Names of all changed properties
+	 * @return
+	 */
+	public Set<String> getChangedProperties() {
+		return changedProperties;
+	}
+
+	/**
+	 * Kinds of changes that can be applied without restarting the server
+	 * @return
+	 */
+	public Set<Kind> getHotChanges() {
+		return hotChanges;
+	}
+
+	/**
+	 * Names of changed properties which can't be applied without restarting the server
+	 * @return
+	 */
+	public Set<String> getRestartRequiredProperties() {
+		return restartRequiredProperties;
+	}
+
+	public boolean isEmpty() {
+		return changedProperties.isEmpty();
+	}
+
+	public boolean requiresRestart() {
+		return !restartRequiredProperties.isEmpty();
+	}
+
+	public boolean contains(Kind kind) {
+		return hotChanges.contains(kind);
+	}
+
+	@Override
+	public String toString() {
+		return "ConfigurationDiff{hot=" + hotChanges + ", restartRequired=" + restartRequiredProperties + "}";
+	}
+
+}
@@ -66,7 +66,7 @@ public interface LogConfiguration {
 	String getLogNCSATimeZone();
 
 	/**
-	 * Whether NCSA log file access should be buffered (by default it is buffered in Tomcat). Defaults to {@code true}.
+	 * Whether NCSA log file access should be buffered (written at least every second). Defaults to {@code true}.
 	 * @return
 	 */
 	Boolean getLogNCSABuffered();
@@ -58,4 +58,22 @@ public interface ResourceConfiguration {
 	 */
 	Integer maxCacheTTL();
 
+	/**
+	 * Boolean property to enable static content cache shared by resource servlets of all the contexts.
+	 * @return
+	 */
+	boolean sharedCache();
+
+	/**
+	 * Boolean property to keep the content of shared cache in direct buffers.
+	 * @return
+	 */
+	boolean directCacheBuffers();
+
+	/**
+	 * Boolean property to produce gzip variants of compressible resources in shared cache.
+	 * @return
+	 */
+	boolean compression();
+
 }
@@ -144,6 +144,25 @@ public interface ServerConfiguration {
 	 */
 	String getServerThreadNamePrefix();
 
+	/**
+	 * <p>Should the requests be processed using virtual threads? Effective only when running on JDK 21+, otherwise
+	 * the thread pool configured using {@link #getServerMaxThreads()} and {@link #getServerMinThreads()} is used.<ul>
+	 *     <li>Jetty: {@code org.eclipse.jetty.util.thread.QueuedThreadPool#setVirtualThreadsExecutor()}</li>
+	 *     <li>Tomcat: {@code org.apache.catalina.core.StandardVirtualThreadExecutor}</li>
+	 *     <li>Undertow: {@code io.undertow.servlet.api.DeploymentInfo#setExecutor()} (XNIO task pool is still
+	 *     used for non-servlet handlers)</li>
+	 * </ul></p>
+	 * @return
+	 */
+	Boolean isServerVirtualThreads();
+
+	/**
+	 * Should the runtime record {@link org.ops4j.pax.web.service.spi.model.RequestMetrics request statistics}
+	 * for contexts and servlets?
+	 * @return
+	 */
+	Boolean isRequestMetricsEnabled();
+
 	/**
 	 * Should the connector handle {@code X-Forwarded-*} / {@code X-Proxied-*} headers?<ul>
 	 *     <li>Jetty: {@code org.eclipse.jetty.server.ForwardedRequestCustomizer}</li>
@@ -160,6 +179,27 @@ public interface ServerConfiguration {
 	 */
 	Integer getEventDispatcherThreadCount();
 
+	/**
+	 * Internal Pax Web configuration option to specify minimal interval (in milliseconds) between updates
+	 * of {@code service.changecount} property of {@link org.osgi.service.http.runtime.HttpServiceRuntime}.
+	 * @return
+	 */
+	Long getChangeCountInterval();
+
+	/**
+	 * Internal Pax Web configuration option to specify time window (in milliseconds) for group commit of
+	 * asynchronous registrations. Negative value (the default) disables group commit.
+	 * @return
+	 */
+	Long getGroupCommitWindow();
+
+	/**
+	 * Time (in milliseconds) for which requests to a context being restarted are held until the context is
+	 * started again. {@code 0} means that such requests are not held.
+	 * @return
+	 */
+	Long getContextRestartHoldTimeout();
+
 	/**
 	 * Flag that specifies whether stack traces should be visible in error pages.
 	 * @return
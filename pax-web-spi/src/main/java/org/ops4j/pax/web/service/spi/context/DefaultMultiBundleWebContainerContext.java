@@ -17,24 +17,47 @@ package org.ops4j.pax.web.service.spi.context;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.ops4j.pax.web.service.MultiBundleWebContainerContext;
 import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.SynchronousBundleListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Default implementation of {@link MultiBundleWebContainerContext}. Its identity consists <strong>only</strong>
- * of the context's name.
+ * <p>Default implementation of {@link MultiBundleWebContainerContext}. Its identity consists <strong>only</strong>
+ * of the context's name.</p>
+ *
+ * <p>Because each lookup may walk through all the registered bundles, results of {@link #getResource(String)}
+ * and {@link #getResourcePaths(String)} (including negative results) are cached in bounded caches. The caches
+ * are invalidated when the set of registered bundles changes or when any of the bundles is updated or
+ * unresolved (detected using {@link SynchronousBundleListener}), so a cache hit doesn't depend on the number of
+ * bundles. Outside of OSGi (when there's no {@link BundleContext} to register the listener), cached entries
+ * are validated using {@link Bundle#getLastModified()} of all the bundles.</p>
+ *
+ * <p>Cache statistics are available as {@link SharedContextStatisticsMXBean} while there are registered
+ * bundles.</p>
  */
 public final class DefaultMultiBundleWebContainerContext implements MultiBundleWebContainerContext {
 
+	/** Default maximum number of cached lookups (for resources and resource paths separately) */
+	public static final int DEFAULT_CACHE_SIZE = 1024;
+
 	private static final Logger LOG = LoggerFactory.getLogger(DefaultMultiBundleWebContainerContext.class);
 
 	/** Delegate {@link org.ops4j.pax.web.service.WebContainerContext} for behavioral aspects */
@@ -42,8 +65,58 @@ public final class DefaultMultiBundleWebContainerContext implements MultiBundleW
 
 	private final Queue<Bundle> bundles = new ConcurrentLinkedQueue<>();
 
+	/** Incremented when bundles are registered/deregistered or updated - part of the stamp of cached entries */
+	private final AtomicLong generation = new AtomicLong(0L);
+
+	/** Context used to listen for updates of registered bundles - {@code null} outside of OSGi */
+	private final BundleContext listenerContext;
+	private final SynchronousBundleListener listener = this::bundleChanged;
+	/** Whether {@link #listener} is registered, so {@link #generation} reflects updates of the bundles */
+	private volatile boolean listening;
+	/** Whether there are registered bundles - guarded by {@code this} */
+	private boolean active;
+
+	private final SharedContextStatistics statistics = new SharedContextStatistics(this);
+
+	private final int cacheSize;
+	private final Map<String, CachedLookup<URL>> resourceCache = new ConcurrentHashMap<>();
+	private final Map<String, CachedLookup<Set<String>>> resourcePathsCache = new ConcurrentHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
 	public DefaultMultiBundleWebContainerContext(DefaultHttpContext delegate) {
+		this(delegate, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Creates shared context with given size of resource lookup caches
+	 *
+	 * @param delegate
+	 * @param cacheSize maximum number of cached lookups. {@code 0} disables the caching.
+	 */
+	public DefaultMultiBundleWebContainerContext(DefaultHttpContext delegate, int cacheSize) {
+		this(delegate, cacheSize, frameworkContext());
+	}
+
+	/**
+	 * Creates shared context with given size of resource lookup caches, listening for updates of the bundles
+	 * using given {@link BundleContext}.
+	 *
+	 * @param delegate
+	 * @param cacheSize maximum number of cached lookups. {@code 0} disables the caching.
+	 * @param listenerContext context to register {@link SynchronousBundleListener} with. May be {@code null}.
+	 */
+	public DefaultMultiBundleWebContainerContext(DefaultHttpContext delegate, int cacheSize,
+			BundleContext listenerContext) {
 		this.delegate = delegate;
+		this.cacheSize = Math.max(cacheSize, 0);
+		this.listenerContext = listenerContext;
+	}
+
+	private static BundleContext frameworkContext() {
+		Bundle bundle = FrameworkUtil.getBundle(DefaultMultiBundleWebContainerContext.class);
+		return bundle == null ? null : bundle.getBundleContext();
 	}
 
 	@Override
@@ -68,6 +141,10 @@ public final class DefaultMultiBundleWebContainerContext implements MultiBundleW
 
 	@Override
 	public URL getResource(final String name) {
+		return lookup(resourceCache, name, this::findResource);
+	}
+
+	private URL findResource(String name) {
 		for (Bundle bundle : bundles) {
 			URL pathUrl = delegate.getResource(bundle, name);
 			if (pathUrl != null) {
@@ -89,6 +166,12 @@ public final class DefaultMultiBundleWebContainerContext implements MultiBundleW
 	 */
 	@Override
 	public Set<String> getResourcePaths(final String name) {
+		Set<String> paths = lookup(resourcePathsCache, name, this::findResourcePaths);
+		// callers may alter the returned set
+		return paths == null ? null : new LinkedHashSet<>(paths);
+	}
+
+	private Set<String> findResourcePaths(String name) {
 		for (Bundle bundle : bundles) {
 			Set<String> paths = delegate.getResourcePaths(bundle, name);
 			if (paths != null) {
@@ -98,6 +181,119 @@ public final class DefaultMultiBundleWebContainerContext implements MultiBundleW
 		return null;
 	}
 
+	/**
+	 * Returns number of bundles sharing this context.
+	 *
+	 * @return
+	 */
+	public int getBundleCount() {
+		return bundles.size();
+	}
+
+	/**
+	 * Returns number of resource lookups served from the cache (including negative lookups).
+	 *
+	 * @return
+	 */
+	public long getCacheHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns number of resource lookups that had to search the registered bundles.
+	 *
+	 * @return
+	 */
+	public long getCacheMisses() {
+		return misses.sum();
+	}
+
+	private <V> V lookup(Map<String, CachedLookup<V>> cache, String name, Function<String, V> search) {
+		if (cacheSize == 0 || name == null) {
+			return search.apply(name);
+		}
+		long stamp = stamp();
+		CachedLookup<V> cached = cache.get(name);
+		if (cached != null && cached.stamp == stamp) {
+			hits.increment();
+			return cached.value;
+		}
+		misses.increment();
+		V value = search.apply(name);
+		if (cache.size() >= cacheSize) {
+			// simple bound - there's no point in LRU bookkeeping on each request
+			LOG.debug("Clearing resource cache of {}", this);
+			cache.clear();
+		}
+		cache.put(name, new CachedLookup<>(value, stamp));
+		return value;
+	}
+
+	/**
+	 * Stamp of current set of bundles - changed when bundles are (de)registered or any of the bundles is updated.
+	 *
+	 * @return
+	 */
+	private long stamp() {
+		long stamp = generation.get();
+		if (listening) {
+			return stamp;
+		}
+		for (Bundle bundle : bundles) {
+			stamp = 31 * stamp + bundle.getLastModified();
+		}
+		return stamp;
+	}
+
+	private void invalidate() {
+		generation.incrementAndGet();
+		resourceCache.clear();
+		resourcePathsCache.clear();
+	}
+
+	private void bundleChanged(BundleEvent event) {
+		if ((event.getType() == BundleEvent.UPDATED || event.getType() == BundleEvent.UNRESOLVED)
+				&& bundles.contains(event.getBundle())) {
+			LOG.debug("Invalidating resource cache of {} after {} event of {}", this, event.getType(), event.getBundle());
+			invalidate();
+		}
+	}
+
+	/**
+	 * Starts listening for bundle updates and publishes the statistics when first bundle is registered
+	 * and stops when last bundle is deregistered.
+	 */
+	private synchronized void bundlesChanged() {
+		boolean used = !bundles.isEmpty();
+		if (used == active) {
+			return;
+		}
+		active = used;
+		if (active) {
+			statistics.register();
+			if (listenerContext != null) {
+				try {
+					listenerContext.addBundleListener(listener);
+					listening = true;
+					// an update could happen before the listener was added
+					invalidate();
+				} catch (IllegalStateException e) {
+					LOG.debug("Can't listen for bundle updates: {}", e.getMessage());
+				}
+			}
+		} else {
+			statistics.unregister();
+			if (listening) {
+				listening = false;
+				try {
+					listenerContext.removeBundleListener(listener);
+				} catch (IllegalStateException e) {
+					LOG.debug("Can't remove bundle listener: {}", e.getMessage());
+				}
+			}
+		}
+	}
+
 	@Override
 	public String getContextId() {
 		return delegate.getContextId();
@@ -129,6 +325,8 @@ public final class DefaultMultiBundleWebContainerContext implements MultiBundleW
 	public boolean registerBundle(Bundle bundle) {
 		if (!bundles.contains(bundle)) {
 			bundles.add(bundle);
+			invalidate();
+			bundlesChanged();
 			return true;
 		}
 		return false;
@@ -136,7 +334,22 @@ public final class DefaultMultiBundleWebContainerContext implements MultiBundleW
 
 	@Override
 	public boolean deregisterBundle(Bundle bundle) {
-		return bundles.remove(bundle);
+		if (bundles.remove(bundle)) {
+			invalidate();
+			bundlesChanged();
+			return true;
+		}
+		return false;
+	}
+
+	private static final class CachedLookup<V> {
+		private final V value;
+		private final long stamp;
+
+		CachedLookup(V value, long stamp) {
+			this.value = value;
+			this.stamp = stamp;
+		}
 	}
 
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.context;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.ops4j.pax.web.service.spi.util.MXBeanRegistration;
+
+/**
+ * {@link SharedContextStatisticsMXBean} registered in platform {@link MBeanServer} while there are bundles
+ * registered in a {@link DefaultMultiBundleWebContainerContext}.
+ */
+class SharedContextStatistics implements SharedContextStatisticsMXBean {
+
+	static final String OBJECT_NAME_PREFIX = "org.ops4j.pax.web:type=SharedContext,name=";
+
+	private final DefaultMultiBundleWebContainerContext context;
+
+	private MXBeanRegistration registration;
+
+	SharedContextStatistics(DefaultMultiBundleWebContainerContext context) {
+		this.context = context;
+	}
+
+	@Override
+	public int getBundleCount() {
+		return context.getBundleCount();
+	}
+
+	@Override
+	public long getCacheHits() {
+		return context.getCacheHits();
+	}
+
+	@Override
+	public long getCacheMisses() {
+		return context.getCacheMisses();
+	}
+
+	void register() {
+		registration = MXBeanRegistration.register(this, OBJECT_NAME_PREFIX + ObjectName.quote(context.getContextId()));
+	}
+
+	void unregister() {
+		if (registration != null) {
+			registration.unregister();
+			registration = null;
+		}
+	}
+
+}
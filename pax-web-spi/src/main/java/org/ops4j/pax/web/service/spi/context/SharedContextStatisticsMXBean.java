@@ -0,0 +1,46 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.context;
+
+/**
+ * JMX view of resource lookup caches of {@link DefaultMultiBundleWebContainerContext}. Registered as
+ * {@code org.ops4j.pax.web:type=SharedContext,name=<context id>} MXBean while there are bundles registered
+ * in the shared context.
+ */
+public interface SharedContextStatisticsMXBean {
+
+	/**
+	 * Number of bundles sharing the context.
+	 *
+	 * @return
+	 */
+	int getBundleCount();
+
+	/**
+	 * Number of resource lookups served from the cache (including negative lookups).
+	 *
+	 * @return
+	 */
+	long getCacheHits();
+
+	/**
+	 * Number of resource lookups that had to search the registered bundles.
+	 *
+	 * @return
+	 */
+	long getCacheMisses();
+
+}
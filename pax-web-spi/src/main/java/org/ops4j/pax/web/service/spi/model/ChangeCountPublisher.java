@@ -0,0 +1,157 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model;
+
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.http.runtime.HttpServiceRuntime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Maintains {@code service.changecount} property of {@link HttpServiceRuntime} registration.</p>
+ *
+ * <p>The counter itself is incremented immediately, but the (expensive, because it leads to synchronous
+ * {@link org.osgi.framework.ServiceEvent#MODIFIED} delivery) update of the registration properties is coalesced.
+ * At most one update is pending at any time and it's performed by the (single threaded) configuration
+ * {@link Executor}:<ul>
+ *     <li>with zero interval, the update is queued after all the tasks that are already queued, so entire
+ *     <em>batch</em> of registrations ends with single update,</li>
+ *     <li>with positive interval (and {@link ScheduledExecutorService}), the update is delayed, so there's at most
+ *     one update per interval.</li>
+ * </ul></p>
+ *
+ * <p>Published value is never lower than the previously published one and after the last pending update, the
+ * published value is equal to the counter.</p>
+ */
+class ChangeCountPublisher {
+
+	/** SERVICE_CHANGECOUNT is 1.9 OSGi Core addition, so use literal please */
+	static final String SERVICE_CHANGECOUNT = "service.changecount";
+
+	private static final Logger LOG = LoggerFactory.getLogger(ChangeCountPublisher.class);
+
+	private final Executor executor;
+
+	private final AtomicLong changeCount = new AtomicLong(0L);
+
+	/** Whether there's already an update task scheduled */
+	private final AtomicBoolean pending = new AtomicBoolean(false);
+
+	/** Last value set in registration properties - accessed only in configuration thread */
+	private long published = 0L;
+
+	private volatile long intervalMillis = 0L;
+
+	private volatile ServiceRegistration<HttpServiceRuntime> registration;
+
+	ChangeCountPublisher(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Sets the minimal interval between consecutive updates of registration properties. {@code 0} means that
+	 * the update is performed after currently queued configuration tasks.
+	 *
+	 * @param intervalMillis
+	 */
+	void setInterval(long intervalMillis) {
+		this.intervalMillis = Math.max(0L, intervalMillis);
+	}
+
+	void setRegistration(ServiceRegistration<HttpServiceRuntime> registration) {
+		this.registration = registration;
+	}
+
+	/**
+	 * Current (not necessarily published yet) value of the change counter.
+	 * @return
+	 */
+	long get() {
+		return changeCount.get();
+	}
+
+	/**
+	 * Increments the change counter and schedules an update of the registration properties, unless there's
+	 * an update already pending.
+	 */
+	void increment() {
+		changeCount.incrementAndGet();
+		if (registration == null) {
+			// usually during tests
+			return;
+		}
+		if (!pending.compareAndSet(false, true)) {
+			// pending update will publish our value as well
+			return;
+		}
+
+		try {
+			long interval = intervalMillis;
+			if (interval > 0L && executor instanceof ScheduledExecutorService) {
+				((ScheduledExecutorService) executor).schedule(this::publish, interval, TimeUnit.MILLISECONDS);
+			} else {
+				executor.execute(this::publish);
+			}
+		} catch (RejectedExecutionException e) {
+			// configuration executor is stopped
+			pending.set(false);
+		}
+	}
+
+	/**
+	 * Pushes current value of the counter into registration properties.
+	 */
+	private void publish() {
+		// clear the flag first - increments after this point will schedule new update
+		pending.set(false);
+
+		long current = changeCount.get();
+		if (current <= published) {
+			return;
+		}
+		ServiceRegistration<HttpServiceRuntime> reg = registration;
+		try {
+			ServiceReference<HttpServiceRuntime> ref = reg == null ? null : reg.getReference();
+			if (ref == null) {
+				return;
+			}
+			String[] props = ref.getPropertyKeys();
+			Dictionary<String, Object> newProps = new Hashtable<>();
+			for (String key : props) {
+				newProps.put(key, ref.getProperty(key));
+			}
+			newProps.put(SERVICE_CHANGECOUNT, current);
+			// update the registration properties
+			reg.setProperties(newProps);
+			published = current;
+		} catch (IllegalStateException e) {
+			LOG.debug("Problem publishing the change counter: {}", e.getMessage());
+		} catch (Exception e) {
+			LOG.warn("Problem publishing the change counter: {}", e.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import org.ops4j.pax.web.service.spi.model.elements.ElementModel;
+
+/**
+ * <p>Ranking-ordered set of <em>disabled</em> {@link ElementModel element models} which additionally maintains
+ * reverse index from context path and <em>conflict key</em> (servlet name, URL pattern, filter name, error page
+ * code, ...) to the disabled models that may be blocked on given key in given context.</p>
+ *
+ * <p>Disabled model may be enabled again only if some enabled model that shares a conflict key with it is removed
+ * or disabled in one of its contexts, so with this index, {@link ServerModel} can review only the disabled models
+ * affected by given registration change instead of all the disabled models.</p>
+ *
+ * <p>Context paths and keys of given model are remembered when the model is added, so the index stays consistent
+ * even if the associated {@link OsgiContextModel context models} of the element change later.</p>
+ *
+ * @param <E>
+ */
+class DisabledElementModels<E extends ElementModel<?, ?>> extends AbstractSet<E> {
+
+	private final Set<E> models = new TreeSet<>();
+
+	private final Function<E, Collection<String>> conflictKeys;
+
+	/** Reverse index: context path -&gt; conflict key -&gt; disabled models */
+	private final Map<String, Map<String, Set<E>>> index = new HashMap<>();
+	private final Map<E, Set<String>> contextsByModel = new HashMap<>();
+	private final Map<E, Collection<String>> keysByModel = new HashMap<>();
+
+	/**
+	 * Creates the set with a function that returns the keys (within single context) on which given model may
+	 * conflict with other models.
+	 *
+	 * @param conflictKeys
+	 */
+	DisabledElementModels(Function<E, Collection<String>> conflictKeys) {
+		this.conflictKeys = conflictKeys;
+	}
+
+	@Override
+	public boolean add(E model) {
+		if (!models.add(model)) {
+			return false;
+		}
+		Set<String> paths = contextPaths(model);
+		Collection<String> keys = conflictKeys.apply(model);
+		contextsByModel.put(model, paths);
+		keysByModel.put(model, keys);
+		for (String path : paths) {
+			Map<String, Set<E>> byKey = index.computeIfAbsent(path, p -> new HashMap<>());
+			for (String key : keys) {
+				byKey.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(model);
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean remove(Object model) {
+		if (!models.remove(model)) {
+			return false;
+		}
+		unindex(model);
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object model) {
+		return models.contains(model);
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		Iterator<E> it = models.iterator();
+		return new Iterator<E>() {
+			private E current;
+
+			@Override
+			public boolean hasNext() {
+				return it.hasNext();
+			}
+
+			@Override
+			public E next() {
+				current = it.next();
+				return current;
+			}
+
+			@Override
+			public void remove() {
+				it.remove();
+				unindex(current);
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return models.size();
+	}
+
+	/**
+	 * Collects disabled models that may have been blocked by given (enabled) model, which is being removed
+	 * or disabled - these are the models sharing any conflict key with given model in any of its contexts.
+	 *
+	 * @param model
+	 * @param target
+	 */
+	void collectBlockedBy(E model, Collection<E> target) {
+		if (index.isEmpty()) {
+			return;
+		}
+		Collection<String> keys = conflictKeys.apply(model);
+		for (String path : contextPaths(model)) {
+			Map<String, Set<E>> byKey = index.get(path);
+			if (byKey == null) {
+				continue;
+			}
+			for (String key : keys) {
+				Set<E> blocked = byKey.get(key);
+				if (blocked != null) {
+					target.addAll(blocked);
+				}
+			}
+		}
+	}
+
+	private Set<String> contextPaths(E model) {
+		Set<String> paths = new LinkedHashSet<>();
+		for (OsgiContextModel ocm : model.getContextModels()) {
+			paths.add(ocm.getContextPath());
+		}
+		return paths;
+	}
+
+	private void unindex(Object model) {
+		Set<String> paths = contextsByModel.remove(model);
+		Collection<String> keys = keysByModel.remove(model);
+		if (paths == null || keys == null) {
+			return;
+		}
+		for (String path : paths) {
+			Map<String, Set<E>> byKey = index.get(path);
+			if (byKey == null) {
+				continue;
+			}
+			for (String key : keys) {
+				Set<E> blocked = byKey.get(key);
+				if (blocked != null) {
+					blocked.remove(model);
+					if (blocked.isEmpty()) {
+						byKey.remove(key);
+					}
+				}
+			}
+			if (byKey.isEmpty()) {
+				index.remove(path);
+			}
+		}
+	}
+
+}
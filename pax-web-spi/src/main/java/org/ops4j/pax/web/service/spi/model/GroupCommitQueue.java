@@ -0,0 +1,215 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.servlet.ServletException;
+
+import org.ops4j.pax.web.service.spi.ServerController;
+import org.osgi.service.http.NamespaceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Queue of {@link ModelRegistrationTask registration tasks} which are run by the (single threaded) configuration
+ * {@link Executor} in <em>groups</em>. Instead of scheduling each task separately, the tasks are collected and
+ * a single executor task runs all of them (including these added while the group is being processed). The
+ * {@link ServerController} is notified about the beginning and the end of the group, so it can defer (re)starting
+ * of the contexts until the end of the group - each affected context is restarted at most once.</p>
+ *
+ * <p>Asynchronous tasks are the main use case (Whiteboard registrations). A synchronous task is run in the group
+ * as well (to preserve the order of registrations), but the group is closed right after such task, so the caller
+ * sees the contexts started when it gets the result.</p>
+ */
+class GroupCommitQueue {
+
+	private static final Logger LOG = LoggerFactory.getLogger(GroupCommitQueue.class);
+
+	private final Executor executor;
+
+	private final Queue<Entry<?>> queue = new ConcurrentLinkedQueue<>();
+
+	/** Whether there's an executor task scheduled to process the queue */
+	private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+	/** Negative value disables group commit, {@code 0} means "all already queued tasks" */
+	private volatile long windowMillis = -1L;
+
+	private volatile ServerController controller;
+
+	/** Whether the group is open - accessed only in configuration thread */
+	private boolean groupOpen = false;
+
+	GroupCommitQueue(Executor executor) {
+		this.executor = executor;
+	}
+
+	void configure(ServerController controller, long windowMillis) {
+		this.controller = controller;
+		this.windowMillis = windowMillis;
+	}
+
+	boolean isEnabled() {
+		return windowMillis >= 0L;
+	}
+
+	/**
+	 * Adds a task to the queue and ensures it'll be processed by the configuration executor.
+	 *
+	 * @param task
+	 * @param asynchronous
+	 * @param <T>
+	 * @return {@link CompletableFuture} completed after the task is run and the group is closed - only for
+	 *         synchronous tasks.
+	 */
+	<T> CompletableFuture<T> submit(ModelRegistrationTask<T> task, boolean asynchronous) {
+		Entry<T> entry = new Entry<>(task, asynchronous ? null : new CompletableFuture<>());
+		queue.add(entry);
+
+		try {
+			if (!asynchronous) {
+				// the caller waits, so we don't want to wait for the end of the window
+				executor.execute(this::commit);
+			} else if (scheduled.compareAndSet(false, true)) {
+				long window = windowMillis;
+				if (window > 0L && executor instanceof ScheduledExecutorService) {
+					((ScheduledExecutorService) executor).schedule(this::commit, window, TimeUnit.MILLISECONDS);
+				} else {
+					executor.execute(this::commit);
+				}
+			}
+		} catch (RejectedExecutionException e) {
+			queue.remove(entry);
+			scheduled.set(false);
+			throw e;
+		}
+
+		return entry.future;
+	}
+
+	/**
+	 * Runs the task within a group. Must be called in configuration thread. If the group is already open
+	 * the task is simply invoked.
+	 *
+	 * @param task
+	 * @param <T>
+	 * @return
+	 */
+	<T> T runInGroup(ModelRegistrationTask<T> task) throws ServletException, NamespaceException {
+		if (groupOpen) {
+			return task.run();
+		}
+		begin();
+		try {
+			return task.run();
+		} finally {
+			end();
+		}
+	}
+
+	/**
+	 * Processes all the queued tasks (also these added during processing) - run in configuration thread.
+	 */
+	private void commit() {
+		scheduled.set(false);
+
+		Entry<?> entry;
+		while ((entry = queue.poll()) != null) {
+			begin();
+			entry.run();
+			if (entry.future != null) {
+				// synchronous caller should see the effects of entire group
+				end();
+			}
+			entry.complete();
+		}
+		end();
+	}
+
+	private void begin() {
+		if (groupOpen) {
+			return;
+		}
+		groupOpen = true;
+		ServerController c = controller;
+		if (c != null) {
+			try {
+				c.beginGroup();
+			} catch (RuntimeException e) {
+				LOG.warn("Problem starting registration group: {}", e.getMessage(), e);
+			}
+		}
+	}
+
+	private void end() {
+		if (!groupOpen) {
+			return;
+		}
+		groupOpen = false;
+		ServerController c = controller;
+		if (c != null) {
+			try {
+				c.endGroup();
+			} catch (RuntimeException e) {
+				LOG.warn("Problem ending registration group: {}", e.getMessage(), e);
+			}
+		}
+	}
+
+	private static class Entry<T> {
+		private final ModelRegistrationTask<T> task;
+		private final CompletableFuture<T> future;
+		private T result;
+		private Throwable failure;
+
+		Entry(ModelRegistrationTask<T> task, CompletableFuture<T> future) {
+			this.task = task;
+			this.future = future;
+		}
+
+		void run() {
+			try {
+				result = task.run();
+			} catch (ServletException e) {
+				failure = new ModelRegistrationException(e);
+			} catch (NamespaceException e) {
+				failure = new ModelRegistrationException(e);
+			} catch (Throwable e) {
+				failure = e;
+			}
+		}
+
+		void complete() {
+			if (future == null) {
+				if (failure != null) {
+					LOG.debug("Asynchronous registration task failed: {}", failure.getMessage(), failure);
+				}
+			} else if (failure != null) {
+				future.completeExceptionally(failure);
+			} else {
+				future.complete(result);
+			}
+		}
+	}
+
+}
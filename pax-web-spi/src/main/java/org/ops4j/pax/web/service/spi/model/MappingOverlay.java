@@ -0,0 +1,68 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>Temporary, copy-on-write view of a live mapping (like {@link ServletContextModel#getServletNameMapping()})
+ * used by {@link ServerModel} when calculating the effects of registration change <em>before</em> the change
+ * is applied to the model.</p>
+ *
+ * <p>Nothing is copied when the overlay is created - only the entries changed during the calculation are kept,
+ * so the cost of the snapshot is proportional to the number of affected entries and not to the size of the
+ * live mapping.</p>
+ *
+ * @param <K>
+ * @param <V>
+ */
+class MappingOverlay<K, V> {
+
+	private final Map<K, V> live;
+
+	/** Changed entries. {@code null} value marks removed entry */
+	private final Map<K, V> changes = new HashMap<>();
+
+	MappingOverlay(Map<K, V> live) {
+		this.live = live;
+	}
+
+	public V get(K key) {
+		if (changes.containsKey(key)) {
+			return changes.get(key);
+		}
+		return live.get(key);
+	}
+
+	public void put(K key, V value) {
+		changes.put(key, value);
+	}
+
+	/**
+	 * Removes the entry only if it's currently mapped to given value - like {@link Map#remove(Object, Object)}.
+	 *
+	 * @param key
+	 * @param value
+	 */
+	public void remove(K key, V value) {
+		if (value != null && Objects.equals(get(key), value)) {
+			changes.put(key, null);
+		}
+	}
+
+}
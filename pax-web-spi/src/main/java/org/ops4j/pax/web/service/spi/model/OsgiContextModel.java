@@ -326,6 +326,9 @@ public final class OsgiContextModel extends Identity implements Comparable<OsgiC
 	/** If there's any failure during the lifetime of the context, we can provide a failure DTO information here. */
 	private int dtoFailureCode = -1;
 
+	/** Statistics of requests handled within this context */
+	private final RequestMetrics requestMetrics = new RequestMetrics();
+
 	/** Such model is shared, if underlying {@link WebContainerContext} is shared */
 	private Boolean shared = true;
 
@@ -678,6 +681,10 @@ public final class OsgiContextModel extends Identity implements Comparable<OsgiC
 		return dtoFailureCode;
 	}
 
+	public RequestMetrics getRequestMetrics() {
+		return requestMetrics;
+	}
+
 // --- methods that are used directly from web.xml (or fragment) parsing and from WebContainer methods
 	//     related to JSP configuration
 
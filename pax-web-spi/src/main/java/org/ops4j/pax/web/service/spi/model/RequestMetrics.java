@@ -0,0 +1,290 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+
+/**
+ * <p>Lock-free request statistics of single {@link OsgiContextModel} or {@link ServletModel}, updated by the
+ * runtimes for each request handled by the target (if enabled using
+ * {@link org.ops4j.pax.web.service.PaxWebConfig#PID_CFG_REQUEST_METRICS}).</p>
+ *
+ * <p>Latencies are recorded in a histogram with logarithmic buckets (in microseconds) split into 4 linear
+ * sub-buckets, so (like in HdrHistogram with 2 significant bits) the relative error of reported percentiles is
+ * below 25% and recording is just a single atomic increment.</p>
+ */
+public class RequestMetrics {
+
+	/** Number of bits for linear sub-buckets within each power of 2 */
+	private static final int SUB_BUCKET_BITS = 2;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/** Latencies above 2^32 microseconds (~71 minutes) are recorded in the last bucket */
+	private static final int MAX_EXPONENT = 32;
+
+	static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder inFlight = new LongAdder();
+	/** Counts of 1xx, 2xx, 3xx, 4xx and 5xx responses */
+	private final LongAdder[] statusClasses = new LongAdder[5];
+	private final LongAdder totalNanos = new LongAdder();
+	private final AtomicLong maxNanos = new AtomicLong();
+	private final AtomicLongArray latencyBuckets = new AtomicLongArray(BUCKETS);
+
+	public RequestMetrics() {
+		for (int i = 0; i < statusClasses.length; i++) {
+			statusClasses[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Marks the start of a request handled by given context and servlet.
+	 *
+	 * @param contextMetrics may be {@code null}
+	 * @param servletMetrics may be {@code null}
+	 * @return the start timestamp to pass when the request is completed
+	 */
+	public static long requestStarted(RequestMetrics contextMetrics, RequestMetrics servletMetrics) {
+		if (contextMetrics != null) {
+			contextMetrics.inFlight.increment();
+		}
+		if (servletMetrics != null) {
+			servletMetrics.inFlight.increment();
+		}
+		return System.nanoTime();
+	}
+
+	/**
+	 * Records completed request with given response status.
+	 *
+	 * @param start
+	 * @param status
+	 * @param contextMetrics may be {@code null}
+	 * @param servletMetrics may be {@code null}
+	 */
+	public static void requestCompleted(long start, int status, RequestMetrics contextMetrics,
+			RequestMetrics servletMetrics) {
+		long latency = System.nanoTime() - start;
+		if (contextMetrics != null) {
+			contextMetrics.record(latency, status);
+		}
+		if (servletMetrics != null) {
+			servletMetrics.record(latency, status);
+		}
+	}
+
+	/**
+	 * Records a request after its initial dispatch returned to the container. If the request was put into
+	 * asynchronous mode, it's recorded when the asynchronous processing completes.
+	 *
+	 * @param request
+	 * @param response
+	 * @param start
+	 * @param failed whether the dispatch ended with an exception (to be turned into 500 response)
+	 * @param contextMetrics may be {@code null}
+	 * @param servletMetrics may be {@code null}
+	 */
+	public static void requestCompleted(HttpServletRequest request, HttpServletResponse response, long start,
+			boolean failed, RequestMetrics contextMetrics, RequestMetrics servletMetrics) {
+		if (!failed && request.isAsyncStarted()) {
+			try {
+				request.getAsyncContext().addListener(new CompletionListener(start, contextMetrics, servletMetrics));
+				return;
+			} catch (IllegalStateException ignored) {
+				// completed in the meantime
+			}
+		}
+		int status = response.getStatus();
+		if (failed && status < 500) {
+			status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+		}
+		requestCompleted(start, status, contextMetrics, servletMetrics);
+	}
+
+	/**
+	 * Records completed request with given latency and status.
+	 *
+	 * @param latencyNanos
+	 * @param status
+	 */
+	void record(long latencyNanos, int status) {
+		inFlight.decrement();
+		requests.increment();
+		int statusClass = status / 100 - 1;
+		if (statusClass >= 0 && statusClass < statusClasses.length) {
+			statusClasses[statusClass].increment();
+		}
+		totalNanos.add(latencyNanos);
+		if (latencyNanos > maxNanos.get()) {
+			maxNanos.accumulateAndGet(latencyNanos, Math::max);
+		}
+		latencyBuckets.incrementAndGet(bucket(TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+	}
+
+	/**
+	 * Resets all the statistics except the number of requests being currently processed.
+	 */
+	public void reset() {
+		requests.reset();
+		for (LongAdder statusClass : statusClasses) {
+			statusClass.reset();
+		}
+		totalNanos.reset();
+		maxNanos.set(0L);
+		for (int i = 0; i < BUCKETS; i++) {
+			latencyBuckets.set(i, 0L);
+		}
+	}
+
+	public long getRequests() {
+		return requests.sum();
+	}
+
+	public long getInFlight() {
+		return inFlight.sum();
+	}
+
+	/**
+	 * Returns number of responses with given status class
+	 *
+	 * @param statusClass {@code 1} for 1xx, ..., {@code 5} for 5xx
+	 * @return
+	 */
+	public long getStatusCount(int statusClass) {
+		return statusClass < 1 || statusClass > statusClasses.length ? 0L : statusClasses[statusClass - 1].sum();
+	}
+
+	public long getAverageNanos() {
+		long count = requests.sum();
+		return count == 0L ? 0L : totalNanos.sum() / count;
+	}
+
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	/**
+	 * Returns the latency (in microseconds) below or at which given percentage of the recorded requests were
+	 * completed.
+	 *
+	 * @param percentile value between {@code 0.0} and {@code 100.0}
+	 * @return
+	 */
+	public long getPercentileMicros(double percentile) {
+		long[] counts = new long[BUCKETS];
+		long total = 0L;
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = latencyBuckets.get(i);
+			total += counts[i];
+		}
+		if (total == 0L) {
+			return 0L;
+		}
+		long rank = Math.max(1L, (long) Math.ceil(total * Math.min(percentile, 100.0d) / 100.0d));
+		long max = TimeUnit.NANOSECONDS.toMicros(maxNanos.get());
+		long cumulative = 0L;
+		for (int i = 0; i < BUCKETS; i++) {
+			cumulative += counts[i];
+			if (cumulative >= rank) {
+				return Math.min(highestEquivalentValue(i), max);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Index of the histogram bucket for given latency.
+	 *
+	 * @param micros
+	 * @return
+	 */
+	static int bucket(long micros) {
+		if (micros < SUB_BUCKETS) {
+			return (int) Math.max(micros, 0L);
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(micros);
+		if (exponent >= MAX_EXPONENT) {
+			return BUCKETS - 1;
+		}
+		int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * The highest latency (in microseconds) recorded in given bucket.
+	 *
+	 * @param bucket
+	 * @return
+	 */
+	static long highestEquivalentValue(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int exponent = (bucket - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+		int subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+		return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1L;
+	}
+
+	/**
+	 * {@link AsyncListener} recording asynchronous requests when they're completed.
+	 */
+	private static final class CompletionListener implements AsyncListener {
+
+		private final long start;
+		private final RequestMetrics contextMetrics;
+		private final RequestMetrics servletMetrics;
+
+		CompletionListener(long start, RequestMetrics contextMetrics, RequestMetrics servletMetrics) {
+			this.start = start;
+			this.contextMetrics = contextMetrics;
+			this.servletMetrics = servletMetrics;
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			ServletResponse response = event.getSuppliedResponse();
+			int status = response instanceof HttpServletResponse ? ((HttpServletResponse) response).getStatus()
+					: HttpServletResponse.SC_OK;
+			requestCompleted(start, status, contextMetrics, servletMetrics);
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+			// AsyncContext was re-initialized (startAsync() called again), so we have to register again
+			event.getAsyncContext().addListener(this);
+		}
+	}
+
+}
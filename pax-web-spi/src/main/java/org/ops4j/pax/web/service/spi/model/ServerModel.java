@@ -15,13 +15,15 @@
  */
 package org.ops4j.pax.web.service.spi.model;
 
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Dictionary;
 import java.util.EventListener;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -45,6 +47,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.servlet.Filter;
@@ -72,6 +75,7 @@ import org.ops4j.pax.web.service.spi.model.elements.WebSocketModel;
 import org.ops4j.pax.web.service.spi.model.elements.WelcomeFileModel;
 import org.ops4j.pax.web.service.spi.model.events.WebContextEventListener;
 import org.ops4j.pax.web.service.spi.model.events.WebElementEventData;
+import org.ops4j.pax.web.service.spi.model.info.RequestStatisticsInfo;
 import org.ops4j.pax.web.service.spi.model.info.ServletInfo;
 import org.ops4j.pax.web.service.spi.model.info.WebApplicationInfo;
 import org.ops4j.pax.web.service.spi.model.views.ReportViewPlugin;
@@ -360,8 +364,15 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 	 *
 	 * <p>This set is sorted by ranking, so when registration changes, disabled models are searched in proper
 	 * order for one to be activated (for alias or name or patterns).</p>
+	 *
+	 * <p>The set is indexed by servlet name and URL patterns, so only the models that share a name or a pattern
+	 * with removed/disabled model are reviewed.</p>
 	 */
-	private final Set<ServletModel> disabledServletModels = new TreeSet<>();
+	private final DisabledElementModels<ServletModel> disabledServletModels = new DisabledElementModels<>(sm -> {
+		List<String> keys = new ArrayList<>(Arrays.asList(sm.getUrlPatterns()));
+		keys.add(sm.getName());
+		return keys;
+	});
 
 	/**
 	 * <p>Set of all registered filters. Used to block registration of the same filter more than once.
@@ -377,15 +388,17 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 	 * <p>When new filter is registered with the same name it may either be registered as <em>disabled</em> or
 	 * may lead to disabling other existing filters..</p>
 	 *
-	 * <p>This set is reviewed every time existing registration is changed.</p>
+	 * <p>This set is reviewed (by filter name) every time existing registration is changed.</p>
 	 */
-	private final Set<FilterModel> disabledFilterModels = new TreeSet<>();
+	private final DisabledElementModels<FilterModel> disabledFilterModels
+			= new DisabledElementModels<>(fm -> Collections.singletonList(fm.getName()));
 
 	/**
 	 * {@link ErrorPageModel} instances may be disabled if different model is registered for overlapping
 	 * error codes / exception class names with higher service ranking.
 	 */
-	private final Set<ErrorPageModel> disabledErrorPageModels = new TreeSet<>();
+	private final DisabledElementModels<ErrorPageModel> disabledErrorPageModels
+			= new DisabledElementModels<>(epm -> Arrays.asList(epm.getErrorPages()));
 
 	/**
 	 * Keep event listeners to check for conflicts.
@@ -431,14 +444,32 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 	private ServiceRegistration<HttpServiceRuntime> httpServiceRuntimeReg;
 
 	/**
-	 * {@code service.changecount} for {@link HttpServiceRuntime} {@link ServiceRegistration}.
+	 * {@code service.changecount} for {@link HttpServiceRuntime} {@link ServiceRegistration}. Updates of
+	 * the registration properties are coalesced.
 	 */
-	private final AtomicLong changeCount = new AtomicLong(0L);
+	private final ChangeCountPublisher changeCount;
+
+	/**
+	 * Queue used to run registration tasks in groups, so the runtime can restart affected contexts once per group.
+	 */
+	private final GroupCommitQueue groupCommit;
 
 	private final List<ReportViewPlugin> plugins = new CopyOnWriteArrayList<>();
 
 	private final AtomicBoolean stopping = new AtomicBoolean(false);
 
+	/**
+	 * Number of tasks run in configuration thread. Used to check whether {@link #runtimeSnapshot} reflects
+	 * current state of the model.
+	 */
+	private final AtomicLong modelVersion = new AtomicLong();
+
+	/**
+	 * The most recent snapshot of the model used to create {@link RuntimeDTO} and {@link RequestInfoDTO}
+	 * without scheduling tasks in configuration thread.
+	 */
+	private volatile RuntimeSnapshot runtimeSnapshot;
+
 	/**
 	 * Creates new global model of all web applications with {@link Executor} to be used for configuration and
 	 * registration tasks.
@@ -456,6 +487,8 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 	 */
 	public ServerModel(Executor executor, long threadId) {
 		this.executor = executor;
+		this.changeCount = new ChangeCountPublisher(executor);
+		this.groupCommit = new GroupCommitQueue(executor);
 		registrationThreadId = threadId;
 	}
 
@@ -522,29 +555,36 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 	 * @throws ServletException
 	 * @throws NamespaceException
 	 */
-	public <T> T run(ModelRegistrationTask<T> task, boolean asynchronous) throws ServletException, NamespaceException {
+	public <T> T run(ModelRegistrationTask<T> modelTask, boolean asynchronous) throws ServletException, NamespaceException {
 		// in theory, a task doesn't have to change the model, but we accept false positives
 		// that's the only required place to increment the change count thanks to single-threaded config pool ;)
 		incrementChangeCounter();
+		final ModelRegistrationTask<T> task = versioned(modelTask);
 
 		if (!asynchronous && Thread.currentThread().getId() == registrationThreadId) {
 			// we can run immediately
 			return task.run();
 		}
 
-		final Throwable originalTrace = new Throwable();
+		// the trace is useful only when waiting for the result
+		final Throwable originalTrace = asynchronous ? null : new Throwable();
 
 		try {
 			try {
-				CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
-					try {
-						return task.run();
-					} catch (ServletException e) {
-						throw new ModelRegistrationException(e);
-					} catch (NamespaceException e) {
-						throw new ModelRegistrationException(e);
-					}
-				}, executor);
+				CompletableFuture<T> future;
+				if (groupCommit.isEnabled()) {
+					future = groupCommit.submit(task, asynchronous);
+				} else {
+					future = CompletableFuture.supplyAsync(() -> {
+						try {
+							return task.run();
+						} catch (ServletException e) {
+							throw new ModelRegistrationException(e);
+						} catch (NamespaceException e) {
+							throw new ModelRegistrationException(e);
+						}
+					}, executor);
+				}
 				if (asynchronous) {
 					return null;
 				} else {
@@ -566,7 +606,9 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 		} catch (RejectedExecutionException e) {
 			return null;
 		} catch (RuntimeException e) {
-			e.addSuppressed(originalTrace);
+			if (originalTrace != null) {
+				e.addSuppressed(originalTrace);
+			}
 			throw e;
 		}
 
@@ -586,8 +628,9 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 	 * @throws ServletException
 	 * @throws NamespaceException
 	 */
-	public <T> void runAsync(ModelRegistrationTask<T> task) {
+	public <T> void runAsync(ModelRegistrationTask<T> modelTask) {
 		incrementChangeCounter();
+		final ModelRegistrationTask<T> task = versioned(modelTask);
 
 		if (Thread.currentThread().getId() == registrationThreadId) {
 			// we never try to block the current thread, so we ensure that the task is rescheduled to be invoked
@@ -595,28 +638,89 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 			// what's more, we expect the thread to be the exactly the single thread from paxweb-config pool
 		}
 
-		final Throwable originalTrace = new Throwable();
+		if (groupCommit.isEnabled()) {
+			groupCommit.submit(task, true);
+			return;
+		}
 
-		try {
-			CompletableFuture.supplyAsync(() -> {
-				try {
-					return task.run();
-				} catch (ServletException e) {
-					throw new ModelRegistrationException(e);
-				} catch (NamespaceException e) {
-					throw new ModelRegistrationException(e);
-				}
-			}, executor);
-		} catch (RuntimeException e) {
-			e.addSuppressed(originalTrace);
-			throw e;
+		CompletableFuture.supplyAsync(() -> {
+			try {
+				return task.run();
+			} catch (ServletException e) {
+				throw new ModelRegistrationException(e);
+			} catch (NamespaceException e) {
+				throw new ModelRegistrationException(e);
+			}
+		}, executor);
+	}
+
+	/**
+	 * <p>Configures <em>group commit</em> of registration tasks. When enabled, tasks passed to
+	 * {@link #run(ModelRegistrationTask, boolean)} and {@link #runAsync(ModelRegistrationTask)} are not scheduled
+	 * separately - all tasks queued before the configuration thread gets to them (optionally waiting given time
+	 * window) are run one after another within a group marked by {@link ServerController#beginGroup()} and
+	 * {@link ServerController#endGroup()}.</p>
+	 *
+	 * @param controller {@link ServerController} to notify about groups. May be {@code null}
+	 * @param windowMillis time to wait for more asynchronous tasks after the first one is queued. {@code 0} means
+	 *        grouping only the tasks which are already queued and negative value disables group commit.
+	 */
+	public void configureGroupCommit(ServerController controller, long windowMillis) {
+		groupCommit.configure(controller, windowMillis);
+	}
+
+	/**
+	 * Runs passed task within single registration group, so the runtime may defer (re)starting of the
+	 * contexts until the entire task is performed. This method has to be called in configuration thread.
+	 *
+	 * @param task
+	 * @param <T>
+	 * @return
+	 * @throws ServletException
+	 * @throws NamespaceException
+	 */
+	public <T> T runInGroup(ModelRegistrationTask<T> task) throws ServletException, NamespaceException {
+		if (Thread.currentThread().getId() != registrationThreadId) {
+			throw new IllegalStateException("Registration group can be run only in configuration thread");
 		}
+		return groupCommit.runInGroup(task);
+	}
+
+	/**
+	 * Runs passed task in configuration thread (waiting for the result) within single registration group.
+	 * Unlike {@link #runInGroup(ModelRegistrationTask)}, this method may be called in any thread.
+	 *
+	 * @param task
+	 * @param <T>
+	 * @return
+	 */
+	public <T> T runSilentlyInGroup(ModelRegistrationTask<T> task) {
+		return runSilently(() -> groupCommit.runInGroup(task), false);
 	}
 
 	public void setStopping() {
 		this.stopping.set(true);
 	}
 
+	/**
+	 * Wraps a task, so {@link #modelVersion} is incremented after the task is run. Unlike the change count,
+	 * the version can't be incremented when the task is only scheduled, because a snapshot created in the
+	 * meantime would be marked with a version of the model it doesn't reflect.
+	 *
+	 * @param task
+	 * @param <T>
+	 * @return
+	 */
+	private <T> ModelRegistrationTask<T> versioned(ModelRegistrationTask<T> task) {
+		return () -> {
+			try {
+				return task.run();
+			} finally {
+				modelVersion.incrementAndGet();
+			}
+		};
+	}
+
 	/**
 	 * Increment internal change counter and propagate this information to {@link ServiceRegistration} for
 	 * {@link HttpServiceRuntime} and {@link ServiceReferenceDTO}
@@ -626,25 +730,18 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 			return;
 		}
 
-		changeCount.incrementAndGet();
-		try {
-			if (httpServiceRuntimeReg == null || httpServiceRuntimeReg.getReference() == null) {
-				// usually during tests
-				return;
-			}
-			String[] props = httpServiceRuntimeReg.getReference().getPropertyKeys();
-			Dictionary<String, Object> newProps = new Hashtable<>();
-			for (String key : props) {
-				newProps.put(key, httpServiceRuntimeReg.getReference().getProperty(key));
-			}
-			newProps.put("service.changecount", changeCount.get());
-			// update the registration properties
-			httpServiceRuntimeReg.setProperties(newProps);
-		} catch (IllegalStateException e) {
-			LOG.debug("Problem incrementing the change counter: {}", e.getMessage());
-		} catch (Exception e) {
-			LOG.warn("Problem incrementing the change counter: {}", e.getMessage());
-		}
+		changeCount.increment();
+	}
+
+	/**
+	 * Sets the minimal interval (in milliseconds) between consecutive updates of {@code service.changecount}
+	 * property of {@link HttpServiceRuntime} registration. With {@code 0}, single update is performed after
+	 * all the already queued configuration tasks.
+	 *
+	 * @param intervalMillis
+	 */
+	public void setChangeCountInterval(long intervalMillis) {
+		changeCount.setInterval(intervalMillis);
 	}
 
 	public <T> T runSilently(ModelRegistrationTask<T> task, boolean asynchronous) {
@@ -1558,13 +1655,15 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 		// each disabled servletModel may be a reason to enable other models. Currently disabled
 		// ServerModels (+ our new model) may be enabled ONLY if they can be enabled in ALL associated contexts
 
-		Map<String, Map<String, ServletModel>> currentlyEnabledByName = new HashMap<>();
-		Map<String, Map<String, ServletModel>> currentlyEnabledByPattern = new HashMap<>();
+		Map<String, MappingOverlay<String, ServletModel>> currentlyEnabledByName = new HashMap<>();
+		Map<String, MappingOverlay<String, ServletModel>> currentlyEnabledByPattern = new HashMap<>();
 		Set<ServletModel> currentlyDisabled = new TreeSet<>();
-		prepareServletsSnapshot(currentlyEnabledByName, currentlyEnabledByPattern, currentlyDisabled,
+		Set<ServletModel> reviewed = new HashSet<>();
+		prepareServletsSnapshot(currentlyEnabledByName, currentlyEnabledByPattern, currentlyDisabled, reviewed,
 				model, newlyDisabled);
 
-		reEnableServletModels(currentlyDisabled, currentlyEnabledByName, currentlyEnabledByPattern, model, batch);
+		reEnableServletModels(currentlyDisabled, currentlyEnabledByName, currentlyEnabledByPattern, reviewed,
+				model, batch);
 
 		if (currentlyDisabled.contains(model)) {
 			batch.addDisabledServletModel(model);
@@ -1597,56 +1696,61 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 		});
 		batch.removeServletModels(modelsAndStates);
 
-		Map<String, Map<String, ServletModel>> currentlyEnabledByName = new HashMap<>();
-		Map<String, Map<String, ServletModel>> currentlyEnabledByPattern = new HashMap<>();
+		Map<String, MappingOverlay<String, ServletModel>> currentlyEnabledByName = new HashMap<>();
+		Map<String, MappingOverlay<String, ServletModel>> currentlyEnabledByPattern = new HashMap<>();
 		Set<ServletModel> currentlyDisabled = new TreeSet<>();
-		prepareServletsSnapshot(currentlyEnabledByName, currentlyEnabledByPattern, currentlyDisabled,
+		Set<ServletModel> reviewed = new HashSet<>();
+		prepareServletsSnapshot(currentlyEnabledByName, currentlyEnabledByPattern, currentlyDisabled, reviewed,
 				null, new HashSet<>(models));
 
-		// review all disabled servlet models (in ranking order) to verify if they can be enabled again
-		reEnableServletModels(currentlyDisabled, currentlyEnabledByName, currentlyEnabledByPattern, null, batch);
+		// review affected disabled servlet models (in ranking order) to verify if they can be enabled again
+		reEnableServletModels(currentlyDisabled, currentlyEnabledByName, currentlyEnabledByPattern, reviewed,
+				null, batch);
 	}
 
 	/**
-	 * Preparation for {@link #reEnableServletModels(Set, Map, Map, ServletModel, Batch)} that does
-	 * proper copy of current state of all {@link ServletContextModel}
+	 * Preparation for {@link #reEnableServletModels(Set, Map, Map, Set, ServletModel, Batch)} that prepares
+	 * the snapshot of current state of all {@link ServletContextModel servlet contexts}. The snapshot is made
+	 * of {@link MappingOverlay overlays} over live mappings, so nothing is copied here.
 	 *
 	 * @param currentlyEnabledByName
 	 * @param currentlyEnabledByPattern
-	 * @param currentlyDisabled
+	 * @param currentlyDisabled will be filled only with disabled models that may have been blocked by
+	 *        {@code newlyDisabled} models (and with {@code newlyAdded} model)
+	 * @param reviewed models that should never be (re)added to {@code currentlyDisabled}
 	 * @param newlyAdded prepared snapshot will include newly added model as currentlyDisabled
 	 *        (to enable it potentially)
 	 * @param newlyDisabled prepared snapshot will already have newlyDisabled models removed from snapshot mappings
 	 */
-	private void prepareServletsSnapshot(Map<String, Map<String, ServletModel>> currentlyEnabledByName,
-			Map<String, Map<String, ServletModel>> currentlyEnabledByPattern,
-			Set<ServletModel> currentlyDisabled,
+	private void prepareServletsSnapshot(Map<String, MappingOverlay<String, ServletModel>> currentlyEnabledByName,
+			Map<String, MappingOverlay<String, ServletModel>> currentlyEnabledByPattern,
+			Set<ServletModel> currentlyDisabled, Set<ServletModel> reviewed,
 			ServletModel newlyAdded, Set<ServletModel> newlyDisabled) {
 
-		currentlyDisabled.addAll(disabledServletModels);
-
 		servletContexts.values().forEach(scm -> {
 			String path = scm.getContextPath();
-			// deep copies
-			Map<String, ServletModel> enabledByName = new HashMap<>(scm.getServletNameMapping());
-			Map<String, ServletModel> enabledByPattern = new HashMap<>(scm.getServletUrlPatternMapping());
-			currentlyEnabledByName.put(path, enabledByName);
-			currentlyEnabledByPattern.put(path, enabledByPattern);
+			currentlyEnabledByName.put(path, new MappingOverlay<>(scm.getServletNameMapping()));
+			currentlyEnabledByPattern.put(path, new MappingOverlay<>(scm.getServletUrlPatternMapping()));
+		});
 
-			// newlyDisabled are scheduled for disabling (in batch), so let's remove them from the snapshot
-			if (newlyDisabled != null) {
-				newlyDisabled.forEach(sm -> {
-					getServletContextModels(sm).forEach(scm2 -> {
-						if (scm.equals(scm2)) {
-							enabledByName.remove(sm.getName(), sm);
-							Arrays.stream(sm.getUrlPatterns()).forEach(pattern -> {
-								enabledByPattern.remove(pattern, sm);
-							});
-						}
-					});
-				});
+		// newlyDisabled are scheduled for disabling (in batch), so let's remove them from the snapshot.
+		// Only the disabled models sharing a name or URL pattern with them may be enabled now - other disabled
+		// models are still blocked by the same (enabled) models as before this change
+		if (newlyDisabled != null) {
+			for (ServletModel sm : newlyDisabled) {
+				for (ServletContextModel scm : getServletContextModels(sm)) {
+					String path = scm.getContextPath();
+					currentlyEnabledByName.get(path).remove(sm.getName(), sm);
+					for (String pattern : sm.getUrlPatterns()) {
+						currentlyEnabledByPattern.get(path).remove(pattern, sm);
+					}
+				}
+				disabledServletModels.collectBlockedBy(sm, currentlyDisabled);
 			}
-		});
+			// models being unregistered can't be enabled again
+			reviewed.addAll(newlyDisabled);
+			currentlyDisabled.removeAll(reviewed);
+		}
 
 		// newlyAdded is for now only "offered" to be registered as active, because if new model causes
 		// disabling of existing model, other (disabled) model may be better than the newly registered one
@@ -1667,17 +1771,20 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 	 *        model removed from this collection will be batched for enabling
 	 * @param currentlyEnabledByName temporary state of by-name servlets - may be altered during invocation
 	 * @param currentlyEnabledByPattern temporary state of by-URL-pattern servlets - may be altered during invocation
+	 * @param reviewed models already enabled (or being unregistered) within this review - these are not added
+	 *        to {@code currentlyDisabled} again, when disabling other models makes more models eligible for review
 	 * @param modelToEnable newly added model (could be {@code null}) - needed because when adding new servlet, it
 	 *        is initialy treated as disabled. We have to decide then whether to enable existing model or add
 	 *        this new one
 	 * @param batch this {@link Batch} will collect avalanche of possible disable/enable operations
 	 */
 	private void reEnableServletModels(Set<ServletModel> currentlyDisabled,
-			Map<String, Map<String, ServletModel>> currentlyEnabledByName,
-			Map<String, Map<String, ServletModel>> currentlyEnabledByPattern,
-			ServletModel modelToEnable, Batch batch) {
+			Map<String, MappingOverlay<String, ServletModel>> currentlyEnabledByName,
+			Map<String, MappingOverlay<String, ServletModel>> currentlyEnabledByPattern,
+			Set<ServletModel> reviewed, ServletModel modelToEnable, Batch batch) {
 
 		Set<ServletModel> newlyDisabled = new LinkedHashSet<>();
+		Set<ServletModel> unblocked = new HashSet<>();
 		boolean change = false;
 
 		// reviewed using TreeSet, i.e., by proper ranking
@@ -1699,26 +1806,20 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 			for (ServletContextModel sc : contextsOfDisabledModel) {
 				String cp = sc.getContextPath();
 
-				// name conflict check
-				for (Map.Entry<String, ServletModel> entry : currentlyEnabledByName.get(cp).entrySet()) {
-					ServletModel enabled = entry.getValue();
-					boolean nameConflict = haveAnyNameConflict(disabled.getName(), enabled.getName(), disabled, enabled);
-					if (nameConflict) {
-						// name conflict with existing, enabled model. BUT currently disabled model may have
-						// higher ranking...
-						if (disabled.compareTo(enabled) < 0) {
-							// still can be enabled (but we have to check everything) and currently disabled
-							// may potentially get disabled
-							newlyDisabled.add(enabled);
-						} else {
-							canBeEnabled = false;
-							break;
-						}
+				// name conflict check - by-name mapping is the index of enabled servlets in given context
+				ServletModel enabled = currentlyEnabledByName.get(cp).get(disabled.getName());
+				if (enabled != null && enabled != disabled) {
+					// name conflict with existing, enabled model. BUT currently disabled model may have
+					// higher ranking...
+					if (disabled.compareTo(enabled) < 0) {
+						// still can be enabled (but we have to check everything) and currently disabled
+						// may potentially get disabled
+						newlyDisabled.add(enabled);
+					} else {
+						canBeEnabled = false;
+						break;
 					}
 				}
-				if (!canBeEnabled) {
-					break;
-				}
 
 				// URL mapping check
 				for (String pattern : disabled.getUrlPatterns()) {
@@ -1756,6 +1857,8 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 					});
 
 					// do NOT add newlyDisabled to "currentlyDisabled" - we don't want to check if they can be enabled!
+					// but the models that were blocked by the one that has lost should be checked
+					disabledServletModels.collectBlockedBy(model, unblocked);
 				});
 
 				// update the snapshot - newly enabled model should be visible as the one registered
@@ -1772,6 +1875,9 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 				}
 				// remove - to check if our new model should later be added as disabled
 				iterator.remove();
+				reviewed.add(disabled);
+				unblocked.removeAll(reviewed);
+				currentlyDisabled.addAll(unblocked);
 				change = true;
 			}
 			if (change) {
@@ -1781,11 +1887,38 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 		} // end of "for" loop that checks all currently disabled models that can potentially be enabled
 
 		if (change) {
-			reEnableServletModels(currentlyDisabled, currentlyEnabledByName, currentlyEnabledByPattern,
+			reEnableServletModels(currentlyDisabled, currentlyEnabledByName, currentlyEnabledByPattern, reviewed,
 					modelToEnable, batch);
 		}
 	}
 
+	/**
+	 * <p>Changes the rank of registered {@link ServletModel} in place - without re-registration, which would
+	 * destroy the servlet. This is possible only when the new rank can't change which of the conflicting servlets
+	 * are enabled, so the model has to be enabled and there can't be any disabled servlet sharing a name or URL
+	 * pattern with it (and the model can't carry an {@link ErrorPageModel}). The rank of an enabled servlet is not
+	 * used by the runtimes, so nothing has to be sent to {@link ServerController}.</p>
+	 *
+	 * <p>This method should be called in configuration thread.</p>
+	 *
+	 * @param model
+	 * @param rank
+	 * @return {@code false} if the rank was not changed and the model should be registered again
+	 */
+	public boolean changeServletModelRank(ServletModel model, int rank) {
+		if (!servletsForDTO.contains(model) || disabledServletModels.contains(model)
+				|| model.getErrorPageModel() != null) {
+			return false;
+		}
+		List<ServletModel> conflicting = new ArrayList<>();
+		disabledServletModels.collectBlockedBy(model, conflicting);
+		if (!conflicting.isEmpty()) {
+			return false;
+		}
+		model.setServiceRank(rank);
+		return true;
+	}
+
 	public Set<ServletModel> getDisabledServletModels() {
 		return disabledServletModels;
 	}
@@ -1903,13 +2036,14 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 
 		// don't add the filter to the batch now - it'll be added in reEnableFilterModels()
 
-		// this map will contain ALL filters registered per context path - including currently enabled, newly
-		// registered and newly enabled. When set is TreeSet, ordering will be correct
+		// this map will contain ALL filters registered per affected context path - including currently enabled,
+		// newly registered and newly enabled. When set is TreeSet, ordering will be correct
 		Map<String, TreeMap<FilterModel, List<OsgiContextModel>>> currentlyEnabledByPath = new HashMap<>();
 		Set<FilterModel> currentlyDisabled = new TreeSet<>();
-		prepareFiltersSnapshot(currentlyEnabledByPath, currentlyDisabled, model, newlyDisabled);
+		Set<FilterModel> reviewed = new HashSet<>();
+		prepareAffectedFiltersSnapshot(currentlyEnabledByPath, currentlyDisabled, reviewed, model, newlyDisabled);
 
-		reEnableFilterModels(currentlyDisabled, currentlyEnabledByPath, model, batch);
+		reEnableFilterModels(currentlyDisabled, currentlyEnabledByPath, reviewed, model, batch);
 
 		// finally - full set of filter state changes in all affected servlet contexts
 		batch.updateFilters(currentlyEnabledByPath, model.isDynamic());
@@ -1922,18 +2056,18 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 
 		Map<String, TreeMap<FilterModel, List<OsgiContextModel>>> currentlyEnabledByPath = new HashMap<>();
 		Set<FilterModel> currentlyDisabled = new TreeSet<>();
-		prepareFiltersSnapshot(currentlyEnabledByPath, currentlyDisabled, null, new HashSet<>(models));
+		Set<FilterModel> reviewed = new HashSet<>();
+		prepareAffectedFiltersSnapshot(currentlyEnabledByPath, currentlyDisabled, reviewed, null, new HashSet<>(models));
 
-		// review all disabled filter models (in ranking order) to verify if they can be enabled again
-		reEnableFilterModels(currentlyDisabled, currentlyEnabledByPath, null, batch);
+		// review affected disabled filter models (in ranking order) to verify if they can be enabled again
+		reEnableFilterModels(currentlyDisabled, currentlyEnabledByPath, reviewed, null, batch);
 
 		// finally - full set of filter state changes in all affected servlet contexts
 		batch.updateFilters(currentlyEnabledByPath, false);
 	}
 
 	/**
-	 * Preparation for {@link #reEnableFilterModels(Set, Map, FilterModel, Batch)} that does
-	 * proper copy of current state of all {@link ServletContextModel}
+	 * Prepares a full copy of current state of filters in all {@link ServletContextModel servlet contexts}.
 	 *
 	 * @param currentlyEnabledByPath
 	 * @param currentlyDisabled
@@ -1976,6 +2110,61 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 		}
 	}
 
+	/**
+	 * Preparation for {@link #reEnableFilterModels(Set, Map, Set, FilterModel, Batch)} that copies current state
+	 * of filters only in the {@link ServletContextModel servlet contexts} affected by the change. More contexts
+	 * may be copied (using {@link #enabledFilters(Map, ServletContextModel)}) when reviewing disabled models.
+	 *
+	 * @param currentlyEnabledByPath
+	 * @param currentlyDisabled will be filled only with disabled models that may have been blocked by
+	 *        {@code newlyDisabled} models (and with {@code newlyAdded} model)
+	 * @param reviewed models that should never be (re)added to {@code currentlyDisabled}
+	 * @param newlyAdded prepared snapshot will include newly added model as currentlyDisabled
+	 *        (to enable it potentially)
+	 * @param newlyDisabled prepared snapshot will already have newlyDisabled models removed from snapshot mappings
+	 */
+	private void prepareAffectedFiltersSnapshot(Map<String, TreeMap<FilterModel, List<OsgiContextModel>>> currentlyEnabledByPath,
+			Set<FilterModel> currentlyDisabled, Set<FilterModel> reviewed,
+			FilterModel newlyAdded, Set<FilterModel> newlyDisabled) {
+
+		// newlyDisabled are scheduled for disabling (in batch), so let's remove them from the snapshot
+		for (FilterModel fm : newlyDisabled) {
+			for (ServletContextModel scm : getServletContextModels(fm)) {
+				enabledFilters(currentlyEnabledByPath, scm).remove(fm);
+			}
+			disabledFilterModels.collectBlockedBy(fm, currentlyDisabled);
+		}
+		reviewed.addAll(newlyDisabled);
+		currentlyDisabled.removeAll(reviewed);
+
+		// newlyAdded is for now only "offered" to be registered as active, because if new model causes
+		// disabling of existing model, other (disabled) model may be better than the newly registered one
+		if (newlyAdded != null) {
+			for (ServletContextModel scm : getServletContextModels(newlyAdded)) {
+				enabledFilters(currentlyEnabledByPath, scm);
+			}
+			currentlyDisabled.add(newlyAdded);
+		}
+	}
+
+	/**
+	 * Returns a copy of currently enabled filters in given {@link ServletContextModel}, creating it on first access.
+	 *
+	 * @param currentlyEnabledByPath
+	 * @param scm
+	 * @return
+	 */
+	private TreeMap<FilterModel, List<OsgiContextModel>> enabledFilters(
+			Map<String, TreeMap<FilterModel, List<OsgiContextModel>>> currentlyEnabledByPath, ServletContextModel scm) {
+		return currentlyEnabledByPath.computeIfAbsent(scm.getContextPath(), path -> {
+			TreeMap<FilterModel, List<OsgiContextModel>> enabledFilters = new TreeMap<>();
+			for (FilterModel fm : scm.getFilterNameMapping().values()) {
+				enabledFilters.put(fm, null);
+			}
+			return enabledFilters;
+		});
+	}
+
 	/**
 	 * <p>Fragile method used both during filter registration and unregistration. Similar to (and simpler than)
 	 * equivalent method for servlets.</p>
@@ -1987,15 +2176,18 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 	 * @param currentlyDisabled currently disabled models - this collection may be shrunk in this method. Every
 	 *        model removed from this collection will be batched for enabling
 	 * @param currentlyEnabledByPath temporary state of filters per context - may be altered during invocation
+	 * @param reviewed models already enabled (or being unregistered) within this review
 	 * @param modelToEnable newly added model (could be {@code null}) - needed because when adding new filter, it
 	 *        is initialy treated as disabled. We have to decide then whether to enable existing model or add
 	 *        this new one
 	 * @param batch this {@link Batch} will collect avalanche of possible disable/enable operations
 	 */
 	private void reEnableFilterModels(Set<FilterModel> currentlyDisabled,
-			Map<String, TreeMap<FilterModel, List<OsgiContextModel>>> currentlyEnabledByPath, FilterModel modelToEnable, Batch batch) {
+			Map<String, TreeMap<FilterModel, List<OsgiContextModel>>> currentlyEnabledByPath,
+			Set<FilterModel> reviewed, FilterModel modelToEnable, Batch batch) {
 
 		Set<FilterModel> newlyDisabled = new LinkedHashSet<>();
+		Set<FilterModel> unblocked = new HashSet<>();
 		boolean change = false;
 
 		// reviewed using TreeSet, i.e., by proper ranking
@@ -2008,10 +2200,8 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 			Set<ServletContextModel> contextsOfDisabledModel = getServletContextModels(disabled);
 
 			for (ServletContextModel sc : contextsOfDisabledModel) {
-				String cp = sc.getContextPath();
-
 				// name conflict check
-				for (FilterModel enabled : currentlyEnabledByPath.get(cp).keySet()) {
+				for (FilterModel enabled : enabledFilters(currentlyEnabledByPath, sc).keySet()) {
 					boolean nameConflict = haveAnyNameConflict(disabled.getName(), enabled.getName(), disabled, enabled);
 					if (nameConflict) {
 						// name conflict with existing, enabled model. BUT currently disabled model may have
@@ -2039,15 +2229,17 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 
 					// and forget about it in the snapshot
 					getServletContextModels(model).forEach(scm -> {
-						currentlyEnabledByPath.get(scm.getContextPath()).remove(model);
+						enabledFilters(currentlyEnabledByPath, scm).remove(model);
 					});
 
 					// do NOT add newlyDisabled to "currentlyDisabled" - we don't want to check if they can be enabled!
+					// but the models that were blocked by the one that has lost should be checked
+					disabledFilterModels.collectBlockedBy(model, unblocked);
 				});
 
 				// update the snapshot - newly enabled model should be visible as the one registered
 				for (ServletContextModel sc : contextsOfDisabledModel) {
-					currentlyEnabledByPath.get(sc.getContextPath()).put(disabled, null);
+					enabledFilters(currentlyEnabledByPath, sc).put(disabled, null);
 				}
 				if (modelToEnable != null && modelToEnable.equals(disabled)) {
 					batch.addFilterModel(disabled);
@@ -2056,6 +2248,9 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 				}
 				// remove - to check if our new model should later be added as disabled
 				iterator.remove();
+				reviewed.add(disabled);
+				unblocked.removeAll(reviewed);
+				currentlyDisabled.addAll(unblocked);
 				change = true;
 			}
 			if (change) {
@@ -2065,7 +2260,7 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 		} // end of "for" loop that checks all currently disabled models that can potentially be enabled
 
 		if (change) {
-			reEnableFilterModels(currentlyDisabled, currentlyEnabledByPath, modelToEnable, batch);
+			reEnableFilterModels(currentlyDisabled, currentlyEnabledByPath, reviewed, modelToEnable, batch);
 		}
 	}
 
@@ -2163,14 +2358,14 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 		// by adding new ErrorPageModel we can disable and enable some existing ones. As with filters, the "state"
 		// of error pages is sent in single operation.
 
-		// this map will contain ALL error page modesl registered per context path - including currently enabled, newly
-		// registered and newly enabled. When set is TreeSet, ordering will be correct
+		// this map will contain ALL error page modesl registered per affected context path - including currently
+		// enabled, newly registered and newly enabled. When set is TreeSet, ordering will be correct
 		Map<String, TreeMap<ErrorPageModel, List<OsgiContextModel>>> currentlyEnabledByPath = new HashMap<>();
 		Set<ErrorPageModel> currentlyDisabled = new TreeSet<>();
-		Set<ErrorPageModel> newlyDisabled = new HashSet<>();
-		prepareErrorPageSnapshot(currentlyEnabledByPath, currentlyDisabled, model, newlyDisabled);
+		Set<ErrorPageModel> reviewed = new HashSet<>();
+		prepareAffectedErrorPageSnapshot(currentlyEnabledByPath, currentlyDisabled, reviewed, model, new HashSet<>());
 
-		reEnableErrorPageModels(currentlyDisabled, currentlyEnabledByPath, model, batch);
+		reEnableErrorPageModels(currentlyDisabled, currentlyEnabledByPath, reviewed, model, batch);
 
 		// finally - full set of error pages state changes in all affected servlet contexts
 		batch.updateErrorPages(currentlyEnabledByPath);
@@ -2183,18 +2378,18 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 
 		Map<String, TreeMap<ErrorPageModel, List<OsgiContextModel>>> currentlyEnabledByPath = new HashMap<>();
 		Set<ErrorPageModel> currentlyDisabled = new TreeSet<>();
-		prepareErrorPageSnapshot(currentlyEnabledByPath, currentlyDisabled, null, new HashSet<>(models));
+		Set<ErrorPageModel> reviewed = new HashSet<>();
+		prepareAffectedErrorPageSnapshot(currentlyEnabledByPath, currentlyDisabled, reviewed, null, new HashSet<>(models));
 
-		// review all disabled error page models (in ranking order) to verify if they can be enabled again
-		reEnableErrorPageModels(currentlyDisabled, currentlyEnabledByPath, null, batch);
+		// review affected disabled error page models (in ranking order) to verify if they can be enabled again
+		reEnableErrorPageModels(currentlyDisabled, currentlyEnabledByPath, reviewed, null, batch);
 
 		// finally - full set of error page state changes in all affected servlet contexts
 		batch.updateErrorPages(currentlyEnabledByPath);
 	}
 
 	/**
-	 * Preparation for {@link #reEnableErrorPageModels(Set, Map, ErrorPageModel, Batch)} that does
-	 * proper copy of current state of all {@link ServletContextModel}
+	 * Prepares a full copy of current state of error pages in all {@link ServletContextModel servlet contexts}.
 	 *
 	 * @param currentlyEnabledByPath
 	 * @param currentlyDisabled
@@ -2242,6 +2437,66 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 		}
 	}
 
+	/**
+	 * Preparation for {@link #reEnableErrorPageModels(Set, Map, Set, ErrorPageModel, Batch)} that copies current
+	 * state of error pages only in the {@link ServletContextModel servlet contexts} affected by the change.
+	 *
+	 * @param currentlyEnabledByPath
+	 * @param currentlyDisabled will be filled only with disabled models that may have been blocked by
+	 *        {@code newlyDisabled} models (and with {@code newlyAdded} model)
+	 * @param reviewed models that should never be (re)added to {@code currentlyDisabled}
+	 * @param newlyAdded prepared snapshot will include newly added model as currentlyDisabled
+	 *        (to enable it potentially)
+	 * @param newlyDisabled prepared snapshot will already have newlyDisabled models removed from snapshot mappings
+	 */
+	private void prepareAffectedErrorPageSnapshot(Map<String, TreeMap<ErrorPageModel, List<OsgiContextModel>>> currentlyEnabledByPath,
+			Set<ErrorPageModel> currentlyDisabled, Set<ErrorPageModel> reviewed,
+			ErrorPageModel newlyAdded, Set<ErrorPageModel> newlyDisabled) {
+
+		// newlyDisabled are scheduled for disabling (in batch), so let's remove them from the snapshot
+		for (ErrorPageModel epm : newlyDisabled) {
+			for (ServletContextModel scm : getServletContextModels(epm)) {
+				enabledErrorPages(currentlyEnabledByPath, scm).remove(epm);
+			}
+			disabledErrorPageModels.collectBlockedBy(epm, currentlyDisabled);
+		}
+		reviewed.addAll(newlyDisabled);
+		currentlyDisabled.removeAll(reviewed);
+
+		// newlyAdded is for now only "offered" to be registered as active, because if new model causes
+		// disabling of existing model, other (disabled) model may be better than the newly registered one
+		if (newlyAdded != null) {
+			for (ServletContextModel scm : getServletContextModels(newlyAdded)) {
+				enabledErrorPages(currentlyEnabledByPath, scm);
+			}
+			currentlyDisabled.add(newlyAdded);
+		}
+	}
+
+	/**
+	 * Returns a copy of currently enabled error pages in given {@link ServletContextModel}, creating it on
+	 * first access.
+	 *
+	 * @param currentlyEnabledByPath
+	 * @param scm
+	 * @return
+	 */
+	private TreeMap<ErrorPageModel, List<OsgiContextModel>> enabledErrorPages(
+			Map<String, TreeMap<ErrorPageModel, List<OsgiContextModel>>> currentlyEnabledByPath, ServletContextModel scm) {
+		return currentlyEnabledByPath.computeIfAbsent(scm.getContextPath(), path -> {
+			TreeMap<ErrorPageModel, List<OsgiContextModel>> enabledErrorPages = new TreeMap<>();
+			for (ErrorPageModel epm : scm.getErrorPageMapping().values()) {
+				enabledErrorPages.put(epm, null);
+			}
+			for (ServletModel sm : scm.getServletNameMapping().values()) {
+				if (sm.getErrorPageModel() != null && sm.getErrorPageModel().isValid()) {
+					enabledErrorPages.put(sm.getErrorPageModel(), null);
+				}
+			}
+			return enabledErrorPages;
+		});
+	}
+
 	/**
 	 * <p>Fragile method used both during error page registration and unregistration. Similar to equivalent method
 	 * for filters.</p>
@@ -2249,15 +2504,18 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 	 * @param currentlyDisabled currently disabled models - this collection may be shrunk in this method. Every
 	 *        model removed from this collection will be batched for enabling
 	 * @param currentlyEnabledByPath temporary state of by-name filters - may be altered during invocation
+	 * @param reviewed models already enabled (or being unregistered) within this review
 	 * @param modelToEnable newly added model (could be {@code null}) - needed because when adding new filter, it
 	 *        is initialy treated as disabled. We have to decide then whether to enable existing model or add
 	 *        this new one
 	 * @param batch this {@link Batch} will collect avalanche of possible disable/enable operations
 	 */
 	private void reEnableErrorPageModels(Set<ErrorPageModel> currentlyDisabled,
-			Map<String, TreeMap<ErrorPageModel, List<OsgiContextModel>>> currentlyEnabledByPath, ErrorPageModel modelToEnable, Batch batch) {
+			Map<String, TreeMap<ErrorPageModel, List<OsgiContextModel>>> currentlyEnabledByPath,
+			Set<ErrorPageModel> reviewed, ErrorPageModel modelToEnable, Batch batch) {
 
 		Set<ErrorPageModel> newlyDisabled = new LinkedHashSet<>();
+		Set<ErrorPageModel> unblocked = new HashSet<>();
 		boolean change = false;
 
 		// reviewed using TreeSet, i.e., by proper ranking
@@ -2270,10 +2528,8 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 			Set<ServletContextModel> contextsOfDisabledModel = getServletContextModels(disabled);
 
 			for (ServletContextModel sc : contextsOfDisabledModel) {
-				String cp = sc.getContextPath();
-
 				// conflict check by error page description (code, wildcard, fqcn of exception class)
-				for (ErrorPageModel enabled : currentlyEnabledByPath.get(cp).keySet()) {
+				for (ErrorPageModel enabled : enabledErrorPages(currentlyEnabledByPath, sc).keySet()) {
 					boolean conflict = false;
 					for (String page1 : disabled.getErrorPages()) {
 						for (String page2 : enabled.getErrorPages()) {
@@ -2310,15 +2566,17 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 
 					// and forget about it in the snapshot
 					getServletContextModels(model).forEach(scm -> {
-						currentlyEnabledByPath.get(scm.getContextPath()).remove(model);
+						enabledErrorPages(currentlyEnabledByPath, scm).remove(model);
 					});
 
 					// do NOT add newlyDisabled to "currentlyDisabled" - we don't want to check if they can be enabled!
+					// but the models that were blocked by the one that has lost should be checked
+					disabledErrorPageModels.collectBlockedBy(model, unblocked);
 				});
 
 				// update the snapshot - newly enabled model should be visible as the one registered
 				for (ServletContextModel sc : contextsOfDisabledModel) {
-					currentlyEnabledByPath.get(sc.getContextPath()).put(disabled, null);
+					enabledErrorPages(currentlyEnabledByPath, sc).put(disabled, null);
 				}
 				if (modelToEnable != null && modelToEnable.equals(disabled)) {
 					batch.addErrorPageModel(disabled);
@@ -2327,6 +2585,9 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 				}
 				// remove - to check if our new model should later be added as disabled
 				iterator.remove();
+				reviewed.add(disabled);
+				unblocked.removeAll(reviewed);
+				currentlyDisabled.addAll(unblocked);
 				change = true;
 			}
 
@@ -2343,7 +2604,7 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 		} // end of "for" loop that checks all currently disabled models that can potentially be enabled
 
 		if (change) {
-			reEnableErrorPageModels(currentlyDisabled, currentlyEnabledByPath, modelToEnable, batch);
+			reEnableErrorPageModels(currentlyDisabled, currentlyEnabledByPath, reviewed, modelToEnable, batch);
 		}
 	}
 
@@ -3104,371 +3365,491 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 
 	// --- implementation of org.osgi.service.http.runtime.HttpServiceRuntime
 
+	/**
+	 * <p>Returns {@link RuntimeDTO} without involving the configuration thread, unless the model has changed
+	 * since the last call. The DTOs of the contexts and their elements are copied from immutable snapshot
+	 * shared by all the callers.</p>
+	 *
+	 * @return
+	 */
 	@Override
 	public RuntimeDTO getRuntimeDTO() {
-		return runSilently(() -> {
-			RuntimeDTO dto = new RuntimeDTO();
+		RuntimeSnapshot snapshot = getRuntimeSnapshot();
+		if (snapshot == null) {
+			return null;
+		}
 
-			// --- service information
+		RuntimeDTO dto = new RuntimeDTO();
+
+		// --- service information - it's not part of the snapshot, as it changes without changes to the model
+
+		dto.serviceDTO = new ServiceReferenceDTO();
+		dto.serviceDTO.id = httpServiceRuntimeDTO.id;
+		dto.serviceDTO.bundle = httpServiceRuntimeDTO.bundle;
+		dto.serviceDTO.usingBundles = Arrays.stream(httpServiceRuntimeReg.getReference().getUsingBundles())
+				.mapToLong(Bundle::getBundleId).toArray();
+		dto.serviceDTO.properties = new HashMap<>(httpServiceRuntimeDTO.properties);
+		dto.serviceDTO.properties.put(ChangeCountPublisher.SERVICE_CHANGECOUNT, changeCount.get());
+		// osgi.http.endpoint will be updated by org.ops4j.pax.web.service.internal.Activator.AddressConfiguration
+
+		// --- contexts and elements from the snapshot
+
+		RuntimeDTO model = snapshot.dto;
+		dto.servletContextDTOs = copyDTOs(model.servletContextDTOs);
+		dto.failedServletContextDTOs = copyDTOs(model.failedServletContextDTOs);
+		dto.preprocessorDTOs = copyDTOs(model.preprocessorDTOs);
+		dto.failedErrorPageDTOs = copyDTOs(model.failedErrorPageDTOs);
+		dto.failedFilterDTOs = copyDTOs(model.failedFilterDTOs);
+		dto.failedPreprocessorDTOs = copyDTOs(model.failedPreprocessorDTOs);
+		dto.failedListenerDTOs = copyDTOs(model.failedListenerDTOs);
+		dto.failedResourceDTOs = copyDTOs(model.failedResourceDTOs);
+		dto.failedServletDTOs = copyDTOs(model.failedServletDTOs);
+
+		return dto;
+	}
 
-			dto.serviceDTO = new ServiceReferenceDTO();
-			dto.serviceDTO.id = httpServiceRuntimeDTO.id;
-			dto.serviceDTO.bundle = httpServiceRuntimeDTO.bundle;
-			dto.serviceDTO.usingBundles = Arrays.stream(httpServiceRuntimeReg.getReference().getUsingBundles())
-					.mapToLong(Bundle::getBundleId).toArray();
-			dto.serviceDTO.properties = new HashMap<>(httpServiceRuntimeDTO.properties);
-			dto.serviceDTO.properties.put("service.changecount", changeCount.get());
-			// osgi.http.endpoint will be updated by org.ops4j.pax.web.service.internal.Activator.AddressConfiguration
+	/**
+	 * Returns current {@link RuntimeSnapshot}, rebuilding it in configuration thread only if the model has
+	 * changed since the snapshot was created.
+	 *
+	 * @return
+	 */
+	private RuntimeSnapshot getRuntimeSnapshot() {
+		RuntimeSnapshot snapshot = runtimeSnapshot;
+		if (snapshot != null && snapshot.version == modelVersion.get()) {
+			return snapshot;
+		}
+		return read(this::createRuntimeSnapshot, snapshot);
+	}
 
-			// --- context information
+	/**
+	 * Reads the model in configuration thread. Differently than with {@link #run(ModelRegistrationTask, boolean)},
+	 * reading is not a change, so neither the change count nor the model version is incremented.
+	 *
+	 * @param reader
+	 * @param fallback value returned when configuration executor is stopped
+	 * @param <T>
+	 * @return
+	 */
+	private <T> T read(Supplier<T> reader, T fallback) {
+		if (Thread.currentThread().getId() == registrationThreadId) {
+			return reader.get();
+		}
+		try {
+			return CompletableFuture.supplyAsync(reader, executor).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e.getMessage(), e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+		} catch (RejectedExecutionException e) {
+			// configuration executor is stopped
+			return fallback;
+		}
+	}
 
-			Map<OsgiContextModel, ServletContextDTO> scDTOs = new LinkedHashMap<>();
-			List<FailedServletContextDTO> failedScDTOs = new ArrayList<>();
+	/**
+	 * Creates {@link RuntimeSnapshot} of current model - has to be called in configuration thread.
+	 *
+	 * @return
+	 */
+	private RuntimeSnapshot createRuntimeSnapshot() {
+		RuntimeSnapshot current = runtimeSnapshot;
+		long version = modelVersion.get();
+		if (current != null && current.version == version) {
+			// created by earlier task
+			return current;
+		}
 
-			// OsgiContextModels from WABs - we don't care about contexts "awaiting allocation"
-			bundleWabAllocatedContexts.values().forEach(ocm -> {
-				scDTOs.put(ocm, ocm.toDTO());
-			});
-			// OsgiContextModels from HttpService/WebContainer (including Whiteboard ones with direct context instance)
-			// including non-failed ones and failed (usually shaded - set elements from 2nd to the end)
-			bundleContexts.values().forEach(ocms -> {
-				boolean first = true;
-				for (OsgiContextModel ocm : ocms) {
-					if (first) {
-						scDTOs.put(ocm, ocm.toDTO());
-					} else {
-						failedScDTOs.add(ocm.toFailedDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
-					}
-					first = false;
-				}
-			});
-			// HttpService/WebContainer which are shaded by Whiteboard-registered contexts with direct instance
-			bundleDefaultContexts.values().forEach(ocm -> {
-				failedScDTOs.add(ocm.toFailedDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
-			});
-			// OsgiContextModels from Whiteboard (excluding ones with direct context instance) - failed and non-failed
-			// they're not kept at ServerModel level at all
-			whiteboardContexts.values().stream().flatMap(Collection::stream).forEach(ocm -> {
-				if (ocm.getDtoFailureCode() >= 0) {
-					failedScDTOs.add(ocm.toFailedDTO(ocm.getDtoFailureCode()));
-				} else {
+		RuntimeDTO dto = new RuntimeDTO();
+
+		// --- context information
+
+		Map<OsgiContextModel, ServletContextDTO> scDTOs = new LinkedHashMap<>();
+		List<FailedServletContextDTO> failedScDTOs = new ArrayList<>();
+
+		// OsgiContextModels from WABs - we don't care about contexts "awaiting allocation"
+		bundleWabAllocatedContexts.values().forEach(ocm -> {
+			scDTOs.put(ocm, ocm.toDTO());
+		});
+		// OsgiContextModels from HttpService/WebContainer (including Whiteboard ones with direct context instance)
+		// including non-failed ones and failed (usually shaded - set elements from 2nd to the end)
+		bundleContexts.values().forEach(ocms -> {
+			boolean first = true;
+			for (OsgiContextModel ocm : ocms) {
+				if (first) {
 					scDTOs.put(ocm, ocm.toDTO());
+				} else {
+					failedScDTOs.add(ocm.toFailedDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
 				}
-			});
-			// we don't care about shared HttpService/WebContainer contexts as these are Pax Web specific
-
-			dto.servletContextDTOs = scDTOs.values().toArray(new ServletContextDTO[0]);
-			dto.failedServletContextDTOs = failedScDTOs.toArray(new FailedServletContextDTO[0]);
-
-			// --- element information
-			//     successful DTOs are attached to one of the ServletContextDTO
-			//     failed DTOs are attached directly to the RuntimeDTO
-
-			Map<ServletContextDTO, List<ErrorPageDTO>> scErrorPages = new IdentityHashMap<>();
-			Map<ServletContextDTO, List<FilterDTO>> scFilters = new IdentityHashMap<>();
-			Map<ServletContextDTO, List<ListenerDTO>> scListeners = new IdentityHashMap<>();
-			List<PreprocessorDTO> preprocessorDTOs = new ArrayList<>();
-			Map<ServletContextDTO, List<ResourceDTO>> scResources = new IdentityHashMap<>();
-			Map<ServletContextDTO, List<ServletDTO>> scServlets = new IdentityHashMap<>();
-
-			for (ServletContextDTO scDTO : dto.servletContextDTOs) {
-				scErrorPages.put(scDTO, new ArrayList<>());
-				scFilters.put(scDTO, new ArrayList<>());
-				scListeners.put(scDTO, new ArrayList<>());
-				scResources.put(scDTO, new ArrayList<>());
-				scServlets.put(scDTO, new ArrayList<>());
-			}
-
-			List<FailedErrorPageDTO> failedErrorPageDTOs = new ArrayList<>();
-			List<FailedFilterDTO> failedFilterDTOs = new ArrayList<>();
-			List<FailedListenerDTO> failedListenerDTOs = new ArrayList<>();
-			List<FailedPreprocessorDTO> failedPreprocessorDTOs = new ArrayList<>();
-			List<FailedResourceDTO> failedResourceDTOs = new ArrayList<>();
-			List<FailedServletDTO> failedServletDTOs = new ArrayList<>();
-
-			// ------ servlets, resources and error pages
-			this.servletsForDTO.forEach(sm -> {
-				if (sm.isResourceServlet()) {
-					if (!sm.isValid()) {
-						failedResourceDTOs.add(sm.toFailedResourceDTO(sm.getDtoFailureCode()));
-						return;
-					}
-				} else if (sm.getErrorPageModel() != null) {
-					if (!sm.getErrorPageModel().isValid()) {
-						failedErrorPageDTOs.add(sm.getErrorPageModel().toFailedDTO(sm, sm.getErrorPageModel().getDtoFailureCode()));
-						return;
-					}
-				} else if (!sm.isValid()) {
-					failedServletDTOs.add(sm.toFailedServletDTO(sm.getDtoFailureCode()));
+				first = false;
+			}
+		});
+		// HttpService/WebContainer which are shaded by Whiteboard-registered contexts with direct instance
+		bundleDefaultContexts.values().forEach(ocm -> {
+			failedScDTOs.add(ocm.toFailedDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+		});
+		// OsgiContextModels from Whiteboard (excluding ones with direct context instance) - failed and non-failed
+		// they're not kept at ServerModel level at all
+		whiteboardContexts.values().stream().flatMap(Collection::stream).forEach(ocm -> {
+			if (ocm.getDtoFailureCode() >= 0) {
+				failedScDTOs.add(ocm.toFailedDTO(ocm.getDtoFailureCode()));
+			} else {
+				scDTOs.put(ocm, ocm.toDTO());
+			}
+		});
+		// we don't care about shared HttpService/WebContainer contexts as these are Pax Web specific
+
+		dto.servletContextDTOs = scDTOs.values().toArray(new ServletContextDTO[0]);
+		dto.failedServletContextDTOs = failedScDTOs.toArray(new FailedServletContextDTO[0]);
+
+		// --- element information
+		//     successful DTOs are attached to one of the ServletContextDTO
+		//     failed DTOs are attached directly to the RuntimeDTO
+
+		Map<ServletContextDTO, List<ErrorPageDTO>> scErrorPages = new IdentityHashMap<>();
+		Map<ServletContextDTO, List<FilterDTO>> scFilters = new IdentityHashMap<>();
+		Map<ServletContextDTO, List<ListenerDTO>> scListeners = new IdentityHashMap<>();
+		List<PreprocessorDTO> preprocessorDTOs = new ArrayList<>();
+		Map<ServletContextDTO, List<ResourceDTO>> scResources = new IdentityHashMap<>();
+		Map<ServletContextDTO, List<ServletDTO>> scServlets = new IdentityHashMap<>();
+
+		for (ServletContextDTO scDTO : dto.servletContextDTOs) {
+			scErrorPages.put(scDTO, new ArrayList<>());
+			scFilters.put(scDTO, new ArrayList<>());
+			scListeners.put(scDTO, new ArrayList<>());
+			scResources.put(scDTO, new ArrayList<>());
+			scServlets.put(scDTO, new ArrayList<>());
+		}
+
+		List<FailedErrorPageDTO> failedErrorPageDTOs = new ArrayList<>();
+		List<FailedFilterDTO> failedFilterDTOs = new ArrayList<>();
+		List<FailedListenerDTO> failedListenerDTOs = new ArrayList<>();
+		List<FailedPreprocessorDTO> failedPreprocessorDTOs = new ArrayList<>();
+		List<FailedResourceDTO> failedResourceDTOs = new ArrayList<>();
+		List<FailedServletDTO> failedServletDTOs = new ArrayList<>();
+
+		// ------ servlets, resources and error pages
+		this.servletsForDTO.forEach(sm -> {
+			if (sm.isResourceServlet()) {
+				if (!sm.isValid()) {
+					failedResourceDTOs.add(sm.toFailedResourceDTO(sm.getDtoFailureCode()));
+					return;
+				}
+			} else if (sm.getErrorPageModel() != null) {
+				if (!sm.getErrorPageModel().isValid()) {
+					failedErrorPageDTOs.add(sm.getErrorPageModel().toFailedDTO(sm, sm.getErrorPageModel().getDtoFailureCode()));
 					return;
 				}
+			} else if (!sm.isValid()) {
+				failedServletDTOs.add(sm.toFailedServletDTO(sm.getDtoFailureCode()));
+				return;
+			}
 
-				// case of valid models
-				sm.getContextModels().forEach(ocm -> {
-					if (sm.isResourceServlet()) {
-						scResources.get(scDTOs.get(ocm)).add(sm.toResourceDTO());
-					} else if (sm.getErrorPageModel() != null) {
-						scErrorPages.get(scDTOs.get(ocm)).add(sm.getErrorPageModel().toDTO(sm));
-					} else {
-						scServlets.get(scDTOs.get(ocm)).add(sm.toServletDTO());
-					}
-				});
-			});
-			this.disabledServletModels.forEach(sm -> {
+			// case of valid models
+			sm.getContextModels().forEach(ocm -> {
 				if (sm.isResourceServlet()) {
-					failedResourceDTOs.add(sm.toFailedResourceDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+					scResources.get(scDTOs.get(ocm)).add(sm.toResourceDTO());
 				} else if (sm.getErrorPageModel() != null) {
-					failedErrorPageDTOs.add(sm.getErrorPageModel().toFailedDTO(sm, DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+					scErrorPages.get(scDTOs.get(ocm)).add(sm.getErrorPageModel().toDTO(sm));
 				} else {
-					failedServletDTOs.add(sm.toFailedServletDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+					scServlets.get(scDTOs.get(ocm)).add(sm.toServletDTO());
 				}
 			});
-			this.disabledErrorPageModels.forEach(epm -> {
-				failedErrorPageDTOs.add(epm.toFailedDTO(null, DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
-			});
-			// ------ filters and preprocessors
-			this.filtersForDTO.forEach(fm -> {
-				if (!fm.isValid()) {
+		});
+		this.disabledServletModels.forEach(sm -> {
+			if (sm.isResourceServlet()) {
+				failedResourceDTOs.add(sm.toFailedResourceDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+			} else if (sm.getErrorPageModel() != null) {
+				failedErrorPageDTOs.add(sm.getErrorPageModel().toFailedDTO(sm, DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+			} else {
+				failedServletDTOs.add(sm.toFailedServletDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+			}
+		});
+		this.disabledErrorPageModels.forEach(epm -> {
+			failedErrorPageDTOs.add(epm.toFailedDTO(null, DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+		});
+		// ------ filters and preprocessors
+		this.filtersForDTO.forEach(fm -> {
+			if (!fm.isValid()) {
+				if (fm.isPreprocessor()) {
+					failedPreprocessorDTOs.add(fm.toFailedPreprocessorDTO(fm.getDtoFailureCode()));
+				} else {
+					failedFilterDTOs.add(fm.toFailedFilterDTO(fm.getDtoFailureCode()));
+				}
+			} else {
+				fm.getContextModels().forEach(ocm -> {
 					if (fm.isPreprocessor()) {
-						failedPreprocessorDTOs.add(fm.toFailedPreprocessorDTO(fm.getDtoFailureCode()));
+						// diagram Figure 140.3 Runtime DTO Overview Diagram is wrong, because
+						// PreprocessorDTOs are kept at RuntimeDTO level
+						preprocessorDTOs.add(fm.toPreprocessorDTO());
 					} else {
-						failedFilterDTOs.add(fm.toFailedFilterDTO(fm.getDtoFailureCode()));
+						// only preprocessors are associated (according to Whiteboard DTO chapter) with
+						// any context - even if in Pax Web they're associated with ALL the contexts
+						scFilters.get(scDTOs.get(ocm)).add(fm.toFilterDTO());
 					}
+				});
+			}
+		});
+		this.disabledFilterModels.forEach(fm -> {
+			if (fm.isPreprocessor()) {
+				failedPreprocessorDTOs.add(fm.toFailedPreprocessorDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+			} else {
+				failedFilterDTOs.add(fm.toFailedFilterDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+			}
+		});
+		// ------ listeners
+		this.eventListenersForDTO.forEach(lm -> {
+			if (!lm.isValid()) {
+				failedListenerDTOs.add(lm.toFailedDTO(lm.getDtoFailureCode()));
+			} else {
+				lm.getContextModels().forEach(ocm -> {
+					scListeners.get(scDTOs.get(ocm)).add(lm.toDTO());
+				});
+			}
+		});
+		// ------ failed Whiteboard elements
+		this.failedWhiteboardElements.forEach(em -> {
+			if (em instanceof ErrorPageModel) {
+				failedErrorPageDTOs.add(((ErrorPageModel) em).toFailedDTO(null, em.getDtoFailureCode()));
+			} else if (em instanceof FilterModel) {
+				if (((FilterModel) em).isPreprocessor()) {
+					failedPreprocessorDTOs.add(((FilterModel) em).toFailedPreprocessorDTO(em.getDtoFailureCode()));
 				} else {
-					fm.getContextModels().forEach(ocm -> {
-						if (fm.isPreprocessor()) {
-							// diagram Figure 140.3 Runtime DTO Overview Diagram is wrong, because
-							// PreprocessorDTOs are kept at RuntimeDTO level
-							preprocessorDTOs.add(fm.toPreprocessorDTO());
-						} else {
-							// only preprocessors are associated (according to Whiteboard DTO chapter) with
-							// any context - even if in Pax Web they're associated with ALL the contexts
-							scFilters.get(scDTOs.get(ocm)).add(fm.toFilterDTO());
-						}
-					});
-				}
-			});
-			this.disabledFilterModels.forEach(fm -> {
-				if (fm.isPreprocessor()) {
-					failedPreprocessorDTOs.add(fm.toFailedPreprocessorDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
-				} else {
-					failedFilterDTOs.add(fm.toFailedFilterDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+					failedFilterDTOs.add(((FilterModel) em).toFailedFilterDTO(em.getDtoFailureCode()));
 				}
-			});
-			// ------ listeners
-			this.eventListenersForDTO.forEach(lm -> {
-				if (!lm.isValid()) {
-					failedListenerDTOs.add(lm.toFailedDTO(lm.getDtoFailureCode()));
+			} else if (em instanceof EventListenerModel) {
+				failedListenerDTOs.add(((EventListenerModel) em).toFailedDTO(em.getDtoFailureCode()));
+			} else if (em instanceof ServletModel) {
+				if (((ServletModel) em).isResourceServlet()) {
+					failedResourceDTOs.add(((ServletModel) em).toFailedResourceDTO(em.getDtoFailureCode()));
+				} else if (((ServletModel) em).getErrorPageModel() != null) {
+					failedErrorPageDTOs.add(((ServletModel) em).getErrorPageModel().toFailedDTO((ServletModel) em,
+							((ServletModel) em).getErrorPageModel().getDtoFailureCode()));
 				} else {
-					lm.getContextModels().forEach(ocm -> {
-						scListeners.get(scDTOs.get(ocm)).add(lm.toDTO());
-					});
+					failedServletDTOs.add(((ServletModel) em).toFailedServletDTO(em.getDtoFailureCode()));
 				}
-			});
-			// ------ failed Whiteboard elements
-			this.failedWhiteboardElements.forEach(em -> {
-				if (em instanceof ErrorPageModel) {
-					failedErrorPageDTOs.add(((ErrorPageModel) em).toFailedDTO(null, em.getDtoFailureCode()));
-				} else if (em instanceof FilterModel) {
-					if (((FilterModel) em).isPreprocessor()) {
-						failedPreprocessorDTOs.add(((FilterModel) em).toFailedPreprocessorDTO(em.getDtoFailureCode()));
-					} else {
-						failedFilterDTOs.add(((FilterModel) em).toFailedFilterDTO(em.getDtoFailureCode()));
-					}
-				} else if (em instanceof EventListenerModel) {
-					failedListenerDTOs.add(((EventListenerModel) em).toFailedDTO(em.getDtoFailureCode()));
-				} else if (em instanceof ServletModel) {
-					if (((ServletModel) em).isResourceServlet()) {
-						failedResourceDTOs.add(((ServletModel) em).toFailedResourceDTO(em.getDtoFailureCode()));
-					} else if (((ServletModel) em).getErrorPageModel() != null) {
-						failedErrorPageDTOs.add(((ServletModel) em).getErrorPageModel().toFailedDTO((ServletModel) em,
-								((ServletModel) em).getErrorPageModel().getDtoFailureCode()));
-					} else {
-						failedServletDTOs.add(((ServletModel) em).toFailedServletDTO(em.getDtoFailureCode()));
-					}
-				}
-			});
+			}
+		});
 
-			for (ServletContextDTO scDTO : dto.servletContextDTOs) {
-				scDTO.errorPageDTOs = scErrorPages.get(scDTO).toArray(new ErrorPageDTO[0]);
-				for (ErrorPageDTO d : scDTO.errorPageDTOs) {
-					d.servletContextId = scDTO.serviceId;
-				}
-				scDTO.filterDTOs = scFilters.get(scDTO).toArray(new FilterDTO[0]);
-				for (FilterDTO d : scDTO.filterDTOs) {
-					d.servletContextId = scDTO.serviceId;
-				}
-				// this should work according to Figure 140.3 Runtime DTO Overview Diagram...
+		for (ServletContextDTO scDTO : dto.servletContextDTOs) {
+			scDTO.errorPageDTOs = scErrorPages.get(scDTO).toArray(new ErrorPageDTO[0]);
+			for (ErrorPageDTO d : scDTO.errorPageDTOs) {
+				d.servletContextId = scDTO.serviceId;
+			}
+			scDTO.filterDTOs = scFilters.get(scDTO).toArray(new FilterDTO[0]);
+			for (FilterDTO d : scDTO.filterDTOs) {
+				d.servletContextId = scDTO.serviceId;
+			}
+			// this should work according to Figure 140.3 Runtime DTO Overview Diagram...
 //				scDTO.preprocessorDTOs = scPreprocessors.get(scDTO).toArray(new PreprocessorDTO[0]);
-				scDTO.listenerDTOs = scListeners.get(scDTO).toArray(new ListenerDTO[0]);
-				for (ListenerDTO d : scDTO.listenerDTOs) {
-					d.servletContextId = scDTO.serviceId;
-				}
-				scDTO.servletDTOs = scServlets.get(scDTO).toArray(new ServletDTO[0]);
-				for (ServletDTO d : scDTO.servletDTOs) {
-					d.servletContextId = scDTO.serviceId;
-				}
-				scDTO.resourceDTOs = scResources.get(scDTO).toArray(new ResourceDTO[0]);
-				for (ResourceDTO d : scDTO.resourceDTOs) {
-					d.servletContextId = scDTO.serviceId;
-				}
+			scDTO.listenerDTOs = scListeners.get(scDTO).toArray(new ListenerDTO[0]);
+			for (ListenerDTO d : scDTO.listenerDTOs) {
+				d.servletContextId = scDTO.serviceId;
+			}
+			scDTO.servletDTOs = scServlets.get(scDTO).toArray(new ServletDTO[0]);
+			for (ServletDTO d : scDTO.servletDTOs) {
+				d.servletContextId = scDTO.serviceId;
+			}
+			scDTO.resourceDTOs = scResources.get(scDTO).toArray(new ResourceDTO[0]);
+			for (ResourceDTO d : scDTO.resourceDTOs) {
+				d.servletContextId = scDTO.serviceId;
 			}
+		}
 
-			dto.failedErrorPageDTOs = failedErrorPageDTOs.toArray(new FailedErrorPageDTO[0]);
-			dto.failedFilterDTOs = failedFilterDTOs.toArray(new FailedFilterDTO[0]);
-			dto.preprocessorDTOs = preprocessorDTOs.toArray(new PreprocessorDTO[0]);
-			dto.failedPreprocessorDTOs = failedPreprocessorDTOs.toArray(new FailedPreprocessorDTO[0]);
-			dto.failedListenerDTOs = failedListenerDTOs.toArray(new FailedListenerDTO[0]);
-			dto.failedResourceDTOs = failedResourceDTOs.toArray(new FailedResourceDTO[0]);
-			dto.failedServletDTOs = failedServletDTOs.toArray(new FailedServletDTO[0]);
+		dto.failedErrorPageDTOs = failedErrorPageDTOs.toArray(new FailedErrorPageDTO[0]);
+		dto.failedFilterDTOs = failedFilterDTOs.toArray(new FailedFilterDTO[0]);
+		dto.preprocessorDTOs = preprocessorDTOs.toArray(new PreprocessorDTO[0]);
+		dto.failedPreprocessorDTOs = failedPreprocessorDTOs.toArray(new FailedPreprocessorDTO[0]);
+		dto.failedListenerDTOs = failedListenerDTOs.toArray(new FailedListenerDTO[0]);
+		dto.failedResourceDTOs = failedResourceDTOs.toArray(new FailedResourceDTO[0]);
+		dto.failedServletDTOs = failedServletDTOs.toArray(new FailedServletDTO[0]);
+
+		RuntimeSnapshot snapshot = new RuntimeSnapshot(version, dto);
+		runtimeSnapshot = snapshot;
+		return snapshot;
+	}
 
-			return dto;
-		}, false);
+	/**
+	 * Copies DTOs from {@link RuntimeSnapshot}, so the callers can't modify the snapshot used by other callers.
+	 *
+	 * @param dtos
+	 * @return
+	 */
+	private static <T extends DTO> T[] copyDTOs(T[] dtos) {
+		return dtos == null ? null : copyValue(dtos);
+	}
+
+	/**
+	 * Deep copy of a value of DTO field - nested DTOs, arrays and maps are copied, other values are immutable.
+	 *
+	 * @param value
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> T copyValue(T value) {
+		if (value instanceof DTO) {
+			try {
+				T copy = (T) value.getClass().getConstructor().newInstance();
+				for (Field f : value.getClass().getFields()) {
+					if (!Modifier.isStatic(f.getModifiers())) {
+						f.set(copy, copyValue(f.get(value)));
+					}
+				}
+				return copy;
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException("Can't copy " + value.getClass().getName() + ": " + e.getMessage(), e);
+			}
+		}
+		if (value instanceof Map) {
+			return (T) new LinkedHashMap<>((Map<?, ?>) value);
+		}
+		if (value != null && value.getClass().isArray()) {
+			int length = Array.getLength(value);
+			Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+			if (value.getClass().getComponentType().isPrimitive()) {
+				System.arraycopy(value, 0, copy, 0, length);
+			} else {
+				for (int i = 0; i < length; i++) {
+					Array.set(copy, i, copyValue(Array.get(value, i)));
+				}
+			}
+			return (T) copy;
+		}
+		return value;
 	}
 
 	@Override
 	public RequestInfoDTO calculateRequestInfoDTO(String path) {
-		return runSilently(() -> {
-			RequestInfoDTO dto = new RequestInfoDTO();
-			dto.path = path;
+		RuntimeSnapshot snapshot = getRuntimeSnapshot();
+		if (snapshot == null) {
+			return null;
+		}
 
-			// let's ... simply get the information from RuntimeDTO
-			RuntimeDTO runtimeDTO = getRuntimeDTO();
+		RequestInfoDTO dto = new RequestInfoDTO();
+		dto.path = path;
 
-			Set<ServletContextDTO> orderedServletContexts = new TreeSet<>(new ContextComparator());
-			Collections.addAll(orderedServletContexts, runtimeDTO.servletContextDTOs);
+		// contexts and their mappings are already ordered in the snapshot
+		for (ContextMappings mappings : snapshot.contexts) {
+			ServletContextDTO scdto = mappings.context;
+			if (path.startsWith(scdto.contextPath)) {
+				dto.servletContextId = scdto.serviceId;
 
-			for (ServletContextDTO scdto : orderedServletContexts) {
-				if (path.startsWith(scdto.contextPath)) {
-					dto.servletContextId = scdto.serviceId;
+				String remaining = path.substring(scdto.contextPath.length());
+				if (remaining.contains("?")) {
+					// remove query string
+					remaining = remaining.substring(0, remaining.indexOf("?"));
+				}
+				if (!remaining.startsWith("/")) {
+					remaining = "/" + remaining;
+				}
 
-					String remaining = path.substring(scdto.contextPath.length());
-					if (remaining.contains("?")) {
-						// remove query string
-						remaining = remaining.substring(0, remaining.indexOf("?"));
-					}
-					if (!remaining.startsWith("/")) {
-						remaining = "/" + remaining;
-					}
+				// checking servlets/resources
 
-					// checking servlets/resources
+				for (Map.Entry<String, DTO> e : mappings.mappings) {
+					String mapping = e.getKey();
+					DTO target = e.getValue();
 
-					// we can assume valid patterns: "/", "/xxx/*", "/xxx", "*.x".
-					// "/" has to be saved as fallback pattern (default servlet)
-					Map<String, DTO> orderedMappings = new TreeMap<>(new PatternComparator());
-					for (ServletDTO sdto : scdto.servletDTOs) {
-						for (String p : sdto.patterns) {
-							orderedMappings.put(p, sdto);
+					boolean match = false;
+					if (!"/".equals(mapping)) {
+						if (!mapping.contains("*") && mapping.equals(remaining)) {
+							// found exact match
+							match = true;
+						} else if (mapping.contains("*")) {
+							if (mapping.endsWith("/*") && remaining.startsWith(mapping.substring(0, mapping.length() - 2))) {
+								// found prefix match
+								match = true;
+							} else if (mapping.startsWith("*.") && remaining.endsWith(mapping.substring(1))) {
+								// found extension match
+								match = true;
+							}
 						}
+					} else {
+						// checked always last
+						match = true;
 					}
-					for (ResourceDTO rdto : scdto.resourceDTOs) {
-						for (String p : rdto.patterns) {
-							orderedMappings.put(p, rdto);
+					if (match) {
+						if (target instanceof ResourceDTO) {
+							dto.resourceDTO = copyValue((ResourceDTO) target);
+						} else {
+							dto.servletDTO = copyValue((ServletDTO) target);
 						}
+						// end of searching through servlet/resource mappings
+						break;
 					}
-					for (Map.Entry<String, DTO> e : orderedMappings.entrySet()) {
-						String mapping = e.getKey();
-						DTO target = e.getValue();
+					// continue with the next pattern
+				}
+
+				// checking filters
+				String targetName = null;
+				if (dto.servletDTO != null) {
+					targetName = dto.servletDTO.name;
+				} else if (dto.resourceDTO != null) {
+					targetName = "default";
+				}
 
+				List<FilterDTO> matchingFilters = new ArrayList<>();
+				for (FilterDTO fdto : scdto.filterDTOs) {
+					if (fdto.servletNames != null) {
 						boolean match = false;
-						if (!"/".equals(mapping)) {
-							if (!mapping.contains("*") && mapping.equals(remaining)) {
-								// found exact match
+						for (String sn : fdto.servletNames) {
+							if (sn != null && sn.equals(targetName)) {
+								matchingFilters.add(fdto);
 								match = true;
-							} else if (mapping.contains("*")) {
-								if (mapping.endsWith("/*") && remaining.startsWith(mapping.substring(0, mapping.length() - 2))) {
-									// found prefix match
-									match = true;
-								} else if (mapping.startsWith("*.") && remaining.endsWith(mapping.substring(1))) {
-									// found extension match
-									match = true;
-								}
+								break;
 							}
-						} else {
-							// checked always last
-							match = true;
 						}
 						if (match) {
-							if (target instanceof ResourceDTO) {
-								dto.resourceDTO = (ResourceDTO) target;
-							} else {
-								dto.servletDTO = (ServletDTO) target;
-							}
-							// end of searching through servlet/resource mappings
-							break;
+							// no need to check the URL mappings
+							continue;
 						}
-						// continue with the next pattern
-					}
-
-					// checking filters
-					String targetName = null;
-					if (dto.servletDTO != null) {
-						targetName = dto.servletDTO.name;
-					} else if (dto.resourceDTO != null) {
-						targetName = "default";
 					}
-
-					List<FilterDTO> matchingFilters = new ArrayList<>();
-					for (FilterDTO fdto : scdto.filterDTOs) {
-						if (fdto.servletNames != null) {
-							boolean match = false;
-							for (String sn : fdto.servletNames) {
-								if (sn != null && sn.equals(targetName)) {
-									matchingFilters.add(fdto);
+					if (fdto.patterns != null) {
+						boolean match = false;
+						for (String p : fdto.patterns) {
+							if (!p.contains("*") && p.equals(remaining)) {
+								// found exact match
+								match = true;
+							} else if (p.contains("*")) {
+								if (p.endsWith("/*") && remaining.startsWith(p.substring(0, p.length() - 2))) {
+									// found prefix match
 									match = true;
-									break;
-								}
-							}
-							if (match) {
-								// no need to check the URL mappings
-								continue;
-							}
-						}
-						if (fdto.patterns != null) {
-							boolean match = false;
-							for (String p : fdto.patterns) {
-								if (!p.contains("*") && p.equals(remaining)) {
-									// found exact match
+								} else if (p.startsWith("*.") && remaining.endsWith(p.substring(1))) {
+									// found extension match
 									match = true;
-								} else if (p.contains("*")) {
-									if (p.endsWith("/*") && remaining.startsWith(p.substring(0, p.length() - 2))) {
-										// found prefix match
-										match = true;
-									} else if (p.startsWith("*.") && remaining.endsWith(p.substring(1))) {
-										// found extension match
-										match = true;
-									}
-								}
-								if (match) {
-									matchingFilters.add(fdto);
-									break;
 								}
 							}
 							if (match) {
-								// no need to check the regex mapping
-								continue;
+								matchingFilters.add(fdto);
+								break;
 							}
 						}
-						if (fdto.regexs != null) {
-							boolean match = false;
-							for (String p : fdto.regexs) {
-								Pattern re = Pattern.compile(p);
-								if (re.matcher(remaining).matches()) {
-									matchingFilters.add(fdto);
-									break;
-								}
+						if (match) {
+							// no need to check the regex mapping
+							continue;
+						}
+					}
+					Pattern[] regexs = mappings.filterRegexs.get(fdto);
+					if (regexs != null) {
+						for (Pattern re : regexs) {
+							if (re.matcher(remaining).matches()) {
+								matchingFilters.add(fdto);
+								break;
 							}
 						}
 					}
-					dto.filterDTOs = matchingFilters.toArray(new FilterDTO[0]);
-
-					// end of searching through context paths
-					break;
 				}
+				dto.filterDTOs = copyDTOs(matchingFilters.toArray(new FilterDTO[0]));
+
+				// end of searching through context paths
+				break;
 			}
+		}
 
-			return dto;
-		}, false);
+		return dto;
 	}
 
 	@Override
@@ -3570,6 +3951,47 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 		}
 	}
 
+	/**
+	 * Returns {@link RequestStatisticsInfo request statistics} of all the contexts with registered servlets and
+	 * of these servlets. Statistics are recorded only if enabled using
+	 * {@link org.ops4j.pax.web.service.PaxWebConfig#PID_CFG_REQUEST_METRICS}.
+	 *
+	 * @return
+	 */
+	public List<RequestStatisticsInfo> collectRequestStatistics() {
+		return read(() -> {
+			List<RequestStatisticsInfo> statistics = new ArrayList<>();
+			Set<OsgiContextModel> contexts = new LinkedHashSet<>();
+			for (ServletModel sm : servletsForDTO) {
+				if (!sm.isValid()) {
+					continue;
+				}
+				for (OsgiContextModel ocm : sm.getContextModels()) {
+					if (contexts.add(ocm)) {
+						statistics.add(new RequestStatisticsInfo(ocm));
+					}
+					statistics.add(new RequestStatisticsInfo(ocm, sm));
+				}
+			}
+			Collections.sort(statistics);
+			return statistics;
+		}, Collections.emptyList());
+	}
+
+	/**
+	 * Resets {@link RequestMetrics} of all the contexts and servlets.
+	 */
+	public void resetRequestStatistics() {
+		// resetting the metrics doesn't change the model
+		read(() -> {
+			for (ServletModel sm : servletsForDTO) {
+				sm.getRequestMetrics().reset();
+				sm.getContextModels().forEach(ocm -> ocm.getRequestMetrics().reset());
+			}
+			return null;
+		}, null);
+	}
+
 	public void registerReportViewPlugin(ReportViewPlugin plugin) {
 		plugins.add(plugin);
 	}
@@ -3587,6 +4009,7 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 	public void setHttpServiceRuntimeInformation(ServiceRegistration<HttpServiceRuntime> httpServiceRuntimeReg, ServiceReferenceDTO httpServiceRuntimeDTO) {
 		this.httpServiceRuntimeReg = httpServiceRuntimeReg;
 		this.httpServiceRuntimeDTO = httpServiceRuntimeDTO;
+		this.changeCount.setRegistration(httpServiceRuntimeReg);
 	}
 
 	public ServiceRegistration<HttpServiceRuntime> getHttpServiceRuntimeReg() {
@@ -3619,6 +4042,67 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 		return failedWhiteboardElements;
 	}
 
+	/**
+	 * Immutable snapshot of the model - {@link RuntimeDTO} without service information and ordered mappings
+	 * of all the contexts, so {@link RequestInfoDTO} can be calculated without sorting and compiling the
+	 * patterns for each request.
+	 */
+	private static final class RuntimeSnapshot {
+		/** {@link #modelVersion} at the time the snapshot was created */
+		private final long version;
+		private final RuntimeDTO dto;
+		/** Contexts ordered by {@link ContextComparator} */
+		private final List<ContextMappings> contexts;
+
+		RuntimeSnapshot(long version, RuntimeDTO dto) {
+			this.version = version;
+			this.dto = dto;
+
+			Set<ServletContextDTO> orderedServletContexts = new TreeSet<>(new ContextComparator());
+			Collections.addAll(orderedServletContexts, dto.servletContextDTOs);
+			List<ContextMappings> contexts = new ArrayList<>(orderedServletContexts.size());
+			for (ServletContextDTO scdto : orderedServletContexts) {
+				contexts.add(new ContextMappings(scdto));
+			}
+			this.contexts = Collections.unmodifiableList(contexts);
+		}
+	}
+
+	/**
+	 * Servlet/resource mappings of single {@link ServletContextDTO} ordered by {@link PatternComparator} and
+	 * compiled regex mappings of its filters.
+	 */
+	private static final class ContextMappings {
+		private final ServletContextDTO context;
+		private final List<Map.Entry<String, DTO>> mappings;
+		private final Map<FilterDTO, Pattern[]> filterRegexs = new IdentityHashMap<>();
+
+		ContextMappings(ServletContextDTO context) {
+			this.context = context;
+
+			// we can assume valid patterns: "/", "/xxx/*", "/xxx", "*.x".
+			// "/" has to be saved as fallback pattern (default servlet)
+			Map<String, DTO> orderedMappings = new TreeMap<>(new PatternComparator());
+			for (ServletDTO sdto : context.servletDTOs) {
+				for (String p : sdto.patterns) {
+					orderedMappings.put(p, sdto);
+				}
+			}
+			for (ResourceDTO rdto : context.resourceDTOs) {
+				for (String p : rdto.patterns) {
+					orderedMappings.put(p, rdto);
+				}
+			}
+			this.mappings = new ArrayList<>(orderedMappings.entrySet());
+
+			for (FilterDTO fdto : context.filterDTOs) {
+				if (fdto.regexs != null) {
+					filterRegexs.put(fdto, Arrays.stream(fdto.regexs).map(Pattern::compile).toArray(Pattern[]::new));
+				}
+			}
+		}
+	}
+
 	/**
 	 * {@link Comparator} that sorts {@link ServletContextDTO} by the longest context path.
 	 */
@@ -130,7 +130,7 @@ public final class ServletContextModel extends Identity {
 		if (model.getAlias() != null) {
 			aliasMapping.remove(model.getAlias());
 		}
-		servletUrlPatternMapping.entrySet().removeIf(e -> e.getValue().equals(model));
+		Arrays.stream(model.getUrlPatterns()).forEach(p -> servletUrlPatternMapping.remove(p, model));
 		servletNameMapping.remove(model.getName());
 	}
 
@@ -38,6 +38,7 @@ import javax.servlet.ServletContext;
 import org.ops4j.pax.web.service.PaxWebConstants;
 import org.ops4j.pax.web.service.spi.config.JspConfiguration;
 import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.RequestMetrics;
 import org.ops4j.pax.web.service.spi.model.events.ServletEventData;
 import org.ops4j.pax.web.service.spi.util.Path;
 import org.ops4j.pax.web.service.spi.util.Utils;
@@ -172,6 +173,9 @@ public class ServletModel extends ElementModel<Servlet, ServletEventData> {
 	 */
 	private boolean servletSecurityPresent = false;
 
+	/** Statistics of requests handled by this servlet (in any of its contexts) */
+	private final RequestMetrics requestMetrics = new RequestMetrics();
+
 	/**
 	 * Constructor used for servlet unregistration
 	 * @param alias
@@ -630,6 +634,10 @@ public class ServletModel extends ElementModel<Servlet, ServletEventData> {
 		return errorPageModel;
 	}
 
+	public RequestMetrics getRequestMetrics() {
+		return requestMetrics;
+	}
+
 	public void setDynamic(boolean dynamic) {
 		this.dynamic = dynamic;
 	}
@@ -0,0 +1,457 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model.events;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Event bus delivering events to listeners using shared {@link ExecutorService}. Each listener has its own
+ * bounded queue, so:<ul>
+ *     <li>each listener receives the events in the order in which they were published,</li>
+ *     <li>slow listener doesn't block other listeners,</li>
+ *     <li>the publisher is blocked (up to a timeout) when a queue of some listener is full. A listener which
+ *         doesn't accept new events within the timeout (or fails to process an event) is removed.</li>
+ *     <li>a listener which doesn't finish processing single event within the same timeout is removed too. Its
+ *         delivery thread is interrupted and if the executor is a {@link ThreadPoolExecutor}, it gets one more
+ *         thread until the hung delivery returns, so the other listeners are not blocked by the hung one.</li>
+ * </ul></p>
+ *
+ * <p>There's at most one executor task per listener which delivers a batch of the events queued so far, so there
+ * are no tasks created per (event, listener) pair.</p>
+ *
+ * <p>A listener may be added with <em>coalescing</em> enabled. Then, an event which is still queued is removed if
+ * a newly published event supersedes it (e.g., {@code DEPLOYING} event of a WAB is not delivered if
+ * {@code DEPLOYED} event of the same WAB is published before the listener got the {@code DEPLOYING} one).</p>
+ *
+ * @param <L> type of the listener
+ * @param <E> type of the event
+ */
+public class EventBus<L, E> {
+
+	public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+	public static final long DEFAULT_TIMEOUT_MILLIS = 60_000L;
+
+	private static final Logger LOG = LoggerFactory.getLogger(EventBus.class);
+
+	/** Number of events delivered by single executor task, before the task gives way to other listeners */
+	private static final int BATCH_SIZE = 64;
+
+	private final ExecutorService executor;
+	private final BiConsumer<L, E> delivery;
+	private final BiPredicate<E, E> supersedes;
+	private final int capacity;
+	private final long timeoutMillis;
+
+	/** Queues in the order in which the listeners were added */
+	private final List<ListenerQueue> queues = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Creates an event bus with default capacity and timeout.
+	 *
+	 * @param executor executor used to deliver the events
+	 * @param delivery the method that passes an event to a listener
+	 * @param supersedes a test checking whether queued event (1st argument) is superseded by newly published event
+	 *        (2nd argument). May be {@code null} if coalescing is not supported.
+	 */
+	public EventBus(ExecutorService executor, BiConsumer<L, E> delivery, BiPredicate<E, E> supersedes) {
+		this(executor, delivery, supersedes, DEFAULT_QUEUE_CAPACITY, DEFAULT_TIMEOUT_MILLIS);
+	}
+
+	public EventBus(ExecutorService executor, BiConsumer<L, E> delivery, BiPredicate<E, E> supersedes,
+			int capacity, long timeoutMillis) {
+		this.executor = executor;
+		this.delivery = delivery;
+		this.supersedes = supersedes;
+		this.capacity = capacity;
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * Adds new listener which'll receive events published after this call.
+	 *
+	 * @param listener
+	 * @param coalesce whether the listener agrees to not receive events superseded by newer events
+	 */
+	public void addListener(L listener, boolean coalesce) {
+		if (find(listener) == null) {
+			queues.add(new ListenerQueue(listener, coalesce && supersedes != null));
+		}
+	}
+
+	/**
+	 * Removes a listener. Events already queued for this listener are not delivered.
+	 *
+	 * @param listener
+	 */
+	public void removeListener(L listener) {
+		ListenerQueue queue = find(listener);
+		if (queue != null) {
+			queues.remove(queue);
+			queue.close();
+		}
+	}
+
+	public boolean hasListeners() {
+		return !queues.isEmpty();
+	}
+
+	/**
+	 * Publishes an event to all the listeners. The callers should synchronize the calls if they require the same
+	 * order of events for all the listeners.
+	 *
+	 * @param event
+	 */
+	public void publish(E event) {
+		for (ListenerQueue queue : queues) {
+			try {
+				if (!queue.offer(event)) {
+					LOG.warn("Listener {} doesn't accept new events for {}ms, will be ignored",
+							queue.listener, timeoutMillis);
+					removeListener(queue.listener);
+				}
+			} catch (RejectedExecutionException ree) {
+				LOG.warn("Executor shut down", ree);
+				break;
+			} catch (InterruptedException ie) {
+				LOG.warn("Thread interrupted", ie);
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Returns number of events waiting for delivery to all the listeners.
+	 *
+	 * @return
+	 */
+	public int getQueueDepth() {
+		int depth = 0;
+		for (ListenerQueue queue : queues) {
+			depth += queue.size();
+		}
+		return depth;
+	}
+
+	/**
+	 * Returns statistics of all current listeners.
+	 *
+	 * @return
+	 */
+	public List<Statistics> getStatistics() {
+		List<Statistics> result = new ArrayList<>(queues.size());
+		for (ListenerQueue queue : queues) {
+			long delivered = queue.delivered.sum();
+			result.add(new Statistics(queue.listener.getClass().getName(), queue.size(), delivered,
+					queue.coalesced.sum(), delivered == 0L ? 0L : queue.totalLatency.sum() / delivered,
+					queue.maxLatency.get()));
+		}
+		return result;
+	}
+
+	/**
+	 * Changes the number of threads of the executor, if it's a {@link ThreadPoolExecutor}, to compensate for
+	 * a thread blocked by hung listener.
+	 *
+	 * @param delta
+	 * @return whether the number of threads was changed
+	 */
+	private boolean resizeExecutor(int delta) {
+		if (!(executor instanceof ThreadPoolExecutor)) {
+			return false;
+		}
+		ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+		synchronized (pool) {
+			if (pool.isShutdown()) {
+				return false;
+			}
+			// maximum size can't be lower than core size
+			if (delta > 0) {
+				pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+				pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+			} else {
+				pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+				pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+			}
+		}
+		return true;
+	}
+
+	private ListenerQueue find(L listener) {
+		for (ListenerQueue queue : queues) {
+			if (queue.listener == listener) {
+				return queue;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Statistics of event delivery to single listener.
+	 */
+	public static final class Statistics {
+		private final String listener;
+		private final int queueDepth;
+		private final long delivered;
+		private final long coalesced;
+		private final long averageLatencyNanos;
+		private final long maxLatencyNanos;
+
+		Statistics(String listener, int queueDepth, long delivered, long coalesced,
+				long averageLatencyNanos, long maxLatencyNanos) {
+			this.listener = listener;
+			this.queueDepth = queueDepth;
+			this.delivered = delivered;
+			this.coalesced = coalesced;
+			this.averageLatencyNanos = averageLatencyNanos;
+			this.maxLatencyNanos = maxLatencyNanos;
+		}
+
+		/** Class name of the listener */
+		public String getListener() {
+			return listener;
+		}
+
+		/** Number of events waiting for delivery */
+		public int getQueueDepth() {
+			return queueDepth;
+		}
+
+		/** Number of events passed to the listener */
+		public long getDelivered() {
+			return delivered;
+		}
+
+		/** Number of events not delivered, because they were superseded by newer events */
+		public long getCoalesced() {
+			return coalesced;
+		}
+
+		/** Average time spent by the listener processing an event */
+		public long getAverageLatencyNanos() {
+			return averageLatencyNanos;
+		}
+
+		/** Maximal time spent by the listener processing an event */
+		public long getMaxLatencyNanos() {
+			return maxLatencyNanos;
+		}
+
+		@Override
+		public String toString() {
+			return "{listener=" + listener + ", queued=" + queueDepth + ", delivered=" + delivered
+					+ ", coalesced=" + coalesced + ", avgLatency=" + averageLatencyNanos + "ns"
+					+ ", maxLatency=" + maxLatencyNanos + "ns}";
+		}
+	}
+
+	/**
+	 * Bounded queue of events for single listener. The events are delivered by single executor task at a time.
+	 */
+	private final class ListenerQueue implements Runnable {
+
+		private final L listener;
+		private final boolean coalesce;
+
+		/** Queued events - guarded by {@code this} */
+		private final ArrayDeque<E> events = new ArrayDeque<>();
+
+		/** Whether there's an executor task delivering the events - guarded by {@code this} */
+		private boolean scheduled;
+
+		private volatile boolean closed;
+
+		/** The thread currently delivering the events - the listener may publish new events */
+		private volatile Thread deliveryThread;
+
+		/** Whether an event is being delivered and since when - guarded by {@code this} */
+		private boolean delivering;
+		private long deliveryStart;
+
+		/** Whether there's a pending check of hung delivery - guarded by {@code this} */
+		private boolean watched;
+
+		/** Whether the executor got additional thread because of hung delivery - guarded by {@code this} */
+		private boolean compensated;
+
+		private final LongAdder delivered = new LongAdder();
+		private final LongAdder coalesced = new LongAdder();
+		private final LongAdder totalLatency = new LongAdder();
+		private final AtomicLong maxLatency = new AtomicLong();
+
+		ListenerQueue(L listener, boolean coalesce) {
+			this.listener = listener;
+			this.coalesce = coalesce;
+		}
+
+		/**
+		 * Queues an event, waiting for free space if needed.
+		 *
+		 * @param event
+		 * @return {@code false} if there was no space in the queue within the timeout
+		 */
+		synchronized boolean offer(E event) throws InterruptedException {
+			if (closed) {
+				return true;
+			}
+			if (coalesce) {
+				for (Iterator<E> it = events.iterator(); it.hasNext(); ) {
+					if (supersedes.test(it.next(), event)) {
+						it.remove();
+						coalesced.increment();
+					}
+				}
+			}
+			if (events.size() >= capacity && deliveryThread != Thread.currentThread()) {
+				// backpressure - but never block the listener which publishes events itself
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+				while (events.size() >= capacity && !closed) {
+					long remaining = deadline - System.nanoTime();
+					if (remaining <= 0L) {
+						return false;
+					}
+					TimeUnit.NANOSECONDS.timedWait(this, remaining);
+				}
+				if (closed) {
+					return true;
+				}
+			}
+			events.addLast(event);
+			if (!scheduled) {
+				executor.execute(this);
+				scheduled = true;
+			}
+			return true;
+		}
+
+		synchronized int size() {
+			return events.size();
+		}
+
+		synchronized void close() {
+			closed = true;
+			events.clear();
+			notifyAll();
+		}
+
+		@Override
+		public void run() {
+			deliveryThread = Thread.currentThread();
+			try {
+				for (int count = 0; ; count++) {
+					E event;
+					synchronized (this) {
+						if (events.isEmpty() || closed) {
+							scheduled = false;
+							return;
+						}
+						if (count == BATCH_SIZE) {
+							// continue in new task, so other listeners sharing the executor are not starved
+							try {
+								executor.execute(this);
+							} catch (RejectedExecutionException e) {
+								scheduled = false;
+							}
+							return;
+						}
+						event = events.pollFirst();
+						notifyAll();
+						delivering = true;
+						deliveryStart = System.nanoTime();
+						if (!watched) {
+							watched = true;
+							watch(timeoutMillis);
+						}
+					}
+					long start = System.nanoTime();
+					try {
+						delivery.accept(listener, event);
+					} catch (Exception e) {
+						LOG.warn("Listener {} caused an exception, will be ignored", listener, e);
+						removeListener(listener);
+						return;
+					} finally {
+						synchronized (this) {
+							delivering = false;
+						}
+					}
+					long latency = System.nanoTime() - start;
+					delivered.increment();
+					totalLatency.add(latency);
+					maxLatency.accumulateAndGet(latency, Math::max);
+				}
+			} finally {
+				deliveryThread = null;
+				synchronized (this) {
+					if (compensated) {
+						compensated = false;
+						resizeExecutor(-1);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Schedules a check whether current delivery didn't take longer than the timeout.
+		 *
+		 * @param delayMillis
+		 */
+		private void watch(long delayMillis) {
+			CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS, Runnable::run).execute(this::check);
+		}
+
+		private void check() {
+			synchronized (this) {
+				if (!delivering || closed) {
+					// next delivery will schedule new check
+					watched = false;
+					return;
+				}
+				long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - deliveryStart);
+				if (elapsedMillis < timeoutMillis) {
+					watch(timeoutMillis - elapsedMillis);
+					return;
+				}
+				watched = false;
+				LOG.warn("Listener {} doesn't process an event for {}ms, will be ignored", listener, timeoutMillis);
+				removeListener(listener);
+				compensated = resizeExecutor(1);
+				// the delivery can't finish while we hold the lock, so the thread is still the hung one
+				Thread hung = deliveryThread;
+				if (hung != null) {
+					hung.interrupt();
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model.events;
+
+import java.util.List;
+import javax.management.MBeanServer;
+
+import org.ops4j.pax.web.service.spi.util.MXBeanRegistration;
+
+/**
+ * {@link EventBusStatisticsMXBean} registered in platform {@link MBeanServer} for the lifetime of an
+ * {@link EventBus}.
+ */
+public class EventBusStatistics implements EventBusStatisticsMXBean {
+
+	public static final String OBJECT_NAME_PREFIX = "org.ops4j.pax.web:type=EventBus,name=";
+
+	private final EventBus<?, ?> eventBus;
+	private final String name;
+
+	private MXBeanRegistration registration;
+
+	public EventBusStatistics(EventBus<?, ?> eventBus, String name) {
+		this.eventBus = eventBus;
+		this.name = name;
+	}
+
+	@Override
+	public List<EventBus.Statistics> getListenerStatistics() {
+		return eventBus.getStatistics();
+	}
+
+	@Override
+	public int getQueueDepth() {
+		return eventBus.getQueueDepth();
+	}
+
+	public void register() {
+		registration = MXBeanRegistration.register(this, OBJECT_NAME_PREFIX + name);
+	}
+
+	public void unregister() {
+		if (registration != null) {
+			registration.unregister();
+			registration = null;
+		}
+	}
+
+}
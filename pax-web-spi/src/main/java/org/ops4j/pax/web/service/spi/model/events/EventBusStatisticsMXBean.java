@@ -0,0 +1,41 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model.events;
+
+import java.util.List;
+
+/**
+ * JMX view of event delivery of single {@link EventBus}. Registered as
+ * {@code org.ops4j.pax.web:type=EventBus,name=<name>} MXBean by the dispatchers of web element and web
+ * application events.
+ */
+public interface EventBusStatisticsMXBean {
+
+	/**
+	 * Statistics (queue depth, latency) of event delivery to each listener.
+	 *
+	 * @return
+	 */
+	List<EventBus.Statistics> getListenerStatistics();
+
+	/**
+	 * Number of events waiting for delivery to all the listeners.
+	 *
+	 * @return
+	 */
+	int getQueueDepth();
+
+}
@@ -116,6 +116,28 @@ public class WebApplicationEvent {
 		return type;
 	}
 
+	/**
+	 * Checks whether this event makes earlier event of the same web application redundant for a listener
+	 * interested only in the final states of the web application (e.g., {@code DEPLOYING} followed by
+	 * {@code DEPLOYED}).
+	 *
+	 * @param earlier
+	 * @return
+	 */
+	public boolean supersedes(WebApplicationEvent earlier) {
+		if (earlier.bundleId != bundleId) {
+			return false;
+		}
+		switch (earlier.type) {
+			case DEPLOYING:
+				return type == State.DEPLOYED || type == State.FAILED;
+			case UNDEPLOYING:
+				return type == State.UNDEPLOYED;
+			default:
+				return false;
+		}
+	}
+
 	public Bundle getBundle() {
 		return bundle;
 	}
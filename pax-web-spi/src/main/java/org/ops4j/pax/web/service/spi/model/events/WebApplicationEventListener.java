@@ -29,4 +29,14 @@ public interface WebApplicationEventListener {
 	 */
 	void webEvent(WebApplicationEvent event);
 
+	/**
+	 * Whether this listener is interested only in the final states of web applications. If {@code true},
+	 * intermediate events (like {@link WebApplicationEvent.State#DEPLOYING}) which were not yet delivered to this
+	 * listener may be skipped when the final event (like {@link WebApplicationEvent.State#DEPLOYED}) is published.
+	 * @return
+	 */
+	default boolean coalesceEvents() {
+		return false;
+	}
+
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model.info;
+
+import java.util.concurrent.TimeUnit;
+
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.RequestMetrics;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+
+/**
+ * A read-only snapshot of {@link RequestMetrics} of single {@link OsgiContextModel} or single
+ * {@link ServletModel} within an {@link OsgiContextModel}. Only getters are available, so the class can be used
+ * as open type of JMX MXBeans.
+ */
+public class RequestStatisticsInfo implements Comparable<RequestStatisticsInfo> {
+
+	private final long bundleId;
+	private final String contextName;
+	private final String contextPath;
+	private final String servletName;
+
+	private final long requests;
+	private final long inFlight;
+	private final long[] responses = new long[5];
+	private final long averageMicros;
+	private final long maxMicros;
+	private final long p50Micros;
+	private final long p90Micros;
+	private final long p99Micros;
+
+	/**
+	 * Creates statistics of given context.
+	 *
+	 * @param context
+	 */
+	public RequestStatisticsInfo(OsgiContextModel context) {
+		this(context, null, context.getRequestMetrics());
+	}
+
+	/**
+	 * Creates statistics of given servlet. Servlet's statistics are collected for all its contexts, but we
+	 * present it for one of them.
+	 *
+	 * @param context
+	 * @param servlet
+	 */
+	public RequestStatisticsInfo(OsgiContextModel context, ServletModel servlet) {
+		this(context, servlet, servlet.getRequestMetrics());
+	}
+
+	private RequestStatisticsInfo(OsgiContextModel context, ServletModel servlet, RequestMetrics metrics) {
+		this.bundleId = servlet != null && servlet.getRegisteringBundle() != null
+				? servlet.getRegisteringBundle().getBundleId()
+				: context.getOwnerBundle() != null ? context.getOwnerBundle().getBundleId() : -1L;
+		this.contextName = context.getName();
+		this.contextPath = context.getContextPath();
+		this.servletName = servlet == null ? null : servlet.getName();
+
+		this.requests = metrics.getRequests();
+		this.inFlight = metrics.getInFlight();
+		for (int i = 0; i < responses.length; i++) {
+			responses[i] = metrics.getStatusCount(i + 1);
+		}
+		this.averageMicros = TimeUnit.NANOSECONDS.toMicros(metrics.getAverageNanos());
+		this.maxMicros = TimeUnit.NANOSECONDS.toMicros(metrics.getMaxNanos());
+		this.p50Micros = metrics.getPercentileMicros(50.0d);
+		this.p90Micros = metrics.getPercentileMicros(90.0d);
+		this.p99Micros = metrics.getPercentileMicros(99.0d);
+	}
+
+	public long getBundleId() {
+		return bundleId;
+	}
+
+	public String getContextName() {
+		return contextName;
+	}
+
+	public String getContextPath() {
+		return contextPath;
+	}
+
+	/**
+	 * Name of the servlet or {@code null} if these are statistics of entire context
+	 * @return
+	 */
+	public String getServletName() {
+		return servletName;
+	}
+
+	public long getRequests() {
+		return requests;
+	}
+
+	public long getInFlight() {
+		return inFlight;
+	}
+
+	public long getResponses1xx() {
+		return responses[0];
+	}
+
+	public long getResponses2xx() {
+		return responses[1];
+	}
+
+	public long getResponses3xx() {
+		return responses[2];
+	}
+
+	public long getResponses4xx() {
+		return responses[3];
+	}
+
+	public long getResponses5xx() {
+		return responses[4];
+	}
+
+	public long getAverageMicros() {
+		return averageMicros;
+	}
+
+	public long getMaxMicros() {
+		return maxMicros;
+	}
+
+	public long getP50Micros() {
+		return p50Micros;
+	}
+
+	public long getP90Micros() {
+		return p90Micros;
+	}
+
+	public long getP99Micros() {
+		return p99Micros;
+	}
+
+	@Override
+	public int compareTo(RequestStatisticsInfo other) {
+		// first - by context path
+		int c = contextPath.compareTo(other.contextPath);
+		if (c != 0) {
+			return c;
+		}
+
+		// then by context name
+		c = contextName.compareTo(other.contextName);
+		if (c != 0) {
+			return c;
+		}
+
+		// finally context statistics first and then by servlet name
+		if (servletName == null || other.servletName == null) {
+			return servletName == null ? (other.servletName == null ? 0 : -1) : 1;
+		}
+		return servletName.compareTo(other.servletName);
+	}
+
+}
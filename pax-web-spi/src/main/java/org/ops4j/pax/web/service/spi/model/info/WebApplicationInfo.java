@@ -19,7 +19,9 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -54,6 +56,7 @@ public class WebApplicationInfo implements Comparable<WebApplicationInfo> {
 	private final Set<URL> wabClassPathSkipped = new HashSet<>();
 	private final List<Bundle> containerFragmentBundles = new ArrayList<>();
 	private final List<Bundle> applicationFragmentBundles = new ArrayList<>();
+	private final Map<String, Long> deploymentTimings = new LinkedHashMap<>();
 	private boolean replaced;
 
 	private WebContextInfo contextModel;
@@ -149,6 +152,14 @@ public class WebApplicationInfo implements Comparable<WebApplicationInfo> {
 		return applicationFragmentBundles;
 	}
 
+	/**
+	 * Durations (in milliseconds) of the deployment phases of a WAB (parsing, scanning, registration, ...)
+	 * @return
+	 */
+	public Map<String, Long> getDeploymentTimings() {
+		return deploymentTimings;
+	}
+
 	public void setContextModel(WebContextInfo contextModel) {
 		this.contextModel = contextModel;
 	}
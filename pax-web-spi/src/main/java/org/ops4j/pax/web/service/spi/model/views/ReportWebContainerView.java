@@ -15,8 +15,10 @@
  */
 package org.ops4j.pax.web.service.spi.model.views;
 
+import java.util.List;
 import java.util.Set;
 
+import org.ops4j.pax.web.service.spi.model.info.RequestStatisticsInfo;
 import org.ops4j.pax.web.service.spi.model.info.ServletInfo;
 import org.ops4j.pax.web.service.spi.model.info.WebApplicationInfo;
 import org.ops4j.pax.web.service.views.PaxWebContainerView;
@@ -66,4 +68,18 @@ public interface ReportWebContainerView extends PaxWebContainerView {
 	 */
 	Set<ServletInfo> listServlets();
 
+	/**
+	 * <p>Returns {@link RequestStatisticsInfo request statistics} of all contexts with registered servlets and of
+	 * these servlets. The statistics are recorded only when
+	 * {@link org.ops4j.pax.web.service.PaxWebConfig#PID_CFG_REQUEST_METRICS} is enabled.</p>
+	 *
+	 * @return
+	 */
+	List<RequestStatisticsInfo> listRequestStatistics();
+
+	/**
+	 * Resets the statistics returned by {@link #listRequestStatistics()}.
+	 */
+	void resetRequestStatistics();
+
 }
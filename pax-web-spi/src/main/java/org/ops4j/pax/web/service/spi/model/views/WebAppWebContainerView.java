@@ -109,6 +109,17 @@ public interface WebAppWebContainerView extends PaxWebContainerView {
 	 */
 	void sendBatch(Batch batch);
 
+	/**
+	 * Performs passed operations (usually {@link #sendBatch(Batch)} calls for many WABs - each using its own view)
+	 * in single configuration task and single registration group, so the runtime starts the contexts of all these
+	 * WABs once - after all the batches are processed.
+	 *
+	 * @param operations
+	 */
+	default void runInGroup(Runnable operations) {
+		operations.run();
+	}
+
 	/**
 	 * Register additional {@link ReportViewPlugin}
 	 * @param plugin
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.servlet;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>A gate used by the runtimes to hold requests arriving at a context which is being restarted (stopped and
+ * started again within the same configuration change). Without the gate such requests would be rejected (usually
+ * with {@code 404}), because there's a moment when the context is not mapped/started.</p>
+ *
+ * <p>The gate is closed by the configuration thread when a context is stopped and opened when it's started again
+ * (or removed). Request threads {@link #await() wait} at most the configured timeout, so a context which is
+ * stopped without being started again doesn't block the requests for too long.</p>
+ *
+ * <p>Requests which already {@link #tryEnter() entered} the context are counted, so before actually stopping the
+ * context, the configuration thread may {@link #drain() wait} (also at most the configured timeout) for them to
+ * complete.</p>
+ */
+public class ContextRestartGate {
+
+	private final long timeoutNanos;
+
+	/** Whether the gate may be closed - guarded by {@code this} */
+	private boolean enabled;
+
+	/** Closed gate - guarded by {@code this} */
+	private boolean closed;
+
+	/** Time ({@link System#nanoTime()}) after which the gate no longer holds requests */
+	private volatile long deadline;
+
+	/** Quick, non-blocking check for request threads */
+	private volatile boolean holding;
+
+	/** Number of requests being processed by the context */
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	/**
+	 * Creates a gate which holds requests for at most given time.
+	 *
+	 * @param timeoutMillis {@code 0} or less means the gate is never closed
+	 */
+	public ContextRestartGate(long timeoutMillis) {
+		this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(timeoutMillis, 0L));
+		this.enabled = timeoutNanos > 0L;
+	}
+
+	/**
+	 * Closes the gate, so new requests are held. Has no effect when the gate is already closed or disabled.
+	 */
+	public synchronized void close() {
+		if (!enabled || closed) {
+			return;
+		}
+		deadline = System.nanoTime() + timeoutNanos;
+		closed = true;
+		holding = true;
+	}
+
+	/**
+	 * Opens the gate and lets the held requests proceed.
+	 */
+	public synchronized void open() {
+		if (closed) {
+			closed = false;
+			holding = false;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Opens the gate and never closes it again. Used when the context is stopped, because it's being removed.
+	 */
+	public synchronized void dispose() {
+		enabled = false;
+		open();
+	}
+
+	/**
+	 * Checks whether the requests should be held now.
+	 *
+	 * @return
+	 */
+	public boolean isClosed() {
+		return holding && deadline - System.nanoTime() > 0L;
+	}
+
+	/**
+	 * Marks the start of a request processing by the context, unless the gate is closed. If the request entered,
+	 * {@link #exit()} has to be called when it's completed.
+	 *
+	 * @return {@code false} if the gate is closed and the request should {@link #await() wait}
+	 */
+	public boolean tryEnter() {
+		inFlight.incrementAndGet();
+		if (isClosed()) {
+			exit();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Marks the start of a request processing regardless of the state of the gate - for runtimes, where closed
+	 * gate already prevents the requests from reaching the context.
+	 */
+	public void enter() {
+		inFlight.incrementAndGet();
+	}
+
+	/**
+	 * Marks the end of a request processing.
+	 */
+	public void exit() {
+		if (inFlight.decrementAndGet() == 0 && holding) {
+			synchronized (this) {
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Called after {@link #close()} to wait until the requests being processed are completed or the timeout
+	 * passes.
+	 */
+	public void drain() {
+		if (!holding) {
+			return;
+		}
+		synchronized (this) {
+			try {
+				long remaining = deadline - System.nanoTime();
+				while (closed && inFlight.get() > 0 && remaining > 0L) {
+					TimeUnit.NANOSECONDS.timedWait(this, remaining);
+					remaining = deadline - System.nanoTime();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Returns number of requests being processed by the context.
+	 *
+	 * @return
+	 */
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	/**
+	 * Waits until the gate is opened or the timeout passes.
+	 *
+	 * @return {@code true} if the gate is open, {@code false} if the timeout has passed
+	 */
+	public boolean await() {
+		if (!holding) {
+			return true;
+		}
+		synchronized (this) {
+			try {
+				long remaining = deadline - System.nanoTime();
+				while (closed && remaining > 0L) {
+					TimeUnit.NANOSECONDS.timedWait(this, remaining);
+					remaining = deadline - System.nanoTime();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return !closed;
+		}
+	}
+
+}
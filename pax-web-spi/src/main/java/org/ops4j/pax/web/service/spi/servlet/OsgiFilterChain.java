@@ -16,9 +16,6 @@
 package org.ops4j.pax.web.service.spi.servlet;
 
 import java.io.IOException;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.function.Consumer;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
@@ -28,27 +25,26 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.ops4j.pax.web.service.WebContainerContext;
-import org.osgi.framework.Bundle;
 import org.osgi.service.http.whiteboard.Preprocessor;
 
 /**
- * A {@link FilterChain} that can be configured in any runtime to correctly handle two concepts defined in
+ * <p>A {@link FilterChain} that can be configured in any runtime to correctly handle two concepts defined in
  * Http Service / Whiteboard Service specifications:<ul>
  *     <li>{@link Preprocessor} filters</li>
  *     <li>{@link org.osgi.service.http.HttpContext#handleSecurity} and/or
  *     {@link org.osgi.service.http.context.ServletContextHelper#handleSecurity} +
  *     {@link org.osgi.service.http.context.ServletContextHelper#finishSecurity}</li>
- * </ul>
+ * </ul></p>
+ *
+ * <p>This chain is only a per-request cursor over immutable {@link OsgiFilterChainTemplate}, which is built
+ * once and cached by the runtime.</p>
  */
 public class OsgiFilterChain implements FilterChain {
 
-	private final List<Preprocessor> preprocessors = new LinkedList<>();
-
-	private final ServletContext servletContext;
-	private final WebContainerContext webContext;
+	private final OsgiFilterChainTemplate<?> template;
 
-	private final OsgiSessionAttributeListener osgiSessionsBridge;
-	private final Consumer<HttpServletRequest> authListener;
+	/** Runtime-specific request passed to authentication listener of the template */
+	private final Object runtimeRequest;
 
 	private FilterChain chain;
 
@@ -56,50 +52,55 @@ public class OsgiFilterChain implements FilterChain {
 
 	/**
 	 * Creates {@link FilterChain} that will invoke all the processors, security handlers, filters and target
-	 * servlet in correct order.
+	 * servlet in correct order. Use {@link OsgiFilterChainTemplate#newChain(FilterChain, Object)}.
 	 *
-	 * @param preprocessors
-	 * @param servletContext wrapped {@link ServletContext} with proper delegation
-	 * @param context already resolved (with proper {@link Bundle}) {@link WebContainerContext}.
+	 * @param template
 	 * @param originalChain
+	 * @param runtimeRequest
 	 */
-	public OsgiFilterChain(List<Preprocessor> preprocessors, ServletContext servletContext,
-			WebContainerContext context, FilterChain originalChain,
-			OsgiSessionAttributeListener osgiSessionsBridge, Consumer<HttpServletRequest> authListener) {
-		this.preprocessors.addAll(preprocessors);
-		this.webContext = context;
-		this.servletContext = servletContext;
+	OsgiFilterChain(OsgiFilterChainTemplate<?> template, FilterChain originalChain, Object runtimeRequest) {
+		this.template = template;
 		this.chain = originalChain;
-		this.osgiSessionsBridge = osgiSessionsBridge;
-		this.authListener = authListener;
+		this.runtimeRequest = runtimeRequest;
 	}
 
 	public void setChain(FilterChain chain) {
 		this.chain = chain;
 	}
 
+	/**
+	 * Returns the {@link OsgiFilterChainTemplate} this chain was created from.
+	 *
+	 * @return
+	 */
+	public OsgiFilterChainTemplate<?> getTemplate() {
+		return template;
+	}
+
 	@Override
 	public void doFilter(ServletRequest request, ServletResponse response) throws IOException, ServletException {
 		HttpServletRequest req = (HttpServletRequest) request;
 		HttpServletResponse res = (HttpServletResponse) response;
 
 		// Here's the best place to wrap a request - but only when called for the first time!
+		ServletContext servletContext = template.getServletContext();
 		if (index == 0 && servletContext != null) {
-			req = new OsgiHttpServletRequestWrapper(req, servletContext, osgiSessionsBridge);
+			req = new OsgiHttpServletRequestWrapper(req, servletContext, template.getOsgiSessionsBridge());
 		}
 
-		if (index < preprocessors.size()) {
+		if (index < template.getPreprocessorCount()) {
 			// still something left
-			Preprocessor filter = preprocessors.get(index++);
+			Preprocessor filter = template.getPreprocessor(index++);
 			filter.doFilter(req, res, this);
 			return;
 		}
 
 		// nothing left - time to call security and if it passes - call the rest of the chain (normal filters
 		// and target servlet)
+		WebContainerContext webContext = template.getWebContext();
 		try {
 			if (webContext == null || webContext.handleSecurity(req, res)) {
-				if (authListener != null && webContext != null) {
+				if (webContext != null) {
 					// it means we've passed the OSGi security handler
 					// here, the listener may translate (if available):
 					// - org.osgi.service.http.context.ServletContextHelper.REMOTE_USER
@@ -107,7 +108,7 @@ public class OsgiFilterChain implements FilterChain {
 					// into runtime-specific data available through:
 					// - javax.servlet.http.HttpServletRequest.getUserPrincipal()
 					// - javax.servlet.http.HttpServletRequest.getRemoteUser()
-					authListener.accept(req);
+					template.authenticated(req, runtimeRequest);
 				}
 				// continue normally with normal filters and target servlet
 				chain.doFilter(req, res);
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.servlet;
+
+import java.util.Collection;
+import java.util.function.BiConsumer;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+
+import org.ops4j.pax.web.service.WebContainerContext;
+import org.osgi.service.http.whiteboard.Preprocessor;
+
+/**
+ * <p>Immutable, pre-built description of the OSGi part of request processing pipeline. It keeps everything
+ * that doesn't change between requests targeting the same servlet (or the same "default" context for servlet-less
+ * chains): {@link Preprocessor preprocessors} (as array of {@link PreprocessorFilterConfig configs}, because the
+ * instances may change when the context is restarted), {@link ServletContext} used to wrap the request,
+ * {@link WebContainerContext} used for security handling and runtime-specific authentication listener.</p>
+ *
+ * <p>Each request is processed using lightweight {@link OsgiFilterChain} cursor obtained with
+ * {@link #newChain(FilterChain, Object)}. Templates should be cached by the runtimes and dropped whenever the
+ * preprocessors, filters or servlets of given physical context change.</p>
+ *
+ * @param <R> runtime-specific request type passed to authentication listener
+ */
+public final class OsgiFilterChainTemplate<R> {
+
+	private static final PreprocessorFilterConfig[] NO_PREPROCESSORS = new PreprocessorFilterConfig[0];
+
+	private final PreprocessorFilterConfig[] preprocessors;
+
+	private final ServletContext servletContext;
+	private final WebContainerContext webContext;
+
+	private final OsgiSessionAttributeListener osgiSessionsBridge;
+	private final BiConsumer<HttpServletRequest, R> authListener;
+
+	/**
+	 * Creates a template for {@link FilterChain chains} that will invoke all the processors, security handlers,
+	 * filters and target servlet in correct order.
+	 *
+	 * @param preprocessors configs of {@link Preprocessor preprocessors} - these are copied into an array
+	 * @param servletContext wrapped {@link ServletContext} with proper delegation. May be {@code null} if
+	 *        the request should not be wrapped
+	 * @param context already resolved {@link WebContainerContext}. May be {@code null} if security should not
+	 *        be handled by this chain
+	 * @param osgiSessionsBridge
+	 * @param authListener listener called when {@link WebContainerContext#handleSecurity} returns {@code true}.
+	 *        It gets the (wrapped) request and runtime-specific request passed to {@link #newChain}
+	 */
+	public OsgiFilterChainTemplate(Collection<PreprocessorFilterConfig> preprocessors, ServletContext servletContext,
+			WebContainerContext context, OsgiSessionAttributeListener osgiSessionsBridge,
+			BiConsumer<HttpServletRequest, R> authListener) {
+		this.preprocessors = preprocessors == null || preprocessors.isEmpty() ? NO_PREPROCESSORS
+				: preprocessors.toArray(new PreprocessorFilterConfig[0]);
+		this.servletContext = servletContext;
+		this.webContext = context;
+		this.osgiSessionsBridge = osgiSessionsBridge;
+		this.authListener = authListener;
+	}
+
+	/**
+	 * Creates new per-request cursor that walks this template and then calls given {@link FilterChain}.
+	 *
+	 * @param chain the rest of the chain (normal filters and target servlet) called after the security check
+	 * @param runtimeRequest runtime-specific request passed to authentication listener (may be {@code null})
+	 * @return
+	 */
+	public OsgiFilterChain newChain(FilterChain chain, R runtimeRequest) {
+		return new OsgiFilterChain(this, chain, runtimeRequest);
+	}
+
+	int getPreprocessorCount() {
+		return preprocessors.length;
+	}
+
+	Preprocessor getPreprocessor(int index) {
+		return preprocessors[index].getInstance();
+	}
+
+	ServletContext getServletContext() {
+		return servletContext;
+	}
+
+	WebContainerContext getWebContext() {
+		return webContext;
+	}
+
+	OsgiSessionAttributeListener getOsgiSessionsBridge() {
+		return osgiSessionsBridge;
+	}
+
+	@SuppressWarnings("unchecked")
+	void authenticated(HttpServletRequest request, Object runtimeRequest) {
+		if (authListener != null) {
+			authListener.accept(request, (R) runtimeRequest);
+		}
+	}
+
+}
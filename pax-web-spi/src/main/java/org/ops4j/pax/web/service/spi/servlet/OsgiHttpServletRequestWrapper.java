@@ -62,7 +62,8 @@ public class OsgiHttpServletRequestWrapper extends HttpServletRequestWrapper {
 
 	/**
 	 * {@link HttpSession} that ensures session separation between OSGi contexts and proper {@link ServletContext}
-	 * access.
+	 * access. It's cached for the duration of the request (within the OSGi context of this wrapper) as long as
+	 * the container returns the same underlying session.
 	 */
 	private volatile OsgiHttpSession session;
 
@@ -105,28 +106,28 @@ public class OsgiHttpServletRequestWrapper extends HttpServletRequestWrapper {
 
 	@Override
 	public HttpSession getSession(boolean create) {
-		if (session != null) {
+		// we always have to ask the container, because the session may have been invalidated (or replaced)
+		// in the meantime, but the wrapper is reused as long as it wraps the same container session.
+		// No locking is needed - in the worst case two equivalent wrappers are created
+		HttpSession original = super.getSession(create);
+		if (original == null) {
 			session = null;
+			return null;
 		}
-		if (session == null) {
-			synchronized (this) {
-				if (session == null) {
-					HttpSession original = super.getSession(create);
-					if (original == null) {
-						return null;
-					}
-					if (original instanceof OsgiHttpSession) {
-						session = (OsgiHttpSession) original;
-						return session;
-					}
-
-					// the only place where org.ops4j.pax.web.service.spi.servlet.OsgiHttpSession is created
-					this.session = new OsgiHttpSession(original, osgiContext, context, osgiSessionsBridge);
-				}
-			}
+		if (original instanceof OsgiHttpSession) {
+			return original;
+		}
+
+		OsgiHttpSession current = session;
+		if (current != null && current.getOriginal() == original) {
+			return current;
 		}
 
-		return session;
+		// the only place where org.ops4j.pax.web.service.spi.servlet.OsgiHttpSession is created
+		current = new OsgiHttpSession(original, osgiContext, context, osgiSessionsBridge);
+		session = current;
+
+		return current;
 	}
 
 	@Override
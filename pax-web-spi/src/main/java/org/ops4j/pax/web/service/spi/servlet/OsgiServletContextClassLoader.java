@@ -21,6 +21,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import javax.servlet.ServletContext;
 
 import org.osgi.framework.Bundle;
@@ -61,11 +65,31 @@ import org.osgi.framework.wiring.BundleWiring;
  * </ul></p>
  *
  * <p>This {@link ClassLoader} implements {@link BundleReference}</p>
+ *
+ * <p>Libraries like EL, JSP, JSF or CDI often probe for classes and resources that don't exist, so results of
+ * class and resource resolution (including negative results) are cached together with the class loaders of the
+ * {@link BundleWiring bundle wirings}. All the cached information is dropped after any bundle in the framework is
+ * (un)resolved, updated or uninstalled (see {@link #wiringChanged()}).</p>
  */
 public class OsgiServletContextClassLoader extends ClassLoader implements BundleReference {
 
+	/** Maximum number of cached lookups (for classes, resources and resource lists separately) */
+	public static final int CACHE_SIZE = 4096;
+
+	/** Incremented when wiring of any bundle changes - the cached resolutions are no longer valid. */
+	private static final AtomicLong WIRING_GENERATION = new AtomicLong(0L);
+
+	/** Marker of negative result of class or resource lookup */
+	private static final Object NOT_FOUND = new Object();
+
 	private List<Bundle> bundles = new ArrayList<>();
 
+	/** Cached resolution state for current set of bundles and current {@link #WIRING_GENERATION} */
+	private volatile Resolution resolution;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
 	public OsgiServletContextClassLoader() {
 		super(null);
 	}
@@ -82,6 +106,7 @@ public class OsgiServletContextClassLoader extends ClassLoader implements Bundle
 	public void addBundle(Bundle bundle) {
 		if (bundle != null && !bundles.contains(bundle)) {
 			bundles.add(bundle);
+			resolution = null;
 		}
 	}
 
@@ -96,6 +121,7 @@ public class OsgiServletContextClassLoader extends ClassLoader implements Bundle
 					bundles.add(b);
 				}
 			}
+			resolution = null;
 		}
 	}
 
@@ -110,21 +136,68 @@ public class OsgiServletContextClassLoader extends ClassLoader implements Bundle
 		bundles = Collections.unmodifiableList(bundles);
 	}
 
+	/**
+	 * Should be called when wiring of any bundle has changed (bundle was resolved, unresolved, updated or
+	 * uninstalled), so all {@link OsgiServletContextClassLoader} instances drop their cached class/resource
+	 * resolutions and class loaders of bundle wirings.
+	 */
+	public static void wiringChanged() {
+		WIRING_GENERATION.incrementAndGet();
+	}
+
+	/**
+	 * Returns number of class/resource lookups served from the cache (including negative lookups).
+	 *
+	 * @return
+	 */
+	public long getCacheHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns number of class/resource lookups that had to search the bundles.
+	 *
+	 * @return
+	 */
+	public long getCacheMisses() {
+		return misses.sum();
+	}
+
 	@Override
 	public Class<?> loadClass(String name) throws ClassNotFoundException {
-		List<Exception> suppressed = new ArrayList<>(bundles.size());
-		for (Bundle b : bundles) {
-			BundleWiring bw = b.adapt(BundleWiring.class);
-			ClassLoader cl = bw == null ? null : bw.getClassLoader();
-			if (cl != null) {
-				try {
-					return cl.loadClass(name);
-				} catch (Exception e) {
-					suppressed.add(e);
-				}
+		if (name == null) {
+			throw new ClassNotFoundException(null);
+		}
+		Resolution r = resolution();
+		Object owner = r.classes.get(name);
+		if (owner == NOT_FOUND) {
+			hits.increment();
+			throw new CachedClassNotFoundException(name);
+		}
+		if (owner != null) {
+			try {
+				Class<?> c = ((ClassLoader) owner).loadClass(name);
+				hits.increment();
+				return c;
+			} catch (ClassNotFoundException ignored) {
+				// should not happen for the same wiring, but let's search again
+				r.classes.remove(name);
 			}
 		}
 
+		misses.increment();
+		List<Exception> suppressed = new ArrayList<>(r.loaders.length);
+		for (ClassLoader cl : r.loaders) {
+			try {
+				Class<?> c = cl.loadClass(name);
+				r.cache(r.classes, name, cl);
+				return c;
+			} catch (Exception e) {
+				suppressed.add(e);
+			}
+		}
+
+		r.cache(r.classes, name, NOT_FOUND);
 		ClassNotFoundException cnfe = new ClassNotFoundException(name);
 		suppressed.forEach(cnfe::addSuppressed);
 		throw cnfe;
@@ -132,43 +205,121 @@ public class OsgiServletContextClassLoader extends ClassLoader implements Bundle
 
 	@Override
 	protected URL findResource(String name) {
-		for (Bundle b : bundles) {
-			BundleWiring bw = b.adapt(BundleWiring.class);
-			ClassLoader cl = bw == null ? null : bw.getClassLoader();
-			if (cl != null) {
-				URL res = cl.getResource(name);
-				if (res != null) {
-					return res;
-				}
+		Resolution r = resolution();
+		Object cached = r.resources.get(name);
+		if (cached != null) {
+			hits.increment();
+			return cached == NOT_FOUND ? null : (URL) cached;
+		}
+
+		misses.increment();
+		for (ClassLoader cl : r.loaders) {
+			URL res = cl.getResource(name);
+			if (res != null) {
+				r.cache(r.resources, name, res);
+				return res;
 			}
 		}
 
+		r.cache(r.resources, name, NOT_FOUND);
 		return null;
 	}
 
 	@Override
 	protected Enumeration<URL> findResources(String name) throws IOException {
+		Resolution r = resolution();
+		List<URL> cached = r.resourceLists.get(name);
+		if (cached != null) {
+			hits.increment();
+			return Collections.enumeration(cached);
+		}
+
+		misses.increment();
 		List<URL> urls = new ArrayList<>(32);
-		for (Bundle b : bundles) {
-			BundleWiring bw = b.adapt(BundleWiring.class);
-			ClassLoader cl = bw == null ? null : bw.getClassLoader();
-			if (cl != null) {
-				Enumeration<URL> e = cl.getResources(name);
-				if (e != null) {
-					while (e.hasMoreElements()) {
-						urls.add(e.nextElement());
-					}
+		for (ClassLoader cl : r.loaders) {
+			Enumeration<URL> e = cl.getResources(name);
+			if (e != null) {
+				while (e.hasMoreElements()) {
+					urls.add(e.nextElement());
 				}
 			}
 		}
 
+		r.cache(r.resourceLists, name, Collections.unmodifiableList(urls));
 		return Collections.enumeration(urls);
 	}
 
+	/**
+	 * Returns current {@link Resolution}, creating new one when bundles or their wirings have changed.
+	 *
+	 * @return
+	 */
+	private Resolution resolution() {
+		Resolution r = resolution;
+		long generation = WIRING_GENERATION.get();
+		if (r == null || r.generation != generation) {
+			List<ClassLoader> loaders = new ArrayList<>(bundles.size());
+			for (Bundle b : bundles) {
+				BundleWiring bw = b.adapt(BundleWiring.class);
+				ClassLoader cl = bw == null ? null : bw.getClassLoader();
+				if (cl != null) {
+					loaders.add(cl);
+				}
+			}
+			r = new Resolution(generation, loaders.toArray(new ClassLoader[0]));
+			resolution = r;
+		}
+		return r;
+	}
+
 	@Override
 	protected Class<?> findClass(String name) throws ClassNotFoundException {
 		// this classloader never loads classes on its own
 		throw new ClassNotFoundException(name);
 	}
 
+	/**
+	 * {@link ClassNotFoundException} thrown for cached negative lookups. Full exception (with suppressed exceptions
+	 * from all the bundles) was thrown for the first lookup, so there's no need to fill the stack trace, which
+	 * is the most expensive part of failed probes for (usually) non-existing classes.
+	 */
+	private static final class CachedClassNotFoundException extends ClassNotFoundException {
+		CachedClassNotFoundException(String name) {
+			super(name);
+		}
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+	}
+
+	/**
+	 * Class loaders of bundle wirings and results of class/resource lookups valid for single generation
+	 * of bundle wirings.
+	 */
+	private static final class Resolution {
+		private final long generation;
+		private final ClassLoader[] loaders;
+
+		/** Class name to {@link ClassLoader} of the wiring that loads the class or {@link #NOT_FOUND} */
+		private final Map<String, Object> classes = new ConcurrentHashMap<>();
+		/** Resource name to {@link URL} or {@link #NOT_FOUND} */
+		private final Map<String, Object> resources = new ConcurrentHashMap<>();
+		private final Map<String, List<URL>> resourceLists = new ConcurrentHashMap<>();
+
+		Resolution(long generation, ClassLoader[] loaders) {
+			this.generation = generation;
+			this.loaders = loaders;
+		}
+
+		private <V> void cache(Map<String, V> cache, String name, V value) {
+			if (cache.size() >= CACHE_SIZE) {
+				// simple bound - there's no point in LRU bookkeeping on each lookup
+				cache.clear();
+			}
+			cache.put(name, value);
+		}
+	}
+
 }
@@ -0,0 +1,735 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.servlet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.DispatcherType;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.ops4j.pax.web.service.spi.config.ResourceConfiguration;
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.util.Path;
+import org.osgi.framework.Bundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Runtime-neutral cache of static content served by <em>resource servlets</em> of all the runtimes (enabled
+ * with {@link org.ops4j.pax.web.service.PaxWebConfig#PID_CFG_DEFAULT_SERVLET_CACHE_SHARED}). Single instance is
+ * shared by all resource servlets of a server controller, so the configured limits are global.</p>
+ *
+ * <p>Resources are cached by {@link OsgiContextModel}, resource base and path. Each entry holds the content
+ * (optionally in direct buffers), its compressed variants (pre-compressed {@code .br}/{@code .gz} siblings and
+ * gzip variant produced on first request accepting it) and a strong ETag based on the revision of the owner bundle
+ * (or last modification time of a file) and a hash of the content. Entries are revalidated after configured TTL
+ * and the least recently used ones are evicted when the size limits are exceeded. Entries of a context are
+ * {@link #invalidate(OsgiContextModel) invalidated} when the context or its resource servlet is removed.</p>
+ *
+ * <p>Only plain {@code GET} requests for a file are handled here - everything else (includes, ranges, directories,
+ * welcome files, resources bigger than single entry limit) is left for the runtime-specific resource servlet.</p>
+ */
+public class StaticContentCache {
+
+	/** Default total size of the cache (kB) */
+	public static final int DEFAULT_MAX_TOTAL_SIZE = 32 * 1024;
+	/** Default maximum size of single resource (kB) */
+	public static final int DEFAULT_MAX_ENTRY_SIZE = 1024;
+	public static final int DEFAULT_MAX_ENTRIES = 2048;
+	/** Default TTL after which the entries are revalidated (ms) */
+	public static final int DEFAULT_TTL = 5000;
+
+	private static final Logger LOG = LoggerFactory.getLogger(StaticContentCache.class);
+
+	/** Resources smaller than this are not worth compressing */
+	private static final int MIN_COMPRESSIBLE_SIZE = 256;
+
+	// limits may be changed using setLimits() while the cache is used
+	private volatile long maxTotalSize;
+	private volatile long maxEntrySize;
+	private volatile int maxEntries;
+	private volatile long ttlNanos;
+	private final boolean direct;
+	private final boolean compression;
+
+	private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+	private final AtomicLong size = new AtomicLong();
+	private final AtomicLong clock = new AtomicLong();
+	private final Object evictionLock = new Object();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public StaticContentCache(ResourceConfiguration configuration) {
+		this.direct = configuration.directCacheBuffers();
+		this.compression = configuration.compression();
+		applyLimits(configuration);
+
+		LOG.info("Created shared static content cache with maxSize={}kB, maxEntrySize={}kB, maxEntries={},"
+						+ " TTL={}ms, direct={}, compression={}", maxTotalSize / 1024, maxEntrySize / 1024, maxEntries,
+				TimeUnit.NANOSECONDS.toMillis(ttlNanos), direct, compression);
+	}
+
+	/**
+	 * Changes size limits and TTL of the cache without dropping the cached content. If the cache exceeds new
+	 * limits, least recently used entries are evicted immediately.
+	 *
+	 * @param configuration
+	 */
+	public void setLimits(ResourceConfiguration configuration) {
+		applyLimits(configuration);
+
+		LOG.info("Changed limits of shared static content cache to maxSize={}kB, maxEntrySize={}kB,"
+				+ " maxEntries={}, TTL={}ms", maxTotalSize / 1024, maxEntrySize / 1024, maxEntries,
+				TimeUnit.NANOSECONDS.toMillis(ttlNanos));
+
+		if (size.get() > maxTotalSize || entries.size() > maxEntries) {
+			evict();
+		}
+	}
+
+	private void applyLimits(ResourceConfiguration configuration) {
+		Integer total = configuration.maxTotalCacheSize();
+		Integer entry = configuration.maxCacheEntrySize();
+		Integer count = configuration.maxCacheEntries();
+		Integer ttl = configuration.maxCacheTTL();
+		long totalSize = (total == null ? DEFAULT_MAX_TOTAL_SIZE : total) * 1024L;
+		this.maxEntrySize = Math.min((entry == null ? DEFAULT_MAX_ENTRY_SIZE : entry) * 1024L, totalSize);
+		this.maxTotalSize = totalSize;
+		this.maxEntries = count == null ? DEFAULT_MAX_ENTRIES : count;
+		this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttl == null ? DEFAULT_TTL : ttl);
+	}
+
+	/**
+	 * Creates a {@link Source} through which single resource servlet serves its resources.
+	 *
+	 * @param context {@link ServletContext} of the resource servlet - used to obtain the resources (when
+	 *        {@code baseDirectory} is not specified) and their MIME types
+	 * @param baseDirectory directory to fetch the resources from
+	 * @param chroot if {@code baseDirectory} is not specified, this is the prefix to prepend to resource path when
+	 *        calling {@link ServletContext#getResource(String)}
+	 * @param pathInfoOnly whether only path info (and not servlet path) is used as resource path
+	 * @param writer runtime specific method of writing {@link ByteBuffer buffers}. May be {@code null}.
+	 * @return
+	 */
+	public Source source(ServletContext context, File baseDirectory, String chroot, boolean pathInfoOnly,
+			BufferWriter writer) {
+		return new Source(context, baseDirectory, chroot, pathInfoOnly, writer);
+	}
+
+	/**
+	 * Removes the entries of all the resources served through given {@link OsgiContextModel}. Should be called
+	 * by the runtime when the context or a resource servlet registered with it is removed, so the content isn't
+	 * kept until it's evicted.
+	 *
+	 * @param contextModel
+	 */
+	public void invalidate(OsgiContextModel contextModel) {
+		for (Map.Entry<Key, Entry> e : entries.entrySet()) {
+			if (e.getKey().owner == contextModel) {
+				remove(e.getKey(), e.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Removes all the entries.
+	 */
+	public void clear() {
+		for (Map.Entry<Key, Entry> e : entries.entrySet()) {
+			remove(e.getKey(), e.getValue());
+		}
+	}
+
+	/**
+	 * Current size (in bytes) of all cached content and its variants
+	 * @return
+	 */
+	public long getSize() {
+		return size.get();
+	}
+
+	public int getEntryCount() {
+		return entries.size();
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	private void put(Key key, Entry entry) {
+		Entry previous = entries.put(key, entry);
+		if (previous != null) {
+			release(previous);
+		}
+		if (size.get() > maxTotalSize || entries.size() > maxEntries) {
+			evict();
+		}
+	}
+
+	private void remove(Key key, Entry entry) {
+		if (entries.remove(key, entry)) {
+			release(entry);
+		}
+	}
+
+	private void release(Entry entry) {
+		synchronized (entry) {
+			if (!entry.removed) {
+				entry.removed = true;
+				size.addAndGet(-entry.size);
+			}
+		}
+	}
+
+	/**
+	 * Evicts least recently used entries, until there's at least 10% of space free.
+	 */
+	private void evict() {
+		synchronized (evictionLock) {
+			if (size.get() <= maxTotalSize && entries.size() <= maxEntries) {
+				return;
+			}
+			List<Map.Entry<Key, Entry>> candidates = new ArrayList<>(entries.entrySet());
+			candidates.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+			long targetSize = maxTotalSize - maxTotalSize / 10;
+			int targetCount = maxEntries - maxEntries / 10;
+			for (Map.Entry<Key, Entry> e : candidates) {
+				if (size.get() <= targetSize && entries.size() <= targetCount) {
+					break;
+				}
+				if (entries.remove(e.getKey(), e.getValue())) {
+					release(e.getValue());
+					evictions.increment();
+				}
+			}
+		}
+	}
+
+	private ByteBuffer buffer(byte[] content) {
+		if (!direct) {
+			return ByteBuffer.wrap(content);
+		}
+		ByteBuffer buffer = ByteBuffer.allocateDirect(content.length);
+		buffer.put(content).flip();
+		return buffer;
+	}
+
+	private static boolean isCompressible(String mimeType) {
+		if (mimeType == null) {
+			return false;
+		}
+		String type = mimeType.toLowerCase(Locale.ROOT);
+		return type.startsWith("text/") || type.contains("javascript") || type.contains("json")
+				|| type.contains("xml") || type.contains("svg");
+	}
+
+	/**
+	 * Runtime specific method of writing a {@link ByteBuffer} without copying it to a {@code byte[]} first.
+	 */
+	@FunctionalInterface
+	public interface BufferWriter {
+		/**
+		 * Writes the buffer to given stream if it's a native stream of the runtime
+		 *
+		 * @param out
+		 * @param buffer
+		 * @return {@code false} if the stream is not supported (e.g., it's wrapped by a filter)
+		 * @throws IOException
+		 */
+		boolean write(OutputStream out, ByteBuffer buffer) throws IOException;
+	}
+
+	/**
+	 * Resources of single resource servlet.
+	 */
+	public final class Source {
+
+		private final ServletContext context;
+		private final File baseDirectory;
+		private final String chroot;
+		private final boolean pathInfoOnly;
+		private final BufferWriter writer;
+
+		private final Object owner;
+		private final Bundle bundle;
+		private final String base;
+
+		private Source(ServletContext context, File baseDirectory, String chroot, boolean pathInfoOnly,
+				BufferWriter writer) {
+			this.context = context;
+			this.baseDirectory = baseDirectory;
+			this.chroot = chroot == null ? "" : chroot;
+			this.pathInfoOnly = pathInfoOnly;
+			this.writer = writer;
+
+			OsgiContextModel model = null;
+			if (context instanceof OsgiScopedServletContext) {
+				model = ((OsgiScopedServletContext) context).getOsgiContextModel();
+			} else if (context instanceof OsgiServletContext) {
+				model = ((OsgiServletContext) context).getOsgiContextModel();
+			}
+			this.owner = model != null ? model : context;
+			this.bundle = model != null ? model.getOwnerBundle() : null;
+			this.base = baseDirectory != null ? baseDirectory.getAbsolutePath() : "chroot:" + this.chroot;
+		}
+
+		/**
+		 * Serves the requested resource from the cache, loading it first if needed.
+		 *
+		 * @param request
+		 * @param response
+		 * @return {@code false} if the request should be handled by the runtime-specific resource servlet
+		 * @throws IOException
+		 */
+		public boolean serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+			if (!"GET".equals(request.getMethod())
+					|| (request.getDispatcherType() != DispatcherType.REQUEST
+						&& request.getDispatcherType() != DispatcherType.FORWARD)
+					|| request.getAttribute(RequestDispatcher.INCLUDE_REQUEST_URI) != null
+					|| request.getHeader("Range") != null) {
+				return false;
+			}
+			String path = path(request);
+			if (path == null) {
+				return false;
+			}
+
+			Key key = new Key(owner, base, path);
+			Entry entry = entries.get(key);
+			if (entry != null && System.nanoTime() - entry.validated > ttlNanos) {
+				if (isModified(entry, path)) {
+					remove(key, entry);
+					entry = null;
+				} else {
+					entry.validated = System.nanoTime();
+				}
+			}
+			if (entry == null) {
+				misses.increment();
+				entry = load(path);
+				if (entry == null) {
+					return false;
+				}
+				put(key, entry);
+			} else {
+				hits.increment();
+			}
+			entry.lastAccess = clock.incrementAndGet();
+
+			return send(request, response, entry);
+		}
+
+		/**
+		 * Resource path relative to the base - same for all the runtimes.
+		 *
+		 * @param request
+		 * @return {@code null} if the path doesn't point to a file
+		 */
+		private String path(HttpServletRequest request) {
+			String pathInfo = request.getPathInfo();
+			String path = pathInfo == null ? "" : pathInfo;
+			if (!pathInfoOnly) {
+				path = request.getServletPath() + path;
+			}
+			if (path.isEmpty() || path.endsWith("/")) {
+				return null;
+			}
+			path = Path.securePath(path);
+			if (path == null) {
+				return null;
+			}
+			while (path.startsWith("/")) {
+				path = path.substring(1);
+			}
+			return path.isEmpty() || path.endsWith("/") ? null : path;
+		}
+
+		private URL resolve(String path) throws IOException {
+			if (baseDirectory != null) {
+				File file = new File(baseDirectory, path);
+				return file.isFile() ? file.toURI().toURL() : null;
+			}
+			return context.getResource(chroot + "/" + path);
+		}
+
+		/**
+		 * Reads the content of a resource if it's a file not bigger than the entry limit.
+		 *
+		 * @param url
+		 * @return
+		 */
+		private Content read(URL url) throws IOException {
+			if (url == null || url.getPath() == null || url.getPath().endsWith("/")) {
+				return null;
+			}
+			if ("file".equals(url.getProtocol())) {
+				File file;
+				try {
+					file = new File(url.toURI());
+				} catch (URISyntaxException | IllegalArgumentException e) {
+					return null;
+				}
+				if (!file.isFile() || file.length() > maxEntrySize) {
+					return null;
+				}
+				return new Content(Files.readAllBytes(file.toPath()), file.lastModified());
+			}
+
+			URLConnection connection = url.openConnection();
+			long length = connection.getContentLengthLong();
+			try (InputStream is = connection.getInputStream()) {
+				if (length > maxEntrySize) {
+					return null;
+				}
+				ByteArrayOutputStream baos = new ByteArrayOutputStream(length > 0 ? (int) length : 4096);
+				byte[] buffer = new byte[8192];
+				int read;
+				while ((read = is.read(buffer)) >= 0) {
+					if (baos.size() + read > maxEntrySize) {
+						return null;
+					}
+					baos.write(buffer, 0, read);
+				}
+				return new Content(baos.toByteArray(), connection.getLastModified());
+			}
+		}
+
+		private Entry load(String path) {
+			try {
+				URL url = resolve(path);
+				Content content = read(url);
+				if (content == null || content.bytes.length == 0) {
+					// not found, too big, or a directory (which may look like an empty resource)
+					return null;
+				}
+
+				String mimeType = context.getMimeType(path);
+				long revision = bundle != null ? bundle.getLastModified() : content.lastModified;
+				CRC32C crc = new CRC32C();
+				crc.update(content.bytes);
+				String etag = Long.toHexString(revision) + "-" + Integer.toHexString(content.bytes.length)
+						+ "-" + Long.toHexString(crc.getValue());
+
+				Entry entry = new Entry(url, revision, content.lastModified, mimeType,
+						new Variant(buffer(content.bytes), null, "\"" + etag + "\""));
+				entry.size = content.bytes.length;
+
+				// pre-compressed variants provided together with the resource
+				Content br = read(resolve(path + ".br"));
+				if (br != null && br.bytes.length > 0) {
+					entry.brotli = new Variant(buffer(br.bytes), "br", "\"" + etag + "-br\"");
+					entry.size += br.bytes.length;
+				}
+				Content gz = read(resolve(path + ".gz"));
+				if (gz != null && gz.bytes.length > 0) {
+					entry.gzip = new Variant(buffer(gz.bytes), "gzip", "\"" + etag + "-gzip\"");
+					entry.size += gz.bytes.length;
+				}
+				entry.compressible = entry.gzip == null && compression
+						&& content.bytes.length >= MIN_COMPRESSIBLE_SIZE && isCompressible(mimeType);
+
+				size.addAndGet(entry.size);
+				return entry;
+			} catch (IOException | RuntimeException e) {
+				LOG.debug("Can't load {} into static content cache: {}", path, e.getMessage());
+				return null;
+			}
+		}
+
+		private boolean isModified(Entry entry, String path) {
+			if (bundle != null && bundle.getLastModified() != entry.revision) {
+				return true;
+			}
+			try {
+				URL url = resolve(path);
+				if (url == null || !url.toExternalForm().equals(entry.url.toExternalForm())) {
+					return true;
+				}
+				long lastModified;
+				long length;
+				if ("file".equals(url.getProtocol())) {
+					File file = new File(url.toURI());
+					lastModified = file.lastModified();
+					length = file.length();
+				} else {
+					URLConnection connection = url.openConnection();
+					lastModified = connection.getLastModified();
+					length = connection.getContentLengthLong();
+					connection.getInputStream().close();
+				}
+				return lastModified != entry.lastModified
+						|| (length >= 0 && length != entry.identity.content.remaining());
+			} catch (IOException | URISyntaxException | RuntimeException e) {
+				return true;
+			}
+		}
+
+		private boolean send(HttpServletRequest request, HttpServletResponse response, Entry entry)
+				throws IOException {
+			Variant variant = entry.identity;
+			boolean negotiated = entry.brotli != null || entry.gzip != null || entry.compressible;
+			if (negotiated) {
+				String acceptEncoding = request.getHeader("Accept-Encoding");
+				if (entry.brotli != null && accepts(acceptEncoding, "br")) {
+					variant = entry.brotli;
+				} else if (accepts(acceptEncoding, "gzip")) {
+					Variant gzip = entry.gzip != null ? entry.gzip : compress(entry);
+					if (gzip != null) {
+						variant = gzip;
+					}
+				}
+				response.addHeader("Vary", "Accept-Encoding");
+			}
+
+			response.setHeader("ETag", variant.etag);
+			if (entry.lastModified > 0L) {
+				response.setDateHeader("Last-Modified", entry.lastModified);
+			}
+			if (isNotModified(request, entry, variant)) {
+				response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+				return true;
+			}
+
+			if (entry.mimeType != null) {
+				response.setContentType(entry.mimeType);
+			}
+			if (variant.encoding != null) {
+				response.setHeader("Content-Encoding", variant.encoding);
+			}
+			ByteBuffer content = variant.content.duplicate();
+			response.setContentLengthLong(content.remaining());
+
+			OutputStream out = response.getOutputStream();
+			if (writer == null || !writer.write(out, content)) {
+				if (content.hasArray()) {
+					out.write(content.array(), content.arrayOffset() + content.position(), content.remaining());
+				} else {
+					byte[] chunk = new byte[Math.min(content.remaining(), 8192)];
+					while (content.hasRemaining()) {
+						int length = Math.min(chunk.length, content.remaining());
+						content.get(chunk, 0, length);
+						out.write(chunk, 0, length);
+					}
+				}
+			}
+			return true;
+		}
+
+		private boolean isNotModified(HttpServletRequest request, Entry entry, Variant variant) {
+			String ifNoneMatch = request.getHeader("If-None-Match");
+			if (ifNoneMatch != null) {
+				// weak comparison, as required by RFC 7232
+				for (String value : ifNoneMatch.split(",")) {
+					String tag = value.trim();
+					if (tag.startsWith("W/")) {
+						tag = tag.substring(2);
+					}
+					if ("*".equals(tag) || variant.etag.equals(tag)) {
+						return true;
+					}
+				}
+				return false;
+			}
+			if (entry.lastModified > 0L) {
+				try {
+					long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+					return ifModifiedSince != -1L && entry.lastModified / 1000L <= ifModifiedSince / 1000L;
+				} catch (IllegalArgumentException ignored) {
+					return false;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Produces the gzip variant once for given entry.
+		 *
+		 * @param entry
+		 * @return {@code null} if the content doesn't compress well
+		 */
+		private Variant compress(Entry entry) throws IOException {
+			if (!entry.compressible) {
+				return null;
+			}
+			synchronized (entry) {
+				if (entry.gzip == null && entry.compressible) {
+					ByteBuffer content = entry.identity.content.duplicate();
+					byte[] bytes = new byte[content.remaining()];
+					content.get(bytes);
+					ByteArrayOutputStream baos = new ByteArrayOutputStream(bytes.length / 2);
+					try (GZIPOutputStream gzip = new GZIPOutputStream(baos)) {
+						gzip.write(bytes);
+					}
+					if (baos.size() > bytes.length - bytes.length / 10) {
+						entry.compressible = false;
+						return null;
+					}
+					String etag = entry.identity.etag;
+					entry.gzip = new Variant(buffer(baos.toByteArray()), "gzip",
+							etag.substring(0, etag.length() - 1) + "-gzip\"");
+					if (!entry.removed) {
+						entry.size += baos.size();
+						size.addAndGet(baos.size());
+					}
+				}
+				return entry.gzip;
+			}
+		}
+
+		private boolean accepts(String acceptEncoding, String encoding) {
+			if (acceptEncoding == null) {
+				return false;
+			}
+			for (String coding : acceptEncoding.split(",")) {
+				String[] parts = coding.split(";");
+				String name = parts[0].trim();
+				if (!encoding.equalsIgnoreCase(name) && !"*".equals(name)) {
+					continue;
+				}
+				for (int i = 1; i < parts.length; i++) {
+					String param = parts[i].trim();
+					if (param.startsWith("q=")) {
+						try {
+							return Double.parseDouble(param.substring(2)) > 0.0d;
+						} catch (NumberFormatException e) {
+							return false;
+						}
+					}
+				}
+				return true;
+			}
+			return false;
+		}
+	}
+
+	private static final class Key {
+		private final Object owner;
+		private final String base;
+		private final String path;
+		private final int hash;
+
+		Key(Object owner, String base, String path) {
+			this.owner = owner;
+			this.base = base;
+			this.path = path;
+			this.hash = Objects.hash(System.identityHashCode(owner), base, path);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return owner == other.owner && base.equals(other.base) && path.equals(other.path);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	private static final class Content {
+		private final byte[] bytes;
+		private final long lastModified;
+
+		Content(byte[] bytes, long lastModified) {
+			this.bytes = bytes;
+			this.lastModified = lastModified;
+		}
+	}
+
+	/**
+	 * Single representation of a resource.
+	 */
+	private static final class Variant {
+		private final ByteBuffer content;
+		private final String encoding;
+		private final String etag;
+
+		Variant(ByteBuffer content, String encoding, String etag) {
+			this.content = content;
+			this.encoding = encoding;
+			this.etag = etag;
+		}
+	}
+
+	private static final class Entry {
+		private final URL url;
+		private final long revision;
+		private final long lastModified;
+		private final String mimeType;
+		private final Variant identity;
+
+		private volatile Variant brotli;
+		private volatile Variant gzip;
+		private volatile boolean compressible;
+
+		private volatile long validated = System.nanoTime();
+		private volatile long lastAccess;
+
+		/** Size of all the variants - guarded by {@code this} */
+		private long size;
+		/** Whether the entry was removed from the cache - guarded by {@code this} */
+		private boolean removed;
+
+		Entry(URL url, long revision, long lastModified, String mimeType, Variant identity) {
+			this.url = url;
+			this.revision = revision;
+			this.lastModified = lastModified;
+			this.mimeType = mimeType;
+			this.identity = identity;
+		}
+	}
+
+}
@@ -0,0 +1,609 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.session;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Default {@link SessionStore} keeping the sessions in append-only, memory-mapped logs. Directory of the store
+ * contains a directory for each {@link SessionStoreSegment segment} (physical context) and these contain a
+ * directory with {@link SessionLog} for each partition - sessions of single
+ * {@link org.ops4j.pax.web.service.spi.model.OsgiContextModel} (determined from the session ID).</p>
+ *
+ * <p>The changes are <em>write-behind</em> - they're coalesced in memory (so many changes of a session between
+ * two writes result in single record) and written by single background thread, which also removes expired
+ * sessions and incrementally compacts the logs. Changed attributes are serialized by this thread too, so the
+ * request threads never serialize anything. Loading a session doesn't wait for the writer thread either - changes
+ * not yet written are applied to the state read from the log of session's partition (whose lock is the only one
+ * taken).</p>
+ *
+ * <p>Because of that, attribute values shouldn't be modified in place (without {@code setAttribute()}) while
+ * they may be serialized. If it happens and the serialization fails (for example with
+ * {@link java.util.ConcurrentModificationException}), the change is kept and written again in next cycle.
+ * Attribute value which can't be serialized at all is not stored, but its last stored value is kept.</p>
+ *
+ * <p>Opening a segment replays its logs without deserialization of the attributes (sessions are loaded when
+ * first requested) and saving sessions at shutdown usually writes only their times - so both don't depend on
+ * the size of the sessions.</p>
+ */
+public class LogSessionStore implements SessionStore {
+
+	public static final int DEFAULT_FILE_SIZE = 8 * 1024 * 1024;
+	public static final long DEFAULT_WRITE_BEHIND_MILLIS = 1000L;
+
+	/** Partitioning used by Tomcat and Undertow, where session IDs start with OSGi context specific prefix */
+	public static final Function<String, String> PARTITION_BY_ID_PREFIX = id -> {
+		int tilde = id.indexOf('~');
+		return tilde > 0 ? id.substring(0, tilde) : "";
+	};
+
+	/** Partitioning used by Jetty, where session IDs end with OSGi context specific suffix */
+	public static final Function<String, String> PARTITION_BY_ID_SUFFIX = id -> {
+		int tilde = id.indexOf('~');
+		return tilde >= 0 ? id.substring(tilde + 1) : "";
+	};
+
+	private static final Logger LOG = LoggerFactory.getLogger(LogSessionStore.class);
+
+	/** Name of a directory of sessions without OSGi context specific part of the ID */
+	private static final String DEFAULT_PARTITION = "~";
+
+	/** Expired sessions are removed every N write-behind cycles */
+	private static final int PURGE_CYCLES = 60;
+
+	/** Number of attempts to write a change of a session before it's discarded */
+	private static final int MAX_WRITE_ATTEMPTS = 10;
+
+	private final File directory;
+	private final Function<String, String> partitioner;
+	private final int fileSize;
+
+	private final Map<String, Segment> segments = new ConcurrentHashMap<>();
+
+	/** Serializes writing to the logs (request threads only read them) */
+	private final Object writeLock = new Object();
+
+	private final ScheduledExecutorService writer;
+
+	private long cycles;
+
+	public LogSessionStore(File directory, Function<String, String> partitioner) {
+		this(directory, partitioner, DEFAULT_FILE_SIZE, DEFAULT_WRITE_BEHIND_MILLIS);
+	}
+
+	/**
+	 * Creates a store in given directory.
+	 *
+	 * @param directory
+	 * @param partitioner function returning OSGi context specific part of session ID
+	 * @param fileSize size of single log file
+	 * @param writeBehindMillis interval of writing the changes
+	 */
+	public LogSessionStore(File directory, Function<String, String> partitioner, int fileSize, long writeBehindMillis) {
+		this.directory = directory;
+		this.partitioner = partitioner;
+		this.fileSize = fileSize;
+
+		writer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "paxweb-session-store");
+			t.setDaemon(true);
+			return t;
+		});
+		writer.scheduleWithFixedDelay(this::writeBehind, writeBehindMillis, writeBehindMillis, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public SessionStoreSegment getSegment(String name) {
+		return segments.computeIfAbsent(name, Segment::new);
+	}
+
+	@Override
+	public void flush() {
+		synchronized (writeLock) {
+			for (Segment segment : segments.values()) {
+				segment.drain();
+				segment.force();
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		writer.shutdown();
+		try {
+			writer.awaitTermination(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		synchronized (writeLock) {
+			flush();
+			for (Segment segment : segments.values()) {
+				segment.partitions.values().forEach(SessionLog::close);
+			}
+			segments.clear();
+		}
+	}
+
+	/**
+	 * Single cycle of the writer thread.
+	 */
+	private void writeBehind() {
+		try {
+			synchronized (writeLock) {
+				boolean purge = ++cycles % PURGE_CYCLES == 0;
+				long now = System.currentTimeMillis();
+				for (Segment segment : segments.values()) {
+					segment.drain();
+					for (Map.Entry<String, SessionLog> e : segment.partitions.entrySet()) {
+						if (purge) {
+							int count = e.getValue().purgeExpired(now);
+							if (count > 0) {
+								LOG.debug("Removed {} expired sessions from {}/{}", count, segment.name, e.getKey());
+							}
+						}
+						e.getValue().compact();
+					}
+				}
+			}
+		} catch (Exception e) {
+			LOG.warn("Problem writing sessions to {}: {}", directory, e.getMessage(), e);
+		}
+	}
+
+	private static String encode(String name) {
+		if ("".equals(name)) {
+			return DEFAULT_PARTITION;
+		}
+		try {
+			return URLEncoder.encode(name, StandardCharsets.UTF_8.name());
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e.getMessage(), e);
+		}
+	}
+
+	private static String decode(String fileName) {
+		if (DEFAULT_PARTITION.equals(fileName)) {
+			return "";
+		}
+		try {
+			return URLDecoder.decode(fileName, StandardCharsets.UTF_8.name());
+		} catch (UnsupportedEncodingException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Changes of single session not yet written to the log.
+	 */
+	private static final class Pending {
+		/** The session was removed before the other changes */
+		private boolean removed;
+		/** Latest times of the session */
+		private StoredSession session;
+		/** Complete attributes, if the session was saved */
+		private Map<String, Object> attributes;
+		/** Changed attributes, if the session was only updated */
+		private Map<String, Object> changes;
+		/** Number of failed attempts to write these changes */
+		private int failures;
+
+		private Pending copy() {
+			Pending p = new Pending();
+			p.removed = removed;
+			p.session = session;
+			p.attributes = attributes == null ? null : new HashMap<>(attributes);
+			p.changes = changes == null ? null : new HashMap<>(changes);
+			p.failures = failures;
+			return p;
+		}
+
+		/**
+		 * Whether these changes replace previous state of the session.
+		 *
+		 * @return
+		 */
+		private boolean replaces() {
+			return removed || attributes != null;
+		}
+
+		/**
+		 * Combines these (failed and not written) changes with newer changes of the same session.
+		 *
+		 * @param newer
+		 * @return
+		 */
+		private Pending followedBy(Pending newer) {
+			if (newer.removed || newer.attributes != null) {
+				// newer changes replace everything
+				return newer;
+			}
+			if (newer.session != null) {
+				session = newer.session;
+			}
+			if (newer.changes != null) {
+				for (Map.Entry<String, Object> e : newer.changes.entrySet()) {
+					if (attributes != null) {
+						if (e.getValue() == null) {
+							attributes.remove(e.getKey());
+						} else {
+							attributes.put(e.getKey(), e.getValue());
+						}
+					} else {
+						if (changes == null) {
+							changes = new HashMap<>();
+						}
+						changes.put(e.getKey(), e.getValue());
+					}
+				}
+			}
+			return this;
+		}
+	}
+
+	private final class Segment implements SessionStoreSegment {
+
+		private final String name;
+		private final File directory;
+
+		/** Logs by partition name */
+		private final Map<String, SessionLog> partitions = new ConcurrentHashMap<>();
+
+		private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+
+		/**
+		 * Changes taken from {@link #pending} and being written now. Changes are moved atomically between the maps
+		 * and removed from here after they're written, so {@link #load} always finds them.
+		 */
+		private final Map<String, Pending> writing = new ConcurrentHashMap<>();
+
+		Segment(String name) {
+			this.name = name;
+			this.directory = new File(LogSessionStore.this.directory, encode(name));
+			File[] existing = directory.listFiles(File::isDirectory);
+			if (existing != null) {
+				long start = System.currentTimeMillis();
+				for (File dir : existing) {
+					String partition = decode(dir.getName());
+					if (partition != null) {
+						try {
+							log(partition);
+						} catch (UncheckedIOException e) {
+							LOG.warn("Can't open sessions of {}/{}: {}", name, partition, e.getMessage(), e);
+						}
+					}
+				}
+				LOG.info("Opened session store segment {} in {}ms", name, System.currentTimeMillis() - start);
+			}
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public void save(StoredSession session) {
+			pending.compute(session.getId(), (id, p) -> {
+				p = p == null ? new Pending() : p;
+				p.session = session;
+				p.attributes = new HashMap<>(session.getAttributes());
+				p.changes = null;
+				return p;
+			});
+		}
+
+		@Override
+		public void update(StoredSession changes) {
+			pending.compute(changes.getId(), (id, p) -> {
+				p = p == null ? new Pending() : p;
+				p.session = changes;
+				for (Map.Entry<String, Object> e : changes.getAttributes().entrySet()) {
+					if (p.attributes != null) {
+						if (e.getValue() == null) {
+							p.attributes.remove(e.getKey());
+						} else {
+							p.attributes.put(e.getKey(), e.getValue());
+						}
+					} else {
+						if (p.changes == null) {
+							p.changes = new HashMap<>();
+						}
+						p.changes.put(e.getKey(), e.getValue());
+					}
+				}
+				return p;
+			});
+		}
+
+		@Override
+		public void touch(StoredSession session) {
+			pending.compute(session.getId(), (id, p) -> {
+				p = p == null ? new Pending() : p;
+				p.session = session;
+				return p;
+			});
+		}
+
+		@Override
+		public void remove(String id) {
+			Pending p = new Pending();
+			p.removed = true;
+			pending.put(id, p);
+		}
+
+		@Override
+		public boolean contains(String id) {
+			Pending p = pending.get(id);
+			if (p != null && p.session != null) {
+				return true;
+			}
+			if (p != null && p.removed) {
+				return false;
+			}
+			SessionLog log = partitions.get(partitioner.apply(id));
+			return log != null && log.contains(id);
+		}
+
+		@Override
+		public long getExpirationTime(String id) {
+			Pending p = pending.get(id);
+			if (p != null && p.session != null) {
+				return p.session.getExpirationTime();
+			}
+			if (p != null && p.removed) {
+				return -1L;
+			}
+			SessionLog log = partitions.get(partitioner.apply(id));
+			return log == null ? -1L : log.getExpirationTime(id);
+		}
+
+		@Override
+		public Set<String> getSessionIds() {
+			Set<String> ids = new HashSet<>();
+			for (SessionLog log : partitions.values()) {
+				log.collectSessionIds(ids);
+			}
+			for (Map.Entry<String, Pending> e : pending.entrySet()) {
+				if (e.getValue().session != null) {
+					ids.add(e.getKey());
+				} else if (e.getValue().removed) {
+					ids.remove(e.getKey());
+				}
+			}
+			return ids;
+		}
+
+		@Override
+		public StoredSession load(String id, ClassLoader classLoader) {
+			// pending first - its changes may be moved to "writing" in the meantime, but not the other way
+			Pending[] copy = new Pending[1];
+			pending.computeIfPresent(id, (k, p) -> {
+				copy[0] = p.copy();
+				return p;
+			});
+			Pending queued = copy[0];
+			Pending inFlight = writing.get(id);
+
+			// oldest changes first
+			List<Pending> changes = new ArrayList<>(2);
+			if (inFlight != null) {
+				changes.add(inFlight);
+			}
+			if (queued != null) {
+				changes.add(queued);
+			}
+			int from = 0;
+			boolean replaced = false;
+			for (int i = changes.size() - 1; i >= 0; i--) {
+				if (changes.get(i).replaces()) {
+					from = i;
+					replaced = true;
+					break;
+				}
+			}
+
+			StoredSession times = null;
+			Map<String, Object> attributes = new LinkedHashMap<>();
+			if (!replaced) {
+				SessionLog log = partitions.get(partitioner.apply(id));
+				StoredSession serialized;
+				try {
+					// expiration is checked after the changes are applied
+					serialized = log == null ? null : log.read(id, 0L);
+				} catch (IOException e) {
+					LOG.warn("Can't load session {} from {}: {}", id, name, e.getMessage(), e);
+					return null;
+				}
+				if (serialized != null) {
+					times = serialized;
+					for (Map.Entry<String, Object> e : serialized.getAttributes().entrySet()) {
+						Object value = SessionAttributes.deserialize(e.getKey(), (byte[]) e.getValue(), classLoader);
+						if (value != null) {
+							attributes.put(e.getKey(), value);
+						}
+					}
+				}
+			}
+			for (Pending p : changes.subList(from, changes.size())) {
+				if (p.removed) {
+					times = null;
+					attributes.clear();
+				}
+				if (p.attributes != null) {
+					attributes.clear();
+					attributes.putAll(p.attributes);
+				} else if (p.changes != null) {
+					for (Map.Entry<String, Object> e : p.changes.entrySet()) {
+						if (e.getValue() == null) {
+							attributes.remove(e.getKey());
+						} else {
+							attributes.put(e.getKey(), e.getValue());
+						}
+					}
+				}
+				if (p.session != null) {
+					times = p.session;
+				}
+			}
+
+			if (times == null || (times.getExpirationTime() > 0L && times.getExpirationTime() <= System.currentTimeMillis())) {
+				return null;
+			}
+			return new StoredSession(id, times.getCreationTime(), times.getLastAccessedTime(),
+					times.getMaxInactiveInterval(), times.getExpirationTime(), attributes);
+		}
+
+		@Override
+		public void clear() {
+			synchronized (writeLock) {
+				pending.clear();
+				partitions.values().forEach(SessionLog::clear);
+			}
+		}
+
+		@Override
+		public void flush() {
+			synchronized (writeLock) {
+				drain();
+				force();
+			}
+		}
+
+		/**
+		 * Writes all pending changes - called with {@link #writeLock} held.
+		 */
+		private void drain() {
+			// changes which fail to be written are queued again, but they shouldn't be retried in the same cycle
+			for (String id : pending.keySet().toArray(new String[0])) {
+				Pending[] taken = new Pending[1];
+				pending.computeIfPresent(id, (k, p) -> {
+					writing.put(k, p);
+					taken[0] = p;
+					return null;
+				});
+				write(id, taken[0]);
+			}
+		}
+
+		private void force() {
+			partitions.values().forEach(SessionLog::force);
+		}
+
+		private void write(String id, Pending p) {
+			if (p == null) {
+				return;
+			}
+			try {
+				SessionLog log = log(partitioner.apply(id));
+				// everything is serialized before anything is written, so failed change can simply be retried
+				Map<String, byte[]> serialized = null;
+				if (p.attributes != null) {
+					serialized = serialize(id, p.attributes, p.removed ? null : log);
+				} else if (p.changes != null) {
+					serialized = serialize(id, p.changes, null);
+				}
+				if (p.removed) {
+					log.remove(id);
+				}
+				if (p.attributes != null) {
+					log.append(SessionLog.FULL, p.session, serialized);
+				} else if (p.changes != null) {
+					log.append(SessionLog.DELTA, p.session, serialized);
+				} else if (p.session != null) {
+					log.append(SessionLog.TOUCH, p.session, null);
+				}
+			} catch (IOException | RuntimeException e) {
+				if (++p.failures >= MAX_WRITE_ATTEMPTS) {
+					LOG.warn("Can't store session {} in {}, discarding the changes: {}", id, name, e.getMessage(), e);
+					return;
+				}
+				// for example ConcurrentModificationException when an attribute is changed during serialization
+				LOG.debug("Can't store session {} in {}, will try again: {}", id, name, e.getMessage());
+				// a copy, because the changes in "writing" may be read by load() now
+				pending.merge(id, p.copy(), (newer, failed) -> failed.followedBy(newer));
+			} finally {
+				writing.remove(id, p);
+			}
+		}
+
+		/**
+		 * Serializes the attributes of a session. Attribute which can't be serialized is not stored as removed -
+		 * it's skipped, so the last stored value remains. For full state of the session (which replaces previous
+		 * state) the last stored value is copied from the log.
+		 *
+		 * @param id
+		 * @param attributes
+		 * @param log log to copy the stored values from when writing full state
+		 * @return
+		 * @throws IOException
+		 */
+		private Map<String, byte[]> serialize(String id, Map<String, Object> attributes, SessionLog log) throws IOException {
+			Map<String, byte[]> result = new LinkedHashMap<>();
+			Map<String, Object> stored = null;
+			for (Map.Entry<String, Object> e : attributes.entrySet()) {
+				if (e.getValue() == null) {
+					result.put(e.getKey(), null);
+					continue;
+				}
+				byte[] value = SessionAttributes.serialize(e.getKey(), e.getValue());
+				if (value == null && log != null) {
+					if (stored == null) {
+						StoredSession session = log.read(id, 0L);
+						stored = session == null ? Collections.emptyMap() : session.getAttributes();
+					}
+					value = (byte[]) stored.get(e.getKey());
+				}
+				if (value != null) {
+					result.put(e.getKey(), value);
+				}
+			}
+			return result;
+		}
+
+		private SessionLog log(String partition) {
+			return partitions.computeIfAbsent(partition, p -> {
+				try {
+					return new SessionLog(new File(directory, encode(p)), fileSize);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		}
+	}
+
+}
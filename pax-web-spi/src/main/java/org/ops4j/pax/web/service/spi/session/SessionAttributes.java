@@ -0,0 +1,211 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Binary format of session attributes stored in {@link SessionLog}. Each attribute value is serialized
+ * separately, so:<ul>
+ *     <li>single attribute which can't be (de)serialized doesn't break entire session,</li>
+ *     <li>the records of the log (full state and changed attributes) can be merged without deserialization of
+ *         the values,</li>
+ *     <li>the most common values (strings, numbers and booleans) don't need Java serialization at all.</li>
+ * </ul></p>
+ *
+ * <p>Encoded attributes are {@code int} count followed by {@code (UTF name, int length, value)} entries, where
+ * the length is {@code -1} for removed attribute. Value starts with a type tag.</p>
+ */
+final class SessionAttributes {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SessionAttributes.class);
+
+	private static final byte STRING = 1;
+	private static final byte INTEGER = 2;
+	private static final byte LONG = 3;
+	private static final byte BOOLEAN = 4;
+	private static final byte SERIALIZED = 5;
+
+	private SessionAttributes() {
+	}
+
+	/**
+	 * Serializes single attribute value.
+	 *
+	 * @param name
+	 * @param value
+	 * @return {@code null} if the value can't be serialized
+	 */
+	static byte[] serialize(String name, Object value) {
+		if (value instanceof String) {
+			byte[] utf8 = ((String) value).getBytes(StandardCharsets.UTF_8);
+			byte[] bytes = new byte[utf8.length + 1];
+			bytes[0] = STRING;
+			System.arraycopy(utf8, 0, bytes, 1, utf8.length);
+			return bytes;
+		}
+		if (value instanceof Integer) {
+			return ByteBuffer.allocate(5).put(INTEGER).putInt((Integer) value).array();
+		}
+		if (value instanceof Long) {
+			return ByteBuffer.allocate(9).put(LONG).putLong((Long) value).array();
+		}
+		if (value instanceof Boolean) {
+			return new byte[] { BOOLEAN, (byte) ((Boolean) value ? 1 : 0) };
+		}
+		if (!(value instanceof Serializable)) {
+			LOG.debug("Session attribute {} of {} is not serializable and won't be stored", name, value.getClass());
+			return null;
+		}
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		baos.write(SERIALIZED);
+		try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+			oos.writeObject(value);
+		} catch (IOException e) {
+			LOG.warn("Can't serialize session attribute {}: {}", name, e.getMessage());
+			return null;
+		}
+		return baos.toByteArray();
+	}
+
+	/**
+	 * Deserializes single attribute value.
+	 *
+	 * @param name
+	 * @param bytes
+	 * @param classLoader
+	 * @return {@code null} if the value can't be deserialized
+	 */
+	static Object deserialize(String name, byte[] bytes, ClassLoader classLoader) {
+		ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+		switch (bytes[0]) {
+			case STRING:
+				return new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8);
+			case INTEGER:
+				return buffer.getInt();
+			case LONG:
+				return buffer.getLong();
+			case BOOLEAN:
+				return bytes[1] != 0;
+			case SERIALIZED:
+				try (ObjectInputStream ois = new ClassLoaderObjectInputStream(
+						new ByteArrayInputStream(bytes, 1, bytes.length - 1), classLoader)) {
+					return ois.readObject();
+				} catch (IOException | ClassNotFoundException e) {
+					LOG.warn("Can't deserialize session attribute {}: {}", name, e.getMessage());
+					return null;
+				}
+			default:
+				LOG.warn("Unknown format of session attribute {}", name);
+				return null;
+		}
+	}
+
+	/**
+	 * Encodes serialized attributes. {@code null} values mark removed attributes.
+	 *
+	 * @param attributes
+	 * @return
+	 */
+	static byte[] encode(Map<String, byte[]> attributes) {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(baos)) {
+			out.writeInt(attributes.size());
+			for (Map.Entry<String, byte[]> e : attributes.entrySet()) {
+				out.writeUTF(e.getKey());
+				if (e.getValue() == null) {
+					out.writeInt(-1);
+				} else {
+					out.writeInt(e.getValue().length);
+					out.write(e.getValue());
+				}
+			}
+		} catch (IOException e) {
+			// only too long attribute names
+			throw new IllegalArgumentException("Can't encode session attributes: " + e.getMessage(), e);
+		}
+		return baos.toByteArray();
+	}
+
+	/**
+	 * Decodes attributes stored at given position of the buffer into target map. Removed attributes are
+	 * removed from the map.
+	 *
+	 * @param buffer
+	 * @param offset
+	 * @param length
+	 * @param target
+	 */
+	static void decode(ByteBuffer buffer, int offset, int length, Map<String, byte[]> target) throws IOException {
+		byte[] payload = new byte[length];
+		buffer.duplicate().position(offset).get(payload);
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String name = in.readUTF();
+				int valueLength = in.readInt();
+				if (valueLength < 0) {
+					target.remove(name);
+				} else {
+					byte[] value = new byte[valueLength];
+					in.readFully(value);
+					target.put(name, value);
+				}
+			}
+		}
+	}
+
+	/**
+	 * {@link ObjectInputStream} resolving classes using {@link ClassLoader} of the context.
+	 */
+	private static final class ClassLoaderObjectInputStream extends ObjectInputStream {
+
+		private final ClassLoader classLoader;
+
+		ClassLoaderObjectInputStream(InputStream in, ClassLoader classLoader) throws IOException {
+			super(in);
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			if (classLoader != null) {
+				try {
+					return Class.forName(desc.getName(), false, classLoader);
+				} catch (ClassNotFoundException ignored) {
+					// primitive types and classes visible to pax-web-spi
+				}
+			}
+			return super.resolveClass(desc);
+		}
+	}
+
+}
@@ -0,0 +1,644 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.session;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Append-only log of session records of single partition of {@link SessionStoreSegment}, stored in a directory
+ * of fixed size, memory-mapped files. Only the positions of the records are kept in memory - attributes are
+ * read from the log when a session is loaded, so opening a log (replaying it) doesn't deserialize anything.</p>
+ *
+ * <p>Each record is {@code int} length, {@code byte} type, 4 {@code long} times (creation, last access, max
+ * inactive interval and expiration), {@code short} length of the ID, ID in UTF-8, {@code int} length of the
+ * attributes encoded by {@link SessionAttributes} and {@code int} CRC32 checksum. The length is written as the
+ * last thing, so the log ends at first record with zero length or invalid checksum (after a crash).</p>
+ *
+ * <p>Records overwritten by newer ones are garbage. Files with more garbage than live data are compacted one by
+ * one - records of sessions still stored in such file are merged into single record appended to current file
+ * and the old file is deleted.</p>
+ *
+ * <p>All methods are synchronized, the log is written by the write-behind thread of {@link LogSessionStore}.</p>
+ */
+class SessionLog implements Closeable {
+
+	/** Complete state of the session */
+	static final byte FULL = 1;
+	/** Changed (or removed) attributes */
+	static final byte DELTA = 2;
+	/** Only the times, attributes are unchanged */
+	static final byte TOUCH = 3;
+	/** Removed session */
+	static final byte REMOVE = 4;
+
+	private static final Logger LOG = LoggerFactory.getLogger(SessionLog.class);
+
+	private static final String SUFFIX = ".log";
+
+	/** Offset of the ID length in the record */
+	private static final int ID_LENGTH_OFFSET = 4 + 1 + 4 * 8;
+	/** Size of a record without ID and attributes */
+	private static final int FIXED_SIZE = ID_LENGTH_OFFSET + 2 + 4 + 4;
+
+	/** Files with lower percentage of live data are compacted */
+	private static final int COMPACTION_THRESHOLD = 50;
+
+	/** Number of records of single session after which the records are merged */
+	private static final int MAX_RECORDS = 16;
+
+	private final File directory;
+	private final int fileSize;
+
+	/** Log files by their sequence number */
+	private final TreeMap<Integer, LogFile> files = new TreeMap<>();
+
+	/** Stored sessions by their ID */
+	private final Map<String, Entry> index = new HashMap<>();
+
+	/** The file to which new records are appended */
+	private LogFile head;
+
+	/**
+	 * Opens (replaying existing files) a log in given directory.
+	 *
+	 * @param directory
+	 * @param fileSize size of single file of the log
+	 * @throws IOException
+	 */
+	SessionLog(File directory, int fileSize) throws IOException {
+		this.directory = directory;
+		this.fileSize = fileSize;
+
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Can't create session log directory " + directory);
+		}
+		File[] existing = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+		if (existing != null) {
+			for (File file : existing) {
+				try {
+					int sequence = Integer.parseInt(file.getName().substring(0, file.getName().length() - SUFFIX.length()));
+					files.put(sequence, map(file, sequence, 0));
+				} catch (NumberFormatException ignored) {
+				}
+			}
+		}
+		for (LogFile file : files.values()) {
+			replay(file);
+		}
+		if (!files.isEmpty()) {
+			head = files.lastEntry().getValue();
+		}
+		purgeExpired(System.currentTimeMillis());
+	}
+
+	/**
+	 * Appends a record of the session.
+	 *
+	 * @param type {@link #FULL}, {@link #DELTA} or {@link #TOUCH}
+	 * @param session the times of the session
+	 * @param attributes serialized attributes, {@code null} values for removed attributes
+	 * @throws IOException
+	 */
+	synchronized void append(byte type, StoredSession session, Map<String, byte[]> attributes) throws IOException {
+		byte[] payload = SessionAttributes.encode(type == TOUCH ? Collections.emptyMap() : attributes);
+		long location = write(type, session.getId(), session.getCreationTime(), session.getLastAccessedTime(),
+				session.getMaxInactiveInterval(), session.getExpirationTime(), payload);
+		Entry entry = index(type, session.getId(), session.getExpirationTime(), location);
+		if (entry != null && entry.count > MAX_RECORDS) {
+			relocate(session.getId(), entry);
+		}
+	}
+
+	/**
+	 * Appends a record of removed session (if the session is stored).
+	 *
+	 * @param id
+	 * @throws IOException
+	 */
+	synchronized void remove(String id) throws IOException {
+		if (index.containsKey(id)) {
+			long location = write(REMOVE, id, 0L, 0L, 0L, 0L, SessionAttributes.encode(Collections.emptyMap()));
+			index(REMOVE, id, 0L, location);
+		}
+	}
+
+	synchronized boolean contains(String id) {
+		return index.containsKey(id);
+	}
+
+	/**
+	 * Returns expiration time of the session.
+	 *
+	 * @param id
+	 * @return {@code -1} for unknown session
+	 */
+	synchronized long getExpirationTime(String id) {
+		Entry entry = index.get(id);
+		return entry == null ? -1L : entry.expiration;
+	}
+
+	synchronized void collectSessionIds(Set<String> ids) {
+		ids.addAll(index.keySet());
+	}
+
+	/**
+	 * Reads the session with its attributes still serialized - the values of returned attributes are
+	 * {@code byte[]} to pass to {@link SessionAttributes#deserialize}.
+	 *
+	 * @param id
+	 * @param now
+	 * @return {@code null} if the session is not stored or is expired
+	 * @throws IOException
+	 */
+	synchronized StoredSession read(String id, long now) throws IOException {
+		Entry entry = index.get(id);
+		if (entry == null || (entry.expiration > 0L && entry.expiration <= now)) {
+			return null;
+		}
+		Map<String, byte[]> attributes = new LinkedHashMap<>();
+		StoredSession session = merge(id, entry, attributes);
+		return new StoredSession(id, session.getCreationTime(), session.getLastAccessedTime(),
+				session.getMaxInactiveInterval(), session.getExpirationTime(), new LinkedHashMap<>(attributes));
+	}
+
+	/**
+	 * Removes sessions expired at given time.
+	 *
+	 * @param now
+	 * @return number of removed sessions
+	 * @throws IOException
+	 */
+	synchronized int purgeExpired(long now) throws IOException {
+		int count = 0;
+		for (String id : index.keySet().toArray(new String[0])) {
+			long expiration = index.get(id).expiration;
+			if (expiration > 0L && expiration <= now) {
+				remove(id);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Compacts single file of the log with the lowest ratio of live data (if it's below the threshold). Files
+	 * without live data are simply deleted.
+	 *
+	 * @return whether any file was compacted or deleted
+	 * @throws IOException
+	 */
+	synchronized boolean compact() throws IOException {
+		LogFile candidate = null;
+		boolean deleted = false;
+		for (Iterator<LogFile> it = files.values().iterator(); it.hasNext(); ) {
+			LogFile file = it.next();
+			if (file == head) {
+				continue;
+			}
+			if (file.live <= 0L && file.sequence == files.firstKey()) {
+				// other files may still contain tombstones hiding records of older files, so they're compacted
+				it.remove();
+				delete(file);
+				deleted = true;
+				continue;
+			}
+			if (file.live * 100L < (long) file.position * COMPACTION_THRESHOLD
+					&& (candidate == null || file.live * candidate.position < candidate.live * file.position)) {
+				candidate = file;
+			}
+		}
+		if (candidate == null) {
+			return deleted;
+		}
+
+		boolean oldest = candidate.sequence == files.firstKey();
+		int offset = 0;
+		while (offset < candidate.position) {
+			Record record = read(candidate, offset, false);
+			if (record == null) {
+				break;
+			}
+			Entry entry = index.get(record.id);
+			if (record.type == REMOVE) {
+				if (!oldest) {
+					// the tombstone has to be kept (and followed by newer records of the session, if any)
+					long location = write(REMOVE, record.id, 0L, 0L, 0L, 0L,
+							SessionAttributes.encode(Collections.emptyMap()));
+					kill(location);
+					if (entry != null) {
+						relocate(record.id, entry);
+					}
+				}
+			} else if (entry != null && entry.references(location(candidate.sequence, offset))) {
+				relocate(record.id, entry);
+			}
+			offset += record.length;
+		}
+		files.remove(candidate.sequence);
+		delete(candidate);
+		LOG.debug("Compacted session log file {}", candidate.file);
+		return true;
+	}
+
+	/**
+	 * Forces written records to the storage.
+	 */
+	synchronized void force() {
+		for (LogFile file : files.values()) {
+			if (file.dirty) {
+				file.buffer.force();
+				file.dirty = false;
+			}
+		}
+	}
+
+	/**
+	 * Removes all the sessions and deletes all the files.
+	 */
+	synchronized void clear() {
+		for (LogFile file : files.values()) {
+			delete(file);
+		}
+		files.clear();
+		index.clear();
+		head = null;
+	}
+
+	@Override
+	public synchronized void close() {
+		force();
+		files.clear();
+		index.clear();
+		head = null;
+	}
+
+	/**
+	 * Merges all the records of the session (in order in which they were written), collecting the attributes
+	 * into given map.
+	 *
+	 * @param id
+	 * @param entry
+	 * @param attributes
+	 * @return the session with merged times
+	 */
+	private StoredSession merge(String id, Entry entry, Map<String, byte[]> attributes) throws IOException {
+		long creationTime = 0L;
+		long lastAccessedTime = 0L;
+		long maxInactiveInterval = 0L;
+		long expirationTime = 0L;
+		for (long location : entry.locations()) {
+			LogFile file = files.get(sequence(location));
+			Record record = read(file, offset(location), false);
+			if (record == null) {
+				throw new IOException("Invalid session record in " + file.file + " at " + offset(location));
+			}
+			if (record.type == FULL) {
+				attributes.clear();
+			}
+			if (record.type != TOUCH) {
+				SessionAttributes.decode(file.buffer, record.payloadOffset, record.payloadLength, attributes);
+			}
+			if (record.creationTime > 0L) {
+				creationTime = record.creationTime;
+			}
+			if (record.lastAccessedTime > 0L) {
+				lastAccessedTime = record.lastAccessedTime;
+				maxInactiveInterval = record.maxInactiveInterval;
+			}
+			expirationTime = record.expirationTime;
+		}
+		return new StoredSession(id, creationTime, lastAccessedTime, maxInactiveInterval, expirationTime, null);
+	}
+
+	/**
+	 * Replaces all the records of the session with single merged record appended to the log.
+	 *
+	 * @param id
+	 * @param entry
+	 */
+	private void relocate(String id, Entry entry) throws IOException {
+		Map<String, byte[]> attributes = new LinkedHashMap<>();
+		StoredSession session = merge(id, entry, attributes);
+		long location = write(FULL, id, session.getCreationTime(), session.getLastAccessedTime(),
+				session.getMaxInactiveInterval(), session.getExpirationTime(), SessionAttributes.encode(attributes));
+		index(FULL, id, session.getExpirationTime(), location);
+	}
+
+	/**
+	 * Updates the index and the statistics of live data after writing (or replaying) a record.
+	 *
+	 * @return the entry of the session or {@code null} if it was removed
+	 */
+	private Entry index(byte type, String id, long expiration, long location) {
+		Entry entry = index.get(id);
+		if (type == REMOVE) {
+			if (entry != null) {
+				index.remove(id);
+				discard(entry);
+			}
+			kill(location);
+			return null;
+		}
+		if (entry == null) {
+			entry = new Entry();
+			index.put(id, entry);
+		}
+		if (type == FULL) {
+			discard(entry);
+			entry.add(location);
+		} else if (type == DELTA) {
+			entry.add(location);
+		} else {
+			if (entry.touch >= 0L) {
+				kill(entry.touch);
+			}
+			entry.touch = location;
+		}
+		entry.expiration = expiration;
+		return entry;
+	}
+
+	/**
+	 * Marks all the records of the session as garbage.
+	 *
+	 * @param entry
+	 */
+	private void discard(Entry entry) {
+		for (int i = 0; i < entry.count; i++) {
+			kill(entry.records[i]);
+		}
+		if (entry.touch >= 0L) {
+			kill(entry.touch);
+		}
+		entry.count = 0;
+		entry.touch = -1L;
+	}
+
+	/**
+	 * Marks single record as garbage.
+	 *
+	 * @param location
+	 */
+	private void kill(long location) {
+		LogFile file = files.get(sequence(location));
+		if (file != null) {
+			file.live -= file.buffer.getInt(offset(location));
+		}
+	}
+
+	private long write(byte type, String id, long creationTime, long lastAccessedTime, long maxInactiveInterval,
+			long expirationTime, byte[] payload) throws IOException {
+		byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+		if (idBytes.length > 0xFFFF) {
+			throw new IOException("Session ID is too long");
+		}
+		int length = FIXED_SIZE + idBytes.length + payload.length;
+		if (head == null || head.position + length > head.buffer.capacity()) {
+			if (head != null) {
+				head.buffer.force();
+				head.dirty = false;
+			}
+			int sequence = files.isEmpty() ? 1 : files.lastKey() + 1;
+			head = map(new File(directory, String.format("%010d%s", sequence, SUFFIX)), sequence,
+					Math.max(fileSize, length));
+			files.put(sequence, head);
+		}
+
+		int offset = head.position;
+		ByteBuffer buffer = head.buffer.duplicate();
+		buffer.position(offset + 4);
+		buffer.put(type).putLong(creationTime).putLong(lastAccessedTime).putLong(maxInactiveInterval)
+				.putLong(expirationTime).putShort((short) idBytes.length).put(idBytes)
+				.putInt(payload.length).put(payload);
+		buffer.putInt(checksum(head.buffer, offset, length));
+		head.buffer.putInt(offset, length);
+
+		head.position += length;
+		head.live += length;
+		head.dirty = true;
+		return location(head.sequence, offset);
+	}
+
+	private void replay(LogFile file) {
+		int offset = 0;
+		Record record;
+		while ((record = read(file, offset, true)) != null) {
+			file.position = offset + record.length;
+			file.live += record.length;
+			index(record.type, record.id, record.expirationTime, location(file.sequence, offset));
+			offset += record.length;
+		}
+		if (offset + 4 <= file.buffer.capacity() && file.buffer.getInt(offset) != 0) {
+			// incomplete record after a crash - it'd confuse next replay if only partially overwritten
+			LOG.warn("Session log {} is truncated at {}", file.file, offset);
+			ByteBuffer buffer = file.buffer.duplicate();
+			buffer.position(offset);
+			byte[] zeros = new byte[Math.min(buffer.remaining(), 8192)];
+			while (buffer.hasRemaining()) {
+				buffer.put(zeros, 0, Math.min(zeros.length, buffer.remaining()));
+			}
+			file.dirty = true;
+		}
+	}
+
+	/**
+	 * Reads a record from given position of the file.
+	 *
+	 * @param file
+	 * @param offset
+	 * @param verify whether to check the checksum
+	 * @return {@code null} if there's no valid record at the position
+	 */
+	private Record read(LogFile file, int offset, boolean verify) {
+		ByteBuffer buffer = file.buffer;
+		if (offset < 0 || offset + FIXED_SIZE > buffer.capacity()) {
+			return null;
+		}
+		int length = buffer.getInt(offset);
+		if (length < FIXED_SIZE || length > buffer.capacity() - offset) {
+			return null;
+		}
+		int idLength = buffer.getShort(offset + ID_LENGTH_OFFSET) & 0xFFFF;
+		int payloadLengthOffset = offset + ID_LENGTH_OFFSET + 2 + idLength;
+		if (FIXED_SIZE + idLength > length) {
+			return null;
+		}
+		int payloadLength = buffer.getInt(payloadLengthOffset);
+		if (payloadLength != length - FIXED_SIZE - idLength) {
+			return null;
+		}
+		if (verify && checksum(buffer, offset, length) != buffer.getInt(offset + length - 4)) {
+			return null;
+		}
+
+		Record record = new Record();
+		record.length = length;
+		record.type = buffer.get(offset + 4);
+		record.creationTime = buffer.getLong(offset + 5);
+		record.lastAccessedTime = buffer.getLong(offset + 13);
+		record.maxInactiveInterval = buffer.getLong(offset + 21);
+		record.expirationTime = buffer.getLong(offset + 29);
+		byte[] idBytes = new byte[idLength];
+		buffer.duplicate().position(offset + ID_LENGTH_OFFSET + 2).get(idBytes);
+		record.id = new String(idBytes, StandardCharsets.UTF_8);
+		record.payloadOffset = payloadLengthOffset + 4;
+		record.payloadLength = payloadLength;
+		return record;
+	}
+
+	/**
+	 * Checksum of a record - everything between the length and the checksum itself.
+	 */
+	private static int checksum(ByteBuffer buffer, int offset, int length) {
+		CRC32 crc = new CRC32();
+		ByteBuffer data = buffer.duplicate();
+		data.limit(offset + length - 4).position(offset + 4);
+		crc.update(data);
+		return (int) crc.getValue();
+	}
+
+	private static LogFile map(File file, int sequence, int capacity) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			long size = Math.max(channel.size(), capacity);
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("Session log file " + file + " is too big");
+			}
+			return new LogFile(sequence, file, channel.map(FileChannel.MapMode.READ_WRITE, 0L, size));
+		}
+	}
+
+	private static void delete(LogFile file) {
+		// if the file can't be deleted while mapped (Windows), it at least won't be replayed
+		file.buffer.putInt(0, 0);
+		file.buffer.force();
+		if (!file.file.delete()) {
+			LOG.debug("Can't delete session log file {}", file.file);
+			file.file.deleteOnExit();
+		}
+	}
+
+	private static long location(int sequence, int offset) {
+		return ((long) sequence << 32) | (offset & 0xFFFFFFFFL);
+	}
+
+	private static int sequence(long location) {
+		return (int) (location >>> 32);
+	}
+
+	private static int offset(long location) {
+		return (int) location;
+	}
+
+	/**
+	 * Single file of the log.
+	 */
+	private static final class LogFile {
+		private final int sequence;
+		private final File file;
+		private final MappedByteBuffer buffer;
+		/** End of the valid records */
+		private int position;
+		/** Size of records which are not garbage */
+		private long live;
+		private boolean dirty;
+
+		LogFile(int sequence, File file, MappedByteBuffer buffer) {
+			this.sequence = sequence;
+			this.file = file;
+			this.buffer = buffer;
+		}
+	}
+
+	/**
+	 * Positions of the live records of single session.
+	 */
+	private static final class Entry {
+		/** {@link #FULL} and {@link #DELTA} records in order */
+		private long[] records = new long[1];
+		private int count;
+		/** The latest {@link #TOUCH} record */
+		private long touch = -1L;
+		private long expiration;
+
+		void add(long location) {
+			if (count == records.length) {
+				records = Arrays.copyOf(records, count * 2);
+			}
+			records[count++] = location;
+		}
+
+		boolean references(long location) {
+			if (touch == location) {
+				return true;
+			}
+			for (int i = 0; i < count; i++) {
+				if (records[i] == location) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * All the locations in the order in which the records were written.
+		 * @return
+		 */
+		long[] locations() {
+			long[] result = Arrays.copyOf(records, touch >= 0L ? count + 1 : count);
+			if (touch >= 0L) {
+				result[count] = touch;
+			}
+			Arrays.sort(result);
+			return result;
+		}
+	}
+
+	/**
+	 * Parsed header of a record.
+	 */
+	private static final class Record {
+		private int length;
+		private byte type;
+		private long creationTime;
+		private long lastAccessedTime;
+		private long maxInactiveInterval;
+		private long expirationTime;
+		private String id;
+		private int payloadOffset;
+		private int payloadLength;
+	}
+
+}
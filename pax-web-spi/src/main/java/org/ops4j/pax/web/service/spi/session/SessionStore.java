@@ -0,0 +1,56 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.session;
+
+import java.io.Closeable;
+
+/**
+ * <p>Runtime-neutral store of HTTP sessions, so they survive restarts of the contexts and of the server. It's used
+ * by all the runtimes when {@link org.ops4j.pax.web.service.PaxWebConfig#PID_CFG_SESSION_STORE_DIRECTORY} is
+ * configured and the default implementation is {@link LogSessionStore}.</p>
+ *
+ * <p>The store is divided into {@link SessionStoreSegment segments} - one for each physical servlet context.</p>
+ */
+public interface SessionStore extends Closeable {
+
+	/**
+	 * Returns (creating or loading if needed) a segment with given name.
+	 *
+	 * @param name
+	 * @return
+	 */
+	SessionStoreSegment getSegment(String name);
+
+	/**
+	 * Persists all pending changes of all the segments.
+	 */
+	void flush();
+
+	/**
+	 * Name of a segment for given context path - {@code ROOT} for the root context or the path without
+	 * leading slash and with remaining slashes replaced by underscores (the same as Undertow deployment name).
+	 *
+	 * @param contextPath
+	 * @return
+	 */
+	static String segmentName(String contextPath) {
+		if (contextPath == null || "".equals(contextPath) || "/".equals(contextPath)) {
+			return "ROOT";
+		}
+		return (contextPath.startsWith("/") ? contextPath.substring(1) : contextPath).replace('/', '_');
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.session;
+
+import java.util.Set;
+
+/**
+ * <p>Part of {@link SessionStore} holding sessions of single physical servlet context. Sessions of different
+ * {@link org.ops4j.pax.web.service.spi.model.OsgiContextModel OSGi contexts} sharing the physical context are
+ * kept separately within the segment - the runtimes encode the OSGi context in the session ID.</p>
+ *
+ * <p>Modifying methods may be <em>write-behind</em> - the changes are visible to other methods of the segment
+ * immediately, but are persisted later (or at {@link #flush()}).</p>
+ */
+public interface SessionStoreSegment {
+
+	/**
+	 * Name of the segment - see {@link SessionStore#segmentName(String)}.
+	 * @return
+	 */
+	String getName();
+
+	/**
+	 * Stores complete state of the session, replacing any previously stored state.
+	 *
+	 * @param session
+	 */
+	void save(StoredSession session);
+
+	/**
+	 * Stores changed attributes of the session (and its metadata). {@code null} value of an attribute means
+	 * the attribute was removed. Unchanged attributes remain as they were stored before.
+	 *
+	 * @param changes
+	 */
+	void update(StoredSession changes);
+
+	/**
+	 * Stores only the metadata of the session (times), attributes of passed session are ignored. This is what
+	 * should be done at shutdown for sessions which are already stored - there's no need to serialize the
+	 * attributes again.
+	 *
+	 * @param session
+	 */
+	void touch(StoredSession session);
+
+	/**
+	 * Removes the session from the store.
+	 *
+	 * @param id
+	 */
+	void remove(String id);
+
+	/**
+	 * Checks whether the session is stored (including not yet persisted state).
+	 *
+	 * @param id
+	 * @return
+	 */
+	boolean contains(String id);
+
+	/**
+	 * Returns stored expiration time of the session.
+	 *
+	 * @param id
+	 * @return {@code -1} for unknown session, {@code 0} for session that never expires
+	 */
+	long getExpirationTime(String id);
+
+	/**
+	 * Returns IDs of all stored sessions. Expired sessions may be included if they were not yet purged.
+	 * @return
+	 */
+	Set<String> getSessionIds();
+
+	/**
+	 * Loads the session with its attributes deserialized using given {@link ClassLoader}. Attributes which
+	 * can't be deserialized are skipped.
+	 *
+	 * @param id
+	 * @param classLoader
+	 * @return {@code null} if the session is not stored or it's expired
+	 */
+	StoredSession load(String id, ClassLoader classLoader);
+
+	/**
+	 * Removes all the sessions of this segment.
+	 */
+	void clear();
+
+	/**
+	 * Persists all pending changes.
+	 */
+	void flush();
+
+}
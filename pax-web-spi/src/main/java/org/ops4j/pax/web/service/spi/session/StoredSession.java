@@ -0,0 +1,103 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.session;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Runtime-neutral state of single HTTP session passed to and returned from {@link SessionStoreSegment}. Values
+ * which are not known to the runtime (e.g., Undertow knows only expiration time of passivated sessions) are
+ * {@code 0}.
+ */
+public final class StoredSession {
+
+	private final String id;
+	private final long creationTime;
+	private final long lastAccessedTime;
+	private final long maxInactiveInterval;
+	private final long expirationTime;
+	private final Map<String, Object> attributes;
+
+	/**
+	 * Creates session state. The attributes are not copied, so the caller should not change the map after
+	 * passing it to {@link SessionStoreSegment}.
+	 *
+	 * @param id
+	 * @param creationTime
+	 * @param lastAccessedTime
+	 * @param maxInactiveInterval in milliseconds
+	 * @param expirationTime absolute time in milliseconds, {@code 0} for sessions that never expire
+	 * @param attributes may be {@code null}
+	 */
+	public StoredSession(String id, long creationTime, long lastAccessedTime, long maxInactiveInterval,
+			long expirationTime, Map<String, Object> attributes) {
+		this.id = id;
+		this.creationTime = creationTime;
+		this.lastAccessedTime = lastAccessedTime;
+		this.maxInactiveInterval = maxInactiveInterval;
+		this.expirationTime = expirationTime;
+		this.attributes = attributes == null ? Collections.emptyMap() : attributes;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public long getCreationTime() {
+		return creationTime;
+	}
+
+	public long getLastAccessedTime() {
+		return lastAccessedTime;
+	}
+
+	/**
+	 * Maximal inactive interval in milliseconds.
+	 * @return
+	 */
+	public long getMaxInactiveInterval() {
+		return maxInactiveInterval;
+	}
+
+	/**
+	 * Absolute expiration time in milliseconds or {@code 0} if the session never expires.
+	 * @return
+	 */
+	public long getExpirationTime() {
+		return expirationTime;
+	}
+
+	public Map<String, Object> getAttributes() {
+		return attributes;
+	}
+
+	/**
+	 * Checks whether the session is expired at given time.
+	 *
+	 * @param time
+	 * @return
+	 */
+	public boolean isExpired(long time) {
+		return expirationTime > 0L && expirationTime <= time;
+	}
+
+	@Override
+	public String toString() {
+		return "StoredSession{id=" + id + ", expiration=" + expirationTime + ", attributes=" + attributes.keySet() + "}";
+	}
+
+}
@@ -427,7 +427,7 @@ public class Batch {
 	 */
 	public void accept(BatchVisitor visitor) {
 		for (Change op : operations) {
-			op.accept(visitor);
+			BatchTrace.accept(op, visitor);
 		}
 	}
 
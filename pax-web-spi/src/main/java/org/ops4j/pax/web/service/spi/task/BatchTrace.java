@@ -0,0 +1,231 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.task;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Optional trace of time spent processing {@link Change changes} of all {@link Batch batches} by all
+ * {@link BatchVisitor visitors} ({@link org.ops4j.pax.web.service.spi.model.ServerModel},
+ * {@link org.ops4j.pax.web.service.spi.ServerController server wrappers}, ...). The time is aggregated per
+ * visitor class, {@link Change} class (which determines the visitor method being called) and {@link OpCode}.</p>
+ *
+ * <p>The trace can be turned on/off at runtime (e.g., using {@code web:batch-trace} Karaf command) and costs
+ * nothing (except single volatile read per change) when disabled. The server wrappers also report the
+ * (re)starts of the contexts, which are attributed to the change being processed.</p>
+ */
+public final class BatchTrace {
+
+	/** System property that may be used to enable the trace from the start */
+	public static final String PROPERTY_ENABLED = "org.ops4j.pax.web.batchTrace";
+
+	private static volatile boolean enabled = Boolean.getBoolean(PROPERTY_ENABLED);
+
+	private static final Map<Key, Stats> STATS = new ConcurrentHashMap<>();
+
+	/** Statistics of the change being currently processed by the thread, to attribute context restarts */
+	private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+	private BatchTrace() {
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static void setEnabled(boolean enabled) {
+		BatchTrace.enabled = enabled;
+	}
+
+	/**
+	 * Clears the statistics collected so far.
+	 */
+	public static void reset() {
+		STATS.clear();
+	}
+
+	/**
+	 * Passes the {@link Change} to {@link BatchVisitor}, recording the time spent if the trace is enabled.
+	 *
+	 * @param change
+	 * @param visitor
+	 */
+	static void accept(Change change, BatchVisitor visitor) {
+		if (!enabled) {
+			change.accept(visitor);
+			return;
+		}
+
+		Key key = new Key(visitor.getClass(), change.getClass(), change.getKind());
+		Stats stats = STATS.computeIfAbsent(key, k -> new Stats());
+		Stats previous = CURRENT.get();
+		CURRENT.set(stats);
+		long start = System.nanoTime();
+		try {
+			change.accept(visitor);
+		} finally {
+			stats.record(System.nanoTime() - start);
+			if (previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * Called by the server wrappers when a context is (re)started, so the start is attributed to the change
+	 * being processed.
+	 */
+	public static void contextStarted() {
+		Stats stats = CURRENT.get();
+		if (stats != null) {
+			stats.contextStarts.increment();
+		}
+	}
+
+	/**
+	 * Returns the statistics collected so far, sorted by total time (descending).
+	 *
+	 * @return
+	 */
+	public static List<Entry> getEntries() {
+		List<Entry> result = new ArrayList<>(STATS.size());
+		STATS.forEach((key, stats) -> result.add(new Entry(key.visitor.getSimpleName(),
+				key.change.getSimpleName(), key.kind, stats.count.sum(), stats.totalNanos.sum(),
+				stats.maxNanos.get(), stats.contextStarts.sum())));
+		result.sort(Comparator.comparingLong(Entry::getTotalNanos).reversed());
+		return result;
+	}
+
+	/**
+	 * Aggregated statistics of single (visitor, change, operation) triple.
+	 */
+	public static final class Entry {
+		private final String visitor;
+		private final String change;
+		private final OpCode kind;
+		private final long count;
+		private final long totalNanos;
+		private final long maxNanos;
+		private final long contextStarts;
+
+		Entry(String visitor, String change, OpCode kind, long count, long totalNanos, long maxNanos,
+				long contextStarts) {
+			this.visitor = visitor;
+			this.change = change;
+			this.kind = kind;
+			this.count = count;
+			this.totalNanos = totalNanos;
+			this.maxNanos = maxNanos;
+			this.contextStarts = contextStarts;
+		}
+
+		/** Simple class name of the {@link BatchVisitor} */
+		public String getVisitor() {
+			return visitor;
+		}
+
+		/** Simple class name of the {@link Change} */
+		public String getChange() {
+			return change;
+		}
+
+		public OpCode getKind() {
+			return kind;
+		}
+
+		/** Number of processed changes */
+		public long getCount() {
+			return count;
+		}
+
+		public long getTotalNanos() {
+			return totalNanos;
+		}
+
+		public long getAverageNanos() {
+			return count == 0L ? 0L : totalNanos / count;
+		}
+
+		public long getMaxNanos() {
+			return maxNanos;
+		}
+
+		/** Number of contexts (re)started while processing the changes */
+		public long getContextStarts() {
+			return contextStarts;
+		}
+
+		@Override
+		public String toString() {
+			return "{" + visitor + "/" + change + "/" + kind + ": count=" + count + ", total=" + totalNanos
+					+ "ns, max=" + maxNanos + "ns, contextStarts=" + contextStarts + "}";
+		}
+	}
+
+	private static final class Key {
+		private final Class<?> visitor;
+		private final Class<?> change;
+		private final OpCode kind;
+
+		Key(Class<?> visitor, Class<?> change, OpCode kind) {
+			this.visitor = visitor;
+			this.change = change;
+			this.kind = kind;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return visitor == other.visitor && change == other.change && kind == other.kind;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(visitor, change, kind);
+		}
+	}
+
+	private static final class Stats {
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final AtomicLong maxNanos = new AtomicLong();
+		private final LongAdder contextStarts = new LongAdder();
+
+		void record(long nanos) {
+			count.increment();
+			totalNanos.add(nanos);
+			if (nanos > maxNanos.get()) {
+				maxNanos.accumulateAndGet(nanos, Math::max);
+			}
+		}
+	}
+
+}
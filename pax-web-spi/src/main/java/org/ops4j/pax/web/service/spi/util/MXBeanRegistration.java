@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.util;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Registration of statistics MXBean in platform {@link MBeanServer}.</p>
+ *
+ * <p>Failure is never fatal, because the MXBeans only expose information available in other ways. If the name
+ * is already registered (for example by another instance of the same component), the existing MXBean is kept
+ * and nothing is registered.</p>
+ */
+public final class MXBeanRegistration {
+
+	private static final Logger LOG = LoggerFactory.getLogger(MXBeanRegistration.class);
+
+	private final ObjectName objectName;
+
+	private MXBeanRegistration(ObjectName objectName) {
+		this.objectName = objectName;
+	}
+
+	/**
+	 * Registers given MXBean under given name.
+	 *
+	 * @param mxBean
+	 * @param name
+	 * @return the registration or {@code null} if the MXBean was not registered
+	 */
+	public static MXBeanRegistration register(Object mxBean, String name) {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = new ObjectName(name);
+			if (server.isRegistered(objectName)) {
+				LOG.debug("{} MBean is already registered", objectName);
+				return null;
+			}
+			server.registerMBean(mxBean, objectName);
+			return new MXBeanRegistration(objectName);
+		} catch (JMException | RuntimeException e) {
+			LOG.warn("Can't register {} MBean: {}", name, e.getMessage(), e);
+			return null;
+		}
+	}
+
+	public ObjectName getObjectName() {
+		return objectName;
+	}
+
+	public void unregister() {
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		} catch (JMException | RuntimeException e) {
+			LOG.debug("Can't unregister {} MBean: {}", objectName, e.getMessage());
+		}
+	}
+
+}
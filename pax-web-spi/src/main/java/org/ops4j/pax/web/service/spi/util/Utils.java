@@ -30,6 +30,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.function.BiFunction;
 import javax.servlet.ServletConfig;
 
@@ -725,4 +728,38 @@ public class Utils {
 		}
 	}
 
+	/**
+	 * Check if virtual threads are available (JDK 21+)
+	 *
+	 * @return
+	 */
+	public static boolean isVirtualThreadsAvailable() {
+		return Runtime.version().feature() >= 21;
+	}
+
+	/**
+	 * Creates a thread-per-task {@link ExecutorService} using virtual threads named with given prefix
+	 * and a sequence number. Pax Web is compiled for JDK 17, so the virtual thread API is accessed using reflection.
+	 *
+	 * @param namePrefix
+	 * @return the executor or {@code null} if virtual threads are not available
+	 */
+	public static ExecutorService newVirtualThreadsExecutor(String namePrefix) {
+		if (!isVirtualThreadsAvailable()) {
+			return null;
+		}
+		try {
+			// Thread.ofVirtual().name(namePrefix, 0L).factory()
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+			ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+			return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+					.invoke(null, factory);
+		} catch (Exception e) {
+			LOG.warn("Can't create virtual thread executor: {}", e.getMessage(), e);
+			return null;
+		}
+	}
+
 }
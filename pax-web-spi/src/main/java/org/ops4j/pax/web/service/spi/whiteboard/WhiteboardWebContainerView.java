@@ -75,6 +75,15 @@ public interface WhiteboardWebContainerView extends PaxWebContainerView {
 	 */
 	void unregisterServlet(ServletModel model);
 
+	/**
+	 * Changes the rank of registered {@link ServletModel} without re-registration (so the servlet is not
+	 * destroyed), if the new rank doesn't affect resolution of conflicting servlets.
+	 * @param model
+	 * @param rank
+	 * @return {@code false} if the rank was not changed and the servlet has to be registered again
+	 */
+	boolean changeServletRank(ServletModel model, int rank);
+
 	/**
 	 * One-stop method to register a {@link javax.servlet.Filter} described using {@link FilterModel}.
 	 * {@link FilterModel} should always be associated with target (one or many) {@link OsgiContextModel}.
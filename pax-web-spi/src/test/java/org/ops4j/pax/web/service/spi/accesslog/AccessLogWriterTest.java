@@ -0,0 +1,221 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.accesslog;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ops4j.pax.web.service.spi.config.LogConfiguration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AccessLogWriterTest {
+
+	private static final long DAY1 = ZonedDateTime.of(2025, 3, 14, 10, 20, 30, 0, ZoneId.of("GMT")).toInstant().toEpochMilli();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder(new File("target"));
+
+	@Test
+	public void entriesAreWrittenInNcsaFormat() throws Exception {
+		File dir = folder.newFolder();
+		AccessLogWriter writer = new AccessLogWriter(configuration(dir, "access.log", true, false), 16,
+				new TestClock(DAY1));
+		assertTrue(writer.log("127.0.0.1", null, DAY1, "GET", "/app/x", "a=b", "HTTP/1.1", 200, 42L,
+				null, "curl \"8\""));
+		assertTrue(writer.log("::1", "admin", DAY1 + 1000L, "POST", "/app/żółw", null, "HTTP/2.0",
+				404, 0L, "http://localhost/", "agent\n"));
+		writer.close();
+
+		List<String> lines = Files.readAllLines(new File(dir, "access.log").toPath(), StandardCharsets.UTF_8);
+		assertEquals(List.of(
+				"127.0.0.1 - - [14/Mar/2025:10:20:30 +0000] \"GET /app/x?a=b HTTP/1.1\" 200 42 \"-\" \"curl \\\"8\\\"\"",
+				"::1 - admin [14/Mar/2025:10:20:31 +0000] \"POST /app/żółw HTTP/2.0\" 404 - \"http://localhost/\" \"agent\\x0a\""
+		), lines);
+		assertEquals(2L, writer.getWritten());
+		assertEquals(0L, writer.getDropped());
+		assertFalse(writer.log("127.0.0.1", null, DAY1, "GET", "/", null, "HTTP/1.1", 200, 1L, null, null));
+	}
+
+	@Test
+	public void filesAreRolledOverDaily() throws Exception {
+		File dir = folder.newFolder();
+		File old = new File(dir, "2025-03-01.request.log");
+		Files.write(old.toPath(), "old\n".getBytes(StandardCharsets.US_ASCII));
+		assertTrue(old.setLastModified(DAY1 - TimeUnit.DAYS.toMillis(13)));
+		File recent = new File(dir, "2025-03-12.request.log");
+		Files.write(recent.toPath(), "recent\n".getBytes(StandardCharsets.US_ASCII));
+		assertTrue(recent.setLastModified(DAY1 - TimeUnit.DAYS.toMillis(2)));
+
+		TestClock clock = new TestClock(DAY1);
+		AccessLogWriter writer = new AccessLogWriter(configuration(dir, "yyyy_mm_dd.request.log", false, true), 16, clock);
+		writer.log("127.0.0.1", null, DAY1, "GET", "/1", null, "HTTP/1.1", 200, 1L, null, null);
+		awaitWritten(writer, 1L);
+		clock.time.addAndGet(TimeUnit.DAYS.toMillis(1));
+		writer.log("127.0.0.1", null, clock.millis(), "GET", "/2", null, "HTTP/1.1", 200, 1L, null, null);
+		writer.close();
+
+		assertFalse("retaindays=10", old.exists());
+		assertTrue(recent.exists());
+		List<String> day1 = Files.readAllLines(new File(dir, "2025-03-14.request.log").toPath());
+		List<String> day2 = Files.readAllLines(new File(dir, "2025-03-15.request.log").toPath());
+		assertEquals(1, day1.size());
+		assertTrue(day1.get(0).contains("\"GET /1 HTTP/1.1\""));
+		assertEquals(1, day2.size());
+		assertTrue(day2.get(0).contains("\"GET /2 HTTP/1.1\""));
+	}
+
+	@Test
+	public void entriesAreDroppedWhenWriterIsStalled() throws Exception {
+		File dir = folder.newFolder();
+		TestClock clock = new TestClock(DAY1);
+		AccessLogWriter writer = new AccessLogWriter(configuration(dir, "access.log", false, false), 16, clock);
+
+		// the writer thread checks the time before processing the entries, so it can be stalled there
+		clock.stall = new CountDownLatch(1);
+		writer.log("127.0.0.1", null, DAY1, "GET", "/", null, "HTTP/1.1", 200, 1L, null, null);
+		assertTrue(clock.stalled.await(5, TimeUnit.SECONDS));
+
+		int accepted = 1;
+		for (int i = 0; i < 100; i++) {
+			if (writer.log("127.0.0.1", null, DAY1, "GET", "/" + i, null, "HTTP/1.1", 200, 1L, null, null)) {
+				accepted++;
+			}
+		}
+		assertEquals(16, accepted);
+		assertEquals(16L, writer.getBacklog());
+		assertEquals(85L, writer.getDropped());
+
+		clock.stall.countDown();
+		writer.close();
+		assertEquals(0L, writer.getBacklog());
+		assertEquals(16L, writer.getWritten());
+		assertEquals(16, Files.readAllLines(new File(dir, "access.log").toPath()).size());
+	}
+
+	@Test
+	public void entriesLoggedConcurrentlyWithCloseAreWrittenOrDropped() throws Exception {
+		File dir = folder.newFolder();
+		AccessLogWriter writer = new AccessLogWriter(configuration(dir, "access.log", false, false), 64,
+				new TestClock(DAY1));
+
+		LongAdder attempts = new LongAdder();
+		CountDownLatch started = new CountDownLatch(4);
+		AtomicBoolean stop = new AtomicBoolean();
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				started.countDown();
+				while (!stop.get()) {
+					writer.log("127.0.0.1", null, DAY1, "GET", "/", null, "HTTP/1.1", 200, 1L, null, null);
+					attempts.increment();
+				}
+			});
+			threads[t].start();
+		}
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		Thread.sleep(50L);
+		writer.close();
+		stop.set(true);
+		for (Thread t : threads) {
+			t.join();
+		}
+
+		assertEquals(0L, writer.getBacklog());
+		assertEquals(attempts.sum(), writer.getWritten() + writer.getDropped());
+		assertEquals(writer.getWritten(), Files.readAllLines(new File(dir, "access.log").toPath()).size());
+	}
+
+	private static LogConfiguration configuration(File dir, String file, boolean extended, boolean buffered) {
+		LogConfiguration lc = mock(LogConfiguration.class);
+		when(lc.getLogNCSADirectory()).thenReturn(dir.getAbsolutePath());
+		when(lc.getLogNCSAFile()).thenReturn(file);
+		when(lc.getLogNCSAFilenameDateFormat()).thenReturn("yyyy-MM-dd");
+		when(lc.isLogNCSAAppend()).thenReturn(true);
+		when(lc.getLogNCSARetainDays()).thenReturn(10);
+		when(lc.isLogNCSAExtended()).thenReturn(extended);
+		when(lc.getLogNCSATimeZone()).thenReturn("GMT");
+		when(lc.getLogNCSABuffered()).thenReturn(buffered);
+		return lc;
+	}
+
+	private static void awaitWritten(AccessLogWriter writer, long count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000L;
+		while (writer.getWritten() < count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10L);
+		}
+		assertEquals(count, writer.getWritten());
+	}
+
+	private static class TestClock extends Clock {
+		private final AtomicLong time;
+		private volatile CountDownLatch stall;
+		private final CountDownLatch stalled = new CountDownLatch(1);
+
+		TestClock(long time) {
+			this.time = new AtomicLong(time);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneId.of("GMT");
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis());
+		}
+
+		@Override
+		public long millis() {
+			CountDownLatch latch = stall;
+			if (latch != null && Thread.currentThread().getName().equals("paxweb-access-log")) {
+				stalled.countDown();
+				try {
+					latch.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				stall = null;
+			}
+			return time.get();
+		}
+	}
+
+}
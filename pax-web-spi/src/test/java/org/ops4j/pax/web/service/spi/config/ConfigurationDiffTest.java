@@ -0,0 +1,83 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.ops4j.pax.web.service.PaxWebConfig;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConfigurationDiffTest {
+
+	@Test
+	public void hotChanges() {
+		Map<String, String> previous = new HashMap<>();
+		previous.put(PaxWebConfig.PID_CFG_HTTP_PORT, "8181");
+		previous.put(PaxWebConfig.PID_CFG_SERVER_MAX_THREADS, "100");
+		previous.put("service.pid", "org.ops4j.pax.web");
+		Map<String, String> next = new HashMap<>(previous);
+		next.put(PaxWebConfig.PID_CFG_HTTP_PORT, "8182");
+		next.put(PaxWebConfig.PID_CFG_SERVER_MIN_THREADS, "10");
+		next.put(PaxWebConfig.PID_CFG_LOG_NCSA_ENABLED, "true");
+		next.remove("service.pid");
+
+		ConfigurationDiff diff = ConfigurationDiff.between(previous, next);
+		assertFalse(diff.isEmpty());
+		assertFalse(diff.requiresRestart());
+		assertEquals(3, diff.getChangedProperties().size());
+		assertTrue(diff.contains(ConfigurationDiff.Kind.CONNECTORS));
+		assertTrue(diff.contains(ConfigurationDiff.Kind.THREAD_POOL));
+		assertTrue(diff.contains(ConfigurationDiff.Kind.REQUEST_LOG));
+		assertFalse(diff.contains(ConfigurationDiff.Kind.RESOURCE_CACHE));
+	}
+
+	@Test
+	public void resourceCacheChanges() {
+		Map<String, String> previous = new HashMap<>();
+		previous.put(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_CACHE_MAX_ENTRIES, "100");
+		Map<String, String> next = new HashMap<>(previous);
+		next.put(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_CACHE_MAX_ENTRIES, "200");
+		next.put(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_CACHE_TTL, "1000");
+
+		ConfigurationDiff diff = ConfigurationDiff.between(previous, next);
+		assertFalse(diff.requiresRestart());
+		assertEquals(2, diff.getChangedProperties().size());
+		assertTrue(diff.contains(ConfigurationDiff.Kind.RESOURCE_CACHE));
+		assertFalse(diff.contains(ConfigurationDiff.Kind.THREAD_POOL));
+	}
+
+	@Test
+	public void restartRequired() {
+		Map<String, String> previous = new HashMap<>();
+		previous.put(PaxWebConfig.PID_CFG_SERVER_MAX_THREADS, "100");
+		Map<String, String> next = new HashMap<>(previous);
+		next.put(PaxWebConfig.PID_CFG_SERVER_MAX_THREADS, "120");
+		next.put(PaxWebConfig.PID_CFG_SESSION_TIMEOUT, "30");
+
+		ConfigurationDiff diff = ConfigurationDiff.between(previous, next);
+		assertTrue(diff.requiresRestart());
+		assertEquals(1, diff.getRestartRequiredProperties().size());
+		assertTrue(diff.getRestartRequiredProperties().contains(PaxWebConfig.PID_CFG_SESSION_TIMEOUT));
+
+		assertTrue(ConfigurationDiff.between(previous, new HashMap<>(previous)).isEmpty());
+	}
+
+}
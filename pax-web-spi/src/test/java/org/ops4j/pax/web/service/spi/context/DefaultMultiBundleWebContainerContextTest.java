@@ -0,0 +1,131 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.context;
+
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.SynchronousBundleListener;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DefaultMultiBundleWebContainerContextTest {
+
+	@Test
+	public void resourceLookupsAreCached() throws Exception {
+		URL url = new URL("file:/b2/index.html");
+		Bundle b1 = mock(Bundle.class);
+		Bundle b2 = mock(Bundle.class);
+		when(b2.getResource("index.html")).thenReturn(url);
+
+		DefaultMultiBundleWebContainerContext context = new DefaultMultiBundleWebContainerContext(new DefaultHttpContext(b1, "shared"));
+		context.registerBundle(b1);
+		context.registerBundle(b2);
+
+		assertEquals(url, context.getResource("/index.html"));
+		assertEquals(url, context.getResource("/index.html"));
+		assertNull(context.getResource("/favicon.ico"));
+		assertNull(context.getResource("/favicon.ico"));
+		assertEquals(2, context.getCacheHits());
+		assertEquals(2, context.getCacheMisses());
+		verify(b1, times(1)).getResource("index.html");
+		verify(b1, times(1)).getResource("favicon.ico");
+		verify(b2, times(1)).getResource("favicon.ico");
+
+		// updated bundle
+		when(b1.getLastModified()).thenReturn(42L);
+		when(b1.getResource("favicon.ico")).thenReturn(url);
+		assertEquals(url, context.getResource("/favicon.ico"));
+
+		// deregistered bundle
+		context.deregisterBundle(b1);
+		assertNull(context.getResource("/favicon.ico"));
+		assertEquals(4, context.getCacheMisses());
+	}
+
+	@Test
+	public void bundleUpdatesAreDetectedUsingListener() throws Exception {
+		URL url = new URL("file:/b2/index.html");
+		Bundle b1 = mock(Bundle.class);
+		Bundle b2 = mock(Bundle.class);
+		Bundle b3 = mock(Bundle.class);
+		when(b2.getResource("index.html")).thenReturn(url);
+		BundleContext bc = mock(BundleContext.class);
+
+		DefaultMultiBundleWebContainerContext context
+				= new DefaultMultiBundleWebContainerContext(new DefaultHttpContext(b1, "shared"), 16, bc);
+		context.registerBundle(b1);
+		context.registerBundle(b2);
+		ArgumentCaptor<SynchronousBundleListener> listener = ArgumentCaptor.forClass(SynchronousBundleListener.class);
+		verify(bc, times(1)).addBundleListener(listener.capture());
+
+		assertEquals(url, context.getResource("/index.html"));
+		assertEquals(url, context.getResource("/index.html"));
+		assertEquals(1, context.getCacheHits());
+		// cache hit doesn't check the bundles
+		verify(b1, never()).getLastModified();
+		verify(b2, never()).getLastModified();
+
+		// statistics are available using JMX
+		ObjectName name = new ObjectName("org.ops4j.pax.web:type=SharedContext,name=" + ObjectName.quote("shared"));
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		assertEquals(1L, server.getAttribute(name, "CacheHits"));
+		assertEquals(1L, server.getAttribute(name, "CacheMisses"));
+		assertEquals(2, server.getAttribute(name, "BundleCount"));
+
+		// other bundle
+		listener.getValue().bundleChanged(new BundleEvent(BundleEvent.UPDATED, b3));
+		assertEquals(url, context.getResource("/index.html"));
+		assertEquals(1, context.getCacheMisses());
+
+		// updated bundle
+		listener.getValue().bundleChanged(new BundleEvent(BundleEvent.UPDATED, b1));
+		assertEquals(url, context.getResource("/index.html"));
+		assertEquals(2, context.getCacheMisses());
+
+		context.deregisterBundle(b1);
+		context.deregisterBundle(b2);
+		verify(bc, times(1)).removeBundleListener(listener.getValue());
+		assertFalse(server.isRegistered(name));
+	}
+
+	@Test
+	public void resourceLookupsAreNotCachedWithZeroSize() {
+		Bundle b1 = mock(Bundle.class);
+		DefaultMultiBundleWebContainerContext context = new DefaultMultiBundleWebContainerContext(new DefaultHttpContext(b1, "shared"), 0);
+		context.registerBundle(b1);
+
+		assertNull(context.getResource("/favicon.ico"));
+		assertNull(context.getResource("/favicon.ico"));
+		verify(b1, times(2)).getResource("favicon.ico");
+		assertEquals(0, context.getCacheHits());
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model;
+
+import java.util.ArrayList;
+import java.util.Dictionary;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+import org.junit.Test;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.http.runtime.HttpServiceRuntime;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChangeCountPublisherTest {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void updatesAreCoalesced() {
+		Queue<Runnable> tasks = new LinkedList<>();
+		List<Object> published = new ArrayList<>();
+
+		ServiceRegistration<HttpServiceRuntime> reg = mock(ServiceRegistration.class);
+		ServiceReference<HttpServiceRuntime> ref = mock(ServiceReference.class);
+		when(reg.getReference()).thenReturn(ref);
+		when(ref.getPropertyKeys()).thenReturn(new String[0]);
+		doAnswer(invocation -> {
+			Dictionary<String, Object> props = invocation.getArgument(0);
+			published.add(props.get(ChangeCountPublisher.SERVICE_CHANGECOUNT));
+			return null;
+		}).when(reg).setProperties(any());
+
+		ChangeCountPublisher publisher = new ChangeCountPublisher(tasks::add);
+		publisher.setRegistration(reg);
+
+		for (int i = 0; i < 100; i++) {
+			publisher.increment();
+		}
+		assertEquals(100L, publisher.get());
+		assertEquals(1, tasks.size());
+		tasks.poll().run();
+		assertEquals(List.of(100L), published);
+
+		publisher.increment();
+		publisher.increment();
+		assertEquals(1, tasks.size());
+		tasks.poll().run();
+		assertEquals(List.of(100L, 102L), published);
+		assertEquals(0, tasks.size());
+	}
+
+}
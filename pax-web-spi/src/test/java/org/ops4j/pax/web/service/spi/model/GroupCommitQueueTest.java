@@ -0,0 +1,72 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+import org.ops4j.pax.web.service.spi.ServerController;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class GroupCommitQueueTest {
+
+	@Test
+	public void queuedTasksAreRunInSingleGroup() throws Exception {
+		Queue<Runnable> tasks = new LinkedList<>();
+		List<String> trace = new ArrayList<>();
+
+		ServerController controller = mock(ServerController.class);
+		doAnswer(invocation -> trace.add("begin")).when(controller).beginGroup();
+		doAnswer(invocation -> trace.add("end")).when(controller).endGroup();
+
+		GroupCommitQueue queue = new GroupCommitQueue(tasks::add);
+		queue.configure(controller, 0L);
+
+		for (int i = 0; i < 3; i++) {
+			final int n = i;
+			assertNull(queue.submit(() -> trace.add("task" + n), true));
+		}
+		// single executor task for all asynchronous registrations
+		assertEquals(1, tasks.size());
+		tasks.poll().run();
+		assertEquals(List.of("begin", "task0", "task1", "task2", "end"), trace);
+
+		// synchronous task closes the group before its result is available
+		trace.clear();
+		queue.submit(() -> trace.add("async"), true);
+		CompletableFuture<String> future = queue.submit(() -> {
+			trace.add("sync");
+			return "done";
+		}, false);
+		queue.submit(() -> trace.add("after"), true);
+		while (!tasks.isEmpty()) {
+			tasks.poll().run();
+		}
+		assertTrue(future.isDone());
+		assertEquals("done", future.get());
+		assertEquals(List.of("begin", "async", "sync", "end", "begin", "after", "end"), trace);
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RequestMetricsTest {
+
+	@Test
+	public void bucketsCoverAllValues() {
+		long previousHighest = -1L;
+		for (int b = 0; b < RequestMetrics.BUCKETS - 1; b++) {
+			long highest = RequestMetrics.highestEquivalentValue(b);
+			assertTrue(highest > previousHighest);
+			// lowest and highest value of the bucket are mapped to this bucket
+			assertEquals(b, RequestMetrics.bucket(previousHighest + 1));
+			assertEquals(b, RequestMetrics.bucket(highest));
+			previousHighest = highest;
+		}
+		assertEquals(RequestMetrics.BUCKETS - 1, RequestMetrics.bucket(Long.MAX_VALUE));
+		assertEquals(0, RequestMetrics.bucket(-1L));
+	}
+
+	@Test
+	public void relativeErrorIsBounded() {
+		for (long v = 1L; v < 10_000_000L; v = v * 3 / 2 + 1) {
+			long highest = RequestMetrics.highestEquivalentValue(RequestMetrics.bucket(v));
+			assertTrue(highest >= v);
+			assertTrue((double) (highest - v) / v < 0.25d);
+		}
+	}
+
+	@Test
+	public void recordingRequests() {
+		RequestMetrics context = new RequestMetrics();
+		RequestMetrics servlet = new RequestMetrics();
+
+		long start = RequestMetrics.requestStarted(context, servlet);
+		RequestMetrics.requestStarted(context, null);
+		assertEquals(2L, context.getInFlight());
+		assertEquals(1L, servlet.getInFlight());
+
+		RequestMetrics.requestCompleted(start, 200, context, servlet);
+		RequestMetrics.requestCompleted(start, 404, context, null);
+		assertEquals(0L, context.getInFlight());
+		assertEquals(0L, servlet.getInFlight());
+		assertEquals(2L, context.getRequests());
+		assertEquals(1L, servlet.getRequests());
+		assertEquals(1L, context.getStatusCount(2));
+		assertEquals(1L, context.getStatusCount(4));
+		assertEquals(0L, servlet.getStatusCount(4));
+		assertTrue(context.getMaxNanos() >= context.getAverageNanos());
+
+		context.reset();
+		assertEquals(0L, context.getRequests());
+		assertEquals(0L, context.getStatusCount(2));
+		assertEquals(0L, context.getPercentileMicros(50.0d));
+	}
+
+	@Test
+	public void percentiles() {
+		RequestMetrics metrics = new RequestMetrics();
+		// 90 requests taking 100us and 10 requests taking 10ms
+		for (int i = 0; i < 90; i++) {
+			RequestMetrics.requestStarted(metrics, null);
+			metrics.record(100_000L, 200);
+		}
+		for (int i = 0; i < 10; i++) {
+			RequestMetrics.requestStarted(metrics, null);
+			metrics.record(10_000_000L, 200);
+		}
+
+		long p50 = metrics.getPercentileMicros(50.0d);
+		long p90 = metrics.getPercentileMicros(90.0d);
+		long p99 = metrics.getPercentileMicros(99.0d);
+		assertTrue(p50 >= 100L && p50 < 125L);
+		assertTrue(p90 >= 100L && p90 < 125L);
+		assertTrue(p99 >= 10_000L && p99 < 12_500L);
+		assertEquals(10_000L, p99);
+		assertEquals(0L, metrics.getInFlight());
+		assertEquals(10_000_000L, metrics.getMaxNanos());
+	}
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.servlet.http.HttpServlet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+import org.ops4j.pax.web.service.spi.task.Batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ServerModelConflictsTest {
+
+	private ServerModel serverModel;
+	private OsgiContextModel c1;
+	private OsgiContextModel c2;
+	private long serviceId = 0L;
+
+	@Before
+	public void setup() {
+		serverModel = new ServerModel(Runnable::run);
+
+		Batch batch = new Batch("contexts");
+		c1 = new OsgiContextModel(null, null, "/c1", false);
+		c2 = new OsgiContextModel(null, null, "/c2", false);
+		batch.addOsgiContextModel(c1, serverModel.getOrCreateServletContextModel("/c1", batch));
+		batch.addOsgiContextModel(c2, serverModel.getOrCreateServletContextModel("/c2", batch));
+		batch.accept(serverModel);
+	}
+
+	@Test
+	public void disabledServletsAreReviewedInCascade() throws Exception {
+		ServletModel a = servlet("a", 10, c1, "/p");
+		ServletModel b = servlet("b", 5, c1, "/p", "/q");
+		ServletModel c = servlet("c", 1, c1, "/q");
+		// shadowed in other context - never affected
+		ServletModel d = servlet("d", 10, c2, "/p");
+		ServletModel e = servlet("e", 5, c2, "/p");
+		register(a);
+		register(b);
+		register(c);
+		register(d);
+		register(e);
+
+		assertDisabled(b, e);
+		assertSame(a, mapping("/c1", "/p"));
+		assertSame(c, mapping("/c1", "/q"));
+
+		// b is enabled, so c has to be disabled
+		unregister(a);
+		assertDisabled(c, e);
+		assertSame(b, mapping("/c1", "/p"));
+		assertSame(b, mapping("/c1", "/q"));
+		assertSame(d, mapping("/c2", "/p"));
+
+		unregister(b);
+		assertDisabled(e);
+		assertSame(c, mapping("/c1", "/q"));
+		assertFalse(serverModel.getServletContextModel("/c1").getServletUrlPatternMapping().containsKey("/p"));
+	}
+
+	@Test
+	public void removedDisabledServletIsNotEnabled() throws Exception {
+		ServletModel a = servlet("a", 10, c1, "/p");
+		ServletModel b = servlet("b", 5, c1, "/p");
+		ServletModel c = servlet("c", 1, c1, "/p");
+		register(a);
+		register(b);
+		register(c);
+		assertDisabled(b, c);
+
+		Batch batch = new Batch("unregister");
+		serverModel.removeServletModels(Arrays.asList(a, b), batch);
+		batch.accept(serverModel);
+
+		assertDisabled();
+		assertSame(c, mapping("/c1", "/p"));
+	}
+
+	@Test
+	public void nameConflictIsResolvedByRanking() throws Exception {
+		ServletModel a = servlet("s", 10, c1, "/a");
+		ServletModel b = servlet("s", 5, c1, "/b");
+		register(a);
+		register(b);
+		assertDisabled(b);
+
+		unregister(a);
+		assertDisabled();
+		assertSame(b, serverModel.getServletContextModel("/c1").getServletNameMapping().get("s"));
+	}
+
+	private ServletModel servlet(String name, int rank, OsgiContextModel context, String... patterns) {
+		return new ServletModel.Builder()
+				.withServletName(name)
+				.withUrlPatterns(patterns)
+				.withServlet(new HttpServlet() { })
+				.withServiceRankAndId(rank, ++serviceId)
+				.withOsgiContextModel(context)
+				.build();
+	}
+
+	private void register(ServletModel model) throws Exception {
+		Batch batch = new Batch("register");
+		serverModel.addServletModel(model, batch);
+		batch.accept(serverModel);
+	}
+
+	private void unregister(ServletModel model) {
+		Batch batch = new Batch("unregister");
+		serverModel.removeServletModels(Collections.singletonList(model), batch);
+		batch.accept(serverModel);
+	}
+
+	private ServletModel mapping(String contextPath, String pattern) {
+		return serverModel.getServletContextModel(contextPath).getServletUrlPatternMapping().get(pattern);
+	}
+
+	private void assertDisabled(ServletModel... models) {
+		List<ServletModel> expected = Arrays.asList(models);
+		assertEquals(expected.size(), serverModel.getDisabledServletModels().size());
+		assertTrue(serverModel.getDisabledServletModels().containsAll(expected));
+	}
+
+}
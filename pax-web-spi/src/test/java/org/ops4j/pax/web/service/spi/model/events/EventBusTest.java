@@ -0,0 +1,218 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model.events;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EventBusTest {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+	@After
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void eventsAreDeliveredInOrder() throws Exception {
+		EventBus<Consumer<Integer>, Integer> bus = new EventBus<>(executor, Consumer::accept, null);
+		List<Integer> received1 = Collections.synchronizedList(new ArrayList<>());
+		List<Integer> received2 = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch latch = new CountDownLatch(2000);
+		bus.addListener(e -> {
+			received1.add(e);
+			latch.countDown();
+		}, false);
+		bus.addListener(e -> {
+			received2.add(e);
+			latch.countDown();
+		}, false);
+
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			bus.publish(i);
+			expected.add(i);
+		}
+
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		assertEquals(expected, received1);
+		assertEquals(expected, received2);
+		assertEquals(0, bus.getQueueDepth());
+		// the delivery is counted after the listener returns
+		long deadline = System.currentTimeMillis() + 5000L;
+		while (bus.getStatistics().get(0).getDelivered() < 1000L && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10L);
+		}
+		assertEquals(1000L, bus.getStatistics().get(0).getDelivered());
+	}
+
+	@Test
+	public void supersededEventsAreCoalesced() throws Exception {
+		// events are "bundle:state" strings, a "ready" state supersedes "starting" state of the same bundle
+		EventBus<Consumer<String>, String> bus = new EventBus<>(executor, Consumer::accept,
+				(queued, event) -> queued.endsWith(":starting") && event.equals(queued.replace(":starting", ":ready")));
+		CountDownLatch blocked = new CountDownLatch(1);
+		List<String> coalescing = Collections.synchronizedList(new ArrayList<>());
+		List<String> all = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch latch = new CountDownLatch(7);
+		bus.addListener(e -> {
+			try {
+				blocked.await();
+			} catch (InterruptedException ignored) {
+			}
+			coalescing.add(e);
+			latch.countDown();
+		}, true);
+		bus.addListener(e -> {
+			all.add(e);
+			latch.countDown();
+		}, false);
+
+		bus.publish("b0:ready");
+		bus.publish("b1:starting");
+		bus.publish("b2:starting");
+		bus.publish("b1:ready");
+		blocked.countDown();
+
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		assertEquals(List.of("b0:ready", "b2:starting", "b1:ready"), coalescing);
+		assertEquals(List.of("b0:ready", "b1:starting", "b2:starting", "b1:ready"), all);
+		assertEquals(1L, bus.getStatistics().get(0).getCoalesced());
+	}
+
+	@Test
+	public void stuckListenerIsRemoved() throws Exception {
+		EventBus<Consumer<Integer>, Integer> bus = new EventBus<>(executor, Consumer::accept, null, 2, 100L);
+		CountDownLatch blocked = new CountDownLatch(1);
+		bus.addListener(e -> {
+			try {
+				blocked.await();
+			} catch (InterruptedException ignored) {
+			}
+		}, false);
+
+		// 1st event is being delivered, 2 more fill the queue and 4th has to wait for the timeout
+		for (int i = 0; i < 4; i++) {
+			bus.publish(i);
+		}
+		assertFalse(bus.hasListeners());
+		blocked.countDown();
+	}
+
+	@Test
+	public void hungListenerDoesNotBlockOtherListeners() throws Exception {
+		ExecutorService single = Executors.newFixedThreadPool(1);
+		try {
+			EventBus<Consumer<Integer>, Integer> bus = new EventBus<>(single, Consumer::accept, null, 16, 100L);
+			CountDownLatch hung = new CountDownLatch(1);
+			CountDownLatch interrupted = new CountDownLatch(1);
+			Consumer<Integer> hungListener = e -> {
+				hung.countDown();
+				try {
+					Thread.sleep(60_000L);
+				} catch (InterruptedException ignored) {
+					interrupted.countDown();
+				}
+			};
+			bus.addListener(hungListener, false);
+			List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+			CountDownLatch latch = new CountDownLatch(2);
+			bus.addListener(e -> {
+				received.add(e);
+				latch.countDown();
+			}, false);
+
+			bus.publish(1);
+			assertTrue(hung.await(5, TimeUnit.SECONDS));
+			bus.publish(2);
+
+			// the only thread of the executor is hung, but the other listener still gets the events
+			assertTrue(latch.await(5, TimeUnit.SECONDS));
+			assertEquals(List.of(1, 2), received);
+			assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+			assertEquals(1, bus.getStatistics().size());
+
+			// and the executor gets back to single thread
+			long deadline = System.currentTimeMillis() + 5000L;
+			while (((ThreadPoolExecutor) single).getCorePoolSize() > 1 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10L);
+			}
+			assertEquals(1, ((ThreadPoolExecutor) single).getCorePoolSize());
+		} finally {
+			single.shutdownNow();
+		}
+	}
+
+	@Test
+	public void statisticsAreAvailableUsingJmx() throws Exception {
+		EventBus<Consumer<Integer>, Integer> bus = new EventBus<>(executor, Consumer::accept, null);
+		CountDownLatch latch = new CountDownLatch(1);
+		bus.addListener(e -> latch.countDown(), false);
+		bus.publish(1);
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+		EventBusStatistics statistics = new EventBusStatistics(bus, "Test");
+		statistics.register();
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(EventBusStatistics.OBJECT_NAME_PREFIX + "Test");
+			assertEquals(0, server.getAttribute(name, "QueueDepth"));
+			CompositeData[] listeners = (CompositeData[]) server.getAttribute(name, "ListenerStatistics");
+			assertEquals(1, listeners.length);
+			assertTrue(listeners[0].containsKey("delivered"));
+		} finally {
+			statistics.unregister();
+		}
+	}
+
+	@Test
+	public void failingListenerIsRemoved() throws Exception {
+		EventBus<Consumer<Integer>, Integer> bus = new EventBus<>(executor, Consumer::accept, null);
+		CountDownLatch latch = new CountDownLatch(1);
+		bus.addListener(e -> {
+			latch.countDown();
+			throw new IllegalStateException("expected");
+		}, false);
+
+		bus.publish(1);
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		long deadline = System.currentTimeMillis() + 5000L;
+		while (bus.hasListeners() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10L);
+		}
+		assertFalse(bus.hasListeners());
+	}
+
+}
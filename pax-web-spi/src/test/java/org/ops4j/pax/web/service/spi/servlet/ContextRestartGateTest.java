@@ -0,0 +1,89 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.servlet;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ContextRestartGateTest {
+
+	@Test
+	public void disabledGateIsNeverClosed() {
+		ContextRestartGate gate = new ContextRestartGate(0L);
+		gate.close();
+		assertFalse(gate.isClosed());
+		assertTrue(gate.await());
+	}
+
+	@Test
+	public void heldRequestProceedsWhenGateIsOpened() throws Exception {
+		ContextRestartGate gate = new ContextRestartGate(10000L);
+		gate.close();
+		assertTrue(gate.isClosed());
+
+		CompletableFuture<Boolean> held = CompletableFuture.supplyAsync(gate::await);
+		Thread.sleep(100L);
+		assertFalse(held.isDone());
+
+		gate.open();
+		assertTrue(held.get(5, TimeUnit.SECONDS));
+		assertFalse(gate.isClosed());
+	}
+
+	@Test
+	public void requestIsReleasedAfterTimeout() {
+		ContextRestartGate gate = new ContextRestartGate(100L);
+		gate.close();
+		long start = System.nanoTime();
+		assertFalse(gate.await());
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100L));
+		assertFalse(gate.isClosed());
+	}
+
+	@Test
+	public void disposedGateIsNotClosedAgain() {
+		ContextRestartGate gate = new ContextRestartGate(10000L);
+		gate.close();
+		gate.dispose();
+		assertFalse(gate.isClosed());
+		gate.close();
+		assertFalse(gate.isClosed());
+	}
+
+	@Test
+	public void stoppingContextIsDrained() throws Exception {
+		ContextRestartGate gate = new ContextRestartGate(10000L);
+		assertTrue(gate.tryEnter());
+		gate.close();
+		assertFalse(gate.tryEnter());
+		assertEquals(1, gate.getInFlight());
+
+		CompletableFuture<Void> drained = CompletableFuture.runAsync(gate::drain);
+		Thread.sleep(100L);
+		assertFalse(drained.isDone());
+
+		gate.exit();
+		drained.get(5, TimeUnit.SECONDS);
+		assertEquals(0, gate.getInFlight());
+	}
+
+}
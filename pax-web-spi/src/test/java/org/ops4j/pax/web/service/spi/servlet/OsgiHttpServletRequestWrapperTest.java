@@ -0,0 +1,114 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.servlet;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OsgiHttpServletRequestWrapperTest {
+
+	private final AtomicInteger ids = new AtomicInteger();
+
+	/** Session of the container (null if there's no session) */
+	private final AtomicReference<HttpSession> containerSession = new AtomicReference<>();
+
+	private OsgiHttpServletRequestWrapper wrapper;
+
+	@Before
+	public void setup() {
+		HttpServletRequest request = mock(HttpServletRequest.class);
+		when(request.getSession(anyBoolean())).thenAnswer(i -> {
+			if (containerSession.get() == null && (Boolean) i.getArgument(0)) {
+				containerSession.set(newContainerSession());
+			}
+			return containerSession.get();
+		});
+		when(request.changeSessionId()).thenAnswer(i -> {
+			String id = "s" + ids.incrementAndGet();
+			when(containerSession.get().getId()).thenReturn(id);
+			return id;
+		});
+		wrapper = new OsgiHttpServletRequestWrapper(request, null, null);
+	}
+
+	@Test
+	public void sameWrapperIsReturnedForSameSession() {
+		assertNull(wrapper.getSession(false));
+
+		HttpSession session = wrapper.getSession();
+		assertNotNull(session);
+		assertSame(session, wrapper.getSession());
+		assertSame(session, wrapper.getSession(false));
+		assertSame(session, wrapper.getSession(true));
+		assertEquals(containerSession.get().getId(), session.getId());
+	}
+
+	@Test
+	public void newWrapperIsReturnedAfterInvalidation() {
+		HttpSession session = wrapper.getSession(true);
+		String id = session.getId();
+
+		session.invalidate();
+		assertNull(wrapper.getSession(false));
+
+		HttpSession newSession = wrapper.getSession(true);
+		assertNotNull(newSession);
+		assertNotSame(session, newSession);
+		assertNotEquals(id, newSession.getId());
+		assertEquals(containerSession.get().getId(), newSession.getId());
+		assertSame(newSession, wrapper.getSession(false));
+	}
+
+	@Test
+	public void sessionIdChangeIsVisible() {
+		HttpSession session = wrapper.getSession(true);
+		String id = session.getId();
+
+		String newId = wrapper.changeSessionId();
+		assertNotEquals(id, newId);
+		assertEquals(newId, session.getId());
+		// the container keeps the session object, so the wrapper is still the same
+		assertSame(session, wrapper.getSession(false));
+		assertEquals(newId, wrapper.getSession(false).getId());
+	}
+
+	private HttpSession newContainerSession() {
+		HttpSession session = mock(HttpSession.class);
+		when(session.getId()).thenReturn("s" + ids.incrementAndGet());
+		doAnswer(i -> {
+			containerSession.set(null);
+			return null;
+		}).when(session).invalidate();
+		return session;
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.servlet;
+
+import java.net.URL;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.wiring.BundleWiring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OsgiServletContextClassLoaderTest {
+
+	@Test
+	public void resolutionIsCached() throws Exception {
+		ClassLoader cl1 = mock(ClassLoader.class);
+		ClassLoader cl2 = mock(ClassLoader.class);
+		doThrow(ClassNotFoundException.class).when(cl1).loadClass(anyString());
+		doThrow(ClassNotFoundException.class).when(cl2).loadClass(anyString());
+		doReturn(String.class).when(cl2).loadClass("com.example.Found");
+		URL url = new URL("file:/b2/META-INF/faces-config.xml");
+		when(cl2.getResource("META-INF/faces-config.xml")).thenReturn(url);
+		when(cl2.getResources("META-INF/faces-config.xml")).thenReturn(Collections.enumeration(Collections.singletonList(url)));
+
+		Bundle b1 = bundle(cl1);
+		Bundle b2 = bundle(cl2);
+		OsgiServletContextClassLoader loader = new OsgiServletContextClassLoader();
+		loader.addBundles(b1, b2);
+		loader.makeImmutable();
+
+		assertSame(String.class, loader.loadClass("com.example.Found"));
+		assertSame(String.class, loader.loadClass("com.example.Found"));
+		for (int i = 0; i < 2; i++) {
+			try {
+				loader.loadClass("com.example.Missing");
+				fail("Should not find the class");
+			} catch (ClassNotFoundException expected) {
+			}
+		}
+		assertEquals(url, loader.getResource("META-INF/faces-config.xml"));
+		assertEquals(url, loader.getResource("META-INF/faces-config.xml"));
+		assertNull(loader.getResource("META-INF/beans.xml"));
+		assertNull(loader.getResource("META-INF/beans.xml"));
+		assertEquals(1, Collections.list(loader.getResources("META-INF/faces-config.xml")).size());
+		assertEquals(1, Collections.list(loader.getResources("META-INF/faces-config.xml")).size());
+
+		assertEquals(5, loader.getCacheHits());
+		assertEquals(5, loader.getCacheMisses());
+		verify(cl1, times(1)).loadClass("com.example.Found");
+		verify(cl2, times(1)).loadClass("com.example.Missing");
+		verify(cl1, times(1)).getResource("META-INF/beans.xml");
+		verify(b1, times(1)).adapt(BundleWiring.class);
+
+		// refreshed bundle
+		OsgiServletContextClassLoader.wiringChanged();
+		assertNull(loader.getResource("META-INF/beans.xml"));
+		verify(cl1, times(2)).getResource("META-INF/beans.xml");
+		verify(b1, times(2)).adapt(BundleWiring.class);
+	}
+
+	private Bundle bundle(ClassLoader cl) {
+		Bundle bundle = mock(Bundle.class);
+		BundleWiring wiring = mock(BundleWiring.class);
+		when(wiring.getClassLoader()).thenReturn(cl);
+		when(bundle.adapt(BundleWiring.class)).thenReturn(wiring);
+		return bundle;
+	}
+
+}
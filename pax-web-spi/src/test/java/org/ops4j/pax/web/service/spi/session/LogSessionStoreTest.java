@@ -0,0 +1,340 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.session;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LogSessionStoreTest {
+
+	private static final Logger LOG = LoggerFactory.getLogger(LogSessionStoreTest.class);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder(new File("target"));
+
+	@Test
+	public void sessionsSurviveRestart() throws Exception {
+		File dir = folder.newFolder();
+		long now = System.currentTimeMillis();
+
+		try (LogSessionStore store = store(dir)) {
+			SessionStoreSegment segment = store.getSegment(SessionStore.segmentName("/app"));
+			Map<String, Object> attributes = new HashMap<>();
+			attributes.put("s", "value");
+			attributes.put("i", 42);
+			attributes.put("list", new ArrayList<>(Arrays.asList("a", "b")));
+			attributes.put("nope", new Object());
+			segment.save(new StoredSession("ctx1~s1", now, now, 60_000L, now + 60_000L, attributes));
+			segment.save(new StoredSession("ctx2~s2", now, now, 60_000L, now + 60_000L, Collections.singletonMap("b", true)));
+			store.flush();
+
+			// changed attributes and times are written separately
+			Map<String, Object> changes = new HashMap<>();
+			changes.put("i", 43);
+			changes.put("s", null);
+			segment.update(new StoredSession("ctx1~s1", now, now + 10L, 60_000L, now + 60_010L, changes));
+			store.flush();
+			segment.touch(new StoredSession("ctx1~s1", now, now + 20L, 60_000L, now + 60_020L, null));
+		}
+
+		assertTrue(new File(dir, "app/ctx1").isDirectory());
+		assertTrue(new File(dir, "app/ctx2").isDirectory());
+
+		try (LogSessionStore store = store(dir)) {
+			SessionStoreSegment segment = store.getSegment("app");
+			assertEquals(Set.of("ctx1~s1", "ctx2~s2"), segment.getSessionIds());
+			assertEquals(now + 60_020L, segment.getExpirationTime("ctx1~s1"));
+
+			StoredSession s1 = segment.load("ctx1~s1", getClass().getClassLoader());
+			assertNotNull(s1);
+			assertEquals(now, s1.getCreationTime());
+			assertEquals(now + 20L, s1.getLastAccessedTime());
+			assertEquals(60_000L, s1.getMaxInactiveInterval());
+			assertEquals(2, s1.getAttributes().size());
+			assertEquals(43, s1.getAttributes().get("i"));
+			assertEquals(List.of("a", "b"), s1.getAttributes().get("list"));
+
+			assertEquals(true, segment.load("ctx2~s2", null).getAttributes().get("b"));
+			assertNull(segment.load("ctx2~s3", null));
+			assertEquals(-1L, segment.getExpirationTime("ctx2~s3"));
+		}
+	}
+
+	@Test
+	public void removedAndExpiredSessionsAreNotRestored() throws Exception {
+		File dir = folder.newFolder();
+		long now = System.currentTimeMillis();
+
+		try (LogSessionStore store = store(dir)) {
+			SessionStoreSegment segment = store.getSegment("ROOT");
+			segment.save(new StoredSession("s1", now, now, 60_000L, now + 60_000L, Collections.singletonMap("a", "b")));
+			segment.save(new StoredSession("s2", now, now, 60_000L, now + 60_000L, null));
+			segment.save(new StoredSession("s3", now, now, 0L, 0L, null));
+			store.flush();
+			segment.remove("s1");
+			assertFalse(segment.contains("s1"));
+			segment.touch(new StoredSession("s2", now, now - 120_000L, 60_000L, now - 60_000L, null));
+			assertNull(segment.load("s2", null));
+		}
+
+		try (LogSessionStore store = store(dir)) {
+			SessionStoreSegment segment = store.getSegment("ROOT");
+			assertEquals(Set.of("s3"), segment.getSessionIds());
+			assertEquals(0L, segment.getExpirationTime("s3"));
+			segment.clear();
+			assertTrue(segment.getSessionIds().isEmpty());
+		}
+	}
+
+	@Test
+	public void logIsCompacted() throws Exception {
+		File dir = folder.newFolder();
+		long now = System.currentTimeMillis();
+		byte[] value = SessionAttributes.serialize("a", new String(new char[1000]).replace('\0', 'x'));
+
+		try (SessionLog log = new SessionLog(dir, 4096)) {
+			for (int i = 0; i < 50; i++) {
+				String id = "s" + (i % 5);
+				log.append(SessionLog.FULL, new StoredSession(id, now, now + i, 60_000L, now + 60_000L + i, null),
+						Collections.singletonMap("a", value));
+			}
+			log.remove("s4");
+			// sessions with many changes are merged
+			for (int i = 0; i < 40; i++) {
+				log.append(SessionLog.DELTA, new StoredSession("s0", now, now + i, 60_000L, now + 60_000L, null),
+						Collections.singletonMap("d" + i, SessionAttributes.serialize("d", i)));
+			}
+			int before = dir.list().length;
+			while (log.compact()) {
+				// compact all the files
+			}
+			assertTrue(dir.list().length < before);
+			assertEquals(41, log.read("s0", now).getAttributes().size());
+		}
+
+		try (SessionLog log = new SessionLog(dir, 4096)) {
+			for (int i = 0; i < 4; i++) {
+				assertTrue(log.contains("s" + i));
+			}
+			assertFalse(log.contains("s4"));
+			StoredSession s0 = log.read("s0", now);
+			assertEquals(41, s0.getAttributes().size());
+			assertEquals(now + 39L, s0.getLastAccessedTime());
+			assertEquals(39, SessionAttributes.deserialize("d39", (byte[]) s0.getAttributes().get("d39"), null));
+		}
+	}
+
+	@Test
+	public void failedSerializationDoesNotLoseStoredValues() throws Exception {
+		File dir = folder.newFolder();
+		long now = System.currentTimeMillis();
+
+		try (LogSessionStore store = store(dir)) {
+			SessionStoreSegment segment = store.getSegment("ROOT");
+			segment.save(new StoredSession("s1", now, now, 60_000L, now + 60_000L,
+					Collections.singletonMap("a", new Flaky("v1", 0, false))));
+			store.flush();
+
+			// value which can't be serialized is not stored as removed - neither as changed nor in full state
+			segment.update(new StoredSession("s1", now, now + 10L, 60_000L, now + 60_010L,
+					Collections.singletonMap("a", new Flaky("v2", 0, true))));
+			store.flush();
+			Map<String, Object> attributes = new HashMap<>();
+			attributes.put("a", new Flaky("v3", 0, true));
+			attributes.put("b", "x");
+			segment.save(new StoredSession("s1", now, now + 20L, 60_000L, now + 60_020L, attributes));
+			store.flush();
+
+			// value changed during serialization is written again in next cycle
+			segment.save(new StoredSession("s2", now, now, 60_000L, now + 60_000L,
+					Collections.singletonMap("a", new Flaky("v4", 1, false))));
+			store.flush();
+			assertTrue(segment.contains("s2"));
+			segment.update(new StoredSession("s2", now, now + 10L, 60_000L, now + 60_010L,
+					Collections.singletonMap("b", "y")));
+		}
+
+		try (LogSessionStore store = store(dir)) {
+			SessionStoreSegment segment = store.getSegment("ROOT");
+			StoredSession s1 = segment.load("s1", getClass().getClassLoader());
+			assertEquals(now + 20L, s1.getLastAccessedTime());
+			assertEquals("v1", ((Flaky) s1.getAttributes().get("a")).value);
+			assertEquals("x", s1.getAttributes().get("b"));
+			StoredSession s2 = segment.load("s2", getClass().getClassLoader());
+			assertEquals(now + 10L, s2.getLastAccessedTime());
+			assertEquals("v4", ((Flaky) s2.getAttributes().get("a")).value);
+			assertEquals("y", s2.getAttributes().get("b"));
+		}
+	}
+
+	@Test
+	public void manySessionsAreReopenedWithoutDeserialization() throws Exception {
+		File dir = folder.newFolder();
+		long now = System.currentTimeMillis();
+		int count = 200_000;
+
+		try (LogSessionStore store = new LogSessionStore(dir, LogSessionStore.PARTITION_BY_ID_PREFIX,
+				LogSessionStore.DEFAULT_FILE_SIZE, 3_600_000L)) {
+			SessionStoreSegment segment = store.getSegment("ROOT");
+			Map<String, Object> attributes = new HashMap<>();
+			attributes.put("user", "admin");
+			attributes.put("cart", new ArrayList<>(Arrays.asList("a", "b", "c")));
+			for (int i = 0; i < count; i++) {
+				segment.save(new StoredSession("ctx" + (i % 4) + "~s" + i, now, now, 60_000L, now + 60_000L, attributes));
+			}
+			store.flush();
+
+			// at shutdown, only the times of already stored sessions are written
+			long start = System.nanoTime();
+			for (int i = 0; i < count; i++) {
+				segment.touch(new StoredSession("ctx" + (i % 4) + "~s" + i, now, now + 1L, 60_000L, now + 60_001L, null));
+			}
+			store.flush();
+			LOG.info("Stored times of {} sessions in {}ms", count, (System.nanoTime() - start) / 1_000_000L);
+		}
+
+		long start = System.nanoTime();
+		try (LogSessionStore store = new LogSessionStore(dir, LogSessionStore.PARTITION_BY_ID_PREFIX,
+				LogSessionStore.DEFAULT_FILE_SIZE, 3_600_000L)) {
+			SessionStoreSegment segment = store.getSegment("ROOT");
+			long millis = (System.nanoTime() - start) / 1_000_000L;
+			LOG.info("Reopened {} sessions in {}ms", count, millis);
+
+			assertEquals(count, segment.getSessionIds().size());
+			assertEquals(now + 60_001L, segment.getExpirationTime("ctx3~s" + (count - 1)));
+			assertEquals(List.of("a", "b", "c"), segment.load("ctx1~s1", null).getAttributes().get("cart"));
+			// generous bound - only to detect accidental deserialization of all the sessions
+			assertTrue(millis < 20_000L);
+		}
+	}
+
+	@Test
+	public void loadDoesNotWaitForWriter() throws Exception {
+		File dir = folder.newFolder();
+		long now = System.currentTimeMillis();
+
+		try (LogSessionStore store = store(dir)) {
+			SessionStoreSegment segment = store.getSegment("ROOT");
+			segment.save(new StoredSession("s1", now, now, 60_000L, now + 60_000L, Collections.singletonMap("a", "b")));
+			store.flush();
+
+			// changes not written yet are applied to the stored state
+			segment.update(new StoredSession("s1", now, now + 10L, 60_000L, now + 60_010L, Collections.singletonMap("c", "d")));
+			StoredSession s1 = segment.load("s1", getClass().getClassLoader());
+			assertEquals(now + 10L, s1.getLastAccessedTime());
+			assertEquals("b", s1.getAttributes().get("a"));
+			assertEquals("d", s1.getAttributes().get("c"));
+
+			// session being written by another thread is loaded without waiting
+			Blocking blocking = new Blocking();
+			segment.update(new StoredSession("s1", now, now + 20L, 60_000L, now + 60_020L, Collections.singletonMap("e", blocking)));
+			Thread writer = new Thread(store::flush);
+			writer.start();
+			assertTrue(blocking.serializing.await(5, TimeUnit.SECONDS));
+			s1 = segment.load("s1", getClass().getClassLoader());
+			assertEquals(now + 20L, s1.getLastAccessedTime());
+			assertEquals("d", s1.getAttributes().get("c"));
+			assertSame(blocking, s1.getAttributes().get("e"));
+			blocking.release.countDown();
+			writer.join(5000L);
+			assertFalse(writer.isAlive());
+
+			segment.remove("s1");
+			assertNull(segment.load("s1", null));
+		}
+	}
+
+	private LogSessionStore store(File dir) {
+		// writing only at explicit flush
+		return new LogSessionStore(dir, LogSessionStore.PARTITION_BY_ID_PREFIX, 4096, 3_600_000L);
+	}
+
+	/**
+	 * Attribute value whose serialization waits until it's released.
+	 */
+	private static final class Blocking implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private final transient CountDownLatch serializing = new CountDownLatch(1);
+		private final transient CountDownLatch release = new CountDownLatch(1);
+
+		private void writeObject(ObjectOutputStream out) throws IOException {
+			serializing.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			out.defaultWriteObject();
+		}
+	}
+
+	/**
+	 * Attribute value which fails to serialize as if it was changed concurrently or as if it couldn't be
+	 * serialized at all.
+	 */
+	private static final class Flaky implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private final String value;
+		private transient int concurrentChanges;
+		private final transient boolean broken;
+
+		Flaky(String value, int concurrentChanges, boolean broken) {
+			this.value = value;
+			this.concurrentChanges = concurrentChanges;
+			this.broken = broken;
+		}
+
+		private void writeObject(ObjectOutputStream out) throws IOException {
+			if (concurrentChanges > 0) {
+				concurrentChanges--;
+				throw new ConcurrentModificationException();
+			}
+			if (broken) {
+				throw new NotSerializableException(value);
+			}
+			out.defaultWriteObject();
+		}
+	}
+
+}
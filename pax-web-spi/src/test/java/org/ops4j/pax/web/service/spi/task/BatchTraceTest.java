@@ -0,0 +1,74 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.task;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchTraceTest {
+
+	@After
+	public void cleanup() {
+		BatchTrace.setEnabled(false);
+		BatchTrace.reset();
+	}
+
+	@Test
+	public void changesAreTracedWhenEnabled() {
+		// visitor which "restarts" a context when handling ContextStartChange
+		BatchVisitor visitor = (BatchVisitor) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { BatchVisitor.class }, (proxy, method, args) -> {
+					if ("visitContextStartChange".equals(method.getName())) {
+						BatchTrace.contextStarted();
+					}
+					return null;
+				});
+
+		Batch batch = new Batch("test");
+		batch.getOperations().add(new ContextStartChange(OpCode.MODIFY, "/c1"));
+		batch.getOperations().add(new ContextStartChange(OpCode.MODIFY, "/c2"));
+		batch.getOperations().add(new ContextStopChange(OpCode.MODIFY, "/c1"));
+
+		batch.accept(visitor);
+		assertTrue(BatchTrace.getEntries().isEmpty());
+
+		BatchTrace.setEnabled(true);
+		batch.accept(visitor);
+
+		List<BatchTrace.Entry> entries = BatchTrace.getEntries();
+		assertEquals(2, entries.size());
+		BatchTrace.Entry start = entries.stream()
+				.filter(e -> "ContextStartChange".equals(e.getChange())).findFirst().orElseThrow();
+		assertEquals(OpCode.MODIFY, start.getKind());
+		assertEquals(2L, start.getCount());
+		assertEquals(2L, start.getContextStarts());
+		assertTrue(start.getMaxNanos() <= start.getTotalNanos());
+		BatchTrace.Entry stop = entries.stream()
+				.filter(e -> "ContextStopChange".equals(e.getChange())).findFirst().orElseThrow();
+		assertEquals(1L, stop.getCount());
+		assertEquals(0L, stop.getContextStarts());
+
+		BatchTrace.reset();
+		assertTrue(BatchTrace.getEntries().isEmpty());
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.tomcat.internal;
+
+import java.io.IOException;
+import javax.servlet.ServletException;
+
+import org.apache.catalina.AccessLog;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.ops4j.pax.web.service.spi.accesslog.AccessLogWriter;
+import org.ops4j.pax.web.service.spi.config.LogConfiguration;
+
+/**
+ * {@link AccessLog} valve passing the requests to common {@link AccessLogWriter}, which is created when this
+ * valve is started. It replaces {@link org.apache.catalina.valves.AccessLogValve} for NCSA logging configured
+ * using Pax Web properties.
+ */
+public class PaxWebAccessLogValve extends ValveBase implements AccessLog {
+
+	private final LogConfiguration configuration;
+	private volatile AccessLogWriter writer;
+	private boolean requestAttributesEnabled = false;
+
+	public PaxWebAccessLogValve(LogConfiguration configuration) {
+		super(true);
+		this.configuration = configuration;
+	}
+
+	@Override
+	protected synchronized void startInternal() throws LifecycleException {
+		try {
+			writer = new AccessLogWriter(configuration);
+		} catch (IOException e) {
+			throw new LifecycleException(e.getMessage(), e);
+		}
+		super.startInternal();
+	}
+
+	@Override
+	protected synchronized void stopInternal() throws LifecycleException {
+		super.stopInternal();
+		AccessLogWriter w = writer;
+		writer = null;
+		if (w != null) {
+			w.close();
+		}
+	}
+
+	@Override
+	public void invoke(Request request, Response response) throws IOException, ServletException {
+		getNext().invoke(request, response);
+	}
+
+	@Override
+	public void log(Request request, Response response, long time) {
+		AccessLogWriter w = writer;
+		if (w == null) {
+			return;
+		}
+		String remoteAddress = null;
+		if (requestAttributesEnabled) {
+			Object addr = request.getAttribute(REMOTE_ADDR_ATTRIBUTE);
+			remoteAddress = addr == null ? null : addr.toString();
+		}
+		if (remoteAddress == null) {
+			remoteAddress = request.getRemoteAddr();
+		}
+		w.log(remoteAddress, request.getRemoteUser(), request.getCoyoteRequest().getStartTime(),
+				request.getMethod(), request.getRequestURI(), request.getQueryString(), request.getProtocol(),
+				response.getStatus(), response.getBytesWritten(false),
+				request.getHeader("Referer"), request.getHeader("User-Agent"));
+	}
+
+	@Override
+	public void setRequestAttributesEnabled(boolean requestAttributesEnabled) {
+		this.requestAttributesEnabled = requestAttributesEnabled;
+	}
+
+	@Override
+	public boolean getRequestAttributesEnabled() {
+		return requestAttributesEnabled;
+	}
+
+	public AccessLogWriter getWriter() {
+		return writer;
+	}
+
+}
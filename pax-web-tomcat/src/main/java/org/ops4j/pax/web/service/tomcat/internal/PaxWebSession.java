@@ -0,0 +1,99 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.tomcat.internal;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.catalina.Manager;
+import org.apache.catalina.session.StandardSession;
+import org.ops4j.pax.web.service.spi.session.StoredSession;
+
+/**
+ * {@link StandardSession} which passes changed attributes to {@link PaxWebSessionManager}, so they can be stored
+ * in {@link org.ops4j.pax.web.service.spi.session.SessionStore} without serializing entire session.
+ */
+public class PaxWebSession extends StandardSession {
+
+	public PaxWebSession(Manager manager) {
+		super(manager);
+	}
+
+	@Override
+	public void setAttribute(String name, Object value, boolean notify) {
+		super.setAttribute(name, value, notify);
+		// null value is handled by removeAttribute()
+		if (value != null && manager instanceof PaxWebSessionManager) {
+			((PaxWebSessionManager) manager).attributeChanged(this, name, value);
+		}
+	}
+
+	@Override
+	public void removeAttribute(String name, boolean notify) {
+		super.removeAttribute(name, notify);
+		if (manager instanceof PaxWebSessionManager) {
+			((PaxWebSessionManager) manager).attributeChanged(this, name, null);
+		}
+	}
+
+	/**
+	 * Returns the state of this session to store.
+	 *
+	 * @param withAttributes whether to include (a copy of) the attributes
+	 * @return
+	 */
+	StoredSession toStoredSession(boolean withAttributes) {
+		return toStoredSession(withAttributes ? new HashMap<>(attributes) : null);
+	}
+
+	/**
+	 * Returns the state of this session to store with single changed attribute.
+	 *
+	 * @param name
+	 * @param value {@code null} for removed attribute
+	 * @return
+	 */
+	StoredSession toStoredSession(String name, Object value) {
+		return toStoredSession(Collections.singletonMap(name, value));
+	}
+
+	/**
+	 * Initializes this (empty) session from stored state and adds it to the manager.
+	 *
+	 * @param stored
+	 * @param defaultMaxInactiveInterval in seconds, if not stored
+	 */
+	void restore(StoredSession stored, int defaultMaxInactiveInterval) {
+		long now = System.currentTimeMillis();
+		creationTime = stored.getCreationTime() > 0L ? stored.getCreationTime() : now;
+		lastAccessedTime = stored.getLastAccessedTime() > 0L ? stored.getLastAccessedTime() : now;
+		thisAccessedTime = lastAccessedTime;
+		maxInactiveInterval = stored.getMaxInactiveInterval() > 0L
+				? (int) (stored.getMaxInactiveInterval() / 1000L) : defaultMaxInactiveInterval;
+		isNew = false;
+		isValid = true;
+		attributes.putAll(stored.getAttributes());
+		setId(stored.getId(), false);
+	}
+
+	private StoredSession toStoredSession(Map<String, Object> attributes) {
+		long maxInactive = maxInactiveInterval > 0 ? maxInactiveInterval * 1000L : 0L;
+		return new StoredSession(id, creationTime, thisAccessedTime, maxInactive,
+				maxInactive > 0L ? thisAccessedTime + maxInactive : 0L, attributes);
+	}
+
+}
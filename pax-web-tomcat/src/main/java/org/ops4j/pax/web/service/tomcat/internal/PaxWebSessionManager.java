@@ -19,16 +19,40 @@ import java.io.IOException;
 
 import org.apache.catalina.Session;
 import org.apache.catalina.session.StandardManager;
+import org.apache.catalina.session.StandardSession;
+import org.ops4j.pax.web.service.spi.session.SessionStoreSegment;
+import org.ops4j.pax.web.service.spi.session.StoredSession;
 
+/**
+ * <p>{@link StandardManager} aware of session ID prefixes of {@link org.ops4j.pax.web.service.spi.model.OsgiContextModel}
+ * and, if configured, storing the sessions in {@link SessionStoreSegment} instead of single {@code SESSIONS.ser}
+ * file.</p>
+ *
+ * <p>With session store, changed attributes are stored as they're set, at stop only the times of the sessions
+ * are stored and the sessions are restored lazily, when they're requested.</p>
+ */
 public class PaxWebSessionManager extends StandardManager {
 
+	private SessionStoreSegment sessionStoreSegment;
+
+	/** Set while the sessions are passivated at stop, so they're not removed from the store */
+	private volatile boolean unloading;
+
+	public void setSessionStoreSegment(SessionStoreSegment sessionStoreSegment) {
+		this.sessionStoreSegment = sessionStoreSegment;
+	}
+
 	@Override
 	public Session findSession(String id) throws IOException {
 		String sessionIdPrefix = PaxWebSessionIdGenerator.sessionIdPrefix.get();
 		if (sessionIdPrefix != null && !id.startsWith(sessionIdPrefix + "~")) {
 			id = sessionIdPrefix + "~" + id;
 		}
-		return super.findSession(id);
+		Session session = super.findSession(id);
+		if (session == null && id != null && sessionStoreSegment != null) {
+			session = restore(id);
+		}
+		return session;
 	}
 
 	@Override
@@ -42,4 +66,101 @@ public class PaxWebSessionManager extends StandardManager {
 		return super.createSession(sessionId);
 	}
 
+	@Override
+	public void remove(Session session, boolean update) {
+		super.remove(session, update);
+		if (sessionStoreSegment != null && !unloading && session.getIdInternal() != null) {
+			sessionStoreSegment.remove(session.getIdInternal());
+		}
+	}
+
+	@Override
+	protected void changeSessionId(Session session, String newId, boolean notifySessionListeners,
+			boolean notifyContainerListeners) {
+		super.changeSessionId(session, newId, notifySessionListeners, notifyContainerListeners);
+		if (sessionStoreSegment != null && session instanceof PaxWebSession) {
+			sessionStoreSegment.save(((PaxWebSession) session).toStoredSession(true));
+		}
+	}
+
+	@Override
+	protected StandardSession getNewSession() {
+		return new PaxWebSession(this);
+	}
+
+	@Override
+	protected void doLoad() throws ClassNotFoundException, IOException {
+		if (sessionStoreSegment == null) {
+			super.doLoad();
+		}
+		// otherwise sessions are restored when requested
+	}
+
+	@Override
+	protected void doUnload() throws IOException {
+		if (sessionStoreSegment == null) {
+			super.doUnload();
+			return;
+		}
+
+		unloading = true;
+		try {
+			Session[] sessions = findSessions();
+			for (Session s : sessions) {
+				if (!(s instanceof PaxWebSession) || !s.isValid()) {
+					continue;
+				}
+				PaxWebSession session = (PaxWebSession) s;
+				session.passivate();
+				// attributes of already stored sessions were stored when they were set
+				if (sessionStoreSegment.contains(session.getIdInternal())) {
+					sessionStoreSegment.touch(session.toStoredSession(false));
+				} else {
+					sessionStoreSegment.save(session.toStoredSession(true));
+				}
+			}
+			sessionStoreSegment.flush();
+
+			// the same as in StandardManager.doUnload()
+			for (Session s : sessions) {
+				StandardSession session = (StandardSession) s;
+				try {
+					session.expire(false);
+				} finally {
+					session.recycle();
+				}
+			}
+		} finally {
+			unloading = false;
+		}
+	}
+
+	/**
+	 * Stores changed attribute of a session.
+	 *
+	 * @param session
+	 * @param name
+	 * @param value {@code null} for removed attribute
+	 */
+	void attributeChanged(PaxWebSession session, String name, Object value) {
+		if (sessionStoreSegment != null && !unloading && session.getIdInternal() != null) {
+			sessionStoreSegment.update(session.toStoredSession(name, value));
+		}
+	}
+
+	private synchronized Session restore(String id) throws IOException {
+		Session session = super.findSession(id);
+		if (session != null) {
+			return session;
+		}
+		StoredSession stored = sessionStoreSegment.load(id, Thread.currentThread().getContextClassLoader());
+		if (stored == null) {
+			return null;
+		}
+		PaxWebSession restored = (PaxWebSession) createEmptySession();
+		restored.restore(stored, getContext().getSessionTimeout() * 60);
+		restored.activate();
+		return restored;
+	}
+
 }
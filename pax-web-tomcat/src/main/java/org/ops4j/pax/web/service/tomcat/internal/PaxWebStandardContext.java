@@ -23,8 +23,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.function.Consumer;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import javax.servlet.DispatcherType;
 import javax.servlet.Filter;
 import javax.servlet.Servlet;
@@ -36,6 +36,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSessionListener;
 
 import org.apache.catalina.Container;
+import org.apache.catalina.Lifecycle;
 import org.apache.catalina.LifecycleException;
 import org.apache.catalina.LifecycleState;
 import org.apache.catalina.connector.Request;
@@ -50,8 +51,10 @@ import org.ops4j.pax.web.service.spi.model.elements.EventListenerKey;
 import org.ops4j.pax.web.service.spi.model.elements.EventListenerModel;
 import org.ops4j.pax.web.service.spi.model.elements.FilterModel;
 import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+import org.ops4j.pax.web.service.spi.servlet.ContextRestartGate;
 import org.ops4j.pax.web.service.spi.servlet.Default404Servlet;
 import org.ops4j.pax.web.service.spi.servlet.OsgiFilterChain;
+import org.ops4j.pax.web.service.spi.servlet.OsgiFilterChainTemplate;
 import org.ops4j.pax.web.service.spi.servlet.OsgiScopedServletContext;
 import org.ops4j.pax.web.service.spi.servlet.OsgiServletContext;
 import org.ops4j.pax.web.service.spi.servlet.OsgiSessionAttributeListener;
@@ -85,6 +88,23 @@ public class PaxWebStandardContext extends StandardContext {
 	 */
 	public static final String PAXWEB_TOMCAT_REQUEST = ".paxweb.tomcat.request";
 
+	/**
+	 * Listener called when {@link org.osgi.service.http.HttpContext#handleSecurity} returns true. It translates
+	 * OSGi authentication attributes into Tomcat specific authentication.
+	 */
+	private static final BiConsumer<HttpServletRequest, Request> AUTH_LISTENER = (req, tomcatRequest) -> {
+		final Object user = req.getAttribute(ServletContextHelper.REMOTE_USER);
+		final Object authType = req.getAttribute(ServletContextHelper.AUTHENTICATION_TYPE);
+
+		if (user != null || authType != null) {
+			// translate it into Tomcat specific authentication
+			String userName = user != null ? user.toString() : null;
+			if (tomcatRequest.getPrincipal() == null) {
+				tomcatRequest.setUserPrincipal(new GenericPrincipal(userName, null, Collections.emptyList()));
+			}
+		}
+	};
+
 	/**
 	 * Default {@link ServletContext} to use for chains without target servlet (e.g., filters only)
 	 */
@@ -126,12 +146,30 @@ public class PaxWebStandardContext extends StandardContext {
 
 	private final OsgiSessionAttributeListener osgiSessionsBridge;
 
+	/**
+	 * Pre-built {@link OsgiFilterChainTemplate templates} for target wrappers, so per-request {@link OsgiFilterChain}
+	 * is only a cursor over immutable template.
+	 */
+	private final Map<PaxWebStandardWrapper, OsgiFilterChainTemplate<Request>> osgiChainTemplates = new ConcurrentHashMap<>();
+
+	/** Pre-built {@link OsgiFilterChainTemplate} for chains without target servlet (or with 404 servlet) */
+	private volatile OsgiFilterChainTemplate<Request> defaultOsgiChainTemplate;
+
 	// as in org.eclipse.jetty.server.handler.ContextHandler._vhosts, _vhostswildcard and _vconnectors
 	private String[] virtualHosts;
 	private boolean[] virtualHostWildcards;
 	private String[] connectorNames;
 	private boolean whiteboardTCCL;
 
+	/** Whether {@link org.ops4j.pax.web.service.spi.model.RequestMetrics} should be updated */
+	private boolean requestMetricsEnabled;
+
+	/**
+	 * Gate closed when this context is being stopped. While closed, the context is reported as
+	 * {@link #getPaused() paused}, so Tomcat keeps it mapped and holds the requests until it's started again.
+	 */
+	private ContextRestartGate restartGate = new ContextRestartGate(0L);
+
 	public PaxWebStandardContext(Default404Servlet defaultServlet, OsgiSessionAttributeListener osgiSessionsBridge) {
 		super();
 		getPipeline().addValve(new PaxWebStandardContextValve((ValveBase) getPipeline().getBasic(), defaultServlet));
@@ -139,6 +177,15 @@ public class PaxWebStandardContext extends StandardContext {
 		this.setClearReferencesObjectStreamClassCaches(false);
 		this.setClearReferencesRmiTargets(false);
 		this.setClearReferencesThreadLocals(false);
+
+		// registered before org.apache.catalina.mapper.MapperListener, which unmaps the context on stop, unless
+		// it's paused. Requests already mapped to this context are given a chance to complete
+		addLifecycleListener(event -> {
+			if (Lifecycle.BEFORE_STOP_EVENT.equals(event.getType())) {
+				restartGate.close();
+				restartGate.drain();
+			}
+		});
 	}
 
 	/**
@@ -166,33 +213,9 @@ public class PaxWebStandardContext extends StandardContext {
 				}
 			}
 
-			// listener called when org.osgi.service.http.HttpContext.handleSecurity() returns true
-			Consumer<HttpServletRequest> authListener = (req) -> {
-				final Object user = req.getAttribute(ServletContextHelper.REMOTE_USER);
-				final Object authType = req.getAttribute(ServletContextHelper.AUTHENTICATION_TYPE);
-
-				if (user != null || authType != null) {
-					// translate it into Tomcat specific authentication
-					String userName = user != null ? user.toString() : null;
-					String authMethod = authType != null ? authType.toString() : null;
-					if (tomcatRequest.getPrincipal() == null) {
-						tomcatRequest.setUserPrincipal(new GenericPrincipal(userName, null, Collections.emptyList()));
-					}
-				}
-			};
-
-			final OsgiFilterChain osgiChain;
-			List<Preprocessor> preprocessorInstances = preprocessors.stream().map(PreprocessorFilterConfig::getInstance).collect(Collectors.toList());
-			if (wrapper != null && !wrapper.is404()) {
-				osgiChain = new OsgiFilterChain(new ArrayList<>(preprocessorInstances),
-						wrapper.getServletContext(), wrapper.getWebContainerContext(), null, osgiSessionsBridge, authListener);
-			} else {
-				osgiChain = new OsgiFilterChain(new ArrayList<>(preprocessorInstances),
-						delegate.getDefaultServletContext(), delegate.getDefaultWebContainerContext(), null, osgiSessionsBridge, authListener);
-			}
-
-			// this chain will be called (or not)
-			osgiChain.setChain(chain);
+			// everything except the chain and the request itself is taken from pre-built template
+			// the original chain will be called (or not)
+			final OsgiFilterChain osgiChain = delegate.getOsgiChainTemplate(wrapper).newChain(chain, tomcatRequest);
 			osgiChain.doFilter(request, response);
 		};
 
@@ -221,6 +244,7 @@ public class PaxWebStandardContext extends StandardContext {
 	 */
 	public void setDefaultServletContext(OsgiServletContext defaultServletContext) {
 		this.defaultServletContext = defaultServletContext;
+		invalidateOsgiFilterChains();
 	}
 
 	/**
@@ -518,6 +542,7 @@ public class PaxWebStandardContext extends StandardContext {
 	public void setDefaultOsgiContextModel(OsgiContextModel defaultOsgiContextModel, WebContainerContext resolvedWebContainerContext) {
 		this.defaultOsgiContextModel = defaultOsgiContextModel;
 		this.defaultWebContainerContext = resolvedWebContainerContext;
+		invalidateOsgiFilterChains();
 	}
 
 	public OsgiServletContext getDefaultServletContext() {
@@ -536,6 +561,54 @@ public class PaxWebStandardContext extends StandardContext {
 		return preprocessors;
 	}
 
+	/**
+	 * Returns cached (or creates new) {@link OsgiFilterChainTemplate} for given target wrapper.
+	 *
+	 * @param wrapper target wrapper - may be {@code null} or may be a wrapper for 404 servlet
+	 * @return
+	 */
+	OsgiFilterChainTemplate<Request> getOsgiChainTemplate(PaxWebStandardWrapper wrapper) {
+		if (wrapper == null || wrapper.is404()) {
+			OsgiFilterChainTemplate<Request> template = defaultOsgiChainTemplate;
+			if (template == null) {
+				template = new OsgiFilterChainTemplate<>(preprocessors, defaultServletContext,
+						defaultWebContainerContext, osgiSessionsBridge, AUTH_LISTENER);
+				defaultOsgiChainTemplate = template;
+			}
+			return template;
+		}
+
+		OsgiFilterChainTemplate<Request> template = osgiChainTemplates.get(wrapper);
+		if (template == null) {
+			template = new OsgiFilterChainTemplate<>(preprocessors, wrapper.getServletContext(),
+					wrapper.getWebContainerContext(), osgiSessionsBridge, AUTH_LISTENER);
+			// don't care about races - both templates are equivalent
+			osgiChainTemplates.put(wrapper, template);
+		}
+		return template;
+	}
+
+	/**
+	 * Drops all cached {@link OsgiFilterChainTemplate templates}. Should be called whenever preprocessors,
+	 * filters, servlets or default contexts of this context change.
+	 */
+	public void invalidateOsgiFilterChains() {
+		osgiChainTemplates.clear();
+		defaultOsgiChainTemplate = null;
+	}
+
+	@Override
+	public void addChild(Container child) {
+		super.addChild(child);
+		invalidateOsgiFilterChains();
+	}
+
+	@Override
+	public void removeChild(Container child) {
+		super.removeChild(child);
+		invalidateOsgiFilterChains();
+	}
+
 	public void setVirtualHosts(String[] virtualHosts) {
 		int size = virtualHosts == null ? 0 : virtualHosts.length;
 		if (size == 0) {
@@ -633,4 +706,32 @@ public class PaxWebStandardContext extends StandardContext {
 		this.whiteboardTCCL = whiteboardTCCL;
 	}
 
+	public boolean isRequestMetricsEnabled() {
+		return requestMetricsEnabled;
+	}
+
+	public void setRequestMetricsEnabled(boolean requestMetricsEnabled) {
+		this.requestMetricsEnabled = requestMetricsEnabled;
+	}
+
+	public ContextRestartGate getRestartGate() {
+		return restartGate;
+	}
+
+	public void setRestartGate(ContextRestartGate restartGate) {
+		this.restartGate = restartGate;
+	}
+
+	/**
+	 * Tomcat's {@link org.apache.catalina.connector.CoyoteAdapter} waits (re-mapping the request every second)
+	 * while the context is paused - which is what {@link StandardContext#reload()} relies on. We use the same
+	 * mechanism for restarts done by Pax Web.
+	 *
+	 * @return
+	 */
+	@Override
+	public boolean getPaused() {
+		return super.getPaused() || restartGate.isClosed();
+	}
+
 }
@@ -16,6 +16,7 @@
 package org.ops4j.pax.web.service.tomcat.internal;
 
 import java.io.IOException;
+import javax.servlet.DispatcherType;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletResponse;
 
@@ -24,6 +25,9 @@ import org.apache.catalina.connector.Request;
 import org.apache.catalina.connector.Response;
 import org.apache.catalina.valves.ValveBase;
 import org.apache.tomcat.util.buf.MessageBytes;
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.RequestMetrics;
+import org.ops4j.pax.web.service.spi.servlet.ContextRestartGate;
 import org.ops4j.pax.web.service.spi.servlet.Default404Servlet;
 
 /**
@@ -74,17 +78,42 @@ public class PaxWebStandardContextValve extends ValveBase {
 		Wrapper wrapper = request.getWrapper();
 		if (wrapper == null) {
 			// we need SOME wrapper, so preprocessors/security/filters are called correctly
+			wrapper = wrapperFor404Servlet;
 			request.getMappingData().wrapper = wrapperFor404Servlet;
 		}
 
+		// async dispatches are part of already recorded request
+		RequestMetrics contextMetrics = null;
+		RequestMetrics servletMetrics = null;
+		long start = 0L;
+		boolean completed = false;
+		if (ctx.isRequestMetricsEnabled() && request.getDispatcherType() == DispatcherType.REQUEST
+				&& wrapper instanceof PaxWebStandardWrapper) {
+			PaxWebStandardWrapper pwsw = (PaxWebStandardWrapper) wrapper;
+			OsgiContextModel ocm = pwsw.getOsgiContextModel() != null
+					? pwsw.getOsgiContextModel() : ctx.getDefaultOsgiContextModel();
+			contextMetrics = ocm == null ? null : ocm.getRequestMetrics();
+			servletMetrics = pwsw.getServletModel() == null ? null : pwsw.getServletModel().getRequestMetrics();
+			start = RequestMetrics.requestStarted(contextMetrics, servletMetrics);
+		}
+
+		// paused (restarting) context is not mapped, so we only count the requests to let the context drain them
+		ContextRestartGate restartGate = ctx.getRestartGate();
+		restartGate.enter();
+
 		ClassLoader tccl = Thread.currentThread().getContextClassLoader();
 		try {
 			Thread.currentThread().setContextClassLoader(ctx.getServletContext() == null ? tccl : ctx.getServletContext().getClassLoader());
 			getNext().invoke(request, response);
+			completed = true;
 		} finally {
+			if (contextMetrics != null || servletMetrics != null) {
+				RequestMetrics.requestCompleted(request, response, start, !completed, contextMetrics, servletMetrics);
+			}
 			PaxWebSessionIdGenerator.sessionIdPrefix.set(null);
 			PaxWebSessionIdGenerator.cookieSessionId.set(null);
 			Thread.currentThread().setContextClassLoader(tccl);
+			restartGate.exit();
 		}
 	}
 
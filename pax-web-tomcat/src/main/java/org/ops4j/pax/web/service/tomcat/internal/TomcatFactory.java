@@ -28,6 +28,7 @@ import org.apache.catalina.Service;
 import org.apache.catalina.connector.Connector;
 import org.apache.catalina.core.StandardServer;
 import org.apache.catalina.core.StandardThreadExecutor;
+import org.apache.catalina.core.StandardVirtualThreadExecutor;
 import org.apache.catalina.startup.Catalina;
 import org.apache.catalina.startup.ConnectorCreateRule;
 import org.apache.catalina.startup.ContextConfig;
@@ -95,27 +96,27 @@ public class TomcatFactory {
 	public Executor createThreadPool(Configuration configuration) {
 		ServerConfiguration sc = configuration.server();
 
-		// defaults taken from org.apache.catalina.core.StandardThreadExecutor
-		Integer maxThreads = sc.getServerMaxThreads();
-		if (maxThreads == null) {
-			maxThreads = 200;
-		}
-		Integer minThreads = sc.getServerMinThreads();
-		if (minThreads == null) {
-			// Tomcat uses 25 by default, but let's take 8
-			minThreads = Math.min(8, maxThreads);
-		}
-		Integer idleTimeout = sc.getServerIdleTimeout();
-		if (idleTimeout == null) {
-			idleTimeout = 60000;
-		}
+		int maxThreads = maxThreads(sc);
 		String prefix = sc.getServerThreadNamePrefix();
 
+		if (sc.isServerVirtualThreads() != null && sc.isServerVirtualThreads()) {
+			if (JreCompat.isJre21Available()) {
+				// thread-per-task executor, so maxThreads/minThreads/idleTimeout don't apply
+				StandardVirtualThreadExecutor executor = new StandardVirtualThreadExecutor();
+				executor.setName("default");
+				if (prefix != null) {
+					executor.setNamePrefix(prefix);
+				}
+				LOG.info("Using virtual threads to process Tomcat requests");
+				return executor;
+			}
+			LOG.warn("Virtual threads are not supported in JDK {}. Using thread pool with maxThreads={}.",
+					Runtime.version().feature(), maxThreads);
+		}
+
 		StandardThreadExecutor executor = new StandardThreadExecutor();
 		executor.setName("default");
-		executor.setMaxThreads(maxThreads);
-		executor.setMinSpareThreads(minThreads);
-		executor.setMaxIdleTime(idleTimeout);
+		resizeThreadPool(executor, configuration);
 
 		if (prefix != null) {
 			executor.setNamePrefix(prefix);
@@ -124,6 +125,46 @@ public class TomcatFactory {
 		return executor;
 	}
 
+	/**
+	 * Sets the sizes and idle timeout of (possibly started) {@link StandardThreadExecutor} using the configuration.
+	 *
+	 * @param executor
+	 * @param configuration
+	 */
+	public void resizeThreadPool(StandardThreadExecutor executor, Configuration configuration) {
+		ServerConfiguration sc = configuration.server();
+		int maxThreads = maxThreads(sc);
+		int minThreads = minThreads(sc);
+
+		// started executor doesn't accept core pool size greater than maximum pool size
+		if (maxThreads < executor.getMinSpareThreads()) {
+			executor.setMinSpareThreads(minThreads);
+			executor.setMaxThreads(maxThreads);
+		} else {
+			executor.setMaxThreads(maxThreads);
+			executor.setMinSpareThreads(minThreads);
+		}
+		executor.setMaxIdleTime(idleTimeout(sc));
+	}
+
+	// defaults taken from org.apache.catalina.core.StandardThreadExecutor
+
+	private static int maxThreads(ServerConfiguration sc) {
+		Integer maxThreads = sc.getServerMaxThreads();
+		return maxThreads == null ? 200 : maxThreads;
+	}
+
+	private static int minThreads(ServerConfiguration sc) {
+		Integer minThreads = sc.getServerMinThreads();
+		// Tomcat uses 25 by default, but let's take 8
+		return minThreads == null ? Math.min(8, maxThreads(sc)) : minThreads;
+	}
+
+	private static int idleTimeout(ServerConfiguration sc) {
+		Integer idleTimeout = sc.getServerIdleTimeout();
+		return idleTimeout == null ? 60000 : idleTimeout;
+	}
+
 	/*
 	 * Simpler (than in Jetty) hierarchy of connector/protocol related classes in Tomcat
 	 * org.apache.coyote.ProtocolHandler
@@ -169,9 +210,7 @@ public class TomcatFactory {
 		protocol.setServer(null);
 		protocol.setServerRemoveAppProvidedValues(true);
 
-		// don't set an executor here, as we'd get warning:
-		// "The NIO2 connector requires an exclusive executor to operate properly on shutdown"
-//		defaultConnector.getProtocolHandler().setExecutor(executor);
+		setExecutor(protocol, executor);
 
 		if (sc.getConnectorIdleTimeout() != null) {
 			defaultConnector.setProperty("connectionTimeout", sc.getConnectorIdleTimeout().toString());
@@ -215,9 +254,7 @@ public class TomcatFactory {
 		protocol.setServer(null);
 		protocol.setServerRemoveAppProvidedValues(true);
 
-		// don't set an executor here, as we'd get warning:
-		// "The NIO2 connector requires an exclusive executor to operate properly on shutdown"
-//		protocol.setExecutor(executor);
+		setExecutor(protocol, executor);
 
 		if (sc.getConnectorIdleTimeout() != null) {
 			secureConnector.setProperty("connectionTimeout", sc.getConnectorIdleTimeout().toString());
@@ -364,6 +401,26 @@ public class TomcatFactory {
 		return secureConnector;
 	}
 
+	/**
+	 * <p>Configures the {@link Executor} created by {@link #createThreadPool(Configuration)} (or defined in
+	 * {@code tomcat-server.xml}) in the protocol handler of Pax Web connector, so request processing is
+	 * governed by the configured thread pool and not by the connector's internal pool.</p>
+	 *
+	 * <p>NIO2 endpoint uses the executor also for its {@link java.nio.channels.AsynchronousChannelGroup} and
+	 * logs a warning ("The NIO2 connector requires an exclusive executor to operate properly on shutdown") when the
+	 * executor isn't its internal one. The group is not shut down by the endpoint then, but the executor is
+	 * stopped by {@link org.apache.catalina.core.StandardService} only after all its connectors are stopped, so
+	 * sharing the executor between the connectors is safe.</p>
+	 *
+	 * @param protocol
+	 * @param executor
+	 */
+	private void setExecutor(PaxWebHttp11Nio2Protocol protocol, Executor executor) {
+		if (executor != null) {
+			protocol.setExecutor(executor);
+		}
+	}
+
 
 	/**
 	 * Returns a Tomcat-specific XML processor to parse {@code tomcat-server.xml}.
@@ -25,9 +25,12 @@ import javax.servlet.Servlet;
 
 import org.ops4j.pax.web.service.spi.ServerController;
 import org.ops4j.pax.web.service.spi.ServerState;
+import org.ops4j.pax.web.service.spi.accesslog.AccessLogWriter;
 import org.ops4j.pax.web.service.spi.config.Configuration;
+import org.ops4j.pax.web.service.spi.config.ConfigurationDiff;
 import org.ops4j.pax.web.service.spi.model.events.ServerEvent;
 import org.ops4j.pax.web.service.spi.model.events.ServerListener;
+import org.ops4j.pax.web.service.spi.servlet.StaticContentCache;
 import org.ops4j.pax.web.service.spi.task.Batch;
 import org.ops4j.pax.web.service.tomcat.internal.web.TomcatResourceServlet;
 import org.osgi.framework.Bundle;
@@ -47,7 +50,8 @@ class TomcatServerController implements ServerController {
 	private final Bundle paxWebTomcatBundle;
 	private final ClassLoader classLoader;
 
-	private final Configuration configuration;
+	/** Current configuration - may be changed by {@link #reconfigure(Configuration, ConfigurationDiff)} */
+	private volatile Configuration configuration;
 	private ServerState state;
 
 	private final Set<ServerListener> listeners;
@@ -60,6 +64,9 @@ class TomcatServerController implements ServerController {
 	 */
 	private TomcatServerWrapper tomcatServerWrapper;
 
+	/** Static content cache shared by all resource servlets (if enabled) */
+	private final StaticContentCache staticContentCache;
+
 	TomcatServerController(Bundle paxWebTomcatBundle, ClassLoader classLoader,
 			TomcatFactory tomcatFactory, Configuration configuration) {
 		this.paxWebTomcatBundle = paxWebTomcatBundle;
@@ -69,6 +76,9 @@ class TomcatServerController implements ServerController {
 		this.state = ServerState.UNCONFIGURED;
 
 		this.listeners = Collections.synchronizedSet(new LinkedHashSet<>());
+
+		this.staticContentCache = configuration.resources().sharedCache()
+				? new StaticContentCache(configuration.resources()) : null;
 	}
 
 	// --- lifecycle methods
@@ -87,7 +97,8 @@ class TomcatServerController implements ServerController {
 			throw new IllegalStateException("Can't configure Tomcat server controller in state " + state);
 		}
 
-		tomcatServerWrapper = new TomcatServerWrapper(configuration, tomcatFactory, paxWebTomcatBundle, classLoader);
+		tomcatServerWrapper = new TomcatServerWrapper(configuration, tomcatFactory, paxWebTomcatBundle, classLoader,
+				staticContentCache);
 		tomcatServerWrapper.configure();
 
 		state = ServerState.STOPPED;
@@ -117,6 +128,9 @@ class TomcatServerController implements ServerController {
 		}
 
 		tomcatServerWrapper.stop();
+		if (staticContentCache != null) {
+			staticContentCache.clear();
+		}
 
 		state = ServerState.STOPPED;
 		notifyListeners(new ServerEvent(ServerEvent.State.STOPPED, null));
@@ -127,6 +141,36 @@ class TomcatServerController implements ServerController {
 		return configuration;
 	}
 
+	@Override
+	public boolean reconfigure(Configuration configuration, ConfigurationDiff diff) {
+		if (state != ServerState.STARTED || diff.requiresRestart()) {
+			return false;
+		}
+		if (staticContentCache == null && diff.contains(ConfigurationDiff.Kind.RESOURCE_CACHE)) {
+			// without shared cache, resource servlets read the limits only when they're initialized
+			return false;
+		}
+
+		LOG.info("Reconfiguring {}: {}", this, diff);
+
+		try {
+			tomcatServerWrapper.reconfigure(configuration, diff);
+		} catch (Exception e) {
+			LOG.warn("Problem reconfiguring Tomcat server: {}", e.getMessage(), e);
+			return false;
+		}
+		this.configuration = configuration;
+
+		if (diff.contains(ConfigurationDiff.Kind.RESOURCE_CACHE)) {
+			staticContentCache.setLimits(configuration.resources());
+		}
+		if (diff.contains(ConfigurationDiff.Kind.CONNECTORS)) {
+			notifyListeners(new ServerEvent(ServerEvent.State.STARTED, tomcatServerWrapper.getAddresses(true)));
+		}
+
+		return true;
+	}
+
 	// --- listener related methods
 
 	@Override
@@ -153,6 +197,16 @@ class TomcatServerController implements ServerController {
 		}
 	}
 
+	@Override
+	public AccessLogWriter getAccessLogWriter() {
+		return tomcatServerWrapper.getAccessLogWriter();
+	}
+
+	@Override
+	public StaticContentCache getStaticContentCache() {
+		return staticContentCache;
+	}
+
 	@Override
 	public Servlet createResourceServlet(URL urlBase, String base) {
 		File baseDirectory;
@@ -167,7 +221,10 @@ class TomcatServerController implements ServerController {
 		try {
 			// TCCL is needed so StringManagers in Tomcat code work
 			Thread.currentThread().setContextClassLoader(TomcatServerWrapper.class.getClassLoader());
-			return new TomcatResourceServlet(baseDirectory, chroot, configuration.resources());
+			TomcatResourceServlet tomcatResourceServlet
+					= new TomcatResourceServlet(baseDirectory, chroot, configuration.resources());
+			tomcatResourceServlet.setStaticContentCache(staticContentCache);
+			return tomcatResourceServlet;
 		} finally {
 			Thread.currentThread().setContextClassLoader(tccl);
 		}
@@ -190,6 +247,22 @@ class TomcatServerController implements ServerController {
 		}
 	}
 
+	@Override
+	public void beginGroup() {
+		tomcatServerWrapper.beginGroup();
+	}
+
+	@Override
+	public void endGroup() {
+		ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+		try {
+			Thread.currentThread().setContextClassLoader(getClass().getClassLoader());
+			tomcatServerWrapper.endGroup();
+		} finally {
+			Thread.currentThread().setContextClassLoader(tccl);
+		}
+	}
+
 	@Override
 	public String toString() {
 		return "TomcatServerController{configuration=" + configuration.id() + ",state=" + state + "}";
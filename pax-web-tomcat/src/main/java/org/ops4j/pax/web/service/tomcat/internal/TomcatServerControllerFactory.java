@@ -73,7 +73,8 @@ public class TomcatServerControllerFactory implements ServerControllerFactory {
 
 	@Override
 	public void releaseServerController(ServerController controller, Configuration configuration) {
-		serverControllers.remove(configuration.id(), controller);
+		// not by configuration ID, because the configuration may have been changed by reconfigure()
+		serverControllers.values().remove(controller);
 	}
 
 }
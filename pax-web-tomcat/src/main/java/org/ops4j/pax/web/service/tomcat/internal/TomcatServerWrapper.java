@@ -62,11 +62,10 @@ import org.apache.catalina.core.StandardEngine;
 import org.apache.catalina.core.StandardHost;
 import org.apache.catalina.core.StandardServer;
 import org.apache.catalina.core.StandardService;
+import org.apache.catalina.core.StandardThreadExecutor;
 import org.apache.catalina.loader.ParallelWebappClassLoader;
 import org.apache.catalina.loader.WebappLoader;
-import org.apache.catalina.session.StandardManager;
 import org.apache.catalina.util.ToStringUtil;
-import org.apache.catalina.valves.AccessLogValve;
 import org.apache.catalina.webresources.TomcatURLStreamHandlerFactory;
 import org.apache.tomcat.util.descriptor.web.ErrorPage;
 import org.apache.tomcat.util.descriptor.web.FilterDef;
@@ -78,8 +77,11 @@ import org.apache.tomcat.util.descriptor.web.WebXmlParser;
 import org.apache.tomcat.util.digester.Digester;
 import org.apache.tomcat.util.http.Rfc6265CookieProcessor;
 import org.apache.tomcat.util.http.SameSiteCookies;
+import org.ops4j.pax.web.service.spi.accesslog.AccessLogWriter;
 import org.ops4j.pax.web.service.spi.config.Configuration;
+import org.ops4j.pax.web.service.spi.config.ConfigurationDiff;
 import org.ops4j.pax.web.service.spi.config.LogConfiguration;
+import org.ops4j.pax.web.service.spi.config.ServerConfiguration;
 import org.ops4j.pax.web.service.spi.config.SessionConfiguration;
 import org.ops4j.pax.web.service.spi.model.ContextMetadataModel;
 import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
@@ -96,6 +98,7 @@ import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
 import org.ops4j.pax.web.service.spi.model.elements.WebSocketModel;
 import org.ops4j.pax.web.service.spi.model.elements.WelcomeFileModel;
 import org.ops4j.pax.web.service.spi.model.events.ServerEvent;
+import org.ops4j.pax.web.service.spi.servlet.ContextRestartGate;
 import org.ops4j.pax.web.service.spi.servlet.Default404Servlet;
 import org.ops4j.pax.web.service.spi.servlet.DynamicRegistrations;
 import org.ops4j.pax.web.service.spi.servlet.OsgiDynamicServletContext;
@@ -106,6 +109,10 @@ import org.ops4j.pax.web.service.spi.servlet.OsgiSessionAttributeListener;
 import org.ops4j.pax.web.service.spi.servlet.PreprocessorFilterConfig;
 import org.ops4j.pax.web.service.spi.servlet.RegisteringContainerInitializer;
 import org.ops4j.pax.web.service.spi.servlet.SCIWrapper;
+import org.ops4j.pax.web.service.spi.servlet.StaticContentCache;
+import org.ops4j.pax.web.service.spi.session.LogSessionStore;
+import org.ops4j.pax.web.service.spi.session.SessionStore;
+import org.ops4j.pax.web.service.spi.task.BatchTrace;
 import org.ops4j.pax.web.service.spi.task.BatchVisitor;
 import org.ops4j.pax.web.service.spi.task.ClearDynamicRegistrationsChange;
 import org.ops4j.pax.web.service.spi.task.ContainerInitializerModelChange;
@@ -160,6 +167,9 @@ class TomcatServerWrapper implements BatchVisitor {
 	 */
 	private final ClassLoader classLoader;
 
+	/** Shared cache of static content (if enabled) - entries of removed contexts are invalidated */
+	private final StaticContentCache staticContentCache;
+
 	/**
 	 * Actual instance of {@link org.apache.catalina.core.StandardServer}. In Jetty we had extended class. Here
 	 * we hold direct instance, because it is final.
@@ -192,6 +202,15 @@ class TomcatServerWrapper implements BatchVisitor {
 	 */
 	private Executor serverExecutor;
 
+	/**
+	 * Connectors created from PID configuration (not from {@code tomcat-server.xml}), which are removed when they
+	 * no longer match changed configuration.
+	 */
+	private final Set<Connector> defaultConnectors = new LinkedHashSet<>();
+
+	/** NCSA access log valve created from PID configuration */
+	private volatile PaxWebAccessLogValve ncsaLogger;
+
 	private final TomcatFactory tomcatFactory;
 
 	/**
@@ -200,6 +219,14 @@ class TomcatServerWrapper implements BatchVisitor {
 	 */
 	private final Set<String> transactions = new HashSet<>();
 
+	/**
+	 * Whether a group of batches is being processed - starting of contexts is deferred until the end of the group.
+	 */
+	private boolean groupInProgress = false;
+
+	/** Context paths of the contexts which should be started at the end of the group */
+	private final Set<String> deferredStarts = new LinkedHashSet<>();
+
 	/**
 	 * When delaying removal of servlets and listeners (not filters, error pages, ...), we have to ensure that
 	 * they are really removed. It is automatic for WABs, where entire context is destroyed, but not necessarily
@@ -247,9 +274,10 @@ class TomcatServerWrapper implements BatchVisitor {
 
 	/**
 	 * Global {@link Configuration} passed from pax-web-runtime through
-	 * {@link org.ops4j.pax.web.service.spi.ServerController}
+	 * {@link org.ops4j.pax.web.service.spi.ServerController}. Replaced when the changed configuration is applied
+	 * to running server.
 	 */
-	private final Configuration configuration;
+	private Configuration configuration;
 
 	/**
 	 * Servlet to use when no servlet is mapped - to ensure that preprocessors and filters are run correctly.
@@ -258,6 +286,9 @@ class TomcatServerWrapper implements BatchVisitor {
 
 	private SessionCookieConfig defaultSessionCookieConfig;
 
+	/** Store of persistent sessions of all the contexts, if configured */
+	private SessionStore sessionStore;
+
 	/**
 	 * All {@link EventListenerModel} instances for {@link HttpSessionAttributeListener} listeners. They'll be
 	 * reviewed in order to propagate session attribute events per {@link OsgiContextModel}.
@@ -267,11 +298,12 @@ class TomcatServerWrapper implements BatchVisitor {
 	private final Map<String, TreeMap<OsgiContextModel, SecurityConfigurationModel>> contextSecurityConstraints = new HashMap<>();
 
 	TomcatServerWrapper(Configuration config, TomcatFactory tomcatFactory,
-			Bundle paxWebTomcatBundle, ClassLoader classLoader) {
+			Bundle paxWebTomcatBundle, ClassLoader classLoader, StaticContentCache staticContentCache) {
 		this.configuration = config;
 		this.tomcatFactory = tomcatFactory;
 		this.paxWebTomcatBundle = paxWebTomcatBundle;
 		this.classLoader = classLoader;
+		this.staticContentCache = staticContentCache;
 	}
 
 	// --- lifecycle and configuration methods
@@ -591,6 +623,7 @@ class TomcatServerWrapper implements BatchVisitor {
 						LOG.warn("Connector defined in external configuration will be removed, "
 								+ "because it's not enabled: {}", connector);
 						service.removeConnector(connector);
+						defaultConnectors.remove(connector);
 					}
 				}
 			}
@@ -599,6 +632,7 @@ class TomcatServerWrapper implements BatchVisitor {
 			// we have to create a connector
 			Connector connector = connectorProvider.get();
 			service.addConnector(connector);
+			defaultConnectors.add(connector);
 		}
 	}
 
@@ -638,15 +672,9 @@ class TomcatServerWrapper implements BatchVisitor {
 			throw new IllegalArgumentException(logDir + " is not a valid directory to store request logs");
 		}
 
-		AccessLogValve ncsaLogger = /*lc.isLogNCSAExtended() ? new ExtendedAccessLogValve() : */new AccessLogValve();
-		ncsaLogger.setPattern(lc.isLogNCSAExtended() ? "combined" : "common");
-
-		// org.apache.catalina.valves.AccessLogValve.getLogFile
-		ncsaLogger.setDirectory(new File(lc.getLogNCSADirectory()).getAbsolutePath());
-		ncsaLogger.setPrefix(lc.getLogNCSAFile());
-		ncsaLogger.setFileDateFormat("." + lc.getLogNCSAFilenameDateFormat());
-		ncsaLogger.setSuffix(".log");
-		ncsaLogger.setBuffered(lc.getLogNCSABuffered());
+		// common access log (org.ops4j.pax.web.service.spi.accesslog.AccessLogWriter) is created when
+		// the valve is started
+		PaxWebAccessLogValve ncsaLogger = new PaxWebAccessLogValve(lc);
 
 		AccessLogAdapter adapter = null;
 		Valve[] valves = engine.getPipeline().getValves();
@@ -667,11 +695,107 @@ class TomcatServerWrapper implements BatchVisitor {
 //			engine.getPipeline().addValve(adapter);
 		} else {
 			engine.getPipeline().addValve(ncsaLogger);
+			this.ncsaLogger = ncsaLogger;
 		}
 
 		LOG.info("NCSARequestlogging is using directory {}", lc.getLogNCSADirectory());
 	}
 
+	/**
+	 * Applies changed configuration to started Tomcat server. Only the changes which
+	 * {@link ConfigurationDiff#getHotChanges() can be applied live} are handled here.
+	 *
+	 * @param configuration
+	 * @param diff
+	 * @throws Exception
+	 */
+	public void reconfigure(Configuration configuration, ConfigurationDiff diff) throws Exception {
+		this.configuration = configuration;
+
+		if (diff.contains(ConfigurationDiff.Kind.THREAD_POOL)) {
+			if (serverExecutor instanceof StandardThreadExecutor) {
+				LOG.info("Resizing Tomcat thread pool {}", serverExecutor.getName());
+				tomcatFactory.resizeThreadPool((StandardThreadExecutor) serverExecutor, configuration);
+			} else {
+				LOG.info("Thread pool {} can't be resized", serverExecutor);
+			}
+		}
+
+		if (diff.contains(ConfigurationDiff.Kind.CONNECTORS)) {
+			ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+			try {
+				Thread.currentThread().setContextClassLoader(TomcatServerWrapper.class.getClassLoader());
+
+				// remove the connectors created by us, which no longer match the configuration
+				Service service = server.findService(TOMCAT_CATALINA_NAME);
+				for (Iterator<Connector> it = defaultConnectors.iterator(); it.hasNext(); ) {
+					Connector connector = it.next();
+					if (!matchesConfiguration(connector)) {
+						LOG.info("Removing connector {}", connector);
+						it.remove();
+						// connector is stopped by the service
+						service.removeConnector(connector);
+						connector.destroy();
+					}
+				}
+				// and create the missing ones - started service starts added connectors
+				verifyConnectorConfiguration();
+			} finally {
+				Thread.currentThread().setContextClassLoader(tccl);
+			}
+		}
+
+		if (diff.contains(ConfigurationDiff.Kind.CONNECTOR_IDLE_TIMEOUT)) {
+			Integer idleTimeout = configuration.server().getConnectorIdleTimeout();
+			// 60s is the default of org.apache.coyote.AbstractProtocol
+			String timeout = idleTimeout == null ? "60000" : idleTimeout.toString();
+			defaultConnectors.forEach(c -> c.setProperty("connectionTimeout", timeout));
+		}
+
+		if (diff.contains(ConfigurationDiff.Kind.REQUEST_LOG)) {
+			if (ncsaLogger != null) {
+				// removed valve is stopped by the pipeline
+				engine.getPipeline().removeValve(ncsaLogger);
+				ncsaLogger = null;
+			}
+			if (configuration.logging().isLogNCSAFormatEnabled()) {
+				// valve added to started pipeline is started immediately
+				configureRequestLog();
+			}
+		}
+	}
+
+	/**
+	 * Checks whether a connector created from PID configuration is still declared in current configuration.
+	 *
+	 * @param connector
+	 * @return
+	 */
+	private boolean matchesConfiguration(Connector connector) {
+		boolean secure = connector.getSecure();
+		ServerConfiguration sc = configuration.server();
+		boolean enabled = secure ? sc.isHttpSecureEnabled() : sc.isHttpEnabled();
+		if (!enabled) {
+			return false;
+		}
+		Integer port = secure ? sc.getHttpSecurePort() : sc.getHttpPort();
+		for (String address : sc.getListeningAddresses()) {
+			if (match(address, port, connector)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the {@link AccessLogWriter} of NCSA access log if it's enabled
+	 * @return
+	 */
+	public AccessLogWriter getAccessLogWriter() {
+		PaxWebAccessLogValve log = ncsaLogger;
+		return log == null ? null : log.getWriter();
+	}
+
 	/**
 	 * Simply start Tomcat server
 	 *
@@ -696,8 +820,15 @@ class TomcatServerWrapper implements BatchVisitor {
 	public void stop() {
 		try {
 			LOG.info("Stopping {}", server);
+			contextHandlers.values().forEach(context -> context.getRestartGate().dispose());
 			server.stop();
 
+			if (sessionStore != null) {
+				// after the contexts passivated their sessions
+				sessionStore.close();
+				sessionStore = null;
+			}
+
 			LOG.info("Destroying Tomcat server {}", server);
 			server.destroy();
 
@@ -738,6 +869,33 @@ class TomcatServerWrapper implements BatchVisitor {
 		return result.toArray(new ServerEvent.Address[0]);
 	}
 
+	// --- group commit of batches
+
+	/**
+	 * Begins a group of batches - contexts won't be started until {@link #endGroup()}.
+	 */
+	public void beginGroup() {
+		groupInProgress = true;
+	}
+
+	/**
+	 * Ends a group of batches and starts all the contexts which were stopped or not started during the group.
+	 */
+	public void endGroup() {
+		groupInProgress = false;
+		if (deferredStarts.isEmpty()) {
+			return;
+		}
+		List<String> toStart = new ArrayList<>(deferredStarts);
+		deferredStarts.clear();
+		for (String contextPath : toStart) {
+			PaxWebStandardContext context = contextHandlers.get(contextPath);
+			if (context != null && server != null && server.getState() == LifecycleState.STARTED) {
+				ensureServletContextStarted(context);
+			}
+		}
+	}
+
 	// --- visitor methods for model changes
 
 	@Override
@@ -796,6 +954,9 @@ class TomcatServerWrapper implements BatchVisitor {
 //							Context ctx = new HttpServiceContext(getHost(), accessControllerContext);
 			PaxWebStandardContext context = new PaxWebStandardContext(default404Servlet, new OsgiSessionAttributeListener(sessionListenerModels));
 			context.setWhiteboardTCCL("whiteboard".equalsIgnoreCase(configuration.server().getTCCLType()));
+			context.setRequestMetricsEnabled(configuration.server().isRequestMetricsEnabled());
+			Long holdTimeout = configuration.server().getContextRestartHoldTimeout();
+			context.setRestartGate(new ContextRestartGate(holdTimeout == null ? 0L : holdTimeout));
 
 			context.setPath("/".equals(contextPath) ? "" : contextPath);
 			// name is used in final toString(), so better to have it clearer
@@ -857,10 +1018,13 @@ class TomcatServerWrapper implements BatchVisitor {
 			}
 			context.setCookieProcessor(cookieProcessor);
 
-			StandardManager manager = new PaxWebSessionManager();
+			PaxWebSessionManager manager = new PaxWebSessionManager();
 			manager.setSessionIdGenerator(new PaxWebSessionIdGenerator());
 			if (sc.getSessionStoreDirectory() != null) {
-				manager.setPathname(new File(sc.getSessionStoreDirectory(), "SESSIONS.ser").getAbsolutePath());
+				if (sessionStore == null) {
+					sessionStore = new LogSessionStore(sc.getSessionStoreDirectory(), LogSessionStore.PARTITION_BY_ID_PREFIX);
+				}
+				manager.setSessionStoreSegment(sessionStore.getSegment(SessionStore.segmentName(contextPath)));
 			}
 			context.setManager(manager);
 
@@ -893,6 +1057,10 @@ class TomcatServerWrapper implements BatchVisitor {
 			// removals are delayed until this step.
 			// This is important to ensure proper order of destruction ended with contextDestroyed() calls
 
+			if (context != null) {
+				// the context is not going to be started again, so it has to be unmapped when stopping
+				context.getRestartGate().dispose();
+			}
 			if (context != null && context.isStarted()) {
 				LOG.info("Stopping Tomcat context \"{}\"", contextPath);
 				try {
@@ -916,6 +1084,11 @@ class TomcatServerWrapper implements BatchVisitor {
 		ServletContextModel servletContextModel = change.getServletContextModel();
 
 		String contextPath = osgiModel.getContextPath();
+
+		if (change.getKind() == OpCode.DELETE && staticContentCache != null) {
+			// resources of removed context can't be served anymore
+			staticContentCache.invalidate(osgiModel);
+		}
 		PaxWebStandardContext realContext = contextHandlers.get(contextPath);
 
 		if (realContext == null) {
@@ -1306,6 +1479,11 @@ class TomcatServerWrapper implements BatchVisitor {
 	}
 
 	private void removeServletModel(String contextPath, ServletModel model) {
+		if (model.isResourceServlet() && staticContentCache != null) {
+			model.getContextModels().stream().filter(ocm -> contextPath.equals(ocm.getContextPath()))
+					.forEach(staticContentCache::invalidate);
+		}
+
 		LOG.info("Removing servlet {} from context {}", model, contextPath);
 
 		// there should already be a ServletContextHandler
@@ -1445,6 +1623,8 @@ class TomcatServerWrapper implements BatchVisitor {
 					iterator.remove();
 				}
 			}
+			// pre-built OSGi filter chains contain the preprocessors
+			context.invalidateOsgiFilterChains();
 
 			// order -> [ FilterModel, FilterModel.Mapping ]
 			Map<Integer, Object[]> webOrderMapping = new TreeMap<>();
@@ -1977,6 +2157,7 @@ class TomcatServerWrapper implements BatchVisitor {
 	public void visitContextStopChange(ContextStopChange change) {
 		String contextPath = change.getContextPath();
 		PaxWebStandardContext standardContext = contextHandlers.get(contextPath);
+		deferredStarts.remove(contextPath);
 		if (standardContext != null && standardContext.isStarted()) {
 			LOG.info("Stopping Tomcat context \"{}\"", contextPath);
 			try {
@@ -2067,12 +2248,18 @@ class TomcatServerWrapper implements BatchVisitor {
 		if (context == null || context.isStarted() || context.getState() == LifecycleState.DESTROYED || pendingTransaction(contextPath)) {
 			return;
 		}
+		if (groupInProgress) {
+			LOG.debug("Deferring start of Tomcat context \"{}\" until the end of registration group", contextPath);
+			deferredStarts.add(contextPath);
+			return;
+		}
 		try {
 			OsgiContextModel highestRanked = context.getDefaultOsgiContextModel();
 			OsgiServletContext highestRankedContext = context.getDefaultServletContext();
 			highestRankedContext.allowServletContextListeners();
 
 			LOG.info("Starting Tomcat context \"{}\" with default Osgi Context {}", context, highestRanked);
+			BatchTrace.contextStarted();
 
 			// first thing - only NOW we can set ServletContext's class loader! It affects many things, including
 			// the TCCL used for example by javax.el.ExpressionFactory.newInstance()
@@ -2194,6 +2381,9 @@ class TomcatServerWrapper implements BatchVisitor {
 			highestRankedContext.register();
 		} catch (Exception e) {
 			LOG.error(e.getMessage(), e);
+		} finally {
+			// the context is no longer paused and requests held during the restart can be handled
+			context.getRestartGate().open();
 		}
 	}
 
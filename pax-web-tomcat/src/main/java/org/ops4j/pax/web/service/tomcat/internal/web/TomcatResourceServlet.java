@@ -29,10 +29,12 @@ import org.apache.catalina.Globals;
 import org.apache.catalina.LifecycleException;
 import org.apache.catalina.WebResource;
 import org.apache.catalina.WebResourceRoot;
+import org.apache.catalina.connector.CoyoteOutputStream;
 import org.apache.catalina.servlets.DefaultServlet;
 import org.ops4j.pax.web.service.spi.config.ResourceConfiguration;
 import org.ops4j.pax.web.service.spi.servlet.OsgiScopedServletContext;
 import org.ops4j.pax.web.service.spi.servlet.OsgiServletContext;
+import org.ops4j.pax.web.service.spi.servlet.StaticContentCache;
 import org.ops4j.pax.web.service.spi.util.Path;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,6 +65,9 @@ public class TomcatResourceServlet extends DefaultServlet {
 
 	private OsgiServletContext highestRankedContext;
 
+	private StaticContentCache staticContentCache;
+	private StaticContentCache.Source staticContent;
+
 	public TomcatResourceServlet(File baseDirectory, String chroot, ResourceConfiguration resourceConfig) {
 		this.baseDirectory = baseDirectory;
 		this.chroot = chroot;
@@ -153,6 +158,25 @@ public class TomcatResourceServlet extends DefaultServlet {
 		} catch (LifecycleException e) {
 			throw new ServletException(e.getMessage(), e);
 		}
+
+		if (staticContentCache != null) {
+			staticContent = staticContentCache.source(osgiScopedServletContext, baseDirectory, chroot, pathInfoOnly,
+					(out, buffer) -> {
+						if (out instanceof CoyoteOutputStream) {
+							((CoyoteOutputStream) out).write(buffer);
+							return true;
+						}
+						return false;
+					});
+		}
+	}
+
+	/**
+	 * Sets the cache shared by all resource servlets, which is checked before Tomcat's own {@link WebResourceRoot}.
+	 * @param staticContentCache
+	 */
+	public void setStaticContentCache(StaticContentCache staticContentCache) {
+		this.staticContentCache = staticContentCache;
 	}
 
 	@Override
@@ -163,6 +187,10 @@ public class TomcatResourceServlet extends DefaultServlet {
 		// but requestURI doesn't end with slash, we'll handle only the case, where request URI really ends with
 		// slash. However, trailing slash doesn't necessarily mean that such directory exists.
 
+		if (content && staticContent != null && staticContent.serve(request, response)) {
+			return;
+		}
+
 		boolean included = false;
 		String requestURI = (String) request.getAttribute(RequestDispatcher.INCLUDE_REQUEST_URI);
 		if (requestURI == null) {
@@ -23,8 +23,6 @@ import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.server.handlers.PathHandler;
 import io.undertow.server.handlers.ResponseCodeHandler;
-import io.undertow.server.handlers.cache.LRUCache;
-import org.ops4j.pax.web.annotations.Review;
 import org.osgi.service.http.HttpContext;
 
 /**
@@ -35,67 +33,42 @@ import org.osgi.service.http.HttpContext;
  * end up with multiple {@link io.undertow.server.HttpHandler handlers} handling {@code "/"} path. We should always prefer
  * the path from {@code etc/undertow.xml} configuration - assuming it's configured and user know what (s)he's
  * doing.</p>
- * <p>It's a direct fork of original {@link PathHandler} but with different {@link io.undertow.util.PathMatcher}</p>
+ * <p>It's a direct fork of original {@link PathHandler} but with different {@link io.undertow.util.PathMatcher}. The
+ * {@link PathMatcher} used here keeps compiled tree of context path segments, so finding a context for a request
+ * doesn't require any locking or allocation (except the remaining part of the path passed to the context).</p>
  */
-@Review("Is it needed?")
 public class ContextAwarePathHandler extends PathHandler {
 
 	private final PathMatcher<HttpHandler> pathMatcher = new PathMatcher<>();
 
-	private final LRUCache<String, PathMatcher.PathMatch<HttpHandler>> cache;
-
 	public ContextAwarePathHandler(final HttpHandler defaultHandler) {
-		this(0);
-		pathMatcher.addPrefixPath("/", defaultHandler);
-	}
-
-	public ContextAwarePathHandler(final HttpHandler defaultHandler, int cacheSize) {
-		this(cacheSize);
 		pathMatcher.addPrefixPath("/", defaultHandler);
 	}
 
 	public ContextAwarePathHandler() {
-		this(0);
-	}
-
-	public ContextAwarePathHandler(int cacheSize) {
-		if (cacheSize > 0) {
-			cache = new LRUCache<>(cacheSize, -1, true);
-		} else {
-			cache = null;
-		}
 	}
 
 	@Override
 	public void handleRequest(HttpServerExchange exchange) throws Exception {
-		PathMatcher.PathMatch<HttpHandler> match = null;
-		boolean hit = false;
-		if (cache != null) {
-			match = cache.get(exchange.getRelativePath());
-			hit = true;
-		}
-		if (match == null) {
-			match = pathMatcher.match(exchange.getRelativePath());
-		}
-		if (match.getValue() == null) {
+		String path = exchange.getRelativePath();
+		PathMatcher.Route<HttpHandler> route = pathMatcher.route(path);
+		if (route.getValue() == null) {
 			ResponseCodeHandler.HANDLE_404.handleRequest(exchange);
 			return;
 		}
-		if (hit) {
-			cache.add(exchange.getRelativePath(), match);
-		}
-		exchange.setRelativePath(match.getRemaining());
+		String matched = route.isExact() ? path : route.getMatched();
+		exchange.setRelativePath(route.remaining(path));
 		if (exchange.getResolvedPath().isEmpty()) {
 			//first path handler, we can just use the matched part
-			exchange.setResolvedPath(match.getMatched());
+			exchange.setResolvedPath(matched);
 		} else {
 			//already something in the resolved path
-			StringBuilder sb = new StringBuilder(exchange.getResolvedPath().length() + match.getMatched().length());
+			StringBuilder sb = new StringBuilder(exchange.getResolvedPath().length() + matched.length());
 			sb.append(exchange.getResolvedPath());
-			sb.append(match.getMatched());
+			sb.append(matched);
 			exchange.setResolvedPath(sb.toString());
 		}
-		match.getValue().handleRequest(exchange);
+		route.getValue().handleRequest(exchange);
 	}
 
 	/**
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.undertow.internal;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.ResponseCodeHandler;
+import org.ops4j.pax.web.service.spi.servlet.ContextRestartGate;
+
+/**
+ * <p>An {@link HttpHandler} registered in {@link ContextAwarePathHandler} instead of the handler of actual
+ * deployment, so the context stays mapped while its deployment is restarted. Requests arriving during the
+ * restart are held (in a worker thread) until the new deployment is started and the requests being processed
+ * are completed before the deployment is stopped.</p>
+ *
+ * <p>Used only when holding the requests is enabled using
+ * {@link org.ops4j.pax.web.service.PaxWebConfig#PID_CFG_CONTEXT_RESTART_HOLD_TIMEOUT}.</p>
+ */
+public class ContextRestartHandler implements HttpHandler {
+
+	private final ContextRestartGate gate;
+
+	/** Handler of currently started deployment or {@code null} if the deployment is being restarted */
+	private volatile HttpHandler next;
+
+	public ContextRestartHandler(ContextRestartGate gate) {
+		this.gate = gate;
+	}
+
+	@Override
+	public void handleRequest(HttpServerExchange exchange) throws Exception {
+		while (!gate.tryEnter()) {
+			if (exchange.isInIoThread()) {
+				// never block IO thread
+				exchange.dispatch(this);
+				return;
+			}
+			gate.await();
+		}
+		// the request is counted until the exchange is completed, so the deployment can be drained before stopping
+		exchange.addExchangeCompleteListener((ex, nextListener) -> {
+			gate.exit();
+			nextListener.proceed();
+		});
+
+		HttpHandler handler = next;
+		if (handler == null) {
+			ResponseCodeHandler.HANDLE_404.handleRequest(exchange);
+			return;
+		}
+		handler.handleRequest(exchange);
+	}
+
+	/**
+	 * Called when the deployment is started, to pass held and new requests to its handler.
+	 *
+	 * @param next
+	 */
+	public void started(HttpHandler next) {
+		this.next = next;
+		gate.open();
+	}
+
+	/**
+	 * Called before the deployment is stopped to be started again later. New requests are held and the requests
+	 * being processed are given a chance to complete.
+	 */
+	public void stopping() {
+		gate.close();
+		gate.drain();
+		this.next = null;
+	}
+
+	/**
+	 * Called when the context is removed - the requests are no longer held.
+	 */
+	public void dispose() {
+		this.next = null;
+		gate.dispose();
+	}
+
+	public ContextRestartGate getGate() {
+		return gate;
+	}
+
+}
@@ -15,84 +15,102 @@
  */
 package org.ops4j.pax.web.service.undertow.internal;
 
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
-import java.util.concurrent.ConcurrentMap;
 
-import io.undertow.UndertowLogger;
 import io.undertow.UndertowMessages;
 import io.undertow.server.handlers.resource.ResourceHandler;
-import io.undertow.util.CopyOnWriteMap;
-import io.undertow.util.SubstringMap;
 import io.undertow.util.URLUtils;
-import org.ops4j.pax.web.annotations.Review;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-@Review("Is it needed?")
+/**
+ * <p>Matcher of <em>context paths</em> used by {@link ContextAwarePathHandler}. It's a replacement of
+ * {@link io.undertow.util.PathMatcher} with the same semantics, but instead of checking all the registered path
+ * lengths for each request, the paths are compiled into immutable tree of path segments (and a map of exact
+ * paths). The compiled structure is replaced (copy-on-write) whenever the paths change, so matching doesn't need
+ * any locks.</p>
+ *
+ * <p>{@link #route(String)} returns pre-built {@link Route} objects, so finding a context doesn't allocate
+ * anything.</p>
+ */
 public class PathMatcher<T> {
 
 	public static final Logger LOG = LoggerFactory.getLogger(PathMatcher.class);
 
 	private static final String STRING_PATH_SEPARATOR = "/";
 
-	private volatile T defaultHandler;
-	private final SubstringMap<T> paths = new SubstringMap<>();
-	private final ConcurrentMap<String, T> exactPathMatches = new CopyOnWriteMap<>();
+	private T defaultHandler;
 
-	/**
-	 * lengths of all registered paths
-	 */
-	private volatile int[] lengths = {};
+	/** Registered prefix paths - source of {@link #compiled} */
+	private final Map<String, T> paths = new HashMap<>();
+
+	/** Registered exact paths - source of {@link #compiled} */
+	private final Map<String, T> exactPathMatches = new HashMap<>();
+
+	private volatile Compiled<T> compiled = new Compiled<>(Collections.emptyMap(), Collections.emptyMap(), null);
 
 	public PathMatcher(final T defaultHandler) {
 		this.defaultHandler = defaultHandler;
+		compile();
 	}
 
 	public PathMatcher() {
 	}
 
 	/**
-	 * Matches a path against the registered handlers.
+	 * Finds a {@link Route} for given path. Exact paths are checked first, then the longest prefix path that
+	 * matches entire path segments and finally the default handler is used.
+	 *
 	 * @param path The relative path to match
-	 * @return The match match. This will never be null, however if none matched its value field will be
+	 * @return The route. This will never be null, however if none matched its value field will be {@code null}
 	 */
-	public PathMatcher.PathMatch<T> match(String path) {
-		if (!exactPathMatches.isEmpty()) {
-			T match = getExactPath(path);
-			if (match != null) {
-				UndertowLogger.REQUEST_LOGGER.debugf("Matched exact path %s", path);
-				return new PathMatcher.PathMatch<>(path, "", match);
+	public Route<T> route(String path) {
+		final Compiled<T> compiled = this.compiled;
+		if (!compiled.exact.isEmpty()) {
+			Route<T> exact = compiled.exact(path);
+			if (exact != null) {
+				return exact;
 			}
 		}
 
-		int length = path.length();
-		final int[] lengths = this.lengths;
-		for (int i = 0; i < lengths.length; ++i) {
-			int pathLength = lengths[i];
-			if (pathLength == length) {
-				SubstringMap.SubstringMatch<T> next = paths.get(path, length);
-				if (next != null) {
-					UndertowLogger.REQUEST_LOGGER.debugf("Matched prefix path %s for path %s", next.getKey(), path);
-					return new PathMatcher.PathMatch<>(path, "", next.getValue());
+		// descend the tree segment by segment ("/seg1", "/seg1/seg2", ...), so only full segments are matched.
+		// running hash of the path is the String.hashCode() of the prefix at each '/'
+		Route<T> best = compiled.defaultRoute;
+		final int length = path.length();
+		int h = 0;
+		for (int pos = 0; pos < length; pos++) {
+			char c = path.charAt(pos);
+			if (c == '/' && pos > 0) {
+				int node = compiled.node(path, pos, h);
+				if (node < 0) {
+					// no registered path has this prefix
+					return best;
 				}
-			} else if (pathLength < length) {
-				char c = path.charAt(pathLength);
-				if (c == '/') {
-
-					//String part = path.substring(0, pathLength);
-					SubstringMap.SubstringMatch<T> next = paths.get(path, pathLength);
-					if (next != null) {
-						UndertowLogger.REQUEST_LOGGER.debugf("Matched prefix path %s for path %s", next.getKey(), path);
-						return new PathMatcher.PathMatch<>(next.getKey(), path.substring(pathLength), next.getValue());
-					}
+				if (compiled.routes[node] != null) {
+					best = compiled.routes[node];
 				}
 			}
+			h = 31 * h + c;
+		}
+		if (length > 0) {
+			int node = compiled.node(path, length, h);
+			if (node >= 0 && compiled.routes[node] != null) {
+				best = compiled.routes[node];
+			}
 		}
-		UndertowLogger.REQUEST_LOGGER.debugf("Matched default handler path %s", path);
-		return new PathMatcher.PathMatch<>("", path, defaultHandler);
+		return best;
+	}
+
+	/**
+	 * Matches a path against the registered handlers.
+	 * @param path The relative path to match
+	 * @return The match match. This will never be null, however if none matched its value field will be
+	 */
+	public PathMatcher.PathMatch<T> match(String path) {
+		Route<T> route = route(path);
+		return new PathMatcher.PathMatch<>(route.exact ? path : route.matched, route.remaining(path), route.value);
 	}
 
 	/**
@@ -132,62 +150,41 @@ public class PathMatcher<T> {
 					}
 				}
 			}
+			compile();
 			return this;
 		}
 
 		paths.put(normalizedPath, handler);
 
-		buildLengths();
+		compile();
 		return this;
 	}
 
-
 	public synchronized PathMatcher addExactPath(final String path, final T handler) {
 		if (path.isEmpty()) {
 			throw UndertowMessages.MESSAGES.pathMustBeSpecified();
 		}
 		exactPathMatches.put(URLUtils.normalizeSlashes(path), handler);
+		compile();
 		return this;
 	}
 
 	public T getExactPath(final String path) {
-		return exactPathMatches.get(URLUtils.normalizeSlashes(path));
+		Route<T> route = compiled.exact.get(URLUtils.normalizeSlashes(path));
+		return route == null ? null : route.value;
 	}
 
-	public T getPrefixPath(final String path) {
-
+	public synchronized T getPrefixPath(final String path) {
 		final String normalizedPath = URLUtils.normalizeSlashes(path);
 
 		// enable the prefix path mechanism to return the default handler
-		SubstringMap.SubstringMatch<T> match = paths.get(normalizedPath);
+		T match = paths.get(normalizedPath);
 		if (PathMatcher.STRING_PATH_SEPARATOR.equals(normalizedPath) && match == null) {
 			return this.defaultHandler;
 		}
-		if (match == null) {
-			return null;
-		}
 
 		// return the value for the given path
-		return match.getValue();
-	}
-
-	private void buildLengths() {
-		final Set<Integer> lengths = new TreeSet<>(new Comparator<Integer>() {
-			@Override
-			public int compare(Integer o1, Integer o2) {
-				return -o1.compareTo(o2);
-			}
-		});
-		for (String p : paths.keys()) {
-			lengths.add(p.length());
-		}
-
-		int[] lengthArray = new int[lengths.size()];
-		int pos = 0;
-		for (int i : lengths) {
-			lengthArray[pos++] = i;
-		}
-		this.lengths = lengthArray;
+		return match;
 	}
 
 	@Deprecated
@@ -204,12 +201,13 @@ public class PathMatcher<T> {
 
 		if (PathMatcher.STRING_PATH_SEPARATOR.equals(normalizedPath)) {
 			defaultHandler = null;
+			compile();
 			return this;
 		}
 
 		paths.remove(normalizedPath);
 
-		buildLengths();
+		compile();
 		return this;
 	}
 
@@ -220,25 +218,183 @@ public class PathMatcher<T> {
 
 		exactPathMatches.remove(URLUtils.normalizeSlashes(path));
 
+		compile();
 		return this;
 	}
 
 	public synchronized PathMatcher clearPaths() {
 		paths.clear();
 		exactPathMatches.clear();
-		this.lengths = new int[0];
 		defaultHandler = null;
+		compile();
 		return this;
 	}
 
-	public Map<String, T> getPaths() {
-		return paths.toMap();
+	public synchronized Map<String, T> getPaths() {
+		return new HashMap<>(paths);
 	}
 
-	public T getDefaultHandler() {
+	public synchronized T getDefaultHandler() {
 		return defaultHandler;
 	}
 
+	/**
+	 * Replaces the compiled structure used by {@link #route(String)}. Called with the lock held.
+	 */
+	private void compile() {
+		Map<String, Route<T>> exact = new HashMap<>();
+		exactPathMatches.forEach((p, h) -> exact.put(p, new Route<>(p, h, true)));
+
+		Map<String, Route<T>> prefixes = new HashMap<>();
+		paths.forEach((p, h) -> prefixes.put(p, new Route<>(p, h, false)));
+
+		this.compiled = new Compiled<>(exact, prefixes, defaultHandler);
+	}
+
+	/**
+	 * Pre-built result of {@link #route(String)}.
+	 *
+	 * @param <T>
+	 */
+	public static final class Route<T> {
+		private final String matched;
+		private final T value;
+		private final boolean exact;
+
+		Route(String matched, T value, boolean exact) {
+			this.matched = matched;
+			this.value = value;
+			this.exact = exact;
+		}
+
+		/**
+		 * The registered path which matched the request path ({@code ""} for default handler)
+		 * @return
+		 */
+		public String getMatched() {
+			return matched;
+		}
+
+		public T getValue() {
+			return value;
+		}
+
+		/**
+		 * Whether this route was registered as exact path.
+		 * @return
+		 */
+		public boolean isExact() {
+			return exact;
+		}
+
+		/**
+		 * Returns the part of the path after matched prefix. Doesn't allocate if the path is matched exactly
+		 * or when default handler is used.
+		 *
+		 * @param path the path passed to {@link #route(String)}
+		 * @return
+		 */
+		public String remaining(String path) {
+			if (exact || matched.length() >= path.length()) {
+				return "";
+			}
+			return matched.isEmpty() ? path : path.substring(matched.length());
+		}
+	}
+
+	/**
+	 * <p>Immutable, compiled state of the matcher.</p>
+	 *
+	 * <p>The tree of path segments is kept in single open addressing hash table, where each node is available under
+	 * its full path (like {@code /app1} and {@code /app1/module1}), so the request path is hashed only once when
+	 * descending the tree. Nodes without a route are the ones that lead to longer paths.</p>
+	 *
+	 * @param <T>
+	 */
+	private static final class Compiled<T> {
+		private final Map<String, Route<T>> exact;
+		private final Route<T> defaultRoute;
+
+		private final String[] nodes;
+		private final int[] hashes;
+		private final Route<T>[] routes;
+		private final int mask;
+
+		@SuppressWarnings("unchecked")
+		Compiled(Map<String, Route<T>> exact, Map<String, Route<T>> prefixes, T defaultHandler) {
+			this.exact = exact;
+			this.defaultRoute = new Route<>("", defaultHandler, false);
+
+			Map<String, Route<T>> tree = new HashMap<>(prefixes);
+			prefixes.keySet().forEach(p -> {
+				for (int pos = p.indexOf('/', 1); pos > 0; pos = p.indexOf('/', pos + 1)) {
+					tree.putIfAbsent(p.substring(0, pos), null);
+				}
+			});
+
+			int size = 1;
+			while (size < tree.size() * 2) {
+				size <<= 1;
+			}
+			this.nodes = new String[size];
+			this.hashes = new int[size];
+			this.routes = new Route[size];
+			this.mask = size - 1;
+			tree.forEach((p, route) -> {
+				int i = spread(p.hashCode()) & mask;
+				while (nodes[i] != null) {
+					i = (i + 1) & mask;
+				}
+				nodes[i] = p;
+				hashes[i] = p.hashCode();
+				routes[i] = route;
+			});
+		}
+
+		/**
+		 * Exact match with the same semantics as {@link URLUtils#normalizeSlashes(String)} applied to the path,
+		 * but without normalization if the path is already normalized.
+		 *
+		 * @param path
+		 * @return
+		 */
+		private Route<T> exact(String path) {
+			int length = path.length();
+			boolean normalized = length > 0 && path.charAt(0) == '/' && (length == 1 || path.charAt(length - 1) != '/');
+			return exact.get(normalized ? path : URLUtils.normalizeSlashes(path));
+		}
+
+		/**
+		 * Finds an index of tree node for the first {@code length} characters of the path.
+		 *
+		 * @param path
+		 * @param length
+		 * @param hash {@link String#hashCode()} of the prefix of the path
+		 * @return index of the node or {@code -1}
+		 */
+		private int node(String path, int length, int hash) {
+			for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+				String node = nodes[i];
+				if (node == null) {
+					return -1;
+				}
+				if (hashes[i] == hash && node.length() == length && path.startsWith(node)) {
+					return i;
+				}
+			}
+		}
+
+		/**
+		 * Paths often differ only in last character (like {@code /app1}, {@code /app2}), so their hashes are
+		 * consecutive numbers - these are spread over the table with multiplicative hashing.
+		 * @param h
+		 * @return
+		 */
+		private static int spread(int h) {
+			return (h * 0x9E3779B9) >>> 16;
+		}
+	}
+
 	public static final class PathMatch<T> {
 		private final String matched;
 		private final String remaining;
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.undertow.internal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import io.undertow.security.api.SecurityContext;
+import io.undertow.server.ExchangeCompletionListener;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import org.ops4j.pax.web.service.spi.accesslog.AccessLogWriter;
+import org.ops4j.pax.web.service.spi.config.LogConfiguration;
+
+/**
+ * {@link HttpHandler} passing completed exchanges to common {@link AccessLogWriter}. The same instance is used
+ * as {@link ExchangeCompletionListener} of all the exchanges, so nothing is created per request.
+ */
+public class PaxWebAccessLogHandler implements HttpHandler, ExchangeCompletionListener, Closeable {
+
+	private final HttpHandler next;
+	private final AccessLogWriter writer;
+
+	public PaxWebAccessLogHandler(HttpHandler next, LogConfiguration configuration) throws IOException {
+		this.next = next;
+		this.writer = new AccessLogWriter(configuration);
+	}
+
+	@Override
+	public void handleRequest(HttpServerExchange exchange) throws Exception {
+		exchange.addExchangeCompleteListener(this);
+		next.handleRequest(exchange);
+	}
+
+	@Override
+	public void exchangeEvent(HttpServerExchange exchange, NextListener nextListener) {
+		try {
+			long timestamp = System.currentTimeMillis();
+			long start = exchange.getRequestStartTime();
+			if (start != -1L) {
+				timestamp -= TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			}
+			String user = null;
+			SecurityContext sc = exchange.getSecurityContext();
+			if (sc != null && sc.isAuthenticated()) {
+				user = sc.getAuthenticatedAccount().getPrincipal().getName();
+			}
+			InetSocketAddress source = exchange.getSourceAddress();
+			String remoteAddress = source == null ? null
+					: source.getAddress() == null ? source.getHostString() : source.getAddress().getHostAddress();
+
+			writer.log(remoteAddress, user, timestamp, exchange.getRequestMethod().toString(),
+					exchange.getRequestURI(), exchange.getQueryString(), exchange.getProtocol().toString(),
+					exchange.getStatusCode(), exchange.getResponseBytesSent(),
+					exchange.getRequestHeaders().getFirst(Headers.REFERER),
+					exchange.getRequestHeaders().getFirst(Headers.USER_AGENT));
+		} finally {
+			nextListener.proceed();
+		}
+	}
+
+	@Override
+	public void close() {
+		writer.close();
+	}
+
+	public AccessLogWriter getWriter() {
+		return writer;
+	}
+
+}
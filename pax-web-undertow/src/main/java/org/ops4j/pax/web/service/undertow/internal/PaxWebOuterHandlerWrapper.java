@@ -15,6 +15,7 @@
  */
 package org.ops4j.pax.web.service.undertow.internal;
 
+import javax.servlet.DispatcherType;
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
 
@@ -27,6 +28,8 @@ import io.undertow.servlet.handlers.ServletRequestContext;
 import io.undertow.util.Headers;
 import io.undertow.util.StatusCodes;
 import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.RequestMetrics;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
 import org.ops4j.pax.web.service.spi.servlet.OsgiHttpServletRequestWrapper;
 import org.ops4j.pax.web.service.spi.servlet.OsgiServletContext;
 import org.ops4j.pax.web.service.spi.servlet.OsgiSessionAttributeListener;
@@ -47,6 +50,9 @@ public class PaxWebOuterHandlerWrapper implements HandlerWrapper {
 	private boolean[] virtualHostWildcards;
 	private String[] connectorNames;
 
+	/** Whether {@link RequestMetrics} of target context and servlet should be updated */
+	private boolean requestMetricsEnabled;
+
 	public PaxWebOuterHandlerWrapper(OsgiSessionAttributeListener osgiSessionsBridge) {
 		this.osgiSessionsBridge = osgiSessionsBridge;
 	}
@@ -127,6 +133,20 @@ public class PaxWebOuterHandlerWrapper implements HandlerWrapper {
 					}
 				}
 
+				if (requestMetricsEnabled && osgiContextModel != null
+						&& context.getDispatcherType() == DispatcherType.REQUEST) {
+					// exchange is completed with final status also for async requests. Forwards, includes and
+					// async dispatches are part of already recorded request
+					RequestMetrics contextMetrics = osgiContextModel.getRequestMetrics();
+					ServletModel servletModel = ((PaxWebServletInfo) servletInfo).getServletModel();
+					RequestMetrics servletMetrics = servletModel == null ? null : servletModel.getRequestMetrics();
+					long start = RequestMetrics.requestStarted(contextMetrics, servletMetrics);
+					exchange.addExchangeCompleteListener((exchange1, nextListener) -> {
+						RequestMetrics.requestCompleted(start, exchange1.getStatusCode(), contextMetrics, servletMetrics);
+						nextListener.proceed();
+					});
+				}
+
 				exchange.addExchangeCompleteListener((exchange1, nextListener) -> {
 					PaxWebSessionIdGenerator.sessionIdPrefix.set(null);
 					PaxWebSessionIdGenerator.cookieSessionId.set(null);
@@ -138,6 +158,10 @@ public class PaxWebOuterHandlerWrapper implements HandlerWrapper {
 		};
 	}
 
+	public void setRequestMetricsEnabled(boolean requestMetricsEnabled) {
+		this.requestMetricsEnabled = requestMetricsEnabled;
+	}
+
 	public OsgiServletContext getDefaultServletContext() {
 		return defaultServletContext;
 	}
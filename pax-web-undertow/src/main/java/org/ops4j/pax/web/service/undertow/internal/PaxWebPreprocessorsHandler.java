@@ -15,11 +15,8 @@
  */
 package org.ops4j.pax.web.service.undertow.internal;
 
-import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.function.Consumer;
-import java.util.stream.Collectors;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletRequest;
@@ -31,7 +28,7 @@ import io.undertow.server.HandlerWrapper;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.servlet.handlers.ServletRequestContext;
-import org.ops4j.pax.web.service.spi.servlet.OsgiFilterChain;
+import org.ops4j.pax.web.service.spi.servlet.OsgiFilterChainTemplate;
 import org.ops4j.pax.web.service.spi.servlet.PreprocessorFilterConfig;
 import org.osgi.service.http.whiteboard.Preprocessor;
 
@@ -48,6 +45,12 @@ public class PaxWebPreprocessorsHandler implements HandlerWrapper {
 	 */
 	private final List<PreprocessorFilterConfig> preprocessors = new LinkedList<>();
 
+	/**
+	 * Pre-built {@link OsgiFilterChainTemplate} - in Undertow it only calls preprocessors, because request
+	 * wrapping and security are handled by different wrappers.
+	 */
+	private volatile OsgiFilterChainTemplate<Void> template;
+
 	@Override
 	@SuppressWarnings("Convert2Lambda")
 	public HttpHandler wrap(HttpHandler handler) {
@@ -58,33 +61,60 @@ public class PaxWebPreprocessorsHandler implements HandlerWrapper {
 				HttpServletRequest incomingRequest = (HttpServletRequest) context.getServletRequest();
 				HttpServletResponse outgoingRequest = (HttpServletResponse) context.getServletResponse();
 
-				List<Preprocessor> preprocessorInstances = preprocessors.stream().map(PreprocessorFilterConfig::getInstance).collect(Collectors.toList());
-
-				final Exception[] ex = new Exception[] { null };
 				// in Undertow we use authListener in org.ops4j.pax.web.service.undertow.internal.PaxWebSecurityHandler
-				Consumer<HttpServletRequest> authListener = null;
-				FilterChain chain = new OsgiFilterChain(new ArrayList<>(preprocessorInstances), null, null, new FilterChain() {
-					@Override
-					public void doFilter(ServletRequest request, ServletResponse response) {
-						// just proceed
-						try {
-							handler.handleRequest(exchange);
-						} catch (Exception e) {
-							ex[0] = e;
-						}
-					}
-				}, null, authListener);
+				HandlerChain handlerChain = new HandlerChain(handler, exchange);
+				FilterChain chain = getTemplate().newChain(handlerChain, null);
 
 				chain.doFilter(incomingRequest, outgoingRequest);
-				if (ex[0] != null) {
-					throw ex[0];
+				if (handlerChain.exception != null) {
+					throw handlerChain.exception;
 				}
 			}
 		};
 	}
 
+	private OsgiFilterChainTemplate<Void> getTemplate() {
+		OsgiFilterChainTemplate<Void> t = template;
+		if (t == null) {
+			t = new OsgiFilterChainTemplate<>(preprocessors, null, null, null, null);
+			template = t;
+		}
+		return t;
+	}
+
+	/**
+	 * Drops pre-built {@link OsgiFilterChainTemplate}. Should be called whenever preprocessors change.
+	 */
+	public void invalidateOsgiFilterChains() {
+		template = null;
+	}
+
 	public List<PreprocessorFilterConfig> getPreprocessors() {
 		return preprocessors;
 	}
 
+	/**
+	 * The last element of preprocessor chain, which just proceeds with original {@link HttpHandler}.
+	 */
+	private static final class HandlerChain implements FilterChain {
+		private final HttpHandler handler;
+		private final HttpServerExchange exchange;
+		private Exception exception;
+
+		HandlerChain(HttpHandler handler, HttpServerExchange exchange) {
+			this.handler = handler;
+			this.exchange = exchange;
+		}
+
+		@Override
+		public void doFilter(ServletRequest request, ServletResponse response) {
+			// just proceed
+			try {
+				handler.handleRequest(exchange);
+			} catch (Exception e) {
+				exception = e;
+			}
+		}
+	}
+
 }
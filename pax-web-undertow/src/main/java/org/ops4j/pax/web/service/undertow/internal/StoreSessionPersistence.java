@@ -0,0 +1,195 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.undertow.internal;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.session.Session;
+import io.undertow.server.session.SessionListener;
+import io.undertow.servlet.api.SessionPersistenceManager;
+import org.ops4j.pax.web.service.spi.session.SessionStore;
+import org.ops4j.pax.web.service.spi.session.SessionStoreSegment;
+import org.ops4j.pax.web.service.spi.session.StoredSession;
+
+/**
+ * <p>{@link SessionPersistenceManager} using Pax Web {@link SessionStore}. It's also a {@link SessionListener},
+ * so changed attributes are stored when they're set and at stop only the times of the sessions are stored.</p>
+ *
+ * <p>Loaded sessions have their attributes deserialized only when they're restored by
+ * {@link io.undertow.servlet.handlers.SessionRestoringHandler} (when requested).</p>
+ */
+public class StoreSessionPersistence implements SessionPersistenceManager, SessionListener {
+
+	private final SessionStore sessionStore;
+
+	/** Attributes of sessions being restored, which should not be stored again */
+	private final Map<String, Map<String, Object>> restoring = new ConcurrentHashMap<>();
+
+	/**
+	 * Deployments which persisted their sessions - Undertow removes the attributes of undeployed sessions,
+	 * which should not be removed from the store
+	 */
+	private final Set<String> passivated = ConcurrentHashMap.newKeySet();
+
+	public StoreSessionPersistence(SessionStore sessionStore) {
+		this.sessionStore = sessionStore;
+	}
+
+	public SessionStore getSessionStore() {
+		return sessionStore;
+	}
+
+	@Override
+	public void persistSessions(String deploymentName, Map<String, PersistentSession> sessionData) {
+		passivated.add(deploymentName);
+		SessionStoreSegment segment = sessionStore.getSegment(deploymentName);
+		for (Map.Entry<String, PersistentSession> e : sessionData.entrySet()) {
+			long expiration = e.getValue().getExpiration().getTime();
+			if (segment.contains(e.getKey())) {
+				// attributes were stored when they were set
+				segment.touch(new StoredSession(e.getKey(), 0L, 0L, 0L, expiration, null));
+			} else {
+				segment.save(new StoredSession(e.getKey(), 0L, 0L, 0L, expiration,
+						new HashMap<>(e.getValue().getSessionData())));
+			}
+		}
+		segment.flush();
+	}
+
+	@Override
+	public Map<String, PersistentSession> loadSessionAttributes(String deploymentName, ClassLoader classLoader) {
+		passivated.remove(deploymentName);
+		SessionStoreSegment segment = sessionStore.getSegment(deploymentName);
+		Map<String, PersistentSession> result = new LinkedHashMap<>();
+		long now = System.currentTimeMillis();
+		for (String id : segment.getSessionIds()) {
+			long expiration = segment.getExpirationTime(id);
+			if (expiration == 0L || expiration > now) {
+				result.put(id, new PersistentSession(new Date(expiration == 0L ? Long.MAX_VALUE : expiration),
+						new StoredAttributes(segment, id, classLoader)));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void clear(String deploymentName) {
+		sessionStore.getSegment(deploymentName).clear();
+	}
+
+	@Override
+	public void sessionDestroyed(Session session, HttpServerExchange exchange, SessionDestroyedReason reason) {
+		restoring.remove(session.getId());
+		if (reason != SessionDestroyedReason.UNDEPLOY && !isPassivated(session)) {
+			segment(session).remove(session.getId());
+		}
+	}
+
+	@Override
+	public void sessionIdChanged(Session session, String oldSessionId) {
+		SessionStoreSegment segment = segment(session);
+		segment.remove(oldSessionId);
+		Map<String, Object> attributes = new HashMap<>();
+		for (String name : session.getAttributeNames()) {
+			attributes.put(name, session.getAttribute(name));
+		}
+		segment.save(toStoredSession(session, attributes));
+	}
+
+	@Override
+	public void attributeAdded(Session session, String name, Object value) {
+		attributeChanged(session, name, value);
+	}
+
+	@Override
+	public void attributeUpdated(Session session, String name, Object newValue, Object oldValue) {
+		attributeChanged(session, name, newValue);
+	}
+
+	@Override
+	public void attributeRemoved(Session session, String name, Object oldValue) {
+		attributeChanged(session, name, null);
+	}
+
+	private void attributeChanged(Session session, String name, Object value) {
+		if (isPassivated(session)) {
+			return;
+		}
+		Map<String, Object> restored = restoring.get(session.getId());
+		if (restored != null && value != null && restored.get(name) == value) {
+			restored.remove(name);
+			if (restored.isEmpty()) {
+				restoring.remove(session.getId());
+			}
+			return;
+		}
+		segment(session).update(toStoredSession(session, Collections.singletonMap(name, value)));
+	}
+
+	private boolean isPassivated(Session session) {
+		return passivated.contains(session.getSessionManager().getDeploymentName());
+	}
+
+	private SessionStoreSegment segment(Session session) {
+		return sessionStore.getSegment(session.getSessionManager().getDeploymentName());
+	}
+
+	private StoredSession toStoredSession(Session session, Map<String, Object> attributes) {
+		long maxInactive = session.getMaxInactiveInterval() > 0 ? session.getMaxInactiveInterval() * 1000L : 0L;
+		long lastAccessed = session.getLastAccessedTime();
+		return new StoredSession(session.getId(), session.getCreationTime(), lastAccessed, maxInactive,
+				maxInactive > 0L ? lastAccessed + maxInactive : 0L, attributes);
+	}
+
+	/**
+	 * Attributes of stored session, loaded when Undertow restores the session.
+	 */
+	private final class StoredAttributes extends AbstractMap<String, Object> {
+
+		private final SessionStoreSegment segment;
+		private final String id;
+		private final ClassLoader classLoader;
+		private Map<String, Object> attributes;
+
+		StoredAttributes(SessionStoreSegment segment, String id, ClassLoader classLoader) {
+			this.segment = segment;
+			this.id = id;
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		public Set<Entry<String, Object>> entrySet() {
+			if (attributes == null) {
+				StoredSession session = segment.load(id, classLoader);
+				attributes = session == null ? Collections.emptyMap() : session.getAttributes();
+				if (!attributes.isEmpty()) {
+					// restored attributes will be set in the session
+					restoring.put(id, new HashMap<>(attributes));
+				}
+			}
+			return attributes.entrySet();
+		}
+	}
+
+}
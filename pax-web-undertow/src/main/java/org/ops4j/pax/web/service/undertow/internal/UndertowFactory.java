@@ -38,6 +38,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import javax.net.ssl.CertPathTrustManagerParameters;
 import javax.net.ssl.KeyManager;
 import javax.net.ssl.KeyManagerFactory;
@@ -70,7 +71,9 @@ import io.undertow.servlet.handlers.MarkSecureHandler;
 import io.undertow.util.HttpString;
 import org.ops4j.pax.web.service.spi.config.Configuration;
 import org.ops4j.pax.web.service.spi.config.SecurityConfiguration;
+import org.ops4j.pax.web.service.spi.config.ServerConfiguration;
 import org.ops4j.pax.web.service.spi.model.elements.FilterModel;
+import org.ops4j.pax.web.service.spi.util.Utils;
 import org.ops4j.pax.web.service.undertow.configuration.model.IoSubsystem;
 import org.ops4j.pax.web.service.undertow.configuration.model.SecurityRealm;
 import org.ops4j.pax.web.service.undertow.configuration.model.Server;
@@ -108,6 +111,7 @@ public class UndertowFactory {
 
 	private XnioWorker defaultWorker;
 	private ByteBufferPool defaultBufferPool;
+	private ExecutorService virtualThreadsExecutor;
 
 	UndertowFactory(ClassLoader classLoader, XnioProvider xnioProvider) {
 		this.classLoader = classLoader;
@@ -228,11 +232,66 @@ public class UndertowFactory {
 		return defaultWorker;
 	}
 
+	/**
+	 * Changes the number of task threads of the default worker, if it was already created. Workers defined in
+	 * {@code undertow.xml} are not changed.
+	 *
+	 * @param configuration
+	 * @throws IOException
+	 */
+	public void resizeDefaultWorker(Configuration configuration) throws IOException {
+		if (defaultWorker == null) {
+			return;
+		}
+		Integer maxThreads = configuration.server().getServerMaxThreads();
+		int threads = maxThreads != null ? maxThreads : new IoSubsystem.Worker().getTaskMaxThreads();
+		// core and max threads are equal, but none of them can be set to break core <= max
+		if (threads < defaultWorker.getOption(Options.WORKER_TASK_CORE_THREADS)) {
+			defaultWorker.setOption(Options.WORKER_TASK_CORE_THREADS, threads);
+			defaultWorker.setOption(Options.WORKER_TASK_MAX_THREADS, threads);
+		} else {
+			defaultWorker.setOption(Options.WORKER_TASK_MAX_THREADS, threads);
+			defaultWorker.setOption(Options.WORKER_TASK_CORE_THREADS, threads);
+		}
+	}
+
+	/**
+	 * <p>Returns an executor running servlet requests using virtual threads if
+	 * {@link ServerConfiguration#isServerVirtualThreads()} is enabled and supported by the JDK. It's set as
+	 * {@link io.undertow.servlet.api.DeploymentInfo#setExecutor(java.util.concurrent.Executor)}, so requests are
+	 * dispatched from XNIO I/O threads to virtual threads instead of the XNIO worker task pool (which is still used by
+	 * non-servlet handlers).</p>
+	 *
+	 * @param configuration
+	 * @return the executor or {@code null} if XNIO worker should be used
+	 */
+	public ExecutorService getVirtualThreadsExecutor(Configuration configuration) {
+		ServerConfiguration sc = configuration.server();
+		if (sc.isServerVirtualThreads() == null || !sc.isServerVirtualThreads()) {
+			return null;
+		}
+		if (virtualThreadsExecutor == null) {
+			String prefix = sc.getServerThreadNamePrefix() != null ? sc.getServerThreadNamePrefix() : "XNIO-default";
+			virtualThreadsExecutor = Utils.newVirtualThreadsExecutor(prefix + " virtual-");
+			if (virtualThreadsExecutor != null) {
+				LOG.info("Using virtual threads to process Undertow servlet requests");
+			} else {
+				LOG.warn("Virtual threads are not supported in JDK {}. Using XNIO worker task pool.",
+						Runtime.version().feature());
+			}
+		}
+		return virtualThreadsExecutor;
+	}
+
 	public void closeDefaultPoolAndBuffer() {
 		if (defaultWorker != null) {
 			defaultWorker.shutdown();
 			defaultWorker = null;
 		}
+		if (virtualThreadsExecutor != null) {
+			virtualThreadsExecutor.shutdown();
+			virtualThreadsExecutor = null;
+		}
 		if (defaultBufferPool != null) {
 			defaultBufferPool.close();
 			IoSubsystem.BufferPool defaultBufferPoolDefinition = new IoSubsystem.BufferPool();
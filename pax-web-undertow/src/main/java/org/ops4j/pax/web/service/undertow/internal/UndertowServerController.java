@@ -26,9 +26,12 @@ import javax.servlet.Servlet;
 import io.undertow.security.idm.IdentityManager;
 import org.ops4j.pax.web.service.spi.ServerController;
 import org.ops4j.pax.web.service.spi.ServerState;
+import org.ops4j.pax.web.service.spi.accesslog.AccessLogWriter;
 import org.ops4j.pax.web.service.spi.config.Configuration;
+import org.ops4j.pax.web.service.spi.config.ConfigurationDiff;
 import org.ops4j.pax.web.service.spi.model.events.ServerEvent;
 import org.ops4j.pax.web.service.spi.model.events.ServerListener;
+import org.ops4j.pax.web.service.spi.servlet.StaticContentCache;
 import org.ops4j.pax.web.service.spi.task.Batch;
 import org.ops4j.pax.web.service.undertow.internal.web.UndertowResourceServlet;
 import org.osgi.framework.Bundle;
@@ -46,7 +49,8 @@ public class UndertowServerController implements ServerController/*, IdentityMan
 	private final Bundle paxWebUndertowBundle;
 	private final ClassLoader classLoader;
 
-	private final Configuration configuration;
+	/** Current configuration - may be changed by {@link #reconfigure(Configuration, ConfigurationDiff)} */
+	private volatile Configuration configuration;
 	private ServerState state;
 
 	private final Set<ServerListener> listeners;
@@ -59,6 +63,9 @@ public class UndertowServerController implements ServerController/*, IdentityMan
 	 */
 	private UndertowServerWrapper undertowServerWrapper;
 
+	/** Static content cache shared by all resource servlets (if enabled) */
+	private final StaticContentCache staticContentCache;
+
 				private IdentityManager identityManager;
 
 	public UndertowServerController(Bundle paxWebUndertowBundle, ClassLoader classLoader,
@@ -70,6 +77,9 @@ public class UndertowServerController implements ServerController/*, IdentityMan
 		this.state = ServerState.UNCONFIGURED;
 
 		this.listeners = Collections.synchronizedSet(new LinkedHashSet<>());
+
+		this.staticContentCache = configuration.resources().sharedCache()
+				? new StaticContentCache(configuration.resources()) : null;
 	}
 
 	// --- lifecycle methods
@@ -88,7 +98,8 @@ public class UndertowServerController implements ServerController/*, IdentityMan
 			throw new IllegalStateException("Can't configure Undertow server controller in state " + state);
 		}
 
-		undertowServerWrapper = new UndertowServerWrapper(configuration, undertowFactory, paxWebUndertowBundle, classLoader);
+		undertowServerWrapper = new UndertowServerWrapper(configuration, undertowFactory, paxWebUndertowBundle, classLoader,
+				staticContentCache);
 		undertowServerWrapper.configure();
 
 		state = ServerState.STOPPED;
@@ -118,6 +129,9 @@ public class UndertowServerController implements ServerController/*, IdentityMan
 		}
 
 		undertowServerWrapper.stop();
+		if (staticContentCache != null) {
+			staticContentCache.clear();
+		}
 
 		state = ServerState.STOPPED;
 		notifyListeners(new ServerEvent(ServerEvent.State.STOPPED, null));
@@ -128,6 +142,41 @@ public class UndertowServerController implements ServerController/*, IdentityMan
 		return configuration;
 	}
 
+	@Override
+	public boolean reconfigure(Configuration configuration, ConfigurationDiff diff) {
+		if (state != ServerState.STARTED || diff.requiresRestart()) {
+			return false;
+		}
+		if (staticContentCache == null && diff.contains(ConfigurationDiff.Kind.RESOURCE_CACHE)) {
+			// without shared cache, resource servlets read the limits only when they're initialized
+			return false;
+		}
+		// access log handler wraps the root handler and idle timeout is an option of already created listeners
+		if (diff.contains(ConfigurationDiff.Kind.REQUEST_LOG)
+				|| diff.contains(ConfigurationDiff.Kind.CONNECTOR_IDLE_TIMEOUT)) {
+			return false;
+		}
+
+		LOG.info("Reconfiguring {}: {}", this, diff);
+
+		try {
+			undertowServerWrapper.reconfigure(configuration, diff);
+		} catch (Exception e) {
+			LOG.warn("Problem reconfiguring Undertow server: {}", e.getMessage(), e);
+			return false;
+		}
+		this.configuration = configuration;
+
+		if (diff.contains(ConfigurationDiff.Kind.RESOURCE_CACHE)) {
+			staticContentCache.setLimits(configuration.resources());
+		}
+		if (diff.contains(ConfigurationDiff.Kind.CONNECTORS)) {
+			notifyListeners(new ServerEvent(ServerEvent.State.STARTED, undertowServerWrapper.getAddresses(true)));
+		}
+
+		return true;
+	}
+
 	// --- listener related methods
 
 	@Override
@@ -154,6 +203,16 @@ public class UndertowServerController implements ServerController/*, IdentityMan
 		}
 	}
 
+	@Override
+	public AccessLogWriter getAccessLogWriter() {
+		return undertowServerWrapper.getAccessLogWriter();
+	}
+
+	@Override
+	public StaticContentCache getStaticContentCache() {
+		return staticContentCache;
+	}
+
 	@Override
 	public Servlet createResourceServlet(URL urlBase, String base) {
 		File baseDirectory;
@@ -193,6 +252,7 @@ public class UndertowServerController implements ServerController/*, IdentityMan
 		int metadataCacheSize = maxEntries;
 
 		undertowResourceServlet.setCachingConfiguration(metadataCacheSize, maxEntrySize, maxSize, maxAge);
+		undertowResourceServlet.setStaticContentCache(staticContentCache);
 
 		return undertowResourceServlet;
 	}
@@ -208,6 +268,16 @@ public class UndertowServerController implements ServerController/*, IdentityMan
 		batch.accept(undertowServerWrapper);
 	}
 
+	@Override
+	public void beginGroup() {
+		undertowServerWrapper.beginGroup();
+	}
+
+	@Override
+	public void endGroup() {
+		undertowServerWrapper.endGroup();
+	}
+
 	@Override
 	public String toString() {
 		return "UndertowServerController{configuration=" + configuration.id() + ",state=" + state + "}";
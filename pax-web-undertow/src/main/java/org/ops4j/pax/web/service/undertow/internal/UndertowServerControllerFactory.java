@@ -75,7 +75,8 @@ public class UndertowServerControllerFactory implements ServerControllerFactory
 
 	@Override
 	public void releaseServerController(ServerController controller, Configuration configuration) {
-		serverControllers.remove(configuration.id(), controller);
+		// not by configuration ID, because the configuration may have been changed by reconfigure()
+		serverControllers.values().remove(controller);
 	}
 
 }
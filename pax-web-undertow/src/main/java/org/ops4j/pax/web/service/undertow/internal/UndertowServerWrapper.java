@@ -45,6 +45,7 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
 import javax.servlet.DispatcherType;
 import javax.servlet.Servlet;
@@ -59,7 +60,6 @@ import javax.servlet.http.HttpSessionAttributeListener;
 import javax.xml.XMLConstants;
 import javax.xml.parsers.SAXParserFactory;
 
-import io.undertow.Handlers;
 import io.undertow.Undertow;
 import io.undertow.connector.ByteBufferPool;
 import io.undertow.predicate.Predicate;
@@ -110,8 +110,11 @@ import io.undertow.servlet.handlers.ServletRequestContext;
 import io.undertow.servlet.util.ImmediateInstanceFactory;
 import io.undertow.servlet.util.InMemorySessionPersistence;
 import org.ops4j.pax.web.service.AuthenticatorService;
+import org.ops4j.pax.web.service.spi.accesslog.AccessLogWriter;
 import org.ops4j.pax.web.service.spi.config.Configuration;
+import org.ops4j.pax.web.service.spi.config.ConfigurationDiff;
 import org.ops4j.pax.web.service.spi.config.LogConfiguration;
+import org.ops4j.pax.web.service.spi.config.ServerConfiguration;
 import org.ops4j.pax.web.service.spi.config.SessionConfiguration;
 import org.ops4j.pax.web.service.spi.model.ContextMetadataModel;
 import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
@@ -130,6 +133,7 @@ import org.ops4j.pax.web.service.spi.model.elements.SessionConfigurationModel;
 import org.ops4j.pax.web.service.spi.model.elements.WebSocketModel;
 import org.ops4j.pax.web.service.spi.model.elements.WelcomeFileModel;
 import org.ops4j.pax.web.service.spi.model.events.ServerEvent;
+import org.ops4j.pax.web.service.spi.servlet.ContextRestartGate;
 import org.ops4j.pax.web.service.spi.servlet.Default404Servlet;
 import org.ops4j.pax.web.service.spi.servlet.DefaultSessionCookieConfig;
 import org.ops4j.pax.web.service.spi.servlet.DynamicRegistrations;
@@ -140,6 +144,9 @@ import org.ops4j.pax.web.service.spi.servlet.OsgiServletContextClassLoader;
 import org.ops4j.pax.web.service.spi.servlet.OsgiSessionAttributeListener;
 import org.ops4j.pax.web.service.spi.servlet.PreprocessorFilterConfig;
 import org.ops4j.pax.web.service.spi.servlet.RegisteringContainerInitializer;
+import org.ops4j.pax.web.service.spi.servlet.StaticContentCache;
+import org.ops4j.pax.web.service.spi.session.LogSessionStore;
+import org.ops4j.pax.web.service.spi.task.BatchTrace;
 import org.ops4j.pax.web.service.spi.task.BatchVisitor;
 import org.ops4j.pax.web.service.spi.task.ClearDynamicRegistrationsChange;
 import org.ops4j.pax.web.service.spi.task.ContainerInitializerModelChange;
@@ -205,6 +212,9 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 	/** Outside of OSGi, let's use passed ClassLoader */
 	private final ClassLoader classLoader;
 
+	/** Shared cache of static content (if enabled) - entries of removed contexts are invalidated */
+	private final StaticContentCache staticContentCache;
+
 	/**
 	 * <p>In Tomcat and Jetty we keep here a single reference to actual Tomcat/Jetty embedded server. With Undertow
 	 * everything is a bit more flexible. Before Pax Web 8 we just had an instance of {@link Undertow} server, but
@@ -225,6 +235,12 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 	private final Map<String, UndertowFactory.AcceptingChannelWithAddress> listeners = new HashMap<>();
 
 	private final Map<String, XnioWorker> workers = new HashMap<>();
+
+	/**
+	 * Keys of {@link #listeners} created from PID configuration (not from {@code undertow.xml}), which are closed
+	 * when they no longer match changed configuration.
+	 */
+	private final Set<String> defaultListeners = new HashSet<>();
 	private final Map<String, ByteBufferPool> bufferPools = new HashMap<>();
 
 	/** Mapping from non-secure ports to secure ports - collected when reading XML listener definitions */
@@ -237,6 +253,9 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 	 */
 	private HttpHandler rootHandler;
 
+	/** NCSA access log configured using properties (not with XML) - part of {@link #rootHandler} chain */
+	private volatile PaxWebAccessLogHandler ncsaLogHandler;
+
 	/**
 	 * Top-level, or wrapped (inside different {@link #rootHandler}) {@link PathHandler} that contains 1:1
 	 * mapping to actual <em>contexts</em>.
@@ -253,6 +272,14 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 	 */
 	private final Set<String> transactions = new HashSet<>();
 
+	/**
+	 * Whether a group of batches is being processed - starting of contexts is deferred until the end of the group.
+	 */
+	private boolean groupInProgress = false;
+
+	/** Context paths of the contexts which should be started at the end of the group */
+	private final Set<String> deferredStarts = new LinkedHashSet<>();
+
 	/**
 	 * When delaying removal of servlets and listeners (not filters, error pages, ...), we have to ensure that
 	 * they are really removed. It is automatic for WABs, where entire context is destroyed, but not necessarily
@@ -298,6 +325,12 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 	 */
 	private final Map<String, PaxWebOuterHandlerWrapper> wrappingHandlers = new HashMap<>();
 
+	/**
+	 * Handlers registered in {@link #pathHandler} for started contexts, if the requests should be held while
+	 * the context is restarted.
+	 */
+	private final Map<String, ContextRestartHandler> restartHandlers = new HashMap<>();
+
 	/**
 	 * <em>Outer handlers</em> for all the contexts - these are used to call {@link Preprocessor preprocessors}.
 	 */
@@ -358,9 +391,10 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 
 	/**
 	 * Global {@link Configuration} passed from pax-web-runtime through
-	 * {@link org.ops4j.pax.web.service.spi.ServerController}
+	 * {@link org.ops4j.pax.web.service.spi.ServerController}. Replaced when the changed configuration is applied
+	 * to running server.
 	 */
-	private final Configuration configuration;
+	private Configuration configuration;
 
 	/** Servlet to use when no servlet is mapped - to ensure that preprocessors and filters are run correctly. */
 	private final Default404Servlet default404Servlet = new Default404Servlet(true);
@@ -387,11 +421,12 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 	private final Map<String, TreeMap<OsgiContextModel, SecurityConfigurationModel>> contextSecurityConstraints = new HashMap<>();
 
 	UndertowServerWrapper(Configuration config, UndertowFactory undertowFactory,
-			Bundle paxWebUndertowBundle, ClassLoader classLoader) {
+			Bundle paxWebUndertowBundle, ClassLoader classLoader, StaticContentCache staticContentCache) {
 		this.configuration = config;
 		this.undertowFactory = undertowFactory;
 		this.paxWebUndertowBundle = paxWebUndertowBundle;
 		this.classLoader = classLoader;
+		this.staticContentCache = staticContentCache;
 	}
 
 	// --- lifecycle and configuration methods
@@ -404,7 +439,7 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 		LOG.info("Creating Undertow server instance using configuration properties.");
 
 		// initially rootHandler == pathHandler without any particular path registered
-		pathHandler = Handlers.path();
+		pathHandler = new ContextAwarePathHandler();
 		rootHandler = pathHandler;
 
 		// apply single (if exists) external undertow.xml file by reading it according to Wildfly XSDs,
@@ -434,7 +469,8 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 			File dir = configuration.session().getSessionStoreDirectory();
 			if (dir != null) {
 				LOG.info("Using file session persistence. Location: " + dir.getCanonicalPath());
-				globalSessionPersistenceManager = new FileSessionPersistence(dir);
+				globalSessionPersistenceManager = new StoreSessionPersistence(new LogSessionStore(dir,
+						LogSessionStore.PARTITION_BY_ID_PREFIX));
 			} else {
 				LOG.info("Using in-memory session persistence");
 				globalSessionPersistenceManager = new InMemorySessionPersistence();
@@ -763,7 +799,8 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 				File sessionsDir = new File(persistentSessions.getPath());
 				if (sessionsDir.isDirectory() || sessionsDir.mkdirs()) {
 					LOG.info("Using file session persistence. Location: " + sessionsDir.getCanonicalPath());
-					globalSessionPersistenceManager = new FileSessionPersistence(sessionsDir);
+					globalSessionPersistenceManager = new StoreSessionPersistence(new LogSessionStore(sessionsDir,
+							LogSessionStore.PARTITION_BY_ID_PREFIX));
 				} else {
 					LOG.warn("Can't access or create {} for file session persistence.", sessionsDir);
 				}
@@ -912,10 +949,77 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 			LOG.info("Creating {} connector for address {}:{}", (secure ? "secure" : "non secure"), address, port);
 			// we have to create a listener
 			UndertowFactory.AcceptingChannelWithAddress listener = listenerProvider.get();
-			listeners.put(UUID.randomUUID().toString(), listener);
+			String key = UUID.randomUUID().toString();
+			listeners.put(key, listener);
+			defaultListeners.add(key);
 		}
 	}
 
+	/**
+	 * Applies changed configuration to started Undertow server. Only thread pool of the default worker and
+	 * the listeners can be changed here - access log and listener options are set when the handlers and listeners
+	 * are created.
+	 *
+	 * @param configuration
+	 * @param diff
+	 * @throws Exception
+	 */
+	public void reconfigure(Configuration configuration, ConfigurationDiff diff) throws Exception {
+		this.configuration = configuration;
+
+		if (diff.contains(ConfigurationDiff.Kind.THREAD_POOL)) {
+			LOG.info("Resizing default Undertow worker");
+			undertowFactory.resizeDefaultWorker(configuration);
+		}
+
+		if (diff.contains(ConfigurationDiff.Kind.CONNECTORS)) {
+			// remove the listeners created by us, which no longer match the configuration
+			for (Iterator<String> it = defaultListeners.iterator(); it.hasNext(); ) {
+				String key = it.next();
+				if (!matchesConfiguration(listeners.get(key))) {
+					LOG.info("Removing listener {}", listeners.get(key));
+					it.remove();
+					IoUtils.safeClose(listeners.remove(key).getAcceptingChannel());
+				}
+			}
+
+			// verification may both remove (disabled) listeners from undertow.xml and create new ones
+			Map<String, UndertowFactory.AcceptingChannelWithAddress> previous = new HashMap<>(listeners);
+			verifyListenerConfiguration();
+			previous.forEach((key, l) -> {
+				if (!listeners.containsKey(key)) {
+					IoUtils.safeClose(l.getAcceptingChannel());
+				}
+			});
+			listeners.forEach((key, l) -> {
+				if (!previous.containsKey(key)) {
+					l.getAcceptingChannel().resumeAccepts();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Checks whether a listener created from PID configuration is still declared in current configuration.
+	 *
+	 * @param listener
+	 * @return
+	 */
+	private boolean matchesConfiguration(UndertowFactory.AcceptingChannelWithAddress listener) {
+		ServerConfiguration sc = configuration.server();
+		boolean enabled = listener.isSecure() ? sc.isHttpSecureEnabled() : sc.isHttpEnabled();
+		if (!enabled) {
+			return false;
+		}
+		Integer port = listener.isSecure() ? sc.getHttpSecurePort() : sc.getHttpPort();
+		for (String address : sc.getListeningAddresses()) {
+			if (match(address, port, listener.getAddress())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Check if the passed address can be treated as one <em>matching</em> the connector
 	 * declared using PID properties.
@@ -976,39 +1080,19 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 
 		LOG.info("NCSARequestlogging is using directory {}", lc.getLogNCSADirectory());
 
-		// properties based log configuration:
-
-		if (lc.isLogNCSAFormatEnabled()) {
-			String logNCSADirectory = lc.getLogNCSADirectory();
-			String baseName = lc.getLogNCSAFile();
-
-			Bundle bundle = FrameworkUtil.getBundle(UndertowServerController.class);
-			ClassLoader loader = bundle == null ? getClass().getClassLoader()
-					: bundle.adapt(BundleWiring.class).getClassLoader();
-			XnioWorker xnioWorker = undertowFactory.createLogWorker();
-
-			// String logNameSuffix = logNCSAFormat.substring(logNCSAFormat.lastIndexOf("."));
-			// String logBaseName = logNCSAFormat.substring(0, logNCSAFormat.lastIndexOf("."));
-
-			AccessLogReceiver logReceiver = DefaultAccessLogReceiver.builder()
-					.setLogWriteExecutor(xnioWorker)
-					.setOutputDirectory(new File(logNCSADirectory).toPath())
-					.setLogBaseName(baseName)
-					.setLogNameSuffix("log")
-					.setRotate(true)
-					.build();
-
-			String format;
-			// see io.undertow.server.handlers.accesslog.AccessLogHandler.handleCommonNames
-			if (lc.isLogNCSAExtended()) {
-				format = "combined";
-			} else {
-				format = "common";
-			}
+		// properties based log configuration - common access log
+		// (org.ops4j.pax.web.service.spi.accesslog.AccessLogWriter)
+		ncsaLogHandler = new PaxWebAccessLogHandler(rootHandler, lc);
+		rootHandler = ncsaLogHandler;
+	}
 
-			rootHandler = new AccessLogHandler(rootHandler, logReceiver, format,
-					AccessLogHandler.class.getClassLoader());
-		}
+	/**
+	 * Returns the {@link AccessLogWriter} of NCSA access log if it's enabled
+	 * @return
+	 */
+	public AccessLogWriter getAccessLogWriter() {
+		PaxWebAccessLogHandler log = ncsaLogHandler;
+		return log == null ? null : log.getWriter();
 	}
 
 	/**
@@ -1031,6 +1115,9 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 
 		this.listeners.values().forEach(l -> IoUtils.safeClose(l.getAcceptingChannel()));
 
+		restartHandlers.values().forEach(ContextRestartHandler::dispose);
+		restartHandlers.clear();
+
 		servletContainer.listDeployments().forEach(d -> {
 			DeploymentManager deployment = servletContainer.getDeployment(d);
 			if (deployment.getState() != DeploymentManager.State.UNDEPLOYED) {
@@ -1053,6 +1140,15 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 			}
 		});
 		deploymentInfos.clear();
+		if (ncsaLogHandler != null) {
+			ncsaLogHandler.close();
+			ncsaLogHandler = null;
+		}
+		if (globalSessionPersistenceManager instanceof StoreSessionPersistence) {
+			// after the deployments passivated their sessions
+			((StoreSessionPersistence) globalSessionPersistenceManager).getSessionStore().close();
+			globalSessionPersistenceManager = null;
+		}
 		// do not clear osgiContextModels and osgiServletContexts
 		// - they'll be cleared individually through HttpServiceEnabled
 //		osgiServletContexts.clear();
@@ -1087,6 +1183,30 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 		return result.toArray(new ServerEvent.Address[0]);
 	}
 
+	// --- group commit of batches
+
+	/**
+	 * Begins a group of batches - contexts won't be started until {@link #endGroup()}.
+	 */
+	public void beginGroup() {
+		groupInProgress = true;
+	}
+
+	/**
+	 * Ends a group of batches and starts all the contexts which were stopped or not started during the group.
+	 */
+	public void endGroup() {
+		groupInProgress = false;
+		if (deferredStarts.isEmpty()) {
+			return;
+		}
+		List<String> toStart = new ArrayList<>(deferredStarts);
+		deferredStarts.clear();
+		for (String contextPath : toStart) {
+			ensureServletContextStarted(contextPath);
+		}
+	}
+
 	// --- visitor methods for model changes
 
 	@Override
@@ -1158,6 +1278,10 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 			deploymentInfo.setContextPath(contextPath);
 			deploymentInfo.setUrlEncoding(StandardCharsets.UTF_8.name());
 			deploymentInfo.setEagerFilterInit(true);
+			ExecutorService virtualThreadsExecutor = undertowFactory.getVirtualThreadsExecutor(configuration);
+			if (virtualThreadsExecutor != null) {
+				deploymentInfo.setExecutor(virtualThreadsExecutor);
+			}
 			if (configuration.server().isShowStacks()) {
 				deploymentInfo.setServletStackTraces(ServletStackTraces.ALL);
 			} else {
@@ -1186,6 +1310,7 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 			deploymentInfo.addOuterHandlerChainWrapper(preprocessorWrapper);
 
 			PaxWebOuterHandlerWrapper outerWrapper = new PaxWebOuterHandlerWrapper(new OsgiSessionAttributeListener(sessionListenerModels));
+			outerWrapper.setRequestMetricsEnabled(configuration.server().isRequestMetricsEnabled());
 			this.wrappingHandlers.put(contextPath, outerWrapper);
 			deploymentInfo.addOuterHandlerChainWrapper(outerWrapper);
 
@@ -1208,6 +1333,10 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 			deploymentInfo.setServletSessionConfig(ssc);
 
 			deploymentInfo.setSessionPersistenceManager(globalSessionPersistenceManager);
+			if (globalSessionPersistenceManager instanceof StoreSessionPersistence) {
+				// to store changed attributes as they're set
+				deploymentInfo.addSessionListener((StoreSessionPersistence) globalSessionPersistenceManager);
+			}
 
 			// do NOT add&deploy&start the context here - only after registering first "active" web element
 			// only prepare the original (cloned later) DeploymentInfo
@@ -1239,6 +1368,11 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 			deploymentInfos.remove(contextPath);
 			securityHandlers.remove(contextPath);
 			wrappingHandlers.remove(contextPath);
+			ContextRestartHandler restartHandler = restartHandlers.remove(contextPath);
+			if (restartHandler != null) {
+				// the context is not going to be started again, so it'll be unmapped when stopping
+				restartHandler.dispose();
+			}
 
 			// Note: for WAB deployments, this is the last operation of the undeployment batch and all web element
 			// removals are delayed until this step.
@@ -1264,6 +1398,11 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 
 		String contextPath = osgiModel.getContextPath();
 
+		if (change.getKind() == OpCode.DELETE && staticContentCache != null) {
+			// resources of removed context can't be served anymore
+			staticContentCache.invalidate(osgiModel);
+		}
+
 		if (change.getKind() == OpCode.ADD) {
 			LOG.info("Adding {} to deployment info of {}", osgiModel, contextPath);
 
@@ -1681,6 +1820,11 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 	}
 
 	private void removeServletModel(String contextPath, ServletModel model, ServletModelChange change) {
+		if (model.isResourceServlet() && staticContentCache != null) {
+			model.getContextModels().stream().filter(ocm -> contextPath.equals(ocm.getContextPath()))
+					.forEach(staticContentCache::invalidate);
+		}
+
 		// this time we just assume that the servlet context is started
 
 		LOG.info("Removing servlet {} from context {}", model, contextPath);
@@ -1863,6 +2007,8 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 					iterator.remove();
 				}
 			}
+			// pre-built OSGi filter chains contain the preprocessors
+			preprocessorsHandler.invalidateOsgiFilterChains();
 
 			if (manager != null && manager.getState() == DeploymentManager.State.STARTED) {
 				for (PreprocessorFilterConfig fc : toInit) {
@@ -2540,6 +2686,7 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 	public void visitContextStopChange(ContextStopChange change) {
 		String contextPath = change.getContextPath();
 		DeploymentManager manager = getDeploymentManager(contextPath);
+		deferredStarts.remove(contextPath);
 
 		stopUndertowContext(contextPath, manager, null, false);
 	}
@@ -2622,6 +2769,11 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 				|| securityHandlers.get(contextPath).getDefaultOsgiContextModel() == null) {
 			return;
 		}
+		if (groupInProgress) {
+			LOG.debug("Deferring start of Undertow context \"{}\" until the end of registration group", contextPath);
+			deferredStarts.add(contextPath);
+			return;
+		}
 		try {
 			OsgiContextModel highestRanked = securityHandlers.get(contextPath).getDefaultOsgiContextModel();
 			OsgiServletContext highestRankedContext = osgiServletContexts.get(highestRanked);
@@ -2632,6 +2784,7 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 
 			LOG.info("Starting Undertow context \"{}\" with default Osgi Context {}",
 					(contextPath.equals("") ? "/" : contextPath), highestRanked);
+			BatchTrace.contextStarted();
 
 			DynamicRegistrations registrations = this.dynamicRegistrations.get(contextPath);
 
@@ -2945,7 +3098,16 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 			highestRankedDynamicContext.rememberAttributesFromSCIs();
 
 			// actual registration of "context" in Undertow's path handler.
-			pathHandler.addPrefixPath(contextPath, handler);
+			Long holdTimeout = configuration.server().getContextRestartHoldTimeout();
+			if (holdTimeout != null && holdTimeout > 0L) {
+				// the path stays mapped during later restarts, only the target handler is changed
+				ContextRestartHandler restartHandler = restartHandlers.computeIfAbsent(contextPath,
+						cp -> new ContextRestartHandler(new ContextRestartGate(holdTimeout)));
+				restartHandler.started(handler);
+				pathHandler.addPrefixPath(contextPath, restartHandler);
+			} else {
+				pathHandler.addPrefixPath(contextPath, handler);
+			}
 
 			// only now, according to https://docs.osgi.org/specification/osgi.cmpn/7.0.0/service.war.html#d0e100694
 			// register the servlet context
@@ -2953,6 +3115,12 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 		} catch (ServletException e) {
 			throw new IllegalStateException("Can't start Undertow context "
 					+ contextPath + ": " + e.getMessage(), e);
+		} finally {
+			// if the deployment failed to start, held requests get 404
+			ContextRestartHandler restartHandler = restartHandlers.get(contextPath);
+			if (restartHandler != null) {
+				restartHandler.getGate().open();
+			}
 		}
 	}
 
@@ -3110,8 +3278,14 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 	 */
 	private void stopUndertowContext(String contextPath, DeploymentManager manager,
 			DeploymentInfo deploymentInfo, boolean skipPreprocessors) {
-		// let's immediately show that given context is no longer mapped
-		pathHandler.removePrefixPath(contextPath);
+		ContextRestartHandler restartHandler = restartHandlers.get(contextPath);
+		if (restartHandler != null) {
+			// the context stays mapped and the requests wait until it's started again
+			restartHandler.stopping();
+		} else {
+			// let's immediately show that given context is no longer mapped
+			pathHandler.removePrefixPath(contextPath);
+		}
 
 		try {
 			// manager needs to stop the deployment and get rid of it, because we
@@ -35,8 +35,10 @@ import io.undertow.server.handlers.resource.Resource;
 import io.undertow.server.handlers.resource.ResourceChangeListener;
 import io.undertow.server.handlers.resource.ResourceManager;
 import io.undertow.servlet.spec.HttpServletRequestImpl;
+import io.undertow.servlet.spec.ServletOutputStreamImpl;
 import org.ops4j.pax.web.service.spi.servlet.OsgiScopedServletContext;
 import org.ops4j.pax.web.service.spi.servlet.OsgiServletContext;
+import org.ops4j.pax.web.service.spi.servlet.StaticContentCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -82,6 +84,9 @@ public class UndertowResourceServlet extends DefaultServlet implements ResourceM
 	private Integer maxSize;
 	private Integer maxAge;
 
+	private StaticContentCache staticContentCache;
+	private StaticContentCache.Source staticContent;
+
 	public UndertowResourceServlet(File baseDirectory, String chroot) {
 		this.baseDirectory = baseDirectory;
 		this.chroot = chroot;
@@ -191,6 +196,26 @@ public class UndertowResourceServlet extends DefaultServlet implements ResourceM
 			// it's important to get ServletContext from the passed config!
 			this.resourceManager = new OsgiResourceManager(chroot, config.getServletContext());
 		}
+
+		if (staticContentCache != null) {
+			staticContent = staticContentCache.source(osgiScopedServletContext, baseDirectory, chroot, pathInfoOnly,
+					(out, buffer) -> {
+						if (out instanceof ServletOutputStreamImpl) {
+							((ServletOutputStreamImpl) out).write(buffer);
+							return true;
+						}
+						return false;
+					});
+		}
+	}
+
+	/**
+	 * Sets the cache shared by all resource servlets, which is checked before Undertow's own
+	 * {@link CachingResourceManager}.
+	 * @param staticContentCache
+	 */
+	public void setStaticContentCache(StaticContentCache staticContentCache) {
+		this.staticContentCache = staticContentCache;
 	}
 
 	private void configureCache() {
@@ -225,6 +250,9 @@ public class UndertowResourceServlet extends DefaultServlet implements ResourceM
 		}
 
 		if (requestURI == null || !requestURI.endsWith("/")) {
+			if (staticContent != null && staticContent.serve(req, resp)) {
+				return;
+			}
 			super.doGet(req, resp);
 			return;
 		}
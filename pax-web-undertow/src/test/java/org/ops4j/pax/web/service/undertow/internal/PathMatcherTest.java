@@ -0,0 +1,89 @@
+/*
+ * Copyright 2025 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.undertow.internal;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PathMatcherTest {
+
+	private static final String[] CONTEXTS = {
+			"/a", "/ab", "/a/b", "/a/b/c", "/abc/d", "/b", "/app1/module-1", "/app1/module-10", "/app1/module-100"
+	};
+
+	private static final String[] REQUESTS = {
+			"/", "/a", "/a/", "/ab", "/ab/x", "/abc", "/abc/", "/abc/d", "/abc/de", "/abc/d/e", "/a/b", "/a/bc",
+			"/a/b/", "/a/b/c/d", "/b/", "/bb", "/c", "/app1/module-1", "/app1/module-1/x", "/app1/module-10/x",
+			"/app1/module-1000", "/app1/module-100/s/t.css", "/app1/module-"
+	};
+
+	@Test
+	public void sameMatchesAsUndertow() {
+		Object defaultHandler = new Object();
+		io.undertow.util.PathMatcher<Object> undertow = new io.undertow.util.PathMatcher<>(defaultHandler);
+		PathMatcher<Object> matcher = new PathMatcher<>(defaultHandler);
+		for (String context : CONTEXTS) {
+			Object handler = new Object();
+			undertow.addPrefixPath(context, handler);
+			matcher.addPrefixPath(context, handler);
+		}
+		Object exact = new Object();
+		undertow.addExactPath("/ab/exact", exact);
+		matcher.addExactPath("/ab/exact/", exact);
+
+		check(undertow, matcher);
+		check(undertow, matcher, "/ab/exact", "/ab/exact/");
+
+		undertow.removePrefixPath("/a/b");
+		matcher.removePrefixPath("/a/b");
+		undertow.removeExactPath("/ab/exact");
+		matcher.removeExactPath("/ab/exact");
+		check(undertow, matcher);
+		check(undertow, matcher, "/ab/exact", "/ab/exact/");
+	}
+
+	@Test
+	public void routesAreReused() {
+		PathMatcher<Object> matcher = new PathMatcher<>();
+		Object handler = new Object();
+		matcher.addPrefixPath("/c1", handler);
+
+		PathMatcher.Route<Object> route = matcher.route("/c1/s1");
+		assertThat(matcher.route("/c1/s2"), sameInstance(route));
+		assertThat(matcher.route("/c1"), sameInstance(route));
+		assertThat(route.remaining("/c1"), equalTo(""));
+		assertThat(route.remaining("/c1/s1"), equalTo("/s1"));
+
+		assertThat(matcher.route("/c2").getValue(), nullValue());
+		matcher.clearPaths();
+		assertThat(matcher.route("/c1").getValue(), nullValue());
+	}
+
+	private void check(io.undertow.util.PathMatcher<Object> undertow, PathMatcher<Object> matcher, String... requests) {
+		for (String path : requests.length == 0 ? REQUESTS : requests) {
+			io.undertow.util.PathMatcher.PathMatch<Object> expected = undertow.match(path);
+			PathMatcher.PathMatch<Object> actual = matcher.match(path);
+			assertThat(path, actual.getValue(), sameInstance(expected.getValue()));
+			assertThat(path, actual.getMatched(), equalTo(expected.getMatched()));
+			assertThat(path, actual.getRemaining(), equalTo(expected.getRemaining()));
+		}
+	}
+
+}